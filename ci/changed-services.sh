@@ -41,6 +41,11 @@ fi
 
 CHANGED_PATHS="$(git diff --name-only "${BASE_REF}...${HEAD_REF}" || true)"
 
+# shared libraries are built into every service that includes them
+if grep -qE "^libs/" <<< "${CHANGED_PATHS}"; then
+  print_all_and_exit
+fi
+
 CHANGED_SERVICES=()
 if [ -n "${CHANGED_PATHS}" ]; then
   for svc in "${ALL_SERVICES[@]}"; do
@@ -1,4 +1,5 @@
 import axios from "axios";
+import dayjs from "dayjs";
 
 const baseURL =
   (import.meta.env.VITE_API_BASE_URL &&
@@ -33,3 +34,9 @@ API.interceptors.response.use(
     return Promise.reject(err);
   }
 );
+
+// GET /trainings returns upcoming sessions unless a range is given; views that
+// list past trainings (feedback, enrollments) ask for the last year as well.
+export const trainingHistoryParams = () => ({
+  from: dayjs().subtract(1, "year").format("YYYY-MM-DDTHH:mm:ss"),
+});
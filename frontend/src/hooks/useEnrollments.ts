@@ -3,8 +3,9 @@ import { API } from "../api";
 
 export type Enrollment = {
   trainingId: number;
-  status?: "ACTIVE" | "CANCELLED";
+  status?: "ACTIVE" | "WAITLISTED" | "CANCELLED";
   enrolledAt?: string;
+  waitlistPosition?: number;
 };
 
 type BackendEnrollment =
@@ -18,12 +19,13 @@ type BackendEnrollment =
         description?: string;
       };
       enrolledAt?: string;
-      status?: "ACTIVE" | "CANCELLED";
+      status?: "ACTIVE" | "WAITLISTED" | "CANCELLED";
+      waitlistPosition?: number;
     }
   | {
       trainingId: number;
       enrolledAt?: string;
-      status?: "ACTIVE" | "CANCELLED";
+      status?: "ACTIVE" | "WAITLISTED" | "CANCELLED";
     };
 
 const toClient = (arr: unknown): Enrollment[] => {
@@ -43,6 +45,7 @@ const toClient = (arr: unknown): Enrollment[] => {
         trainingId,
         status: (e as any).status ?? "ACTIVE",
         enrolledAt: (e as any).enrolledAt ?? undefined,
+        waitlistPosition: (e as any).waitlistPosition ?? undefined,
       } as Enrollment;
     })
     .filter(Boolean) as Enrollment[];
@@ -1,5 +1,5 @@
 import { useEffect, useMemo, useState } from "react";
-import { API } from "../api";
+import { API, trainingHistoryParams } from "../api";
 import dayjs from "dayjs";
 import { useTranslation } from "react-i18next";
 
@@ -98,7 +98,7 @@ const AdminEnrollments = () => {
         setLoadingLists(true);
 
         const [trRes, usersRes] = await Promise.all([
-          API.get("/trainings"),
+          API.get("/trainings", { params: trainingHistoryParams() }),
           (async () => {
             const clubName = localStorage.getItem("selectedClub");
             if (clubName) {
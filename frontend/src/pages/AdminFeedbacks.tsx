@@ -1,7 +1,7 @@
 import { useEffect, useMemo, useState } from "react";
 import dayjs from "dayjs";
 import { useTranslation } from "react-i18next";
-import { API } from "../api";
+import { API, trainingHistoryParams } from "../api";
 import {
   listFeedbacksByTraining,
   listFeedbacksByUser,
@@ -68,7 +68,7 @@ export default function AdminFeedbacks() {
         setLoadingLists(true);
         const clubName = localStorage.getItem("selectedClub");
         const [trRes, usersRes] = await Promise.all([
-          API.get("/trainings"),
+          API.get("/trainings", { params: trainingHistoryParams() }),
           clubName
             ? API.get(`/users/by-club?clubName=${encodeURIComponent(clubName)}`)
             : Promise.resolve({ data: [] }),
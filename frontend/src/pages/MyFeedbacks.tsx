@@ -1,5 +1,5 @@
 import { useEffect, useState } from "react";
-import { API } from "../api";
+import { API, trainingHistoryParams } from "../api";
 import dayjs from "dayjs";
 import { useTranslation } from "react-i18next";
 import type { Feedback } from "../hooks/useFeedbacks";
@@ -26,7 +26,7 @@ const MyFeedbacks = () => {
         } catch {
           const [enr, allTr] = await Promise.all([
             API.get("/enrollments/me"),
-            API.get("/trainings"),
+            API.get("/trainings", { params: trainingHistoryParams() }),
           ]);
           const byId = new Map<number, any>();
           (allTr.data as any[]).forEach((t) => {
@@ -1,6 +1,6 @@
 import { useEffect, useMemo, useState } from "react";
 import dayjs from "dayjs";
-import { API } from "../api";
+import { API, trainingHistoryParams } from "../api";
 import { useTranslation } from "react-i18next";
 import { useEnrollments } from "../hooks/useEnrollments";
 import { useNavigate } from "react-router-dom";
@@ -58,7 +58,7 @@ const MyTrainings = () => {
   useEffect(() => {
     setTrainLoading(true);
     setTrainError(null);
-    API.get("/trainings")
+    API.get("/trainings", { params: trainingHistoryParams() })
       .then((res) => setAllTrainings(toTrainings(res.data)))
       .catch(() =>
         setTrainError(t("failedToLoadTrainings") || "Failed to load trainings")
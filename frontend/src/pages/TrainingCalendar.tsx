@@ -46,7 +46,14 @@ const TrainingCalendar = () => {
     setLoading(true);
     setError(null);
 
-    API.get("/trainings")
+    const from = currentDate.startOf("month").subtract(1, "week");
+    const to = currentDate.endOf("month").add(1, "week");
+    API.get("/trainings", {
+      params: {
+        from: from.format("YYYY-MM-DDTHH:mm:ss"),
+        to: to.format("YYYY-MM-DDTHH:mm:ss"),
+      },
+    })
       .then((res) => {
         const data = res.data;
         if (!Array.isArray(data)) throw new Error("Invalid response format");
@@ -69,7 +76,8 @@ const TrainingCalendar = () => {
         setError("Failed to load trainings.");
       })
       .finally(() => setLoading(false));
-  }, []);
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [currentDate.format("YYYY-MM")]);
 
   const filteredTrainings = trainings.filter((t) =>
     t.description.toLowerCase().includes(search.toLowerCase())
@@ -0,0 +1,104 @@
+package com.karate.outbox.jmh;
+
+import com.karate.outbox.OutboxProperties;
+import com.karate.outbox.OutboxPublisher;
+import com.karate.outbox.OutboxRelay;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to drain {@link #MESSAGES} outbox rows into an embedded Kafka broker. A batch size of 1
+ * with no linger is the per-message send-and-mark pattern; larger batches exercise the
+ * claim/flush/bulk-mark path with lz4 compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OutboxRelayBenchmark {
+
+    private static final int MESSAGES = 2_000;
+
+    @Param({"1", "100", "500"})
+    public int batchSize;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private JdbcTemplate jdbc;
+    private OutboxPublisher publisher;
+    private OutboxRelay relay;
+    private String topic;
+
+    public record BenchmarkEvent(String eventId, String eventType, Instant timestamp, Long userId, String email) {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        topic = "outbox-bench-" + batchSize;
+        broker = new EmbeddedKafkaKraftBroker(1, 3, topic);
+        broker.afterPropertiesSet();
+
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE outbox_events (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    topic VARCHAR(255) NOT NULL,
+                    message_key VARCHAR(255),
+                    payload CLOB NOT NULL,
+                    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                    sent_at TIMESTAMP WITH TIME ZONE,
+                    attempts INT DEFAULT 0 NOT NULL,
+                    last_error VARCHAR(500),
+                    next_attempt_at TIMESTAMP WITH TIME ZONE,
+                    parked_at TIMESTAMP WITH TIME ZONE
+                )""");
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        var properties = new OutboxProperties("outbox_events", Duration.ofDays(7), new OutboxProperties.Relay(
+                true, batchSize, Duration.ofSeconds(30), batchSize == 1 ? 0 : 5, 262_144, batchSize == 1 ? "none" : "lz4",
+                Duration.ofSeconds(60), 10));
+        publisher = new OutboxPublisher(jdbc, transactionManager, JacksonUtils.enhancedObjectMapper(),
+                Clock.systemUTC(), properties);
+        relay = new OutboxRelay(jdbc, transactionManager,
+                Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()),
+                Clock.systemUTC(), properties);
+    }
+
+    @Setup(Level.Iteration)
+    public void fillOutbox() {
+        jdbc.update("DELETE FROM outbox_events");
+        for (int i = 0; i < MESSAGES; i++) {
+            publisher.publish(topic, String.valueOf(i), new BenchmarkEvent(
+                    UUID.randomUUID().toString(), "USER_REGISTERED", Instant.now(), (long) i, "user" + i + "@example.com"));
+        }
+    }
+
+    @Benchmark
+    public int drain() {
+        int sent = 0;
+        int batch;
+        while ((batch = relay.relayBatch()) > 0) {
+            sent += batch;
+        }
+        if (sent != MESSAGES) {
+            throw new IllegalStateException("Relayed " + sent + " of " + MESSAGES);
+        }
+        return sent;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        relay.destroy();
+        broker.destroy();
+    }
+}
@@ -0,0 +1,62 @@
+package com.karate.outbox;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+        "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration",
+        "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+        "org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration"
+})
+@ConditionalOnClass({KafkaTemplate.class, JdbcTemplate.class})
+@ConditionalOnBean({DataSource.class, PlatformTransactionManager.class, KafkaProperties.class})
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxPublisher outboxPublisher(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                           ObjectProvider<Clock> clock, OutboxProperties properties) {
+        // same mapper JsonSerializer uses, so consumers see the payload exactly as before
+        return new OutboxPublisher(new JdbcTemplate(dataSource), transactionManager,
+                JacksonUtils.enhancedObjectMapper(), clock.getIfAvailable(Clock::systemUTC), properties);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableScheduling
+    @ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    static class RelayConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public OutboxRelay outboxRelay(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                       KafkaProperties kafkaProperties, ObjectProvider<Clock> clock,
+                                       OutboxProperties properties) {
+            return new OutboxRelay(new JdbcTemplate(dataSource), transactionManager,
+                    kafkaProperties.buildProducerProperties(null), clock.getIfAvailable(Clock::systemUTC), properties);
+        }
+
+        @Bean
+        public OutboxRelayScheduler outboxRelayScheduler(OutboxRelay relay, OutboxProperties properties,
+                                                         ObjectProvider<Clock> clock) {
+            return new OutboxRelayScheduler(relay, properties, clock.getIfAvailable(Clock::systemUTC));
+        }
+    }
+}
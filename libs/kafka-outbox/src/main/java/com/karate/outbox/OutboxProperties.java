@@ -0,0 +1,25 @@
+package com.karate.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxProperties(
+        @DefaultValue("outbox_events") String table,
+        @DefaultValue("7d") Duration retention,
+        @DefaultValue Relay relay
+) {
+    public record Relay(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("500") int batchSize,
+            @DefaultValue("10s") Duration sendTimeout,
+            @DefaultValue("20") int lingerMs,
+            @DefaultValue("262144") int batchBytes,
+            @DefaultValue("lz4") String compressionType,
+            @DefaultValue("60s") Duration claimLease,
+            @DefaultValue("10") int maxAttempts
+    ) {
+    }
+}
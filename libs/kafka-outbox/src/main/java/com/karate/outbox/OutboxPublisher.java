@@ -0,0 +1,69 @@
+package com.karate.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write side of the outbox. Services call {@link #publish} instead of {@code KafkaTemplate#send};
+ * the row joins the caller's transaction, so the message goes out if and only if that
+ * transaction commits. {@link OutboxRelay} does the actual send.
+ */
+@Slf4j
+public class OutboxPublisher {
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final String insertSql;
+
+    public OutboxPublisher(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper, Clock clock, OutboxProperties properties) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.insertSql = "INSERT INTO " + properties.table()
+                + " (topic, message_key, payload, created_at) VALUES (?, ?, ?, ?)";
+    }
+
+    public void publish(String topic, String key, Object payload) {
+        String json = serialize(payload);
+        OffsetDateTime now = OffsetDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+        tx.executeWithoutResult(status -> jdbc.update(insertSql, topic, key, json, now));
+        log.debug("Outbox enqueue topic={} key={} type={}", topic, key, payload.getClass().getSimpleName());
+    }
+
+    /**
+     * Enqueues several messages with one JDBC batch; keys are kept in iteration order, so pass an
+     * ordered map when the relative order of the messages matters.
+     */
+    public void publishAll(String topic, Map<String, ?> payloadsByKey) {
+        if (payloadsByKey.isEmpty()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+        List<Object[]> rows = payloadsByKey.entrySet().stream()
+                .map(e -> new Object[]{topic, e.getKey(), serialize(e.getValue()), now})
+                .toList();
+        tx.executeWithoutResult(status -> jdbc.batchUpdate(insertSql, rows));
+        log.debug("Outbox enqueue topic={} messages={}", topic, rows.size());
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload " + payload.getClass().getName(), e);
+        }
+    }
+}
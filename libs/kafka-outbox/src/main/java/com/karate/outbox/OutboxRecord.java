@@ -0,0 +1,4 @@
+package com.karate.outbox;
+
+record OutboxRecord(long id, String topic, String key, String payload, int attempts) {
+}
@@ -0,0 +1,240 @@
+package com.karate.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox rows in batches. A batch is claimed in a short transaction with
+ * {@code FOR UPDATE SKIP LOCKED} that pushes the rows' {@code next_attempt_at} past the claim lease,
+ * so several instances can relay the same table without sending a row twice and no lock or
+ * connection is held while the producer waits on the broker. The whole batch is handed to the
+ * producer before a single flush, and sent rows are marked with one statement. A row whose send
+ * failed is retried with exponential backoff; after {@code outbox.relay.max-attempts} it is parked
+ * ({@code parked_at} set) and left for an operator instead of being retried forever. A relay that
+ * dies mid-batch leaves its rows to be claimed again once the lease expires.
+ * <p>
+ * Rows sharing a topic and message key are published strictly in id order: a row is only claimed
+ * once every older row of its key is sent, so a batch carries at most one row per key, and a row
+ * waiting for a retry or parked holds back the rest of its key until it is sent or an operator
+ * resolves it. Consumers relying on per-key order (last-writer-wins projections, paired events)
+ * therefore never see a later event before an earlier one, nor one that skipped a gap.
+ */
+@Slf4j
+public class OutboxRelay implements DisposableBean {
+    private static final RowMapper<OutboxRecord> ROW_MAPPER = (rs, i) -> new OutboxRecord(
+            rs.getLong("id"),
+            rs.getString("topic"),
+            rs.getString("message_key"),
+            rs.getString("payload"),
+            rs.getInt("attempts")
+    );
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate tx;
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimLease;
+    private final int maxAttempts;
+    private final String claimSql;
+    private final String leaseSql;
+    private final String markSentSql;
+    private final String retrySql;
+    private final String parkSql;
+    private final String purgeSql;
+
+    public OutboxRelay(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                       Map<String, Object> producerProperties, Clock clock, OutboxProperties properties) {
+        this.jdbc = jdbc;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbc);
+        this.tx = new TransactionTemplate(transactionManager);
+        this.producerFactory = new DefaultKafkaProducerFactory<>(producerConfig(producerProperties, properties.relay()),
+                new StringSerializer(), new StringSerializer());
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.clock = clock;
+        this.batchSize = properties.relay().batchSize();
+        this.sendTimeout = properties.relay().sendTimeout();
+        this.claimLease = properties.relay().claimLease();
+        this.maxAttempts = properties.relay().maxAttempts();
+
+        String table = properties.table();
+        // a keyed row waits while an older row of its key is unsent, leased or parked, so one key's
+        // events leave in order and never with a gap
+        this.claimSql = "SELECT id, topic, message_key, payload, attempts FROM " + table + " o"
+                + " WHERE sent_at IS NULL AND parked_at IS NULL AND (next_attempt_at IS NULL OR next_attempt_at <= ?)"
+                + " AND (message_key IS NULL OR NOT EXISTS (SELECT 1 FROM " + table + " p"
+                + " WHERE p.topic = o.topic AND p.message_key = o.message_key AND p.sent_at IS NULL AND p.id < o.id))"
+                + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+        this.leaseSql = "UPDATE " + table + " SET next_attempt_at = :leaseUntil WHERE id IN (:ids)";
+        this.markSentSql = "UPDATE " + table + " SET sent_at = :sentAt, attempts = attempts + 1 WHERE id IN (:ids)";
+        this.retrySql = "UPDATE " + table
+                + " SET attempts = attempts + 1, last_error = ?, next_attempt_at = ? WHERE id = ?";
+        this.parkSql = "UPDATE " + table + " SET attempts = attempts + 1, last_error = ?, parked_at = ? WHERE id = ?";
+        this.purgeSql = "DELETE FROM " + table + " WHERE sent_at < ?";
+    }
+
+    /**
+     * The service's own producer settings with the relay's serializers and batching applied:
+     * the payload is already JSON, and batches are worth lingering for and compressing.
+     */
+    static Map<String, Object> producerConfig(Map<String, Object> base, OutboxProperties.Relay relay) {
+        Map<String, Object> config = new HashMap<>(base);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, relay.lingerMs());
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, relay.batchBytes());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, relay.compressionType());
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return config;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Claims and publishes one batch.
+     *
+     * @return number of rows marked as sent
+     */
+    public int relayBatch() {
+        List<OutboxRecord> batch = claim();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long t0 = System.currentTimeMillis();
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+        for (OutboxRecord record : batch) {
+            futures.add(send(record));
+        }
+        kafkaTemplate.flush();
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<Object[]> retries = new ArrayList<>();
+        List<Object[]> parked = new ArrayList<>();
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        OffsetDateTime now = OffsetDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+        String firstError = null;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxRecord record = batch.get(i);
+            String error;
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(record.id());
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = "interrupted";
+            } catch (ExecutionException | TimeoutException e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                error = truncate(cause.toString());
+            }
+            firstError = firstError != null ? firstError : error;
+            int attempts = record.attempts() + 1;
+            if (attempts >= maxAttempts) {
+                parked.add(new Object[]{error, now, record.id()});
+                log.error("Outbox row parked after {} attempts id={} topic={} error={}",
+                        attempts, record.id(), record.topic(), error);
+            } else {
+                retries.add(new Object[]{error, now.plus(backoff(attempts)), record.id()});
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            namedJdbc.update(markSentSql, Map.of(
+                    "sentAt", now,
+                    "ids", sentIds));
+        }
+        if (!retries.isEmpty()) {
+            jdbc.batchUpdate(retrySql, retries);
+        }
+        if (!parked.isEmpty()) {
+            jdbc.batchUpdate(parkSql, parked);
+        }
+        if (firstError != null) {
+            log.warn("Outbox relay batch partially failed sent={} retried={} parked={} firstError={}",
+                    sentIds.size(), retries.size(), parked.size(), firstError);
+        }
+        log.debug("Outbox relay batch claimed={} sent={} took={}ms",
+                batch.size(), sentIds.size(), System.currentTimeMillis() - t0);
+        return sentIds.size();
+    }
+
+    private List<OutboxRecord> claim() {
+        List<OutboxRecord> batch = tx.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+            List<OutboxRecord> due = jdbc.query(claimSql, ROW_MAPPER, now, batchSize);
+            if (!due.isEmpty()) {
+                namedJdbc.update(leaseSql, Map.of(
+                        "leaseUntil", now.plus(claimLease),
+                        "ids", due.stream().map(OutboxRecord::id).toList()));
+            }
+            return due;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    static Duration backoff(int attempts) {
+        long seconds = 1L << Math.min(attempts, 20);
+        return seconds >= MAX_BACKOFF.toSeconds() ? MAX_BACKOFF : Duration.ofSeconds(seconds);
+    }
+
+    /**
+     * Deletes rows sent before {@code cutoff}.
+     *
+     * @return number of rows removed
+     */
+    public int purgeSentBefore(Instant cutoff) {
+        int purged = jdbc.update(purgeSql, OffsetDateTime.ofInstant(cutoff, ZoneOffset.UTC));
+        if (purged > 0) {
+            log.info("Outbox purge removed={} sentBefore={}", purged, cutoff);
+        }
+        return purged;
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxRecord record) {
+        try {
+            return kafkaTemplate.send(record.topic(), record.key(), record.payload());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.destroy();
+    }
+}
@@ -0,0 +1,37 @@
+package com.karate.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxRelayScheduler {
+
+    private final OutboxRelay relay;
+    private final OutboxProperties properties;
+    private final Clock clock;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:200}")
+    public void relayPending() {
+        try {
+            int sent;
+            do {
+                sent = relay.relayBatch();
+            } while (sent == relay.batchSize());
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay poll failed reason={}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${outbox.purge-cron:0 15 * * * *}")
+    public void purgeSent() {
+        try {
+            relay.purgeSentBefore(clock.instant().minus(properties.retention()));
+        } catch (RuntimeException e) {
+            log.warn("Outbox purge failed reason={}", e.getMessage());
+        }
+    }
+}
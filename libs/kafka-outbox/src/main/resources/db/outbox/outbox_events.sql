@@ -0,0 +1,20 @@
+-- Template: copy into the service's db/migration with its next version number.
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id              BIGSERIAL PRIMARY KEY,
+    topic           VARCHAR(255)             NOT NULL,
+    message_key     VARCHAR(255),
+    payload         TEXT                     NOT NULL,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    sent_at         TIMESTAMP WITH TIME ZONE,
+    attempts        INT                      NOT NULL DEFAULT 0,
+    last_error      VARCHAR(500),
+    next_attempt_at TIMESTAMP WITH TIME ZONE,
+    parked_at       TIMESTAMP WITH TIME ZONE
+);
+
+-- serves both the relay claim (sent_at IS NULL ORDER BY id) and the purge (sent_at < ?)
+CREATE INDEX IF NOT EXISTS idx_outbox_events_sent_at_id ON outbox_events (sent_at, id);
+
+-- serves the relay's per-key ordering check (an older unsent row of the same topic and key)
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unsent_key ON outbox_events (topic, message_key, sent_at, id);
@@ -0,0 +1,330 @@
+package com.karate.outbox;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboxRelayTest {
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    private String topic;
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+    private OutboxPublisher publisher;
+    private final List<OutboxRelay> relays = new ArrayList<>();
+
+    record SampleEvent(String eventId, String eventType, Long userId) {
+    }
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 2);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        topic = "outbox-" + UUID.randomUUID();
+        broker.addTopics(topic);
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE outbox_events (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    topic VARCHAR(255) NOT NULL,
+                    message_key VARCHAR(255),
+                    payload CLOB NOT NULL,
+                    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                    sent_at TIMESTAMP WITH TIME ZONE,
+                    attempts INT DEFAULT 0 NOT NULL,
+                    last_error VARCHAR(500),
+                    next_attempt_at TIMESTAMP WITH TIME ZONE,
+                    parked_at TIMESTAMP WITH TIME ZONE
+                )""");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        publisher = new OutboxPublisher(jdbc, transactionManager, JacksonUtils.enhancedObjectMapper(),
+                Clock.system(ZoneOffset.UTC), properties(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        relays.forEach(OutboxRelay::destroy);
+        jdbc.execute("SHUTDOWN");
+    }
+
+    private static OutboxProperties properties(int batchSize) {
+        return new OutboxProperties("outbox_events", Duration.ofDays(7),
+                new OutboxProperties.Relay(true, batchSize, Duration.ofSeconds(10), 5, 65536, "lz4", Duration.ofSeconds(60), 3));
+    }
+
+    private OutboxRelay relay(int batchSize, Map<String, Object> producerProperties) {
+        OutboxRelay relay = new OutboxRelay(jdbc, transactionManager, producerProperties,
+                Clock.system(ZoneOffset.UTC), properties(batchSize));
+        relays.add(relay);
+        return relay;
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        return relay(batchSize, Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+    }
+
+    private List<ConsumerRecord<String, String>> consume(int expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("g-" + UUID.randomUUID(), "false", broker);
+        List<ConsumerRecord<String, String>> received = new ArrayList<>();
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            broker.consumeFromAnEmbeddedTopic(consumer, topic);
+            long deadline = System.currentTimeMillis() + 15_000;
+            while (received.size() < expected && System.currentTimeMillis() < deadline) {
+                ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(2));
+                records.forEach(received::add);
+            }
+            // give a duplicate the chance to show up
+            KafkaTestUtils.getRecords(consumer, Duration.ofMillis(500)).forEach(received::add);
+        }
+        return received;
+    }
+
+    private int unsent() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE sent_at IS NULL", Integer.class);
+    }
+
+    @Test
+    void publish_isRolledBackWithCallerTransaction() {
+        // given
+        var tx = new TransactionTemplate(transactionManager);
+
+        // when
+        assertThatThrownBy(() -> tx.executeWithoutResult(status -> {
+            publisher.publish(topic, "1", new SampleEvent("e-1", "USER_DELETED", 1L));
+            throw new IllegalStateException("business failure");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class)).isZero();
+    }
+
+    @Test
+    void relayBatch_sendsJsonPayloadWithKey_andMarksRowsSent() {
+        // given
+        publisher.publish(topic, "7", new SampleEvent("e-7", "USER_DELETED", 7L));
+
+        // when
+        int sent = relay(50).relayBatch();
+
+        // then
+        assertThat(sent).isEqualTo(1);
+        assertThat(unsent()).isZero();
+        List<ConsumerRecord<String, String>> received = consume(1);
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).key()).isEqualTo("7");
+        assertThat(received.get(0).value()).isEqualTo("{\"eventId\":\"e-7\",\"eventType\":\"USER_DELETED\",\"userId\":7}");
+    }
+
+    @Test
+    void concurrentRelays_publishEveryRowExactlyOnce() throws Exception {
+        // given
+        int total = 600;
+        for (int i = 0; i < total; i++) {
+            publisher.publish(topic, String.valueOf(i), new SampleEvent("e-" + i, "USER_DELETED", (long) i));
+        }
+        List<OutboxRelay> instances = List.of(relay(40), relay(40), relay(40));
+
+        // when
+        ExecutorService pool = Executors.newFixedThreadPool(instances.size());
+        List<Future<Integer>> results = new ArrayList<>();
+        for (OutboxRelay instance : instances) {
+            results.add(pool.submit(() -> {
+                int sent = 0;
+                int batch;
+                while ((batch = instance.relayBatch()) > 0) {
+                    sent += batch;
+                }
+                return sent;
+            }));
+        }
+        int sent = 0;
+        for (Future<Integer> result : results) {
+            sent += result.get();
+        }
+        pool.shutdown();
+
+        // then
+        assertThat(sent).isEqualTo(total);
+        assertThat(unsent()).isZero();
+        List<ConsumerRecord<String, String>> received = consume(total);
+        assertThat(received).hasSize(total);
+        assertThat(received).extracting(ConsumerRecord::key).doesNotHaveDuplicates();
+    }
+
+    private OutboxRelay unreachableRelay() {
+        return relay(50, Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:1",
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, 300));
+    }
+
+    @Test
+    void relayBatch_keepsRowsUnsent_andRecordsError_whenBrokerUnreachable() {
+        // given
+        publisher.publish(topic, "1", new SampleEvent("e-1", "USER_DELETED", 1L));
+        OutboxRelay unreachable = new OutboxRelay(jdbc, transactionManager, Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:1",
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, 300),
+                Clock.system(ZoneOffset.UTC),
+                new OutboxProperties("outbox_events", Duration.ofDays(7),
+                        new OutboxProperties.Relay(true, 50, Duration.ofSeconds(1), 5, 65536, "lz4",
+                                Duration.ofSeconds(60), 3)));
+        relays.add(unreachable);
+
+        // when
+        int sent = unreachable.relayBatch();
+
+        // then
+        assertThat(sent).isZero();
+        assertThat(unsent()).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT attempts FROM outbox_events", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT last_error FROM outbox_events", String.class)).isNotBlank();
+        assertThat(jdbc.queryForObject("SELECT next_attempt_at FROM outbox_events", OffsetDateTime.class))
+                .isAfter(OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    @Test
+    void relayBatch_skipsRowsBackingOffOrLeasedByAnotherRelay_untilTheyAreDue() {
+        // given
+        publisher.publish(topic, "1", new SampleEvent("e-1", "USER_DELETED", 1L));
+        jdbc.update("UPDATE outbox_events SET next_attempt_at = ?",
+                OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(1));
+        OutboxRelay relay = relay(50);
+
+        // when
+        int whileLeased = relay.relayBatch();
+        jdbc.update("UPDATE outbox_events SET next_attempt_at = ?",
+                OffsetDateTime.now(ZoneOffset.UTC).minusSeconds(1));
+        int onceDue = relay.relayBatch();
+
+        // then
+        assertThat(whileLeased).isZero();
+        assertThat(onceDue).isEqualTo(1);
+        assertThat(unsent()).isZero();
+    }
+
+    @Test
+    void relayBatch_parksRowAfterMaxAttempts_andKeepsRelayingTheRowsBehindIt() {
+        // given
+        publisher.publish(topic, "1", new SampleEvent("e-1", "USER_DELETED", 1L));
+        jdbc.update("UPDATE outbox_events SET attempts = 2");
+        unreachableRelay().relayBatch();
+        publisher.publish(topic, "2", new SampleEvent("e-2", "USER_DELETED", 2L));
+
+        // when
+        int sent = relay(50).relayBatch();
+
+        // then
+        assertThat(sent).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT attempts FROM outbox_events WHERE message_key = '1'", Integer.class))
+                .isEqualTo(3);
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE message_key = '1' AND sent_at IS NULL AND parked_at IS NOT NULL",
+                Integer.class)).isEqualTo(1);
+        assertThat(consume(1)).extracting(ConsumerRecord::key).containsExactly("2");
+    }
+
+    @Test
+    void relayBatch_holdsBackLaterRowsOfAKey_untilTheFailedOlderRowIsSent() {
+        // given: the first event of key 1 failed and waits for its retry
+        publisher.publish(topic, "1", new SampleEvent("e-1", "USER_ENROLLED", 1L));
+        unreachableRelay().relayBatch();
+        publisher.publish(topic, "1", new SampleEvent("e-2", "USER_UNENROLLED", 1L));
+        publisher.publish(topic, "2", new SampleEvent("e-3", "USER_ENROLLED", 2L));
+        OutboxRelay relay = relay(50);
+
+        // when
+        int whileRetryPending = relay.relayBatch();
+        jdbc.update("UPDATE outbox_events SET next_attempt_at = ? WHERE message_key = '1' AND attempts = 1",
+                OffsetDateTime.now(ZoneOffset.UTC).minusSeconds(1));
+        int retried = relay.relayBatch();
+        int rest = relay.relayBatch();
+
+        // then
+        assertThat(whileRetryPending).isEqualTo(1);
+        assertThat(retried).isEqualTo(1);
+        assertThat(rest).isEqualTo(1);
+        assertThat(unsent()).isZero();
+        List<ConsumerRecord<String, String>> received = consume(3);
+        assertThat(received).hasSize(3);
+        assertThat(received).filteredOn(r -> "1".equals(r.key())).extracting(ConsumerRecord::value)
+                .containsExactly(
+                        "{\"eventId\":\"e-1\",\"eventType\":\"USER_ENROLLED\",\"userId\":1}",
+                        "{\"eventId\":\"e-2\",\"eventType\":\"USER_UNENROLLED\",\"userId\":1}");
+    }
+
+    @Test
+    void relayBatch_keepsAParkedRowsKeyHeldBack() {
+        // given
+        publisher.publish(topic, "1", new SampleEvent("e-1", "USER_ENROLLED", 1L));
+        jdbc.update("UPDATE outbox_events SET attempts = 2");
+        unreachableRelay().relayBatch();
+        publisher.publish(topic, "1", new SampleEvent("e-2", "USER_UNENROLLED", 1L));
+
+        // when
+        int sent = relay(50).relayBatch();
+
+        // then
+        assertThat(sent).isZero();
+        assertThat(unsent()).isEqualTo(2);
+    }
+
+    @Test
+    void purgeSentBefore_removesOnlyOldSentRows() {
+        // given
+        publisher.publish(topic, "1", new SampleEvent("e-1", "USER_DELETED", 1L));
+        publisher.publish(topic, "2", new SampleEvent("e-2", "USER_DELETED", 2L));
+        jdbc.update("UPDATE outbox_events SET sent_at = ? WHERE message_key = '1'",
+                OffsetDateTime.ofInstant(Instant.now().minus(Duration.ofDays(8)), ZoneOffset.UTC));
+
+        // when
+        int purged = relay(50).purgeSentBefore(Instant.now().minus(Duration.ofDays(7)));
+
+        // then
+        assertThat(purged).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT message_key FROM outbox_events", String.class)).isEqualTo("2");
+    }
+}
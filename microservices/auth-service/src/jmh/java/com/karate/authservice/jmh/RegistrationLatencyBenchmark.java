@@ -0,0 +1,151 @@
+package com.karate.authservice.jmh;
+
+import com.karate.authservice.api.dto.AddressRequestDto;
+import com.karate.authservice.api.dto.RegisterUserDto;
+import com.karate.authservice.domain.model.AuthUserEntity;
+import com.karate.authservice.domain.model.PendingRegistrationEntity;
+import com.karate.authservice.domain.model.RoleEntity;
+import com.karate.authservice.domain.model.RoleName;
+import com.karate.authservice.domain.repository.AuthUserRepository;
+import com.karate.authservice.domain.repository.PendingRegistrationRepository;
+import com.karate.authservice.domain.repository.RoleRepository;
+import com.karate.authservice.domain.repository.UserClubProjectionRepository;
+import com.karate.authservice.domain.service.AuthService;
+import com.karate.authservice.domain.service.RegistrationPipeline;
+import com.karate.authservice.domain.service.UpstreamGateway;
+import com.karate.authservice.domain.service.UserClubProjectionService;
+import com.karate.authservice.infrastructure.client.KarateClubClient;
+import com.karate.authservice.infrastructure.client.UserClient;
+import com.karate.authservice.infrastructure.client.dto.AddressDto;
+import com.karate.authservice.infrastructure.client.dto.KarateClubDto;
+import com.karate.authservice.infrastructure.client.dto.NewUserRequestDto;
+import com.karate.authservice.infrastructure.client.dto.UserInfoDto;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Client-observed registration latency (use the p0.99 line of the SampleTime output).
+ * Remote calls are simulated: each takes {@code upstreamLatencyMs}, and one call in
+ * fifty takes ten times as long. {@code synchronousRegistration} replays the former
+ * sequence (club lookup, create user, link, user lookup) against the same
+ * stubs; {@code stagedRegistration} is the current {@link AuthService#register}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RegistrationLatencyBenchmark {
+
+    @Param({"5"})
+    public int upstreamLatencyMs;
+
+    private final AtomicLong ids = new AtomicLong();
+    private AuthUserRepository authUserRepository;
+    private UpstreamGateway upstream;
+    private AuthService authService;
+    private RoleEntity role;
+    private RegisterUserDto request;
+
+    @Setup
+    public void setUp() {
+        role = new RoleEntity();
+        role.setName(RoleName.ROLE_USER);
+        request = RegisterUserDto.builder()
+                .username("john")
+                .email("j@ex.com")
+                .address(new AddressRequestDto("City", "Street", "1", "00-000"))
+                .karateClubName("TOKYO")
+                .karateRank("KYU_9")
+                .role("USER")
+                .password("ENC")
+                .build();
+
+        authUserRepository = Mockito.mock(AuthUserRepository.class);
+        when(authUserRepository.save(any(AuthUserEntity.class))).thenAnswer(inv -> {
+            AuthUserEntity e = inv.getArgument(0);
+            if (e.getAuthUserId() == null) {
+                e.setAuthUserId(ids.incrementAndGet());
+            }
+            return e;
+        });
+        RoleRepository roleRepository = Mockito.mock(RoleRepository.class);
+        when(roleRepository.findByName(RoleName.ROLE_USER)).thenReturn(Optional.of(role));
+        PendingRegistrationRepository registrationRepository = Mockito.mock(PendingRegistrationRepository.class);
+        when(registrationRepository.save(any(PendingRegistrationEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        upstream = new UpstreamGateway(new SlowUserClient(), new SlowClubClient(), Runnable::run);
+        UserClubProjectionService clubProjection = new UserClubProjectionService(Mockito.mock(UserClubProjectionRepository.class));
+        RegistrationPipeline pipeline = new RegistrationPipeline(registrationRepository, authUserRepository, clubProjection,
+                null, upstream, Mockito.mock(PlatformTransactionManager.class), Clock.systemUTC(), 20, 8);
+        authService = new AuthService(authUserRepository, roleRepository, upstream, clubProjection, pipeline);
+    }
+
+    @Benchmark
+    public void synchronousRegistration(Blackhole bh) {
+        KarateClubDto club = upstream.getClubByName(request.karateClubName());
+        AuthUserEntity authUser = authUserRepository.save(AuthUserEntity.builder()
+                .username(request.username())
+                .password(request.password())
+                .build());
+        Long userId = upstream.createUserAsync(new NewUserRequestDto(authUser.getAuthUserId(), request.email(),
+                club.karateClubId(), request.karateRank(), new AddressDto("City", "Street", "1", "00-000"))).join();
+        authUser.setUserId(userId);
+        authUserRepository.save(authUser);
+        UserInfoDto info = upstream.getUserById(userId);
+        // the former flow did not wait for the broker acknowledgement
+        bh.consume(info);
+    }
+
+    @Benchmark
+    public void stagedRegistration(Blackhole bh) {
+        bh.consume(authService.register(request));
+    }
+
+    private void remoteCall() {
+        int latency = ThreadLocalRandom.current().nextInt(50) == 0 ? upstreamLatencyMs * 10 : upstreamLatencyMs;
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class SlowUserClient implements UserClient {
+        @Override
+        public Long createUser(NewUserRequestDto newUserRequestDto) {
+            remoteCall();
+            return newUserRequestDto.userId();
+        }
+
+        @Override
+        public UserInfoDto getUserById(Long userId) {
+            remoteCall();
+            return new UserInfoDto(userId, "j@ex.com", 21L, "KYU_9", LocalDate.now());
+        }
+    }
+
+    private final class SlowClubClient implements KarateClubClient {
+        @Override
+        public KarateClubDto getClubByName(String clubName) {
+            remoteCall();
+            return new KarateClubDto(21L, clubName);
+        }
+
+        @Override
+        public KarateClubDto getClubById(Long karateClubId) {
+            remoteCall();
+            return new KarateClubDto(karateClubId, "TOKYO");
+        }
+    }
+}
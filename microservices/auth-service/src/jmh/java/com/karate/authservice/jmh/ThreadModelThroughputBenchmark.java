@@ -0,0 +1,170 @@
+package com.karate.authservice.jmh;
+
+import com.karate.authservice.domain.service.UpstreamGateway;
+import com.karate.authservice.infrastructure.client.KarateClubClient;
+import com.karate.authservice.infrastructure.client.UserClient;
+import com.karate.authservice.infrastructure.client.dto.AddressDto;
+import com.karate.authservice.infrastructure.client.dto.KarateClubDto;
+import com.karate.authservice.infrastructure.client.dto.NewUserRequestDto;
+import com.karate.authservice.infrastructure.client.dto.UserInfoDto;
+import com.karate.authservice.infrastructure.logging.MdcTaskDecorator;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second when {@link #REQUESTS} requests arrive at once and each one makes three
+ * blocking upstream calls on the request thread plus one gateway future (the shape of
+ * enrollUser / register). Every upstream call takes {@code upstreamLatencyMs}.
+ * <ul>
+ *     <li>{@code legacy}: 200 request threads (Tomcat default), gateway futures on the common pool</li>
+ *     <li>{@code platform}: 200 request threads, gateway futures on the application task executor (64 threads)</li>
+ *     <li>{@code virtual}: a virtual thread per request and per gateway call ({@code spring.threads.virtual.enabled})</li>
+ * </ul>
+ * The virtual mode needs a Java 21 runtime: run the jmhJar with a 21 JVM. The common pool falls back to
+ * a thread per task below two cores, so pin {@code java.util.concurrent.ForkJoinPool.common.parallelism}
+ * to compare the legacy mode on small hosts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ThreadModelThroughputBenchmark {
+
+    private static final int REQUESTS = 1_000;
+
+    @Param({"legacy", "platform", "virtual"})
+    public String threadModel;
+
+    @Param({"20"})
+    public int upstreamLatencyMs;
+
+    private Executor requestExecutor;
+    private Executor gatewayExecutor;
+    private final List<Runnable> shutdown = new ArrayList<>();
+    private UpstreamGateway gateway;
+    private NewUserRequestDto newUser;
+
+    @Setup
+    public void setUp() {
+        switch (threadModel) {
+            case "legacy" -> {
+                requestExecutor = pool(200);
+                gatewayExecutor = ForkJoinPool.commonPool();
+            }
+            case "platform" -> {
+                requestExecutor = pool(200);
+                gatewayExecutor = pool(64);
+            }
+            case "virtual" -> {
+                requestExecutor = virtual();
+                gatewayExecutor = virtual();
+            }
+            default -> throw new IllegalArgumentException(threadModel);
+        }
+        gateway = new UpstreamGateway(new SlowUserClient(), new SlowClubClient(), gatewayExecutor);
+        newUser = new NewUserRequestDto(1L, "j@ex.com", 21L, "KYU_9", new AddressDto("City", "Street", "1", "00-000"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown.forEach(Runnable::run);
+    }
+
+    private Executor pool(int threads) {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        shutdown.add(executor::shutdown);
+        return executor;
+    }
+
+    // looked up reflectively: the sources target Java 17 and the jmh jar flattens Spring's multi-release classes
+    private Executor virtual() {
+        ExecutorService virtualThreads;
+        try {
+            virtualThreads = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("virtual threads need a Java 21 runtime", e);
+        }
+        var executor = new TaskExecutorAdapter(virtualThreads);
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        shutdown.add(virtualThreads::shutdown);
+        return executor;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public long requests() {
+        List<CompletableFuture<Long>> inFlight = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            String correlationId = "cid-" + i;
+            inFlight.add(CompletableFuture.supplyAsync(() -> handle(correlationId), requestExecutor));
+        }
+        long sum = 0;
+        for (CompletableFuture<Long> request : inFlight) {
+            sum += request.join();
+        }
+        return sum;
+    }
+
+    private long handle(String correlationId) {
+        MDC.put("correlationId", correlationId);
+        try {
+            KarateClubDto club = gateway.getClubByName("TOKYO");
+            UserInfoDto user = gateway.getUserById(7L);
+            gateway.getClubById(club.karateClubId());
+            Long created = gateway.createUserAsync(newUser).join();
+            return user.userId() + created;
+        } finally {
+            MDC.remove("correlationId");
+        }
+    }
+
+    private void remoteCall() {
+        try {
+            Thread.sleep(upstreamLatencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private final class SlowUserClient implements UserClient {
+        @Override
+        public Long createUser(NewUserRequestDto newUserRequestDto) {
+            remoteCall();
+            return newUserRequestDto.userId();
+        }
+
+        @Override
+        public UserInfoDto getUserById(Long userId) {
+            remoteCall();
+            return new UserInfoDto(userId, "j@ex.com", 21L, "KYU_9", LocalDate.now());
+        }
+    }
+
+    private final class SlowClubClient implements KarateClubClient {
+        @Override
+        public KarateClubDto getClubByName(String clubName) {
+            remoteCall();
+            return new KarateClubDto(21L, clubName);
+        }
+
+        @Override
+        public KarateClubDto getClubById(Long karateClubId) {
+            remoteCall();
+            return new KarateClubDto(karateClubId, "TOKYO");
+        }
+    }
+}
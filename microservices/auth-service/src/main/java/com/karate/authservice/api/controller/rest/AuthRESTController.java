@@ -2,21 +2,25 @@ package com.karate.authservice.api.controller.rest;
 
 import com.karate.authservice.api.dto.LoginResponseDto;
 import com.karate.authservice.api.dto.RegisterUserDto;
-import com.karate.authservice.api.dto.RegistrationResultDto;
+import com.karate.authservice.api.dto.RegistrationStatusDto;
 import com.karate.authservice.api.dto.TokenRequestDto;
 import com.karate.authservice.domain.service.AuthService;
 import com.karate.authservice.infrastructure.jwt.JwtAuthenticatorService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.net.URI;
+import java.util.UUID;
+
 @Slf4j
 @AllArgsConstructor
 @RestController
@@ -27,17 +31,24 @@ public class AuthRESTController {
     private final PasswordEncoder passwordEncoder;
 
     @PostMapping("/register")
-    public ResponseEntity<RegistrationResultDto> registerUser(@Valid @RequestBody RegisterUserDto registerUserDto) {
+    public ResponseEntity<RegistrationStatusDto> registerUser(@Valid @RequestBody RegisterUserDto registerUserDto) {
         long t0 = System.currentTimeMillis();
         String username = registerUserDto.username();
         log.info("POST /auth/register user={} club={} role={}", username, registerUserDto.karateClubName(), registerUserDto.role());
 
         String encodedPassword = passwordEncoder.encode(registerUserDto.password());
-        RegistrationResultDto result = authService.register(registerUserDto.withEncodedPassword(encodedPassword));
+        RegistrationStatusDto status = authService.register(registerUserDto.withEncodedPassword(encodedPassword));
 
         long took = System.currentTimeMillis() - t0;
-        log.info("201 /auth/register user={} took={}ms", username, took);
-        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        log.info("202 /auth/register user={} registrationId={} took={}ms", username, status.registrationId(), took);
+        URI location = URI.create("/auth/register/" + status.registrationId());
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    @GetMapping("/register/{registrationId}")
+    public ResponseEntity<RegistrationStatusDto> getRegistrationStatus(@PathVariable UUID registrationId) {
+        log.debug("GET /auth/register/{}", registrationId);
+        return ResponseEntity.ok(authService.getRegistrationStatus(registrationId));
     }
 
     @PostMapping("/login")
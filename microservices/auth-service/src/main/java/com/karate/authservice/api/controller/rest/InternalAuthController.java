@@ -6,6 +6,9 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @Slf4j
 @RestController
 @RequestMapping("/internal/users")
@@ -20,6 +23,12 @@ public class InternalAuthController {
         return authService.getAuthUserDto(userId);
     }
 
+    @GetMapping("/by-ids")
+    public Map<Long, AuthUserDto> getAuthUsersByUserIdsInternal(@RequestParam("ids") List<Long> userIds) {
+        log.info("GET /internal/users/by-ids size={}", userIds.size());
+        return authService.getAuthUserDtos(userIds);
+    }
+
     @GetMapping("/by-username/{username}")
     public AuthUserDto getAuthUserByUsernameInternal(@PathVariable String username) {
         log.info("GET /internal/users/by-username/{}", username);
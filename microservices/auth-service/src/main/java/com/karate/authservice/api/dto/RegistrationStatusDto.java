@@ -0,0 +1,14 @@
+package com.karate.authservice.api.dto;
+
+import lombok.Builder;
+
+import java.util.UUID;
+
+@Builder
+public record RegistrationStatusDto(
+        UUID registrationId,
+        String username,
+        String status,
+        Long userId
+) {
+}
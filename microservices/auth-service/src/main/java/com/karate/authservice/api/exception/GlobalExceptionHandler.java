@@ -2,6 +2,7 @@ package com.karate.authservice.api.exception;
 
 import com.karate.authservice.api.exception.dto.ErrorResponse;
 import com.karate.authservice.api.exception.dto.ValidationError;
+import com.karate.authservice.domain.exception.RegistrationInProgressException;
 import com.karate.authservice.domain.exception.UpstreamUnavailableException;
 import com.karate.authservice.domain.exception.UsernameWhileTryingToLogInNotFoundException;
 import feign.FeignException;
@@ -121,10 +122,10 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
-    // 409 - conflict (business logic conflict)
-    @ExceptionHandler(IllegalStateException.class)
+    // 409 - conflict (business logic conflict || login before registration completed)
+    @ExceptionHandler({IllegalStateException.class, RegistrationInProgressException.class})
     public ResponseEntity<ErrorResponse> handleConflict(
-            IllegalStateException ex,
+            RuntimeException ex,
             HttpServletRequest request
     ) {
         log.warn("409 Conflict path={} msg={}", request.getRequestURI(), ex.getMessage());
@@ -0,0 +1,7 @@
+package com.karate.authservice.domain.exception;
+
+public class RegistrationInProgressException extends RuntimeException {
+    public RegistrationInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,76 @@
+package com.karate.authservice.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Staged registration: committed together with the auth user, then driven to completion
+ * (user-service account, {@code UserRegisteredEvent}) by the registration processor.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "pending_registrations")
+public class PendingRegistrationEntity {
+    @Id
+    @Column(name = "registration_id")
+    private UUID registrationId;
+
+    @Column(name = "auth_user_id")
+    private Long authUserId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "karate_rank", nullable = false)
+    private String karateRank;
+
+    @Column(name = "club_id", nullable = false)
+    private Long clubId;
+
+    @Column(name = "club_name", nullable = false)
+    private String clubName;
+
+    @Column(name = "city", nullable = false)
+    private String city;
+
+    @Column(name = "street", nullable = false)
+    private String street;
+
+    @Column(name = "number", nullable = false)
+    private String number;
+
+    @Column(name = "postal_code", nullable = false)
+    private String postalCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private RegistrationStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.karate.authservice.domain.model;
+
+public enum RegistrationStatus {
+    PENDING,
+    USER_CREATED,
+    COMPLETED,
+    FAILED
+}
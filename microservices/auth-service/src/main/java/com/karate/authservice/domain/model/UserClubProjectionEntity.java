@@ -0,0 +1,32 @@
+package com.karate.authservice.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Local copy of each user's club, owned by user/club events, so login never has to ask
+ * user-service or club-service.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "user_club_projection")
+public class UserClubProjectionEntity {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "karate_club_id", nullable = false)
+    private Long karateClubId;
+
+    @Column(name = "karate_club_name", nullable = false)
+    private String karateClubName;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
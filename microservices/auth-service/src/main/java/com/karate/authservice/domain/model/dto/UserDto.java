@@ -9,6 +9,7 @@ public record UserDto(
         String username,
         String password,
         Set<RoleName> roles,
-        String karateClubName
+        String karateClubName,
+        Long karateClubId
 ) {
 }
@@ -2,8 +2,12 @@ package com.karate.authservice.domain.repository;
 
 import com.karate.authservice.domain.model.AuthUserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,5 +18,8 @@ public interface AuthUserRepository extends JpaRepository<AuthUserEntity, Long>
 
     Optional<AuthUserEntity> findByUserId(Long userId);
 
+    @Query("select distinct u from AuthUserEntity u left join fetch u.roleEntities where u.userId in :userIds")
+    List<AuthUserEntity> findAllWithRolesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
     void deleteByUserId(Long userId);
 }
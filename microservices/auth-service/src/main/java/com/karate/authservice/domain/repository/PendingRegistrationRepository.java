@@ -0,0 +1,18 @@
+package com.karate.authservice.domain.repository;
+
+import com.karate.authservice.domain.model.PendingRegistrationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PendingRegistrationRepository extends JpaRepository<PendingRegistrationEntity, UUID> {
+
+    @Query(value = "SELECT * FROM pending_registrations WHERE status IN ('PENDING', 'USER_CREATED') AND next_attempt_at <= :now ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PendingRegistrationEntity> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+}
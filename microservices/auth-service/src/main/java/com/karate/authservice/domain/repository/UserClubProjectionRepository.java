@@ -0,0 +1,21 @@
+package com.karate.authservice.domain.repository;
+
+import com.karate.authservice.domain.model.UserClubProjectionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface UserClubProjectionRepository extends JpaRepository<UserClubProjectionEntity, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO user_club_projection (user_id, karate_club_id, karate_club_name, updated_at) VALUES (:userId, :karateClubId, :karateClubName, :updatedAt) ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("karateClubId") Long karateClubId,
+                       @Param("karateClubName") String karateClubName,
+                       @Param("updatedAt") Instant updatedAt);
+}
@@ -2,33 +2,34 @@ package com.karate.authservice.domain.service;
 
 import com.karate.authservice.api.dto.AuthUserDto;
 import com.karate.authservice.api.dto.RegisterUserDto;
-import com.karate.authservice.api.dto.RegistrationResultDto;
+import com.karate.authservice.api.dto.RegistrationStatusDto;
 import com.karate.authservice.api.dto.TokenRequestDto;
 import com.karate.authservice.domain.exception.InvalidUserCredentialsException;
+import com.karate.authservice.domain.exception.RegistrationInProgressException;
 import com.karate.authservice.domain.exception.UserNotFoundException;
 import com.karate.authservice.domain.exception.UsernameWhileTryingToLogInNotFoundException;
 import com.karate.authservice.domain.model.AuthUserEntity;
 import com.karate.authservice.domain.model.KarateRank;
 import com.karate.authservice.domain.model.RoleEntity;
 import com.karate.authservice.domain.model.RoleName;
+import com.karate.authservice.domain.model.UserClubProjectionEntity;
 import com.karate.authservice.domain.model.dto.UserDto;
 import com.karate.authservice.domain.repository.AuthUserRepository;
 import com.karate.authservice.domain.repository.RoleRepository;
-import com.karate.authservice.infrastructure.client.dto.AddressDto;
 import com.karate.authservice.infrastructure.client.dto.KarateClubDto;
-import com.karate.authservice.infrastructure.client.dto.NewUserRequestDto;
 import com.karate.authservice.infrastructure.client.dto.UserInfoDto;
-import com.karate.authservice.infrastructure.messaging.UserEventProducer;
-import com.karate.authservice.infrastructure.messaging.dto.UserRegisteredEvent;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -39,28 +40,27 @@ import java.util.stream.Collectors;
 public class AuthService {
     private final AuthUserRepository authUserRepository;
     private final RoleRepository roleRepository;
-    private final UserEventProducer userEventProducer;
     private final UpstreamGateway upstream;
-
-    @Transactional
-    public RegistrationResultDto register(RegisterUserDto registerUserDto) {
+    private final UserClubProjectionService clubProjection;
+    private final RegistrationPipeline registrationPipeline;
+
+    /**
+     * Validates the request and commits the auth user together with a pending registration.
+     * User-service creation and {@code UserRegisteredEvent} emission are carried out by
+     * {@link RegistrationPipeline}; callers poll {@link #getRegistrationStatus(UUID)}.
+     */
+    public RegistrationStatusDto register(RegisterUserDto registerUserDto) {
         log.info("Register user={} role={} club={}", registerUserDto.username(), registerUserDto.role(), registerUserDto.karateClubName());
         validateRegistrationData(registerUserDto);
 
         KarateClubDto club = resolveClub(registerUserDto.karateClubName());
         RoleEntity role = resolveRole(registerUserDto.role());
 
-        AuthUserEntity authUser = persistAuthUser(registerUserDto.username(), registerUserDto.password(), role);
-
-        Long userId = createUserInUserService(authUser.getAuthUserId(), registerUserDto, club);
-
-        AuthUserEntity linked = linkAuthToUser(authUser, userId);
-
-        UserInfoDto userInfo = fetchUserInfo(userId);
-
-        publishUserRegistered(linked, userInfo, club);
+        return registrationPipeline.accept(registerUserDto, role, club);
+    }
 
-        return buildRegistrationResult(linked, registerUserDto);
+    public RegistrationStatusDto getRegistrationStatus(UUID registrationId) {
+        return registrationPipeline.getStatus(registrationId);
     }
 
     private static void validateWhetherRegistrationDataAreNull(RegisterUserDto registerUserDto) {
@@ -108,21 +108,15 @@ public class AuthService {
                 .map(RoleEntity::getName)
                 .collect(Collectors.toSet());
 
-        long tUsr0 = System.currentTimeMillis();
-        UserInfoDto userInfo = upstream.getUserById(authUserEntity.getUserId());
-        long tClub0 = System.currentTimeMillis();
-        KarateClubDto karateClub = upstream.getClubById(userInfo.karateClubId());
-        log.debug("findByUsername fetched details userId={} userInfoTook={}ms clubTook={}ms",
-                authUserEntity.getUserId(),
-                tClub0 - tUsr0,
-                System.currentTimeMillis() - tClub0);
+        KarateClubDto karateClub = resolveUserClub(authUserEntity.getUserId());
 
         return new UserDto(
                 authUserEntity.getUserId(),
                 authUserEntity.getUsername(),
                 authUserEntity.getPassword(),
                 roles,
-                karateClub.name()
+                karateClub.name(),
+                karateClub.karateClubId()
         );
     }
 
@@ -153,14 +147,24 @@ public class AuthService {
     @Transactional(readOnly = true)
     public AuthUserDto getAuthUserDto(Long userId) {
         log.debug("getAuthUserDto userId={}", userId);
-        AuthUserEntity entity = findByUserId(userId);
-        return new AuthUserDto(
-                entity.getUserId(),
-                entity.getUsername(),
-                entity.getRoleEntities().stream()
-                        .map(r -> r.getName().name())
-                        .collect(Collectors.toSet())
-        );
+        return toAuthUserDto(findByUserId(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, AuthUserDto> getAuthUserDtos(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+        long t0 = System.currentTimeMillis();
+        List<AuthUserEntity> entities = authUserRepository.findAllWithRolesByUserIdIn(new HashSet<>(userIds));
+        log.debug("getAuthUserDtos requested={} found={} took={}ms",
+                userIds.size(), entities.size(), System.currentTimeMillis() - t0);
+
+        Map<Long, AuthUserDto> result = new LinkedHashMap<>(entities.size() * 2);
+        for (AuthUserEntity entity : entities) {
+            result.put(entity.getUserId(), toAuthUserDto(entity));
+        }
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -169,13 +173,7 @@ public class AuthService {
         AuthUserEntity user = authUserRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return new AuthUserDto(
-                user.getUserId(),
-                user.getUsername(),
-                user.getRoleEntities().stream()
-                        .map(r -> r.getName().name())
-                        .collect(Collectors.toSet())
-        );
+        return toAuthUserDto(user);
     }
 
     @Transactional(readOnly = true)
@@ -217,6 +215,27 @@ public class AuthService {
         log.info("Delete user OK userId={}", userId);
     }
 
+    private KarateClubDto resolveUserClub(Long userId) {
+        if (userId == null) {
+            throw new RegistrationInProgressException("Registration is still in progress");
+        }
+        Optional<UserClubProjectionEntity> projection = clubProjection.find(userId);
+        if (projection.isPresent()) {
+            return new KarateClubDto(projection.get().getKarateClubId(), projection.get().getKarateClubName());
+        }
+
+        long tUsr0 = System.currentTimeMillis();
+        UserInfoDto userInfo = upstream.getUserById(userId);
+        long tClub0 = System.currentTimeMillis();
+        KarateClubDto karateClub = upstream.getClubById(userInfo.karateClubId());
+        log.info("Club projection miss userId={} userInfoTook={}ms clubTook={}ms, backfilling",
+                userId,
+                tClub0 - tUsr0,
+                System.currentTimeMillis() - tClub0);
+        clubProjection.backfill(userId, karateClub.karateClubId(), karateClub.name());
+        return karateClub;
+    }
+
     private KarateClubDto resolveClub(String clubName) {
         long t0 = System.currentTimeMillis();
         KarateClubDto club = upstream.getClubByName(clubName);
@@ -229,80 +248,13 @@ public class AuthService {
                 .orElseThrow(() -> new InvalidUserCredentialsException("Role not found"));
     }
 
-    private AuthUserEntity persistAuthUser(String username, String rawPassword, RoleEntity role) {
-        AuthUserEntity entity = AuthUserEntity.builder()
-                .username(username)
-                .password(rawPassword)
-                .roleEntities(new HashSet<>(Set.of(role)))
-                .build();
-
-        long t0 = System.currentTimeMillis();
-        AuthUserEntity saved = authUserRepository.save(entity);
-        log.info("Auth user persisted authUserId={} username={} took={}ms",
-                saved.getAuthUserId(), saved.getUsername(), System.currentTimeMillis() - t0);
-        return saved;
-    }
-
-    private Long createUserInUserService(Long authUserId, RegisterUserDto dto, KarateClubDto club) {
-        NewUserRequestDto payload = new NewUserRequestDto(
-                authUserId,
-                dto.email(),
-                club.karateClubId(),
-                dto.karateRank(),
-                new AddressDto(
-                        dto.address().city(),
-                        dto.address().street(),
-                        dto.address().number(),
-                        dto.address().postalCode()
-                )
-        );
-
-        long t0 = System.currentTimeMillis();
-        Long userId = upstream.createUserAsync(payload).join();
-        log.info("user-service createUser userId={} took={}ms", userId, System.currentTimeMillis() - t0);
-        return userId;
-    }
-
-    private AuthUserEntity linkAuthToUser(AuthUserEntity authUser, Long userId) {
-        authUser.setUserId(userId);
-        long t0 = System.currentTimeMillis();
-        AuthUserEntity saved = authUserRepository.save(authUser);
-        log.debug("Linked authUserId={} -> userId={} took={}ms",
-                saved.getAuthUserId(), saved.getUserId(), System.currentTimeMillis() - t0);
-        return saved;
-    }
-
-    private UserInfoDto fetchUserInfo(Long userId) {
-        long t0 = System.currentTimeMillis();
-        UserInfoDto info = upstream.getUserById(userId);
-        log.debug("user-service getUserById userId={} took={}ms", userId, System.currentTimeMillis() - t0);
-        return info;
-    }
-
-    private void publishUserRegistered(AuthUserEntity user, UserInfoDto info, KarateClubDto club) {
-        var event = new UserRegisteredEvent(
-                UUID.randomUUID().toString(),
-                "USER_REGISTERED",
-                Instant.now(),
-                new UserRegisteredEvent.Payload(
-                        user.getUserId(),
-                        info.email(),
-                        user.getUsername(),
-                        club.karateClubId(),
-                        club.name(),
-                        info.karateRank(),
-                        info.registrationDate()
-                )
+    private static AuthUserDto toAuthUserDto(AuthUserEntity entity) {
+        return new AuthUserDto(
+                entity.getUserId(),
+                entity.getUsername(),
+                entity.getRoleEntities().stream()
+                        .map(r -> r.getName().name())
+                        .collect(Collectors.toSet())
         );
-        userEventProducer.sendUserRegisteredEvent(event);
-        log.info("UserRegisteredEvent sent userId={} eventId={}", user.getUserId(), event.getEventId());
-    }
-
-    private RegistrationResultDto buildRegistrationResult(AuthUserEntity saved, RegisterUserDto dto) {
-        return RegistrationResultDto.builder()
-                .userId(saved.getUserId())
-                .username(dto.username())
-                .email(dto.email())
-                .build();
     }
 }
@@ -0,0 +1,271 @@
+package com.karate.authservice.domain.service;
+
+import com.karate.authservice.api.dto.RegisterUserDto;
+import com.karate.authservice.api.dto.RegistrationStatusDto;
+import com.karate.authservice.domain.model.AuthUserEntity;
+import com.karate.authservice.domain.model.PendingRegistrationEntity;
+import com.karate.authservice.domain.model.RegistrationStatus;
+import com.karate.authservice.domain.model.RoleEntity;
+import com.karate.authservice.domain.repository.AuthUserRepository;
+import com.karate.authservice.domain.repository.PendingRegistrationRepository;
+import com.karate.authservice.infrastructure.client.dto.AddressDto;
+import com.karate.authservice.infrastructure.client.dto.KarateClubDto;
+import com.karate.authservice.infrastructure.client.dto.NewUserRequestDto;
+import com.karate.authservice.infrastructure.messaging.UserEventProducer;
+import com.karate.authservice.infrastructure.messaging.dto.UserRegisteredEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Registration as a staged pipeline. {@link #accept} commits the auth user and a
+ * {@link PendingRegistrationEntity} locally; {@link #processDue()} then creates the
+ * user-service account, retrying with backoff, and links it in the same transaction that
+ * enqueues {@code UserRegisteredEvent} in the outbox. Remote calls never run inside a
+ * database transaction.
+ */
+@Slf4j
+@Service
+public class RegistrationPipeline {
+    public static final Duration CLAIM_LEASE = Duration.ofSeconds(60);
+    public static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final PendingRegistrationRepository registrationRepository;
+    private final AuthUserRepository authUserRepository;
+    private final UserClubProjectionService clubProjection;
+    private final UserEventProducer userEventProducer;
+    private final UpstreamGateway upstream;
+    private final TransactionTemplate tx;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public RegistrationPipeline(PendingRegistrationRepository registrationRepository,
+                                AuthUserRepository authUserRepository,
+                                UserClubProjectionService clubProjection,
+                                UserEventProducer userEventProducer,
+                                UpstreamGateway upstream,
+                                PlatformTransactionManager transactionManager,
+                                Clock clock,
+                                @Value("${registration.batch-size:20}") int batchSize,
+                                @Value("${registration.max-attempts:8}") int maxAttempts) {
+        this.registrationRepository = registrationRepository;
+        this.authUserRepository = authUserRepository;
+        this.clubProjection = clubProjection;
+        this.userEventProducer = userEventProducer;
+        this.upstream = upstream;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Transactional
+    public RegistrationStatusDto accept(RegisterUserDto dto, RoleEntity role, KarateClubDto club) {
+        AuthUserEntity authUser = AuthUserEntity.builder()
+                .username(dto.username())
+                .password(dto.password())
+                .roleEntities(new HashSet<>(Set.of(role)))
+                .build();
+
+        long t0 = System.currentTimeMillis();
+        AuthUserEntity saved = authUserRepository.save(authUser);
+
+        Instant now = clock.instant();
+        PendingRegistrationEntity registration = registrationRepository.save(PendingRegistrationEntity.builder()
+                .registrationId(UUID.randomUUID())
+                .authUserId(saved.getAuthUserId())
+                .username(dto.username())
+                .email(dto.email())
+                .karateRank(dto.karateRank())
+                .clubId(club.karateClubId())
+                .clubName(club.name())
+                .city(dto.address().city())
+                .street(dto.address().street())
+                .number(dto.address().number())
+                .postalCode(dto.address().postalCode())
+                .status(RegistrationStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("Registration accepted registrationId={} authUserId={} username={} took={}ms",
+                registration.getRegistrationId(), saved.getAuthUserId(), saved.getUsername(),
+                System.currentTimeMillis() - t0);
+        return toStatusDto(registration);
+    }
+
+    @Transactional(readOnly = true)
+    public RegistrationStatusDto getStatus(UUID registrationId) {
+        return registrationRepository.findById(registrationId)
+                .map(RegistrationPipeline::toStatusDto)
+                .orElseThrow(() -> new NoSuchElementException("Registration not found"));
+    }
+
+    /**
+     * Claims up to {@code registration.batch-size} due registrations and advances each one.
+     * Claiming pushes {@code next_attempt_at} past a lease, so concurrent instances
+     * ({@code SKIP LOCKED}) and crashed workers never double-process a row.
+     */
+    public int processDue() {
+        List<PendingRegistrationEntity> claimed = tx.execute(status -> {
+            Instant now = clock.instant();
+            List<PendingRegistrationEntity> due = registrationRepository.lockDue(now, batchSize);
+            due.forEach(r -> r.setNextAttemptAt(now.plus(CLAIM_LEASE)));
+            return registrationRepository.saveAll(due);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        claimed.forEach(this::advance);
+        return claimed.size();
+    }
+
+    void advance(PendingRegistrationEntity registration) {
+        try {
+            if (registration.getStatus() == RegistrationStatus.PENDING) {
+                createUser(registration);
+            } else if (registration.getStatus() == RegistrationStatus.USER_CREATED) {
+                // linked before the event went through the outbox; only the event is missing
+                tx.executeWithoutResult(status -> complete(registration));
+            }
+        } catch (RuntimeException e) {
+            recordFailure(registration, e);
+        }
+    }
+
+    private void createUser(PendingRegistrationEntity registration) {
+        NewUserRequestDto payload = new NewUserRequestDto(
+                registration.getAuthUserId(),
+                registration.getEmail(),
+                registration.getClubId(),
+                registration.getKarateRank(),
+                new AddressDto(
+                        registration.getCity(),
+                        registration.getStreet(),
+                        registration.getNumber(),
+                        registration.getPostalCode()
+                )
+        );
+
+        long t0 = System.currentTimeMillis();
+        // user-service keys the account by authUserId and returns an existing one, so a retried create is safe
+        Long userId = upstream.createUserAsync(payload).join();
+        log.info("user-service createUser registrationId={} userId={} took={}ms",
+                registration.getRegistrationId(), userId, System.currentTimeMillis() - t0);
+
+        tx.executeWithoutResult(status -> {
+            AuthUserEntity authUser = authUserRepository.findById(registration.getAuthUserId())
+                    .orElseThrow(() -> new NoSuchElementException("Auth user not found"));
+            authUser.setUserId(userId);
+            authUserRepository.save(authUser);
+            clubProjection.upsert(userId, registration.getClubId(), registration.getClubName(), clock.instant());
+
+            registration.setUserId(userId);
+            complete(registration);
+        });
+    }
+
+    /**
+     * Enqueues {@code UserRegisteredEvent} in the outbox and closes the registration, both in
+     * the caller's transaction; delivery to Kafka is the outbox relay's job.
+     */
+    private void complete(PendingRegistrationEntity registration) {
+        var event = new UserRegisteredEvent(
+                // stable per registration so a redelivered event can be de-duplicated downstream
+                registration.getRegistrationId().toString(),
+                "USER_REGISTERED",
+                clock.instant(),
+                new UserRegisteredEvent.Payload(
+                        registration.getUserId(),
+                        registration.getEmail(),
+                        registration.getUsername(),
+                        registration.getClubId(),
+                        registration.getClubName(),
+                        registration.getKarateRank(),
+                        LocalDate.ofInstant(registration.getCreatedAt(), clock.getZone())
+                )
+        );
+        userEventProducer.sendUserRegisteredEvent(event);
+
+        registration.setStatus(RegistrationStatus.COMPLETED);
+        registration.setAttempts(0);
+        registration.setLastError(null);
+        registration.setUpdatedAt(clock.instant());
+        registrationRepository.save(registration);
+        log.info("Registration completed registrationId={} userId={}", registration.getRegistrationId(), registration.getUserId());
+    }
+
+    private void recordFailure(PendingRegistrationEntity claimed, RuntimeException e) {
+        // the failed stage may have changed the entity before its transaction rolled back
+        PendingRegistrationEntity registration = registrationRepository.findById(claimed.getRegistrationId())
+                .orElse(claimed);
+        int attempts = registration.getAttempts() + 1;
+        Instant now = clock.instant();
+        registration.setAttempts(attempts);
+        registration.setLastError(truncate(e.toString()));
+        registration.setUpdatedAt(now);
+
+        if (attempts >= maxAttempts && registration.getStatus() == RegistrationStatus.PENDING) {
+            // a create that timed out may still have succeeded; remove that account before giving up
+            try {
+                upstream.deleteUnregisteredUser(registration.getAuthUserId());
+            } catch (RuntimeException cleanup) {
+                // keep the registration pending; the next attempt either completes it or cleans up
+                registration.setNextAttemptAt(now.plus(backoff(attempts)));
+                registrationRepository.save(registration);
+                log.warn("Registration cleanup failed registrationId={} attempt={} reason={}",
+                        registration.getRegistrationId(), attempts, cleanup.toString());
+                return;
+            }
+            // no account is left; release the username so the user can register again
+            registration.setStatus(RegistrationStatus.FAILED);
+            tx.executeWithoutResult(status -> {
+                authUserRepository.deleteById(registration.getAuthUserId());
+                registrationRepository.save(registration);
+            });
+            log.error("Registration failed registrationId={} attempts={} reason={}",
+                    registration.getRegistrationId(), attempts, e.toString());
+            return;
+        }
+
+        // once the account exists the registration must eventually complete, so USER_CREATED keeps retrying
+        registration.setNextAttemptAt(now.plus(backoff(attempts)));
+        registrationRepository.save(registration);
+        log.warn("Registration stage failed registrationId={} status={} attempt={} retryAt={} reason={}",
+                registration.getRegistrationId(), registration.getStatus(), attempts,
+                registration.getNextAttemptAt(), e.toString());
+    }
+
+    static Duration backoff(int attempts) {
+        long seconds = 1L << Math.min(attempts, 20);
+        return seconds >= MAX_BACKOFF.toSeconds() ? MAX_BACKOFF : Duration.ofSeconds(seconds);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    private static RegistrationStatusDto toStatusDto(PendingRegistrationEntity registration) {
+        return RegistrationStatusDto.builder()
+                .registrationId(registration.getRegistrationId())
+                .username(registration.getUsername())
+                .status(registration.getStatus().name())
+                .userId(registration.getUserId())
+                .build();
+    }
+}
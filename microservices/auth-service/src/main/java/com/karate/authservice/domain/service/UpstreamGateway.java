@@ -9,18 +9,31 @@ import com.karate.authservice.infrastructure.client.dto.UserInfoDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class UpstreamGateway {
     private final UserClient userClient;
     private final KarateClubClient clubClient;
+    private final Executor executor;
+
+    /**
+     * @param executor runs the async calls; the application task executor is virtual-thread backed
+     *                 when {@code spring.threads.virtual.enabled} is set and carries the caller's MDC
+     */
+    public UpstreamGateway(UserClient userClient, KarateClubClient clubClient,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        this.userClient = userClient;
+        this.clubClient = clubClient;
+        this.executor = executor;
+    }
 
     @CircuitBreaker(name = "userService", fallbackMethod = "getUserByIdFallback")
     @Retry(name = "userService")
@@ -58,11 +71,22 @@ public class UpstreamGateway {
     @CircuitBreaker(name = "userService", fallbackMethod = "createUserAsyncFallback")
     @TimeLimiter(name = "userService")
     public CompletableFuture<Long> createUserAsync(NewUserRequestDto dto) {
-        return CompletableFuture.supplyAsync(() -> userClient.createUser(dto));
+        return CompletableFuture.supplyAsync(() -> userClient.createUser(dto), executor);
     }
 
     private CompletableFuture<Long> createUserAsyncFallback(NewUserRequestDto dto, Throwable ex) {
         log.error("CB/Timeout fallback userService.createUser reason={}", ex.toString());
         return CompletableFuture.failedFuture(new UpstreamUnavailableException("user-service timeout", ex));
     }
+
+    @CircuitBreaker(name = "userService", fallbackMethod = "deleteUnregisteredUserFallback")
+    @Retry(name = "userService")
+    public void deleteUnregisteredUser(Long userId) {
+        userClient.deleteUnregisteredUser(userId);
+    }
+
+    private void deleteUnregisteredUserFallback(Long userId, Throwable ex) {
+        log.warn("CB fallback userService.deleteUnregisteredUser userId={} reason={}", userId, ex.toString());
+        throw new UpstreamUnavailableException("user-service unavailable", ex);
+    }
 }
@@ -0,0 +1,54 @@
+package com.karate.authservice.domain.service;
+
+import com.karate.authservice.domain.model.UserClubProjectionEntity;
+import com.karate.authservice.domain.repository.UserClubProjectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserClubProjectionService {
+    private final UserClubProjectionRepository repository;
+
+    @Transactional(readOnly = true)
+    public Optional<UserClubProjectionEntity> find(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return repository.findById(userId);
+    }
+
+    @Transactional
+    public void upsert(Long userId, Long karateClubId, String karateClubName, Instant at) {
+        UserClubProjectionEntity current = repository.findById(userId).orElse(null);
+        if (current != null && current.getUpdatedAt().isAfter(at)) {
+            log.debug("Club projection skip stale update userId={} at={} current={}", userId, at, current.getUpdatedAt());
+            return;
+        }
+        UserClubProjectionEntity entity = current != null ? current : UserClubProjectionEntity.builder().userId(userId).build();
+        entity.setKarateClubId(karateClubId);
+        entity.setKarateClubName(karateClubName);
+        entity.setUpdatedAt(at);
+        repository.save(entity);
+        log.debug("Club projection upsert userId={} clubId={} club={}", userId, karateClubId, karateClubName);
+    }
+
+    /**
+     * Stores a projection rebuilt from upstream lookups for users registered before the projection
+     * existed; runs in its own transaction because the login path is read-only. Only inserts, so a
+     * concurrent first login or an event-sourced row already in place wins without a key violation.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void backfill(Long userId, Long karateClubId, String karateClubName) {
+        if (repository.insertIfAbsent(userId, karateClubId, karateClubName, Instant.EPOCH) == 0) {
+            log.debug("Club projection backfill skipped, already present userId={}", userId);
+        }
+    }
+}
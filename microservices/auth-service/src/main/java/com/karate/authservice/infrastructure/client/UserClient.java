@@ -4,6 +4,7 @@ import com.karate.authservice.infrastructure.client.config.FeignClientConfig;
 import com.karate.authservice.infrastructure.client.dto.NewUserRequestDto;
 import com.karate.authservice.infrastructure.client.dto.UserInfoDto;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,4 +17,7 @@ public interface UserClient {
 
     @GetMapping("/internal/users/{id}")
     UserInfoDto getUserById(@PathVariable("id") Long userId);
+
+    @DeleteMapping("/internal/users/{id}")
+    void deleteUnregisteredUser(@PathVariable("id") Long userId);
 }
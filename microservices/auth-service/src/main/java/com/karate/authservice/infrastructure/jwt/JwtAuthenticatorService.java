@@ -1,6 +1,7 @@
 package com.karate.authservice.infrastructure.jwt;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.karate.authservice.api.dto.LoginResponseDto;
 import com.karate.authservice.api.dto.TokenRequestDto;
@@ -44,9 +45,14 @@ public class JwtAuthenticatorService {
         List<String> roles = user.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .toList();
-        return JWT.create()
+        JWTCreator.Builder builder = JWT.create()
                 .withSubject(user.getUsername())
-                .withClaim("roles", roles)
+                .withClaim(JwtAuthTokenFilter.CLAIM_ROLES, roles);
+        if (user instanceof LoginUser loginUser) {
+            builder.withClaim(JwtAuthTokenFilter.CLAIM_USER_ID, loginUser.getUserId())
+                    .withClaim(JwtAuthTokenFilter.CLAIM_CLUB_ID, loginUser.getClubId());
+        }
+        return builder
                 .withIssuedAt(now)
                 .withExpiresAt(expiresAt)
                 .withIssuer(issuer)
@@ -0,0 +1,20 @@
+package com.karate.authservice.infrastructure.jwt;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+@Getter
+public class LoginUser extends User {
+    private final Long userId;
+    private final Long clubId;
+
+    public LoginUser(String username, String password, Collection<? extends GrantedAuthority> authorities,
+                     Long userId, Long clubId) {
+        super(username, password, authorities);
+        this.userId = userId;
+        this.clubId = clubId;
+    }
+}
@@ -6,7 +6,6 @@ import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
@@ -23,15 +22,17 @@ public class LoginUserDetailsService implements UserDetailsService {
         return getUser(userFound);
     }
 
-    private User getUser(UserDto userDto) {
+    private LoginUser getUser(UserDto userDto) {
         List<GrantedAuthority> authorities = userDto.roles().stream()
                 .map(role -> new SimpleGrantedAuthority(role.name()))
                 .collect(Collectors.toList());
 
-        return new User(
+        return new LoginUser(
                 userDto.username(),
                 userDto.password(),
-                authorities
+                authorities,
+                userDto.userId(),
+                userDto.karateClubId()
         );
     }
 }
@@ -55,6 +55,7 @@ public class SecurityConfig {
                         .requestMatchers("/webjars/**").permitAll()
                         .requestMatchers("/swagger-resources/**").permitAll()
                         .requestMatchers("/auth/register").permitAll()
+                        .requestMatchers("/auth/register/*").permitAll()
                         .requestMatchers("/auth/login").permitAll()
                         .requestMatchers("/internal/users/**").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
@@ -0,0 +1,36 @@
+package com.karate.authservice.infrastructure.messaging;
+
+import com.karate.authservice.domain.service.UserClubProjectionService;
+import com.karate.authservice.infrastructure.messaging.dto.UserRegisteredEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserClubProjectionListener {
+
+    private final UserClubProjectionService projectionService;
+
+    @KafkaListener(
+            topics = "${topics.user-registered}",
+            groupId = "auth-service-club-projection",
+            properties = {
+                    "spring.json.value.default.type=com.karate.authservice.infrastructure.messaging.dto.UserRegisteredEvent"
+            }
+    )
+    public void onUserEvent(UserRegisteredEvent evt) {
+        UserRegisteredEvent.Payload payload = evt.getPayload();
+        if (payload == null || payload.getUserId() == null || payload.getClubId() == null) {
+            log.warn("auth-service: skip user event without club eventId={} type={}", evt.getEventId(), evt.getEventType());
+            return;
+        }
+        Instant at = evt.getTimestamp() != null ? evt.getTimestamp() : Instant.now();
+        log.info("auth-service: {} userId={} clubId={}", evt.getEventType(), payload.getUserId(), payload.getClubId());
+        projectionService.upsert(payload.getUserId(), payload.getClubId(), payload.getClubName(), at);
+    }
+}
@@ -1,6 +1,7 @@
 package com.karate.authservice.infrastructure.messaging;
 
 import com.karate.authservice.domain.repository.AuthUserRepository;
+import com.karate.authservice.domain.repository.UserClubProjectionRepository;
 import com.karate.authservice.infrastructure.messaging.dto.UserDeletedEvent;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +15,7 @@ import org.springframework.stereotype.Component;
 public class UserDeletedListener {
 
     private final AuthUserRepository authUserRepository;
-
+    private final UserClubProjectionRepository userClubProjectionRepository;
 
     @KafkaListener(topics = "${topics.user-deleted}", groupId = "auth-service-user-deleted")
     @Transactional
@@ -22,5 +23,6 @@ public class UserDeletedListener {
         Long userId = evt.userId();
         log.info("auth-service: UserDeletedEvent userId={}", userId);
         authUserRepository.deleteByUserId(userId);
+        userClubProjectionRepository.deleteById(userId);
     }
 }
@@ -0,0 +1,34 @@
+package com.karate.authservice.infrastructure.scheduler;
+
+import com.karate.authservice.domain.service.RegistrationPipeline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "registration.processor.enabled", havingValue = "true", matchIfMissing = true)
+public class RegistrationProcessor {
+
+    private final RegistrationPipeline registrationPipeline;
+
+    @Scheduled(fixedDelayString = "${registration.poll-interval-ms:250}")
+    public void processPendingRegistrations() {
+        try {
+            int processed;
+            do {
+                processed = registrationPipeline.processDue();
+                if (processed > 0) {
+                    log.debug("Registration batch processed count={}", processed);
+                }
+            } while (processed > 0);
+        } catch (RuntimeException e) {
+            log.error("Registration processing failed reason={}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+CREATE TABLE user_club_projection
+(
+    user_id          BIGINT PRIMARY KEY,
+    karate_club_id   BIGINT       NOT NULL,
+    karate_club_name VARCHAR(100) NOT NULL,
+    updated_at       TIMESTAMP    NOT NULL
+);
@@ -0,0 +1,23 @@
+CREATE TABLE pending_registrations
+(
+    registration_id UUID PRIMARY KEY,
+    auth_user_id    BIGINT,
+    user_id         BIGINT,
+    username        VARCHAR(100) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    karate_rank     VARCHAR(20)  NOT NULL,
+    club_id         BIGINT       NOT NULL,
+    club_name       VARCHAR(100) NOT NULL,
+    city            VARCHAR(100) NOT NULL,
+    street          VARCHAR(100) NOT NULL,
+    number          VARCHAR(20)  NOT NULL,
+    postal_code     VARCHAR(20)  NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP    NOT NULL,
+    last_error      VARCHAR(500),
+    created_at      TIMESTAMP    NOT NULL,
+    updated_at      TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX idx_pending_registrations_due ON pending_registrations (status, next_attempt_at);
@@ -1,7 +1,10 @@
 package com.karate.authservice;
 
 import com.karate.authservice.domain.service.AuthService;
+import com.karate.authservice.domain.service.RegistrationPipeline;
+import com.karate.authservice.domain.service.UserClubProjectionService;
 import com.karate.authservice.infrastructure.jwt.JwtAuthenticatorService;
+import com.karate.authservice.infrastructure.messaging.UserClubProjectionListener;
 import com.karate.authservice.infrastructure.messaging.UserDeletedListener;
 import com.karate.authservice.infrastructure.messaging.UserEventProducer;
 import org.junit.jupiter.api.Test;
@@ -46,10 +49,16 @@ class AuthServiceApplicationTests {
     @MockBean
     private AuthService authService;
     @MockBean
+    private UserClubProjectionService userClubProjectionService;
+    @MockBean
+    private RegistrationPipeline registrationPipeline;
+    @MockBean
     private JwtAuthenticatorService jwtAuthenticatorService;
     @MockBean
     private UserDeletedListener userDeletedListener;
     @MockBean
+    private UserClubProjectionListener userClubProjectionListener;
+    @MockBean
     private UserEventProducer userEventProducer;
     @MockBean
     private SecurityFilterChain springSecurityFilterChain;
@@ -18,10 +18,14 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -46,7 +50,7 @@ class AuthRESTControllerTest {
     PasswordEncoder passwordEncoder;
 
     @Test
-    void registerUser_created201_andPassesEncodedPasswordToService() throws Exception {
+    void registerUser_accepted202_andPassesEncodedPasswordToService() throws Exception {
         // given
         var req = RegisterUserDto.builder()
                 .username("john")
@@ -59,19 +63,21 @@ class AuthRESTControllerTest {
                 .build();
 
         when(passwordEncoder.encode("plain")).thenReturn("ENC");
+        UUID registrationId = UUID.randomUUID();
         when(authService.register(any())).thenReturn(
-                RegistrationResultDto.builder().userId(777L).username("john").email("j@ex.com").build()
+                RegistrationStatusDto.builder().registrationId(registrationId).username("john").status("PENDING").build()
         );
 
         // when // then
         mockMvc.perform(post("/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(req)))
-                .andExpect(status().isCreated())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/auth/register/" + registrationId))
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.userId").value(777))
+                .andExpect(jsonPath("$.registrationId").value(registrationId.toString()))
                 .andExpect(jsonPath("$.username").value("john"))
-                .andExpect(jsonPath("$.email").value("j@ex.com"));
+                .andExpect(jsonPath("$.status").value("PENDING"));
 
         // then (verify encoder + the dto passed to service has encoded password)
         verify(passwordEncoder).encode("plain");
@@ -85,6 +91,34 @@ class AuthRESTControllerTest {
         org.assertj.core.api.Assertions.assertThat(passed.karateClubName()).isEqualTo("TOKYO");
     }
 
+    @Test
+    void registrationStatus_200_returnsCurrentStage() throws Exception {
+        // given
+        UUID registrationId = UUID.randomUUID();
+        when(authService.getRegistrationStatus(registrationId)).thenReturn(
+                RegistrationStatusDto.builder().registrationId(registrationId).username("john").status("COMPLETED").userId(777L).build()
+        );
+
+        // when // then
+        mockMvc.perform(get("/auth/register/{id}", registrationId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.userId").value(777));
+    }
+
+    @Test
+    void registrationStatus_404_whenUnknown() throws Exception {
+        // given
+        UUID registrationId = UUID.randomUUID();
+        when(authService.getRegistrationStatus(registrationId))
+                .thenThrow(new NoSuchElementException("Registration not found"));
+
+        // when // then
+        mockMvc.perform(get("/auth/register/{id}", registrationId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
     @Test
     void registerUser_400_validationErrors_whenMissingFields() throws Exception {
         // given
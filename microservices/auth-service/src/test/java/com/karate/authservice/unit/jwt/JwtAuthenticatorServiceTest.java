@@ -0,0 +1,108 @@
+package com.karate.authservice.unit.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.karate.authservice.api.dto.LoginResponseDto;
+import com.karate.authservice.api.dto.TokenRequestDto;
+import com.karate.authservice.infrastructure.jwt.JwtAuthTokenFilter;
+import com.karate.authservice.infrastructure.jwt.JwtAuthenticatorService;
+import com.karate.authservice.infrastructure.jwt.JwtConfigurationProperties;
+import com.karate.authservice.infrastructure.jwt.JwtPrincipal;
+import com.karate.authservice.infrastructure.jwt.LoginUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticatorServiceTest {
+
+    private static final String SECRET = "test-secret-at-least-32-chars-long";
+
+    @Mock
+    AuthenticationManager authenticationManager;
+
+    private final JwtConfigurationProperties properties = new JwtConfigurationProperties(SECRET, 1, "karate");
+    private JwtAuthenticatorService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new JwtAuthenticatorService(authenticationManager, Clock.system(ZoneOffset.UTC), properties);
+        var principal = new LoginUser("john", "ENC", List.of(new SimpleGrantedAuthority("ROLE_USER")), 777L, 21L);
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filter(JwtAuthTokenFilter filter, String token) throws Exception {
+        var request = new MockHttpServletRequest();
+        request.addHeader(JwtAuthTokenFilter.AUTHORIZATION, JwtAuthTokenFilter.BEARER + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Test
+    void token_carriesSignedUserIdAndClubIdClaims() {
+        // when
+        LoginResponseDto response = service.authenticateAndGenerateToken(new TokenRequestDto("john", "pw", "TOKYO"));
+
+        // then
+        DecodedJWT jwt = JWT.require(Algorithm.HMAC256(SECRET)).build().verify(response.token());
+        assertThat(jwt.getSubject()).isEqualTo("john");
+        assertThat(jwt.getClaim(JwtAuthTokenFilter.CLAIM_USER_ID).asLong()).isEqualTo(777L);
+        assertThat(jwt.getClaim(JwtAuthTokenFilter.CLAIM_CLUB_ID).asLong()).isEqualTo(21L);
+    }
+
+    @Test
+    void filter_exposesClaimsAsTypedPrincipal() throws Exception {
+        // given
+        String token = service.authenticateAndGenerateToken(new TokenRequestDto("john", "pw", "TOKYO")).token();
+
+        // when
+        Authentication authentication = filter(new JwtAuthTokenFilter(properties), token);
+
+        // then
+        assertThat(authentication.getName()).isEqualTo("john");
+        assertThat(authentication.getPrincipal()).isEqualTo(new JwtPrincipal("john", 777L, 21L));
+    }
+
+    @Test
+    void filter_ignoresTokensIssuedBeforeRevocation() throws Exception {
+        // given
+        String token = service.authenticateAndGenerateToken(new TokenRequestDto("john", "pw", "TOKYO")).token();
+        var filter = new JwtAuthTokenFilter(properties);
+        assertThat(filter(filter, token)).isNotNull();
+
+        // when
+        filter.revokeTokensIssuedBefore(777L, Instant.now().plusSeconds(1));
+
+        // then
+        assertThat(filter(filter, token)).isNull();
+    }
+}
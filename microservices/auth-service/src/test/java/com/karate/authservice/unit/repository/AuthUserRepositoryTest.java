@@ -130,4 +130,21 @@ class AuthUserRepositoryTest {
                 .extracting(RoleEntity::getName)
                 .containsExactlyInAnyOrder(RoleName.ROLE_USER, RoleName.ROLE_ADMIN);
     }
+
+    @Test
+    void findAllWithRolesByUserIdIn_returnsOnlyRequestedUsers_withRoles() {
+        var userRole = ensureRole(RoleName.ROLE_USER);
+        var adminRole = ensureRole(RoleName.ROLE_ADMIN);
+        authUserRepository.saveAndFlush(newUser("a", 601L, Set.of(userRole)));
+        authUserRepository.saveAndFlush(newUser("b", 602L, Set.of(userRole, adminRole)));
+        authUserRepository.saveAndFlush(newUser("c", 603L, Set.of(userRole)));
+
+        var found = authUserRepository.findAllWithRolesByUserIdIn(Set.of(601L, 602L, 999L));
+
+        assertThat(found).extracting(AuthUserEntity::getUserId).containsExactlyInAnyOrder(601L, 602L);
+        var b = found.stream().filter(u -> u.getUserId().equals(602L)).findFirst().orElseThrow();
+        assertThat(b.getRoleEntities())
+                .extracting(RoleEntity::getName)
+                .containsExactlyInAnyOrder(RoleName.ROLE_USER, RoleName.ROLE_ADMIN);
+    }
 }
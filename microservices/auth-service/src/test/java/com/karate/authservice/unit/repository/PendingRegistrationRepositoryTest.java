@@ -0,0 +1,84 @@
+package com.karate.authservice.unit.repository;
+
+import com.karate.authservice.domain.model.PendingRegistrationEntity;
+import com.karate.authservice.domain.model.RegistrationStatus;
+import com.karate.authservice.domain.repository.PendingRegistrationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@EntityScan("com.karate.authservice.domain")
+@EnableJpaRepositories("com.karate.authservice.domain")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import="
+})
+class PendingRegistrationRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+
+    @Autowired PendingRegistrationRepository repository;
+
+    private PendingRegistrationEntity registration(String username, RegistrationStatus status, Instant nextAttemptAt) {
+        return repository.saveAndFlush(PendingRegistrationEntity.builder()
+                .registrationId(UUID.randomUUID())
+                .authUserId(1L)
+                .username(username)
+                .email(username + "@ex.com")
+                .karateRank("KYU_9")
+                .clubId(21L)
+                .clubName("TOKYO")
+                .city("C").street("S").number("1").postalCode("00-000")
+                .status(status)
+                .attempts(0)
+                .nextAttemptAt(nextAttemptAt)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build());
+    }
+
+    @Test
+    void lockDue_returnsOnlyDueUnfinishedRegistrations_oldestFirst() {
+        // given
+        var later = registration("later", RegistrationStatus.USER_CREATED, NOW.minusSeconds(5));
+        var earliest = registration("earliest", RegistrationStatus.PENDING, NOW.minusSeconds(30));
+        registration("future", RegistrationStatus.PENDING, NOW.plusSeconds(30));
+        registration("done", RegistrationStatus.COMPLETED, NOW.minusSeconds(60));
+        registration("failed", RegistrationStatus.FAILED, NOW.minusSeconds(60));
+
+        // when
+        List<PendingRegistrationEntity> due = repository.lockDue(NOW, 10);
+
+        // then
+        assertThat(due).extracting(PendingRegistrationEntity::getRegistrationId)
+                .containsExactly(earliest.getRegistrationId(), later.getRegistrationId());
+    }
+
+    @Test
+    void lockDue_respectsBatchLimit() {
+        // given
+        registration("a", RegistrationStatus.PENDING, NOW.minusSeconds(3));
+        registration("b", RegistrationStatus.PENDING, NOW.minusSeconds(2));
+        registration("c", RegistrationStatus.PENDING, NOW.minusSeconds(1));
+
+        // when
+        List<PendingRegistrationEntity> due = repository.lockDue(NOW, 2);
+
+        // then
+        assertThat(due).hasSize(2);
+    }
+}
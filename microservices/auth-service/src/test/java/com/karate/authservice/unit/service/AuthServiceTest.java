@@ -2,19 +2,22 @@ package com.karate.authservice.unit.service;
 
 import com.karate.authservice.api.dto.*;
 import com.karate.authservice.domain.exception.InvalidUserCredentialsException;
+import com.karate.authservice.domain.exception.RegistrationInProgressException;
 import com.karate.authservice.domain.exception.UserNotFoundException;
 import com.karate.authservice.domain.exception.UsernameWhileTryingToLogInNotFoundException;
 import com.karate.authservice.domain.model.AuthUserEntity;
 import com.karate.authservice.domain.model.RoleEntity;
 import com.karate.authservice.domain.model.RoleName;
+import com.karate.authservice.domain.model.UserClubProjectionEntity;
 import com.karate.authservice.domain.model.dto.UserDto;
 import com.karate.authservice.domain.repository.AuthUserRepository;
 import com.karate.authservice.domain.repository.RoleRepository;
 import com.karate.authservice.domain.service.AuthService;
+import com.karate.authservice.domain.service.RegistrationPipeline;
 import com.karate.authservice.domain.service.UpstreamGateway;
+import com.karate.authservice.domain.service.UserClubProjectionService;
 import com.karate.authservice.infrastructure.client.dto.KarateClubDto;
 import com.karate.authservice.infrastructure.client.dto.UserInfoDto;
-import com.karate.authservice.infrastructure.messaging.UserEventProducer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,14 +27,16 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,9 +47,11 @@ class AuthServiceTest {
     @Mock
     RoleRepository roleRepository;
     @Mock
-    UserEventProducer userEventProducer;
-    @Mock
     UpstreamGateway upstream;
+    @Mock
+    UserClubProjectionService clubProjection;
+    @Mock
+    RegistrationPipeline registrationPipeline;
 
     @InjectMocks
     AuthService service;
@@ -59,7 +66,7 @@ class AuthServiceTest {
     }
 
     @Test
-    void register_happyPath_persists_authuser_links_callsUpstreams_andPublishesEvent() {
+    void register_happyPath_acceptsIntoPipeline_withoutCreatingUserSynchronously() {
         // given
         var req = RegisterUserDto.builder()
                 .username("john")
@@ -72,43 +79,24 @@ class AuthServiceTest {
                 .build();
 
         var club = new KarateClubDto(21L, "TOKYO");
-        var savedAuth = AuthUserEntity.builder()
-                .authUserId(501L)
-                .username("john")
-                .password("ENC")
-                .roleEntities(new HashSet<>(Set.of(roleUser)))
-                .build();
-        var linked = AuthUserEntity.builder()
-                .authUserId(501L)
-                .userId(777L)
+        var accepted = RegistrationStatusDto.builder()
+                .registrationId(UUID.randomUUID())
                 .username("john")
-                .password("ENC")
-                .roleEntities(new HashSet<>(Set.of(roleUser)))
+                .status("PENDING")
                 .build();
 
         when(upstream.getClubByName("TOKYO")).thenReturn(club);
         when(roleRepository.findByName(RoleName.ROLE_USER)).thenReturn(Optional.of(roleUser));
-        when(upstream.createUserAsync(any())).thenReturn(java.util.concurrent.CompletableFuture.completedFuture(777L));
-        when(authUserRepository.save(any(AuthUserEntity.class))).thenReturn(savedAuth, linked);
-        when(upstream.getUserById(777L)).thenReturn(new UserInfoDto(777L, "j@ex.com", 21L, "KYU_9", LocalDate.now()));
+        when(registrationPipeline.accept(req, roleUser, club)).thenReturn(accepted);
 
         // when
-        RegistrationResultDto res = service.register(req);
+        RegistrationStatusDto res = service.register(req);
 
         // then
-        assertThat(res.userId()).isEqualTo(777L);
-        assertThat(res.username()).isEqualTo("john");
-        assertThat(res.email()).isEqualTo("j@ex.com");
-
-        verify(userEventProducer).sendUserRegisteredEvent(argThat(ev ->
-                ev.getEventType().equals("USER_REGISTERED")
-                        && ev.getPayload().getUserId().equals(777L)
-                        && ev.getPayload().getUsername().equals("john")
-                        && ev.getPayload().getClubId().equals(21L)
-                        && ev.getPayload().getClubName().equals("TOKYO")
-                        && ev.getPayload().getUserEmail().equals("j@ex.com")
-                        && ev.getPayload().getKarateRank().equals("KYU_9")
-        ));
+        assertThat(res).isEqualTo(accepted);
+        verify(upstream, never()).createUserAsync(any());
+        verify(upstream, never()).getUserById(any());
+        verifyNoInteractions(authUserRepository, clubProjection);
     }
 
     @Test
@@ -161,6 +149,30 @@ class AuthServiceTest {
                 .hasMessageContaining("cannot be null");
     }
 
+    @Test
+    void findByUsername_usesClubProjection_withoutUpstreamCalls() {
+        // given
+        var entity = AuthUserEntity.builder()
+                .authUserId(1L)
+                .userId(777L)
+                .username("john")
+                .password("ENC")
+                .roleEntities(new HashSet<>(Set.of(roleUser)))
+                .build();
+
+        when(authUserRepository.findByUsername("john")).thenReturn(Optional.of(entity));
+        when(clubProjection.find(777L)).thenReturn(Optional.of(
+                new UserClubProjectionEntity(777L, 21L, "TOKYO", Instant.now())));
+
+        // when
+        UserDto dto = service.findByUsername("john");
+
+        // then
+        assertThat(dto.karateClubName()).isEqualTo("TOKYO");
+        assertThat(dto.karateClubId()).isEqualTo(21L);
+        verifyNoInteractions(upstream);
+    }
+
     @Test
     void findByUsername_mapsToUserDto_andFetchesClub() {
         // given
@@ -182,8 +194,27 @@ class AuthServiceTest {
         // then
         assertThat(dto.username()).isEqualTo("john");
         assertThat(dto.karateClubName()).isEqualTo("TOKYO");
+        assertThat(dto.karateClubId()).isEqualTo(21L);
         assertThat(dto.roles()).contains(RoleName.ROLE_USER);
         assertThat(dto.password()).isEqualTo("ENC");
+        verify(clubProjection).backfill(777L, 21L, "TOKYO");
+    }
+
+    @Test
+    void findByUsername_throws_whenRegistrationStillInProgress() {
+        // given
+        var entity = AuthUserEntity.builder()
+                .authUserId(1L)
+                .username("john")
+                .password("ENC")
+                .roleEntities(new HashSet<>(Set.of(roleUser)))
+                .build();
+        when(authUserRepository.findByUsername("john")).thenReturn(Optional.of(entity));
+
+        // when // then
+        assertThatThrownBy(() -> service.findByUsername("john"))
+                .isInstanceOf(RegistrationInProgressException.class);
+        verifyNoInteractions(upstream, clubProjection);
     }
 
     @Test
@@ -200,7 +231,7 @@ class AuthServiceTest {
     void validateUserForLogin_ok_whenClubMatches() {
         // given
         var spy = Mockito.spy(service);
-        doReturn(new UserDto(1L, "john", "ENC", Set.of(RoleName.ROLE_USER), "TOKYO"))
+        doReturn(new UserDto(1L, "john", "ENC", Set.of(RoleName.ROLE_USER), "TOKYO", 10L))
                 .when(spy).findByUsername("john");
         var req = TokenRequestDto.builder().username("john").password("pw").karateClubName("TOKYO").build();
 
@@ -212,7 +243,7 @@ class AuthServiceTest {
     void validateUserForLogin_throws_whenClubMismatch() {
         // given
         var spy = Mockito.spy(service);
-        doReturn(new UserDto(1L, "john", "ENC", Set.of(RoleName.ROLE_USER), "OSAKA"))
+        doReturn(new UserDto(1L, "john", "ENC", Set.of(RoleName.ROLE_USER), "OSAKA", 20L))
                 .when(spy).findByUsername("john");
         var req = TokenRequestDto.builder().username("john").password("pw").karateClubName("TOKYO").build();
 
@@ -251,6 +282,37 @@ class AuthServiceTest {
         assertThat(dto.roles()).contains("ROLE_USER");
     }
 
+    @Test
+    void getAuthUserDtos_returnsMapKeyedByUserId_fromSingleQuery() {
+        // given
+        var a = AuthUserEntity.builder()
+                .authUserId(1L).userId(88L).username("john")
+                .roleEntities(new HashSet<>(Set.of(roleUser)))
+                .password("ENC").build();
+        var b = AuthUserEntity.builder()
+                .authUserId(2L).userId(89L).username("mary")
+                .roleEntities(new HashSet<>(Set.of(roleUser)))
+                .password("ENC").build();
+        when(authUserRepository.findAllWithRolesByUserIdIn(Set.of(88L, 89L, 90L))).thenReturn(List.of(a, b));
+
+        // when
+        var out = service.getAuthUserDtos(List.of(88L, 89L, 90L, 88L));
+
+        // then
+        assertThat(out).containsOnlyKeys(88L, 89L);
+        assertThat(out.get(88L).username()).isEqualTo("john");
+        assertThat(out.get(89L).roles()).contains("ROLE_USER");
+        verify(authUserRepository, times(1)).findAllWithRolesByUserIdIn(any());
+        verify(authUserRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    void getAuthUserDtos_returnsEmpty_withoutQuery_whenNoIds() {
+        // when // then
+        assertThat(service.getAuthUserDtos(List.of())).isEmpty();
+        verifyNoInteractions(authUserRepository);
+    }
+
     @Test
     void getAuthUserDtoByUsername_returnsDto() {
         // given
@@ -0,0 +1,271 @@
+package com.karate.authservice.unit.service;
+
+import com.karate.authservice.api.dto.AddressRequestDto;
+import com.karate.authservice.api.dto.RegisterUserDto;
+import com.karate.authservice.api.dto.RegistrationStatusDto;
+import com.karate.authservice.domain.exception.UpstreamUnavailableException;
+import com.karate.authservice.domain.model.AuthUserEntity;
+import com.karate.authservice.domain.model.PendingRegistrationEntity;
+import com.karate.authservice.domain.model.RegistrationStatus;
+import com.karate.authservice.domain.model.RoleEntity;
+import com.karate.authservice.domain.model.RoleName;
+import com.karate.authservice.domain.repository.AuthUserRepository;
+import com.karate.authservice.domain.repository.PendingRegistrationRepository;
+import com.karate.authservice.domain.service.RegistrationPipeline;
+import com.karate.authservice.domain.service.UpstreamGateway;
+import com.karate.authservice.domain.service.UserClubProjectionService;
+import com.karate.authservice.infrastructure.client.dto.KarateClubDto;
+import com.karate.authservice.infrastructure.messaging.UserEventProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistrationPipelineTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+
+    @Mock
+    PendingRegistrationRepository registrationRepository;
+    @Mock
+    AuthUserRepository authUserRepository;
+    @Mock
+    UserClubProjectionService clubProjection;
+    @Mock
+    UserEventProducer userEventProducer;
+    @Mock
+    UpstreamGateway upstream;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private RegistrationPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new RegistrationPipeline(registrationRepository, authUserRepository, clubProjection,
+                userEventProducer, upstream, transactionManager, Clock.fixed(NOW, ZoneOffset.UTC), 20, 3);
+    }
+
+    private static PendingRegistrationEntity pending(RegistrationStatus status, int attempts) {
+        return PendingRegistrationEntity.builder()
+                .registrationId(UUID.randomUUID())
+                .authUserId(501L)
+                .userId(status == RegistrationStatus.PENDING ? null : 777L)
+                .username("john")
+                .email("j@ex.com")
+                .karateRank("KYU_9")
+                .clubId(21L)
+                .clubName("TOKYO")
+                .city("C").street("S").number("1").postalCode("00-000")
+                .status(status)
+                .attempts(attempts)
+                .nextAttemptAt(NOW)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    private void claim(PendingRegistrationEntity registration) {
+        when(registrationRepository.lockDue(NOW, 20)).thenReturn(List.of(registration));
+        when(registrationRepository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void accept_persistsAuthUserAndPendingRegistration_withoutRemoteCalls() {
+        // given
+        var role = new RoleEntity();
+        role.setName(RoleName.ROLE_USER);
+        var req = RegisterUserDto.builder()
+                .username("john")
+                .email("j@ex.com")
+                .address(new AddressRequestDto("C", "S", "1", "00-000"))
+                .karateClubName("TOKYO")
+                .karateRank("KYU_9")
+                .role("USER")
+                .password("ENC")
+                .build();
+        when(authUserRepository.save(any(AuthUserEntity.class))).thenAnswer(inv -> {
+            AuthUserEntity e = inv.getArgument(0);
+            e.setAuthUserId(501L);
+            return e;
+        });
+        when(registrationRepository.save(any(PendingRegistrationEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // when
+        RegistrationStatusDto status = pipeline.accept(req, role, new KarateClubDto(21L, "TOKYO"));
+
+        // then
+        assertThat(status.status()).isEqualTo("PENDING");
+        assertThat(status.userId()).isNull();
+        verify(authUserRepository).save(argThat(u -> u.getUserId() == null && u.getPassword().equals("ENC")));
+        verify(registrationRepository).save(argThat(r -> r.getAuthUserId().equals(501L)
+                && r.getClubId().equals(21L)
+                && r.getNextAttemptAt().equals(NOW)));
+        verifyNoInteractions(upstream, userEventProducer);
+    }
+
+    @Test
+    void processDue_createsUser_linksAuthUser_andPublishesEvent() {
+        // given
+        var registration = pending(RegistrationStatus.PENDING, 0);
+        var authUser = AuthUserEntity.builder().authUserId(501L).username("john").password("ENC").build();
+        claim(registration);
+        when(upstream.createUserAsync(argThat(p -> p.userId().equals(501L))))
+                .thenReturn(CompletableFuture.completedFuture(777L));
+        when(authUserRepository.findById(501L)).thenReturn(Optional.of(authUser));
+
+        // when
+        int processed = pipeline.processDue();
+
+        // then
+        assertThat(processed).isEqualTo(1);
+        assertThat(authUser.getUserId()).isEqualTo(777L);
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.COMPLETED);
+        verify(clubProjection).upsert(eq(777L), eq(21L), eq("TOKYO"), any(Instant.class));
+        verify(userEventProducer).sendUserRegisteredEvent(argThat(ev ->
+                ev.getEventId().equals(registration.getRegistrationId().toString())
+                        && ev.getPayload().getUserId().equals(777L)
+                        && ev.getPayload().getUserEmail().equals("j@ex.com")
+                        && ev.getPayload().getKarateRank().equals("KYU_9")
+        ));
+        verify(upstream, never()).getUserById(any());
+    }
+
+    @Test
+    void processDue_reschedulesWithBackoff_whenUserServiceUnavailable() {
+        // given
+        var registration = pending(RegistrationStatus.PENDING, 1);
+        claim(registration);
+        when(upstream.createUserAsync(any()))
+                .thenReturn(CompletableFuture.failedFuture(new UpstreamUnavailableException("user-service timeout", null)));
+
+        // when
+        pipeline.processDue();
+
+        // then
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.PENDING);
+        assertThat(registration.getAttempts()).isEqualTo(2);
+        assertThat(registration.getNextAttemptAt()).isEqualTo(NOW.plus(Duration.ofSeconds(4)));
+        assertThat(registration.getLastError()).contains("user-service timeout");
+        verify(authUserRepository, never()).deleteById(any());
+        verifyNoInteractions(userEventProducer);
+    }
+
+    @Test
+    void processDue_completesLinkedRegistration_throughOutbox() {
+        // given
+        var registration = pending(RegistrationStatus.USER_CREATED, 0);
+        claim(registration);
+
+        // when
+        pipeline.processDue();
+
+        // then
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.COMPLETED);
+        verify(userEventProducer).sendUserRegisteredEvent(argThat(ev -> ev.getPayload().getUserId().equals(777L)));
+        verifyNoInteractions(upstream);
+    }
+
+    @Test
+    void processDue_retriesFromStoredState_whenLinkingTransactionFails() {
+        // given
+        var registration = pending(RegistrationStatus.PENDING, 0);
+        var stored = pending(RegistrationStatus.PENDING, 0);
+        stored.setRegistrationId(registration.getRegistrationId());
+        claim(registration);
+        when(upstream.createUserAsync(any())).thenReturn(CompletableFuture.completedFuture(777L));
+        when(authUserRepository.findById(501L)).thenReturn(Optional.of(
+                AuthUserEntity.builder().authUserId(501L).username("john").password("ENC").build()));
+        doThrow(new IllegalStateException("outbox insert failed")).when(userEventProducer).sendUserRegisteredEvent(any());
+        when(registrationRepository.findById(registration.getRegistrationId())).thenReturn(Optional.of(stored));
+
+        // when
+        pipeline.processDue();
+
+        // then
+        assertThat(stored.getStatus()).isEqualTo(RegistrationStatus.PENDING);
+        assertThat(stored.getUserId()).isNull();
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        verify(registrationRepository).save(stored);
+    }
+
+    @Test
+    void processDue_marksFailedAndFreesUsername_afterMaxAttempts() {
+        // given
+        var registration = pending(RegistrationStatus.PENDING, 2);
+        claim(registration);
+        when(upstream.createUserAsync(any()))
+                .thenReturn(CompletableFuture.failedFuture(new UpstreamUnavailableException("user-service timeout", null)));
+
+        // when
+        pipeline.processDue();
+
+        // then
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.FAILED);
+        verify(upstream).deleteUnregisteredUser(501L);
+        verify(authUserRepository).deleteById(501L);
+        verify(registrationRepository).save(registration);
+    }
+
+    @Test
+    void processDue_keepsRegistrationPending_whenCleanupOfUserServiceAccountFails() {
+        // given
+        var registration = pending(RegistrationStatus.PENDING, 2);
+        claim(registration);
+        when(upstream.createUserAsync(any()))
+                .thenReturn(CompletableFuture.failedFuture(new UpstreamUnavailableException("user-service timeout", null)));
+        doThrow(new UpstreamUnavailableException("user-service unavailable", null))
+                .when(upstream).deleteUnregisteredUser(501L);
+
+        // when
+        pipeline.processDue();
+
+        // then
+        assertThat(registration.getStatus()).isEqualTo(RegistrationStatus.PENDING);
+        assertThat(registration.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(8));
+        verify(authUserRepository, never()).deleteById(any());
+        verify(registrationRepository).save(registration);
+    }
+
+    @Test
+    void processDue_returnsZero_whenNothingDue() {
+        // given
+        when(registrationRepository.lockDue(any(Instant.class), anyInt())).thenReturn(List.of());
+        when(registrationRepository.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        // when // then
+        assertThat(pipeline.processDue()).isZero();
+        verifyNoInteractions(upstream, userEventProducer);
+    }
+
+    @Test
+    void getStatus_throws_whenUnknown() {
+        // given
+        UUID id = UUID.randomUUID();
+        when(registrationRepository.findById(id)).thenReturn(Optional.empty());
+
+        // when // then
+        assertThatThrownBy(() -> pipeline.getStatus(id)).isInstanceOf(NoSuchElementException.class);
+    }
+}
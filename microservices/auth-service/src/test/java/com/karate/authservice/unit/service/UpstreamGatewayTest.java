@@ -7,13 +7,17 @@ import com.karate.authservice.infrastructure.client.dto.AddressDto;
 import com.karate.authservice.infrastructure.client.dto.KarateClubDto;
 import com.karate.authservice.infrastructure.client.dto.NewUserRequestDto;
 import com.karate.authservice.infrastructure.client.dto.UserInfoDto;
+import com.karate.authservice.infrastructure.logging.MdcTaskDecorator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.LocalDate;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -34,7 +38,7 @@ class UpstreamGatewayTest {
         when(userClient.getUserById(10L)).thenReturn(new UserInfoDto(10L, "a@b", 21L, "KYU_9", LocalDate.now()));
 
         // when
-        var gw = new UpstreamGateway(userClient, clubClient);
+        var gw = new UpstreamGateway(userClient, clubClient, Runnable::run);
         var info = gw.getUserById(10L);
 
         // then
@@ -49,7 +53,7 @@ class UpstreamGatewayTest {
         when(userClient.getUserById(10L)).thenThrow(new RuntimeException("boom"));
 
         // when
-        var gw = new UpstreamGateway(userClient, clubClient);
+        var gw = new UpstreamGateway(userClient, clubClient, Runnable::run);
 
         // then
         assertThatThrownBy(() -> gw.getUserById(10L))
@@ -63,7 +67,7 @@ class UpstreamGatewayTest {
         when(clubClient.getClubById(21L)).thenReturn(new KarateClubDto(21L, "TOKYO"));
 
         // when
-        var gw = new UpstreamGateway(userClient, clubClient);
+        var gw = new UpstreamGateway(userClient, clubClient, Runnable::run);
         var club = gw.getClubById(21L);
 
         // then
@@ -77,7 +81,7 @@ class UpstreamGatewayTest {
         when(clubClient.getClubById(21L)).thenThrow(new RuntimeException("nope"));
 
         // when
-        var gw = new UpstreamGateway(userClient, clubClient);
+        var gw = new UpstreamGateway(userClient, clubClient, Runnable::run);
 
         // then
         assertThatThrownBy(() -> gw.getClubById(21L))
@@ -91,7 +95,7 @@ class UpstreamGatewayTest {
         when(clubClient.getClubByName("TOKYO")).thenReturn(new KarateClubDto(21L, "TOKYO"));
 
         // when
-        var gw = new UpstreamGateway(userClient, clubClient);
+        var gw = new UpstreamGateway(userClient, clubClient, Runnable::run);
         var club = gw.getClubByName("TOKYO");
 
         // then
@@ -105,7 +109,7 @@ class UpstreamGatewayTest {
         when(clubClient.getClubByName("TOKYO")).thenThrow(new RuntimeException("down"));
 
         // when
-        var gw = new UpstreamGateway(userClient, clubClient);
+        var gw = new UpstreamGateway(userClient, clubClient, Runnable::run);
 
         // then
         assertThatThrownBy(() -> gw.getClubByName("TOKYO"))
@@ -123,7 +127,7 @@ class UpstreamGatewayTest {
         when(userClient.createUser(any())).thenReturn(777L);
 
         // when
-        var gw = new UpstreamGateway(userClient, clubClient);
+        var gw = new UpstreamGateway(userClient, clubClient, Runnable::run);
         Long id = gw.createUserAsync(dto).join();
 
         // then
@@ -140,7 +144,7 @@ class UpstreamGatewayTest {
         when(userClient.createUser(any())).thenThrow(new IllegalStateException("create-failed"));
 
         // when
-        var gw = new UpstreamGateway(userClient, clubClient);
+        var gw = new UpstreamGateway(userClient, clubClient, Runnable::run);
 
         // then
         assertThatThrownBy(() -> gw.createUserAsync(dto).join())
@@ -148,4 +152,34 @@ class UpstreamGatewayTest {
                 .hasCauseInstanceOf(IllegalStateException.class)
                 .hasRootCauseMessage("create-failed");
     }
+
+    @Test
+    void createUserAsync_runsOnExecutor_withCallerCorrelationId() {
+        // given
+        var dto = new NewUserRequestDto(
+                1L, "a@b", 21L, "KYU_9",
+                new AddressDto("C", "S", "1", "00-000")
+        );
+        var seen = new AtomicReference<String>();
+        var callerThread = Thread.currentThread();
+        when(userClient.createUser(any())).thenAnswer(inv -> {
+            seen.set(Thread.currentThread() == callerThread ? "caller-thread" : MDC.get("correlationId"));
+            return 777L;
+        });
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.initialize();
+        MDC.put("correlationId", "cid-42");
+
+        // when
+        try {
+            new UpstreamGateway(userClient, clubClient, executor).createUserAsync(dto).join();
+        } finally {
+            MDC.remove("correlationId");
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(seen.get()).isEqualTo("cid-42");
+    }
 }
@@ -0,0 +1,78 @@
+package com.karate.authservice.unit.service;
+
+import com.karate.authservice.domain.model.UserClubProjectionEntity;
+import com.karate.authservice.domain.repository.UserClubProjectionRepository;
+import com.karate.authservice.domain.service.UserClubProjectionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserClubProjectionServiceTest {
+
+    @Mock
+    UserClubProjectionRepository repository;
+
+    @InjectMocks
+    UserClubProjectionService service;
+
+    @Test
+    void upsert_insertsNewProjection() {
+        // given
+        Instant at = Instant.parse("2025-01-01T10:00:00Z");
+        when(repository.findById(7L)).thenReturn(Optional.empty());
+
+        // when
+        service.upsert(7L, 21L, "TOKYO", at);
+
+        // then
+        verify(repository).save(argThat(p -> p.getUserId().equals(7L)
+                && p.getKarateClubId().equals(21L)
+                && p.getKarateClubName().equals("TOKYO")
+                && p.getUpdatedAt().equals(at)));
+    }
+
+    @Test
+    void upsert_ignoresEventOlderThanStoredProjection() {
+        // given
+        var current = new UserClubProjectionEntity(7L, 22L, "OSAKA", Instant.parse("2025-01-02T10:00:00Z"));
+        when(repository.findById(7L)).thenReturn(Optional.of(current));
+
+        // when
+        service.upsert(7L, 21L, "TOKYO", Instant.parse("2025-01-01T10:00:00Z"));
+
+        // then
+        verify(repository, never()).save(any());
+        assertThat(current.getKarateClubName()).isEqualTo("OSAKA");
+    }
+
+    @Test
+    void backfill_onlyInsertsWhenAbsent_soExistingOrConcurrentProjectionWins() {
+        // given
+        when(repository.insertIfAbsent(7L, 21L, "TOKYO", Instant.EPOCH)).thenReturn(0);
+
+        // when
+        service.backfill(7L, 21L, "TOKYO");
+
+        // then
+        verify(repository).insertIfAbsent(7L, 21L, "TOKYO", Instant.EPOCH);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void find_returnsEmpty_forUnlinkedUser() {
+        // when / then
+        assertThat(service.find(null)).isEmpty();
+        verifyNoInteractions(repository);
+    }
+}
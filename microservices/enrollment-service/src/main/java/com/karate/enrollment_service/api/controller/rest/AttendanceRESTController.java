@@ -0,0 +1,64 @@
+package com.karate.enrollment_service.api.controller.rest;
+
+import com.karate.enrollment_service.api.dto.AttendanceCountDto;
+import com.karate.enrollment_service.api.dto.BatchCheckInRequestDto;
+import com.karate.enrollment_service.api.dto.CheckInResultDto;
+import com.karate.enrollment_service.domain.service.AttendanceService;
+import com.karate.enrollment_service.domain.service.EnrollmentService;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@AllArgsConstructor
+@RestController
+@RequestMapping("/attendance")
+public class AttendanceRESTController {
+
+    private final AttendanceService attendanceService;
+    private final EnrollmentService enrollmentService;
+
+    @PostMapping("/{userId}/{trainingId}")
+    public ResponseEntity<Void> checkIn(
+            @PathVariable Long userId,
+            @PathVariable Long trainingId) {
+        long t0 = System.currentTimeMillis();
+        log.info("POST /attendance/{}/{}", userId, trainingId);
+        attendanceService.checkIn(userId, trainingId);
+        log.info("204 /attendance check-in userId={} trainingId={} took={}ms",
+                userId, trainingId, System.currentTimeMillis() - t0);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<CheckInResultDto> checkInAll(@Valid @RequestBody BatchCheckInRequestDto request) {
+        long t0 = System.currentTimeMillis();
+        log.info("POST /attendance/batch size={}", request.checkIns().size());
+        CheckInResultDto result = attendanceService.checkInAll(request.checkIns());
+        log.info("200 /attendance/batch accepted={} rejected={} took={}ms",
+                result.accepted(), result.rejected().size(), System.currentTimeMillis() - t0);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/me/{trainingId}")
+    public ResponseEntity<Void> checkInMe(
+            Authentication auth,
+            @PathVariable Long trainingId) {
+        long t0 = System.currentTimeMillis();
+        Long userId = enrollmentService.resolveUserId(auth);
+        log.info("POST /attendance/me/{} userId={}", trainingId, userId);
+        attendanceService.checkIn(userId, trainingId);
+        log.info("204 /attendance/me check-in userId={} trainingId={} took={}ms",
+                userId, trainingId, System.currentTimeMillis() - t0);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/training/{trainingId}/count")
+    public ResponseEntity<AttendanceCountDto> countCheckedIn(@PathVariable Long trainingId) {
+        log.debug("GET /attendance/training/{}/count", trainingId);
+        return ResponseEntity.ok(new AttendanceCountDto(trainingId, attendanceService.countCheckedIn(trainingId)));
+    }
+}
@@ -4,6 +4,7 @@ import com.karate.enrollment_service.api.dto.EnrollmentDto;
 import com.karate.enrollment_service.domain.service.EnrollmentService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -25,9 +26,9 @@ public class EnrollmentRESTController {
         long t0 = System.currentTimeMillis();
         log.info("POST /enrollments/{}/{}", userId, trainingId);
         EnrollmentDto enrollment = enrollmentService.enrollUser(userId, trainingId);
-        log.info("200 /enrollments enrol userId={} trainingId={} took={}ms",
-                userId, trainingId, System.currentTimeMillis() - t0);
-        return ResponseEntity.ok(enrollment);
+        log.info("{} /enrollments enrol userId={} trainingId={} took={}ms",
+                statusOf(enrollment).value(), userId, trainingId, System.currentTimeMillis() - t0);
+        return ResponseEntity.status(statusOf(enrollment)).body(enrollment);
     }
 
     @DeleteMapping("/{userId}/{trainingId}")
@@ -63,7 +64,7 @@ public class EnrollmentRESTController {
         long t0 = System.currentTimeMillis();
         Long userId = enrollmentService.resolveUserId(auth);
         log.info("GET /enrollments/me resolved userId={}", userId);
-        var body = enrollmentService.getUserEnrollments(userId);
+        var body = enrollmentService.getMyEnrollments(userId);
         log.info("200 /enrollments/me userId={} took={}ms", userId, System.currentTimeMillis() - t0);
         return ResponseEntity.ok(body);
     }
@@ -76,9 +77,9 @@ public class EnrollmentRESTController {
         Long userId = enrollmentService.resolveUserId(auth);
         log.info("POST /enrollments/me/{} userId={}", trainingId, userId);
         var dto = enrollmentService.enrollUser(userId, trainingId);
-        log.info("200 /enrollments/me enroll userId={} trainingId={} took={}ms",
-                userId, trainingId, System.currentTimeMillis() - t0);
-        return ResponseEntity.ok(dto);
+        log.info("{} /enrollments/me enroll userId={} trainingId={} took={}ms",
+                statusOf(dto).value(), userId, trainingId, System.currentTimeMillis() - t0);
+        return ResponseEntity.status(statusOf(dto)).body(dto);
     }
 
     @DeleteMapping("/me/{trainingId}")
@@ -93,4 +94,9 @@ public class EnrollmentRESTController {
                 userId, trainingId, System.currentTimeMillis() - t0);
         return ResponseEntity.noContent().build();
     }
+
+    // 202 - placed on the waitlist, the seat follows once someone withdraws
+    private static HttpStatus statusOf(EnrollmentDto enrollment) {
+        return enrollment.status() == EnrollmentDto.Status.WAITLISTED ? HttpStatus.ACCEPTED : HttpStatus.OK;
+    }
 }
@@ -0,0 +1,7 @@
+package com.karate.enrollment_service.api.dto;
+
+public record AttendanceCountDto(
+        Long trainingId,
+        int checkedIn
+) {
+}
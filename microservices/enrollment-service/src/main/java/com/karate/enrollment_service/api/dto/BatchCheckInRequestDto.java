@@ -0,0 +1,12 @@
+package com.karate.enrollment_service.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchCheckInRequestDto(
+        @NotEmpty @Size(max = 1000) List<@Valid CheckInRequestDto> checkIns
+) {
+}
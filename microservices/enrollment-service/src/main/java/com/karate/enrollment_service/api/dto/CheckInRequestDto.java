@@ -0,0 +1,9 @@
+package com.karate.enrollment_service.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record CheckInRequestDto(
+        @NotNull Long userId,
+        @NotNull Long trainingId
+) {
+}
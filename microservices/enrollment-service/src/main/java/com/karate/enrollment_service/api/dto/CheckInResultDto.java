@@ -0,0 +1,10 @@
+package com.karate.enrollment_service.api.dto;
+
+import java.util.List;
+
+public record CheckInResultDto(
+        int accepted,
+        // not enrolled for the training, nothing stored for them
+        List<CheckInRequestDto> rejected
+) {
+}
@@ -11,6 +11,13 @@ public record EnrollmentDto(
         Long enrollmentId,
         UserInfoDto user,
         TrainingSessionDto training,
-        LocalDateTime enrolledAt
+        LocalDateTime enrolledAt,
+        Status status,
+        // set only while WAITLISTED; 1 is the next to get a seat
+        Long waitlistPosition
 ) {
+    public enum Status {
+        ACTIVE,
+        WAITLISTED
+    }
 }
@@ -132,9 +132,9 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
 
-    @ExceptionHandler(UpstreamUnavailableException.class)
-    public ResponseEntity<ErrorResponse> handleUpstreamUnavailable(UpstreamUnavailableException ex, HttpServletRequest request) {
-        log.warn("503 Upstream unavailable path={} msg={}", request.getRequestURI(), ex.getMessage());
+    @ExceptionHandler({UpstreamUnavailableException.class, CheckInUnavailableException.class})
+    public ResponseEntity<ErrorResponse> handleUpstreamUnavailable(RuntimeException ex, HttpServletRequest request) {
+        log.warn("503 Unavailable path={} msg={}", request.getRequestURI(), ex.getMessage());
         var body = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage(),
                 null, request.getRequestURI(), LocalDateTime.now());
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
@@ -0,0 +1,7 @@
+package com.karate.enrollment_service.domain.exception;
+
+public class CheckInUnavailableException extends RuntimeException {
+    public CheckInUnavailableException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
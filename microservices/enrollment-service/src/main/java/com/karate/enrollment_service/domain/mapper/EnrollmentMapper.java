@@ -2,29 +2,145 @@ package com.karate.enrollment_service.domain.mapper;
 
 import com.karate.enrollment_service.api.dto.EnrollmentDto;
 import com.karate.enrollment_service.domain.model.EnrollmentEntity;
-import com.karate.enrollment_service.infrastructure.client.TrainingClient;
-import com.karate.enrollment_service.infrastructure.client.UserClient;
+import com.karate.enrollment_service.domain.model.WaitlistSpot;
+import com.karate.enrollment_service.domain.service.ParticipantProjectionService;
+import com.karate.enrollment_service.domain.service.UpstreamGateway;
 import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDto;
 import com.karate.enrollment_service.infrastructure.client.dto.UserInfoDto;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class EnrollmentMapper {
 
-    private final UserClient userClient;
-    private final TrainingClient trainingClient;
+    private final ParticipantProjectionService projections;
+    private final UpstreamGateway upstream;
 
     public EnrollmentDto toDto(EnrollmentEntity entity) {
-        UserInfoDto user = userClient.getUserById(entity.getUserId());
-        TrainingSessionDto training = trainingClient.getTrainingById(entity.getTrainingId());
-
         return EnrollmentDto.builder()
                 .enrollmentId(entity.getEnrollmentId())
-                .user(user)
-                .training(training)
+                .user(user(entity.getUserId()))
+                .training(training(entity.getTrainingId()))
                 .enrolledAt(entity.getEnrolledAt())
+                .status(EnrollmentDto.Status.ACTIVE)
+                .build();
+    }
+
+    public EnrollmentDto toDto(Long userId, WaitlistSpot spot) {
+        return EnrollmentDto.builder()
+                .user(user(userId))
+                .training(training(spot.trainingId()))
+                .status(EnrollmentDto.Status.WAITLISTED)
+                .waitlistPosition(spot.position())
                 .build();
     }
+
+    public List<EnrollmentDto> toDtos(List<EnrollmentEntity> enrollments) {
+        return toDtos(enrollments, null, List.of());
+    }
+
+    /**
+     * Maps a list at once: each distinct user and training is resolved a single time, trainings
+     * missing from the projection come from training-service in one batch call. Entries whose
+     * training no longer exists are left out instead of failing the whole list.
+     */
+    public List<EnrollmentDto> toDtos(List<EnrollmentEntity> enrollments, Long waitingUserId, List<WaitlistSpot> spots) {
+        Set<Long> trainingIds = new LinkedHashSet<>();
+        Set<Long> userIds = new LinkedHashSet<>();
+        enrollments.forEach(e -> {
+            trainingIds.add(e.getTrainingId());
+            userIds.add(e.getUserId());
+        });
+        spots.forEach(spot -> trainingIds.add(spot.trainingId()));
+        if (!spots.isEmpty()) {
+            userIds.add(waitingUserId);
+        }
+        Map<Long, TrainingSessionDto> trainings = trainings(trainingIds);
+        Map<Long, UserInfoDto> users = new HashMap<>();
+        userIds.forEach(userId -> users.put(userId, user(userId)));
+
+        List<EnrollmentDto> result = new ArrayList<>(enrollments.size() + spots.size());
+        for (EnrollmentEntity entity : enrollments) {
+            TrainingSessionDto training = trainings.get(entity.getTrainingId());
+            if (training != null) {
+                result.add(EnrollmentDto.builder()
+                        .enrollmentId(entity.getEnrollmentId())
+                        .user(users.get(entity.getUserId()))
+                        .training(training)
+                        .enrolledAt(entity.getEnrolledAt())
+                        .status(EnrollmentDto.Status.ACTIVE)
+                        .build());
+            }
+        }
+        for (WaitlistSpot spot : spots) {
+            TrainingSessionDto training = trainings.get(spot.trainingId());
+            if (training != null) {
+                result.add(EnrollmentDto.builder()
+                        .user(users.get(waitingUserId))
+                        .training(training)
+                        .status(EnrollmentDto.Status.WAITLISTED)
+                        .waitlistPosition(spot.position())
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, TrainingSessionDto> trainings(Collection<Long> trainingIds) {
+        if (trainingIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, TrainingSessionDto> found = new HashMap<>(projections.findTrainings(trainingIds));
+        List<Long> missing = trainingIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            List<TrainingSessionDto> fetched = upstream.getTrainingsByIds(missing);
+            fetched.forEach(training -> found.put(training.trainingSessionId(), training));
+            try {
+                projections.backfillTrainings(fetched);
+            } catch (RuntimeException ex) {
+                log.debug("Training projection backfill skipped size={} reason={}", fetched.size(), ex.toString());
+            }
+            log.debug("Trainings resolved upstream requested={} found={}", missing.size(), fetched.size());
+        }
+        return found;
+    }
+
+    private UserInfoDto user(Long userId) {
+        return projections.findUserInfo(userId)
+                .orElseGet(() -> remember(upstream.getUserById(userId)));
+    }
+
+    private TrainingSessionDto training(Long trainingId) {
+        return projections.findTraining(trainingId)
+                .orElseGet(() -> remember(upstream.getTrainingById(trainingId)));
+    }
+
+    private UserInfoDto remember(UserInfoDto user) {
+        try {
+            projections.backfillUser(user.userId(), user.email(), null, user.karateClubId(), user.karateRank());
+        } catch (RuntimeException ex) {
+            log.debug("User projection backfill skipped userId={} reason={}", user.userId(), ex.toString());
+        }
+        return user;
+    }
+
+    private TrainingSessionDto remember(TrainingSessionDto training) {
+        try {
+            projections.backfillTraining(training);
+        } catch (RuntimeException ex) {
+            log.debug("Training projection backfill skipped trainingId={} reason={}", training.trainingSessionId(), ex.toString());
+        }
+        return training;
+    }
 }
@@ -0,0 +1,25 @@
+package com.karate.enrollment_service.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Number of users checked in to a training. Only written by
+ * {@link com.karate.enrollment_service.infrastructure.persistence.AttendanceBatchWriter}, in the same
+ * transaction as the check-ins it counts.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "attendance_counts")
+public class AttendanceCountEntity {
+    @Id
+    @Column(name = "training_id")
+    private Long trainingId;
+
+    @Column(name = "checked_in", nullable = false)
+    private int checkedIn;
+}
@@ -0,0 +1,6 @@
+package com.karate.enrollment_service.domain.model;
+
+import java.time.LocalDateTime;
+
+public record CheckIn(Long userId, Long trainingId, LocalDateTime checkedInAt) {
+}
@@ -0,0 +1,45 @@
+package com.karate.enrollment_service.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of each training session, owned by training-service events. Deleted sessions stay
+ * as tombstones, like {@link UserProjectionEntity}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "training_projection")
+public class TrainingProjectionEntity {
+    @Id
+    @Column(name = "training_session_id")
+    private Long trainingSessionId;
+
+    @Column(name = "club_id")
+    private Long clubId;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(name = "capacity")
+    private Integer capacity;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
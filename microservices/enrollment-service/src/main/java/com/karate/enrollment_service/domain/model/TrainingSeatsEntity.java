@@ -0,0 +1,32 @@
+package com.karate.enrollment_service.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Seats taken on a capacity-limited training and the ticket counters of its waitlist. Only changed
+ * through the conditional updates of
+ * {@link com.karate.enrollment_service.domain.repository.TrainingSeatsRepository}, whose row lock
+ * also orders the waitlist of the training.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "training_seats")
+public class TrainingSeatsEntity {
+    @Id
+    @Column(name = "training_id")
+    private Long trainingId;
+
+    @Column(name = "reserved", nullable = false)
+    private int reserved;
+
+    @Column(name = "waitlist_issued", nullable = false)
+    private long waitlistIssued;
+
+    @Column(name = "waitlist_served", nullable = false)
+    private long waitlistServed;
+}
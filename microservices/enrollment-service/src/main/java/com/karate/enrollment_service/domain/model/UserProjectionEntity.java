@@ -0,0 +1,41 @@
+package com.karate.enrollment_service.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Local copy of the user fields enrollments show, owned by user events. A deleted user stays as
+ * a tombstone so a late or replayed registration cannot bring it back.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "user_projection")
+public class UserProjectionEntity {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "username")
+    private String username;
+
+    @Column(name = "karate_club_id")
+    private Long karateClubId;
+
+    @Column(name = "karate_rank")
+    private String karateRank;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
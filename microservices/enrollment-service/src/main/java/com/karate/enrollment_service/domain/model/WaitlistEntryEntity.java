@@ -0,0 +1,38 @@
+package com.karate.enrollment_service.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user waiting for a seat on a full training. Tickets of one training are dense: the head of the
+ * queue holds {@code waitlist_served + 1} and leaving closes the gap behind the leaver.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "waitlist_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uq_waitlist_user_training", columnNames = {"user_id", "training_id"}))
+public class WaitlistEntryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entry_id")
+    private Long entryId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "training_id", nullable = false)
+    private Long trainingId;
+
+    @Column(name = "ticket", nullable = false)
+    private long ticket;
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+}
@@ -0,0 +1,7 @@
+package com.karate.enrollment_service.domain.model;
+
+/**
+ * Place of a user in the waitlist of a training, 1 being the next to get a seat.
+ */
+public record WaitlistSpot(Long trainingId, Long position) {
+}
@@ -2,8 +2,11 @@ package com.karate.enrollment_service.domain.repository;
 
 import com.karate.enrollment_service.domain.model.EnrollmentEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +18,13 @@ public interface EnrollmentRepository extends JpaRepository<EnrollmentEntity, Lo
 
     List<EnrollmentEntity> findAllByTrainingId(Long trainingId);
 
+    int countByTrainingId(Long trainingId);
+
+    boolean existsByUserIdAndTrainingId(Long userId, Long trainingId);
+
+    @Query("SELECT e.userId FROM EnrollmentEntity e WHERE e.trainingId = :trainingId AND e.userId IN :userIds")
+    List<Long> findEnrolledUserIds(@Param("trainingId") Long trainingId, @Param("userIds") Collection<Long> userIds);
+
     void deleteByUserIdAndTrainingId(Long userId, Long trainingId);
 
     void deleteByUserId(Long userId);
@@ -0,0 +1,9 @@
+package com.karate.enrollment_service.domain.repository;
+
+import com.karate.enrollment_service.domain.model.TrainingProjectionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TrainingProjectionRepository extends JpaRepository<TrainingProjectionEntity, Long> {
+}
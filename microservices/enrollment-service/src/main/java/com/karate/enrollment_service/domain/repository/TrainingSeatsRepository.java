@@ -0,0 +1,75 @@
+package com.karate.enrollment_service.domain.repository;
+
+import com.karate.enrollment_service.domain.model.TrainingSeatsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TrainingSeatsRepository extends JpaRepository<TrainingSeatsEntity, Long> {
+
+    // unlocked read: lets a full training turn requests away without queueing on the row lock
+    @Query("SELECT s.reserved FROM TrainingSeatsEntity s WHERE s.trainingId = :trainingId")
+    Optional<Integer> findReserved(@Param("trainingId") Long trainingId);
+
+    /**
+     * Takes a seat if one is left; the row lock makes concurrent callers queue on this one row
+     * and re-check the condition, so the count can never pass {@code capacity}.
+     *
+     * @return 1 when a seat was taken, 0 when the training is full
+     */
+    @Modifying
+    @Query("UPDATE TrainingSeatsEntity s SET s.reserved = s.reserved + 1 "
+            + "WHERE s.trainingId = :trainingId AND s.reserved < :capacity")
+    int reserve(@Param("trainingId") Long trainingId, @Param("capacity") int capacity);
+
+    // plain insert: fails on an existing row instead of overwriting its count like save() would
+    @Modifying
+    @Query(value = "INSERT INTO training_seats (training_id, reserved, waitlist_issued, waitlist_served) "
+            + "VALUES (:trainingId, :reserved, 0, 0)", nativeQuery = true)
+    void insert(@Param("trainingId") Long trainingId, @Param("reserved") int reserved);
+
+    @Modifying
+    @Query("UPDATE TrainingSeatsEntity s SET s.reserved = s.reserved - 1 "
+            + "WHERE s.trainingId = :trainingId AND s.reserved > 0")
+    int release(@Param("trainingId") Long trainingId);
+
+    @Query(value = "SELECT training_id FROM training_seats WHERE training_id = :trainingId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lock(@Param("trainingId") Long trainingId);
+
+    /**
+     * Hands out the next waitlist ticket, but only while every seat is still taken; checked under
+     * the same row lock as {@link #reserve}, so nobody queues behind a seat that just came free.
+     *
+     * @return 1 when a ticket was issued, 0 when a seat is free
+     */
+    @Modifying
+    @Query("UPDATE TrainingSeatsEntity s SET s.waitlistIssued = s.waitlistIssued + 1 "
+            + "WHERE s.trainingId = :trainingId AND s.reserved >= :capacity")
+    int issueTicket(@Param("trainingId") Long trainingId, @Param("capacity") int capacity);
+
+    /**
+     * Calls the head of the waitlist; concurrent callers queue on the row, so each ticket is
+     * served exactly once.
+     *
+     * @return 1 when a ticket was served, 0 when nobody is waiting
+     */
+    @Modifying
+    @Query("UPDATE TrainingSeatsEntity s SET s.waitlistServed = s.waitlistServed + 1 "
+            + "WHERE s.trainingId = :trainingId AND s.waitlistServed < s.waitlistIssued")
+    int serveTicket(@Param("trainingId") Long trainingId);
+
+    @Modifying
+    @Query("UPDATE TrainingSeatsEntity s SET s.waitlistIssued = s.waitlistIssued - 1 WHERE s.trainingId = :trainingId")
+    int returnTicket(@Param("trainingId") Long trainingId);
+
+    @Query("SELECT s.waitlistIssued FROM TrainingSeatsEntity s WHERE s.trainingId = :trainingId")
+    Long findIssued(@Param("trainingId") Long trainingId);
+
+    @Query("SELECT s.waitlistServed FROM TrainingSeatsEntity s WHERE s.trainingId = :trainingId")
+    Long findServed(@Param("trainingId") Long trainingId);
+}
@@ -0,0 +1,9 @@
+package com.karate.enrollment_service.domain.repository;
+
+import com.karate.enrollment_service.domain.model.UserProjectionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserProjectionRepository extends JpaRepository<UserProjectionEntity, Long> {
+}
@@ -0,0 +1,47 @@
+package com.karate.enrollment_service.domain.repository;
+
+import com.karate.enrollment_service.domain.model.WaitlistEntryEntity;
+import com.karate.enrollment_service.domain.model.WaitlistSpot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntryEntity, Long> {
+
+    boolean existsByUserIdAndTrainingId(Long userId, Long trainingId);
+
+    boolean existsByTrainingId(Long trainingId);
+
+    Optional<WaitlistEntryEntity> findByTrainingIdAndTicket(Long trainingId, long ticket);
+
+    List<WaitlistEntryEntity> findAllByUserId(Long userId);
+
+    @Query("SELECT w.ticket FROM WaitlistEntryEntity w WHERE w.userId = :userId AND w.trainingId = :trainingId")
+    Optional<Long> findTicket(@Param("userId") Long userId, @Param("trainingId") Long trainingId);
+
+    // two primary key lookups per entry, independent of the queue length
+    @Query("SELECT new com.karate.enrollment_service.domain.model.WaitlistSpot(w.trainingId, w.ticket - s.waitlistServed) "
+            + "FROM WaitlistEntryEntity w, TrainingSeatsEntity s "
+            + "WHERE s.trainingId = w.trainingId AND w.userId = :userId AND w.trainingId = :trainingId")
+    Optional<WaitlistSpot> findSpot(@Param("userId") Long userId, @Param("trainingId") Long trainingId);
+
+    @Query("SELECT new com.karate.enrollment_service.domain.model.WaitlistSpot(w.trainingId, w.ticket - s.waitlistServed) "
+            + "FROM WaitlistEntryEntity w, TrainingSeatsEntity s "
+            + "WHERE s.trainingId = w.trainingId AND w.userId = :userId ORDER BY w.joinedAt")
+    List<WaitlistSpot> findSpotsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntryEntity w WHERE w.userId = :userId AND w.trainingId = :trainingId")
+    int deleteEntry(@Param("userId") Long userId, @Param("trainingId") Long trainingId);
+
+    // moves everyone behind a leaver one place up; needs the training's seat counter row lock
+    @Modifying
+    @Query("UPDATE WaitlistEntryEntity w SET w.ticket = w.ticket - 1 WHERE w.trainingId = :trainingId AND w.ticket > :ticket")
+    int closeGap(@Param("trainingId") Long trainingId, @Param("ticket") long ticket);
+}
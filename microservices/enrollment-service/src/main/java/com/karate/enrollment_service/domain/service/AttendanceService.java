@@ -0,0 +1,118 @@
+package com.karate.enrollment_service.domain.service;
+
+import com.karate.enrollment_service.api.dto.CheckInRequestDto;
+import com.karate.enrollment_service.api.dto.CheckInResultDto;
+import com.karate.enrollment_service.domain.exception.CheckInUnavailableException;
+import com.karate.enrollment_service.domain.exception.UserNotEnrolledException;
+import com.karate.enrollment_service.domain.model.AttendanceCountEntity;
+import com.karate.enrollment_service.domain.model.CheckIn;
+import com.karate.enrollment_service.domain.repository.AttendanceCountRepository;
+import com.karate.enrollment_service.domain.repository.EnrollmentRepository;
+import com.karate.enrollment_service.infrastructure.persistence.AttendanceBatchWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Records that enrolled users showed up for a training. Check-ins are validated against the
+ * enrollments, then stored by the {@link AttendanceBatchWriter}; a call returns once its rows are
+ * committed, so repeating a check-in after an error is always safe.
+ */
+@Slf4j
+@Service
+public class AttendanceService {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final AttendanceCountRepository countRepository;
+    private final AttendanceBatchWriter writer;
+    private final Duration writeTimeout;
+
+    public AttendanceService(EnrollmentRepository enrollmentRepository,
+                             AttendanceCountRepository countRepository,
+                             AttendanceBatchWriter writer,
+                             @Value("${enrollment.attendance.write-timeout:5s}") Duration writeTimeout) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.countRepository = countRepository;
+        this.writer = writer;
+        this.writeTimeout = writeTimeout;
+    }
+
+    /**
+     * @throws UserNotEnrolledException    when the user is not enrolled for the training
+     * @throws CheckInUnavailableException when the check-in could not be stored in time
+     */
+    public void checkIn(Long userId, Long trainingId) {
+        long t0 = System.currentTimeMillis();
+        if (!enrollmentRepository.existsByUserIdAndTrainingId(userId, trainingId)) {
+            throw new UserNotEnrolledException("User is not enrolled for this training");
+        }
+        await(writer.write(List.of(new CheckIn(userId, trainingId, LocalDateTime.now()))));
+        log.debug("Check-in OK userId={} trainingId={} took={}ms", userId, trainingId, System.currentTimeMillis() - t0);
+    }
+
+    /**
+     * Checks in every enrolled user of the request with one enrollment query per training and a
+     * single write; users without an enrollment are returned as rejected.
+     *
+     * @throws CheckInUnavailableException when the check-ins could not be stored in time
+     */
+    public CheckInResultDto checkInAll(List<CheckInRequestDto> requests) {
+        long t0 = System.currentTimeMillis();
+        Map<Long, Set<Long>> usersByTraining = new LinkedHashMap<>();
+        for (CheckInRequestDto request : requests) {
+            usersByTraining.computeIfAbsent(request.trainingId(), id -> new HashSet<>()).add(request.userId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CheckIn> accepted = new ArrayList<>();
+        List<CheckInRequestDto> rejected = new ArrayList<>();
+        usersByTraining.forEach((trainingId, userIds) -> {
+            Set<Long> enrolled = new HashSet<>(enrollmentRepository.findEnrolledUserIds(trainingId, userIds));
+            for (Long userId : userIds) {
+                if (enrolled.contains(userId)) {
+                    accepted.add(new CheckIn(userId, trainingId, now));
+                } else {
+                    rejected.add(new CheckInRequestDto(userId, trainingId));
+                }
+            }
+        });
+
+        if (!accepted.isEmpty()) {
+            await(writer.write(accepted));
+        }
+        log.info("Batch check-in requested={} accepted={} rejected={} took={}ms",
+                requests.size(), accepted.size(), rejected.size(), System.currentTimeMillis() - t0);
+        return new CheckInResultDto(accepted.size(), rejected);
+    }
+
+    public int countCheckedIn(Long trainingId) {
+        return countRepository.findById(trainingId)
+                .map(AttendanceCountEntity::getCheckedIn)
+                .orElse(0);
+    }
+
+    private void await(CompletableFuture<Void> written) {
+        try {
+            written.get(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckInUnavailableException("Check-in interrupted", e);
+        } catch (ExecutionException | TimeoutException e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            throw new CheckInUnavailableException("Check-in could not be stored, retry", cause);
+        }
+    }
+}
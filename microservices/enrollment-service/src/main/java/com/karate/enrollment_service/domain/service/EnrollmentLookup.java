@@ -0,0 +1,126 @@
+package com.karate.enrollment_service.domain.service;
+
+import com.karate.enrollment_service.domain.exception.UpstreamUnavailableException;
+import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDto;
+import com.karate.enrollment_service.infrastructure.client.dto.UserPayload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Resolves the user and the training of an enrollment from the local projections and only asks
+ * user-service or training-service for what is missing there. Remote lookups run concurrently, so
+ * the caller waits for the slower of the two calls instead of their sum. Each call still goes
+ * through the {@link UpstreamGateway} proxy (circuit breaker, retry, 404 mapping) and gets its own
+ * time budget; its answer is written back to the projection. Parallelism is bounded by the
+ * application task executor.
+ */
+@Slf4j
+@Component
+public class EnrollmentLookup {
+
+    private final ParticipantProjectionService projections;
+    private final UpstreamGateway upstream;
+    private final Executor executor;
+    private final Duration callTimeout;
+
+    public EnrollmentLookup(ParticipantProjectionService projections,
+                            UpstreamGateway upstream,
+                            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor,
+                            @Value("${enrollment.upstream.call-timeout:5s}") Duration callTimeout) {
+        this.projections = projections;
+        this.upstream = upstream;
+        this.executor = executor;
+        this.callTimeout = callTimeout;
+    }
+
+    public record Participants(UserPayload user, TrainingSessionDto training) {
+    }
+
+    /**
+     * Resolves both participants and returns once both are known.
+     *
+     * @throws com.karate.enrollment_service.domain.exception.UserNotFoundException     when the user does not exist
+     * @throws com.karate.enrollment_service.domain.exception.TrainingNotFoundException when the training does not exist
+     * @throws UpstreamUnavailableException                                              when a call fails or exceeds its budget
+     */
+    public Participants load(Long userId, Long trainingId) {
+        return load(userId, trainingId, () -> {
+        });
+    }
+
+    /**
+     * Same as {@link #load(Long, Long)}, running {@code meanwhile} on the calling thread while the
+     * lookups are in flight.
+     */
+    public Participants load(Long userId, Long trainingId, Runnable meanwhile) {
+        Optional<UserPayload> localUser = projections.findUser(userId);
+        Optional<TrainingSessionDto> localTraining = projections.findTraining(trainingId);
+        CompletableFuture<UserPayload> user = localUser
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> call("user-service", () -> remember(upstream.getUser(userId))));
+        CompletableFuture<TrainingSessionDto> training = localTraining
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> call("training-service", () -> remember(upstream.getTrainingById(trainingId))));
+        try {
+            meanwhile.run();
+            return new Participants(join(user), join(training));
+        } finally {
+            user.cancel(false);
+            training.cancel(false);
+        }
+    }
+
+    private UserPayload remember(UserPayload user) {
+        try {
+            projections.backfillUser(user.userId(), user.userEmail(), user.username(), null, null);
+        } catch (RuntimeException ex) {
+            log.debug("User projection backfill skipped userId={} reason={}", user.userId(), ex.toString());
+        }
+        return user;
+    }
+
+    private TrainingSessionDto remember(TrainingSessionDto training) {
+        try {
+            projections.backfillTraining(training);
+        } catch (RuntimeException ex) {
+            log.debug("Training projection backfill skipped trainingId={} reason={}", training.trainingSessionId(), ex.toString());
+        }
+        return training;
+    }
+
+    private <T> CompletableFuture<T> call(String service, Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(lookup, executor)
+                .orTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        log.warn("Upstream {} exceeded budget={}ms", service, callTimeout.toMillis());
+                        throw new UpstreamUnavailableException(service + " timeout", cause);
+                    }
+                    throw cause instanceof RuntimeException re ? re : new CompletionException(cause);
+                });
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,24 +1,34 @@
 package com.karate.enrollment_service.domain.service;
 
 import com.karate.enrollment_service.api.dto.EnrollmentDto;
-import com.karate.enrollment_service.domain.exception.TrainingNotFoundException;
 import com.karate.enrollment_service.domain.exception.UserAlreadyEnrolledException;
 import com.karate.enrollment_service.domain.exception.UserNotEnrolledException;
 import com.karate.enrollment_service.domain.exception.UserNotFoundException;
 import com.karate.enrollment_service.domain.mapper.EnrollmentMapper;
 import com.karate.enrollment_service.domain.model.EnrollmentEntity;
+import com.karate.enrollment_service.domain.model.WaitlistEntryEntity;
+import com.karate.enrollment_service.domain.model.WaitlistSpot;
 import com.karate.enrollment_service.domain.repository.EnrollmentRepository;
+import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDto;
+import com.karate.enrollment_service.infrastructure.client.dto.UserPayload;
+import com.karate.enrollment_service.infrastructure.jwt.JwtPrincipal;
 import com.karate.enrollment_service.infrastructure.messaging.EnrollmentEventProducer;
 import com.karate.enrollment_service.infrastructure.messaging.event.EnrollmentEvent;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -30,73 +40,209 @@ public class EnrollmentService {
     private final EnrollmentMapper enrollmentMapper;
     private final EnrollmentEventProducer eventProducer;
     private final UpstreamGateway upstream;
+    private final EnrollmentLookup lookup;
+    private final ParticipantProjectionService projections;
+    private final TrainingSeatService seats;
+    private final WaitlistService waitlist;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * Resolves the participants outside any transaction, then takes a seat, stores the enrollment
+     * and queues the event in one short transaction, so a training's seat row stays locked only
+     * for the inserts. On a full training the user joins its waitlist instead.
+     */
     public EnrollmentDto enrollUser(Long userId, Long trainingId) {
         long t0 = System.currentTimeMillis();
         log.info("Enroll start userId={} trainingId={}", userId, trainingId);
 
-        if (Boolean.FALSE.equals(upstream.checkUserExists(userId))) {
-            throw new UserNotFoundException("User with id " + userId + " does not exist");
-        }
-
-        if (Boolean.FALSE.equals(upstream.checkTrainingSessionExists(trainingId))) {
-            throw new TrainingNotFoundException("Training with id " + trainingId + " does not exist");
-        }
-
-        var user = upstream.getUser(userId);
-
-        var training = upstream.getTrainingById(trainingId);
+        var participants = lookup.load(userId, trainingId, () -> {
+            enrollmentRepository.findByUserIdAndTrainingId(userId, trainingId)
+                    .ifPresent(e -> {
+                        throw new UserAlreadyEnrolledException("User already enrolled for this training");
+                    });
+            if (waitlist.isWaiting(userId, trainingId)) {
+                throw new UserAlreadyEnrolledException("User already on the waitlist for this training");
+            }
+        });
+        var user = participants.user();
+        var training = participants.training();
+        seats.ensureCounter(training);
 
-        enrollmentRepository.findByUserIdAndTrainingId(userId, trainingId)
-                .ifPresent(e -> {
-                    throw new UserAlreadyEnrolledException("User already enrolled for this training");
-                });
+        Outcome outcome = transactionTemplate.execute(status -> {
+            while (!seats.tryReserve(training)) {
+                Optional<WaitlistSpot> spot = waitlist.join(userId, training);
+                if (spot.isPresent()) {
+                    return new Outcome(null, spot.get());
+                }
+            }
 
-        EnrollmentEntity enrollment = EnrollmentEntity.builder()
-                .userId(userId)
-                .trainingId(trainingId)
-                .enrolledAt(LocalDateTime.now())
-                .build();
+            EnrollmentEntity enrollment = EnrollmentEntity.builder()
+                    .userId(userId)
+                    .trainingId(trainingId)
+                    .enrolledAt(LocalDateTime.now())
+                    .build();
 
-        EnrollmentEntity saved = enrollmentRepository.save(enrollment);
+            EnrollmentEntity persisted;
+            try {
+                // a concurrent duplicate trips uq_user_training; the seat goes back with the rollback
+                persisted = enrollmentRepository.saveAndFlush(enrollment);
+            } catch (DataIntegrityViolationException e) {
+                throw new UserAlreadyEnrolledException("User already enrolled for this training");
+            }
 
-        EnrollmentEvent event = new EnrollmentEvent(
-                UUID.randomUUID().toString(),
-                "USER_ENROLLED",
-                Instant.now(),
-                new EnrollmentEvent.Payload(
-                        user.userId(),
-                        user.userEmail(),
-                        user.username(),
-                        training.trainingSessionId(),
-                        training.description(),
-                        training.startTime(),
-                        training.endTime()
-                )
-        );
-        eventProducer.sendEnrollmentEvent(event);
+            eventProducer.sendEnrollmentEvent(enrollmentEvent("USER_ENROLLED", user, training));
+            return new Outcome(persisted, null);
+        });
 
+        if (outcome.waitlisted() != null) {
+            log.info("Enroll WAITLISTED userId={} trainingId={} position={} took={}ms",
+                    userId, trainingId, outcome.waitlisted().position(), System.currentTimeMillis() - t0);
+            return enrollmentMapper.toDto(userId, outcome.waitlisted());
+        }
         log.info("Enroll OK userId={} trainingId={} took={}ms", userId, trainingId, System.currentTimeMillis() - t0);
-        return enrollmentMapper.toDto(saved);
+        return enrollmentMapper.toDto(outcome.enrolled());
+    }
+
+    private record Outcome(EnrollmentEntity enrolled, WaitlistSpot waitlisted) {
     }
 
+    /**
+     * Takes the user off the training, or off its waitlist when they are still waiting. A freed
+     * seat goes straight to the head of the waitlist.
+     */
     @Transactional
     public void withdrawUser(Long userId, Long trainingId) {
         long t0 = System.currentTimeMillis();
         log.info("Withdraw start userId={} trainingId={}", userId, trainingId);
 
+        if (waitlist.isWaiting(userId, trainingId) && waitlist.leave(userId, trainingId)) {
+            log.info("Withdraw OK (waitlist) userId={} trainingId={} took={}ms", userId, trainingId, System.currentTimeMillis() - t0);
+            return;
+        }
+
         EnrollmentEntity enrollment = enrollmentRepository.findByUserIdAndTrainingId(userId, trainingId)
                 .orElseThrow(() -> new UserNotEnrolledException("User is not enrolled for this training"));
 
-        var user = upstream.getUser(userId);
-        var training = upstream.getTrainingById(trainingId);
+        var participants = lookup.load(userId, trainingId);
 
         enrollmentRepository.delete(enrollment);
+        handOverSeat(trainingId);
+
+        eventProducer.sendEnrollmentEvent(enrollmentEvent("USER_UNENROLLED", participants.user(), participants.training()));
+        log.info("Withdraw OK userId={} trainingId={} took={}ms", userId, trainingId, System.currentTimeMillis() - t0);
+    }
+
+    /**
+     * Drops a deleted user's enrollments and waitlist entries, handing their seats on.
+     */
+    @Transactional
+    public void removeUser(Long userId) {
+        waitlist.leaveAll(userId);
+        for (EnrollmentEntity enrollment : enrollmentRepository.findAllByUserId(userId)) {
+            enrollmentRepository.delete(enrollment);
+            handOverSeat(enrollment.getTrainingId());
+        }
+        log.info("Removed enrollments of deleted userId={}", userId);
+    }
+
+    /**
+     * Hands the seats a raised capacity freed to the head of the training's waitlist, one waiting
+     * user per seat, under the seat row lock like any other handover. A training whose limit was
+     * removed ({@code capacity} null) enrolls everyone still waiting and empties its queue.
+     *
+     * @return number of users promoted
+     */
+    @Transactional
+    public int promoteWaitlist(Long trainingId, Integer capacity) {
+        if (!waitlist.hasWaiting(trainingId)) {
+            return 0;
+        }
+        int promoted = 0;
+        if (capacity == null) {
+            // seats of an unlimited training are not counted, so nobody takes one
+            while (promoteHead(trainingId)) {
+                promoted++;
+            }
+        } else {
+            while (seats.tryReserve(trainingId, capacity)) {
+                if (!promoteHead(trainingId)) {
+                    seats.release(trainingId);
+                    break;
+                }
+                promoted++;
+            }
+        }
+        log.info("Waitlist promoted after capacity change trainingId={} capacity={} promoted={}", trainingId, capacity, promoted);
+        return promoted;
+    }
+
+    // promotes the head of the waitlist into the freed seat, or gives the seat back when nobody waits
+    private void handOverSeat(Long trainingId) {
+        if (!promoteHead(trainingId)) {
+            seats.release(trainingId);
+        }
+    }
+
+    // enrolls the head of the waitlist into a seat already held for it; runs under the seat row lock,
+    // so only the local projections are read here
+    private boolean promoteHead(Long trainingId) {
+        Optional<WaitlistEntryEntity> next;
+        while ((next = waitlist.pollHead(trainingId)).isPresent()) {
+            Long promotedId = next.get().getUserId();
+            if (enrollmentRepository.findByUserIdAndTrainingId(promotedId, trainingId).isPresent()) {
+                continue;
+            }
+            Optional<UserPayload> user;
+            try {
+                user = projections.findUser(promotedId);
+            } catch (UserNotFoundException e) {
+                log.info("Waitlist skip deleted userId={} trainingId={}", promotedId, trainingId);
+                continue;
+            }
+            enrollmentRepository.save(EnrollmentEntity.builder()
+                    .userId(promotedId)
+                    .trainingId(trainingId)
+                    .enrolledAt(LocalDateTime.now())
+                    .build());
+            announcePromotion(promotedId, trainingId, user);
+            log.info("Waitlist promote userId={} trainingId={}", promotedId, trainingId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Queues the USER_ENROLLED event of a promotion with the seat handover when both participants
+     * are in the local projections. Otherwise they are resolved once the handover has committed and
+     * the event goes out in a transaction of its own; a user deleted meanwhile loses the seat again
+     * through the UserDeleted event.
+     */
+    private void announcePromotion(Long userId, Long trainingId, Optional<UserPayload> user) {
+        Optional<TrainingSessionDto> training = projections.findTraining(trainingId);
+        if (user.isPresent() && training.isPresent()) {
+            eventProducer.sendEnrollmentEvent(enrollmentEvent("USER_ENROLLED", user.get(), training.get()));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    var promoted = lookup.load(userId, trainingId);
+                    TransactionTemplate tx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+                    tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    tx.executeWithoutResult(status -> eventProducer.sendEnrollmentEvent(
+                            enrollmentEvent("USER_ENROLLED", promoted.user(), promoted.training())));
+                } catch (RuntimeException e) {
+                    log.warn("Waitlist promotion not announced userId={} trainingId={} reason={}", userId, trainingId, e.toString());
+                }
+            }
+        });
+    }
 
-        EnrollmentEvent event = new EnrollmentEvent(
+    private static EnrollmentEvent enrollmentEvent(String type, UserPayload user, TrainingSessionDto training) {
+        return new EnrollmentEvent(
                 UUID.randomUUID().toString(),
-                "USER_UNENROLLED",
+                type,
                 Instant.now(),
                 new EnrollmentEvent.Payload(
                         user.userId(),
@@ -108,22 +254,25 @@ public class EnrollmentService {
                         training.endTime()
                 )
         );
-        eventProducer.sendEnrollmentEvent(event);
-        log.info("Withdraw OK userId={} trainingId={} took={}ms", userId, trainingId, System.currentTimeMillis() - t0);
     }
 
     public List<EnrollmentDto> getUserEnrollments(Long userId) {
         log.debug("getUserEnrollments userId={}", userId);
-        return enrollmentRepository.findAllByUserId(userId).stream()
-                .map(enrollmentMapper::toDto)
-                .toList();
+        return enrollmentMapper.toDtos(enrollmentRepository.findAllByUserId(userId));
+    }
+
+    /**
+     * The user's enrollments followed by the trainings they are waiting for, with their place in
+     * each queue.
+     */
+    public List<EnrollmentDto> getMyEnrollments(Long userId) {
+        log.debug("getMyEnrollments userId={}", userId);
+        return enrollmentMapper.toDtos(enrollmentRepository.findAllByUserId(userId), userId, waitlist.findSpots(userId));
     }
 
     public List<EnrollmentDto> getTrainingEnrollments(Long trainingId) {
         log.debug("getTrainingEnrollments trainingId={}", trainingId);
-        return enrollmentRepository.findAllByTrainingId(trainingId).stream()
-                .map(enrollmentMapper::toDto)
-                .toList();
+        return enrollmentMapper.toDtos(enrollmentRepository.findAllByTrainingId(trainingId));
     }
 
     public boolean isUserEnrolledInSession(Long userId, Long trainingId) {
@@ -133,6 +282,9 @@ public class EnrollmentService {
     }
 
     public Long resolveUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal && principal.userId() != null) {
+            return principal.userId();
+        }
         String username = authentication.getName();
         long t0 = System.currentTimeMillis();
         Long id = upstream.getUserIdByUsername(username);
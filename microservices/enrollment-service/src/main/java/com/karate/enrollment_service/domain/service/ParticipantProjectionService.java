@@ -0,0 +1,256 @@
+package com.karate.enrollment_service.domain.service;
+
+import com.karate.enrollment_service.domain.exception.TrainingNotFoundException;
+import com.karate.enrollment_service.domain.exception.UserNotFoundException;
+import com.karate.enrollment_service.domain.model.TrainingProjectionEntity;
+import com.karate.enrollment_service.domain.model.UserProjectionEntity;
+import com.karate.enrollment_service.domain.repository.TrainingProjectionRepository;
+import com.karate.enrollment_service.domain.repository.UserProjectionRepository;
+import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDto;
+import com.karate.enrollment_service.infrastructure.client.dto.UserInfoDto;
+import com.karate.enrollment_service.infrastructure.client.dto.UserPayload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read models of the users and training sessions enrollments refer to, kept up to date from
+ * user-service, auth-service and training-service events. Updates are applied only when newer than
+ * the stored row, so redelivered or replayed events are harmless. Lookups answer empty when a row
+ * is missing or incomplete and the caller falls back to the owning service.
+ */
+@Slf4j
+@Service
+public class ParticipantProjectionService {
+    private final UserProjectionRepository userRepository;
+    private final TrainingProjectionRepository trainingRepository;
+    private final Timer userLag;
+    private final Timer trainingLag;
+    private final Counter userHits;
+    private final Counter userMisses;
+    private final Counter trainingHits;
+    private final Counter trainingMisses;
+
+    public ParticipantProjectionService(UserProjectionRepository userRepository,
+                                        TrainingProjectionRepository trainingRepository,
+                                        MeterRegistry registry) {
+        this.userRepository = userRepository;
+        this.trainingRepository = trainingRepository;
+        this.userLag = lag(registry, "user");
+        this.trainingLag = lag(registry, "training");
+        this.userHits = lookups(registry, "user", "hit");
+        this.userMisses = lookups(registry, "user", "miss");
+        this.trainingHits = lookups(registry, "training", "hit");
+        this.trainingMisses = lookups(registry, "training", "miss");
+    }
+
+    private static Timer lag(MeterRegistry registry, String projection) {
+        return Timer.builder("enrollment.projection.lag")
+                .description("Time from the source event to its application in the local projection")
+                .tag("projection", projection)
+                .register(registry);
+    }
+
+    private static Counter lookups(MeterRegistry registry, String projection, String result) {
+        return Counter.builder("enrollment.projection.lookups")
+                .tag("projection", projection)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * @throws UserNotFoundException when the user is known to be deleted
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserPayload> findUser(Long userId) {
+        Optional<UserPayload> user = liveUser(userId)
+                .filter(u -> u.getEmail() != null && u.getUsername() != null)
+                .map(u -> new UserPayload(u.getUserId(), u.getEmail(), u.getUsername()));
+        (user.isPresent() ? userHits : userMisses).increment();
+        return user;
+    }
+
+    /**
+     * @throws UserNotFoundException when the user is known to be deleted
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserInfoDto> findUserInfo(Long userId) {
+        Optional<UserInfoDto> user = liveUser(userId)
+                .filter(u -> u.getEmail() != null && u.getKarateClubId() != null && u.getKarateRank() != null)
+                .map(u -> new UserInfoDto(u.getUserId(), u.getEmail(), u.getKarateClubId(), u.getKarateRank()));
+        (user.isPresent() ? userHits : userMisses).increment();
+        return user;
+    }
+
+    /**
+     * @throws TrainingNotFoundException when the training session is known to be deleted
+     */
+    @Transactional(readOnly = true)
+    public Optional<TrainingSessionDto> findTraining(Long trainingId) {
+        Optional<TrainingProjectionEntity> row = trainingRepository.findById(trainingId);
+        if (row.isPresent() && row.get().isDeleted()) {
+            throw new TrainingNotFoundException("Training with id " + trainingId + " does not exist");
+        }
+        Optional<TrainingSessionDto> training = row
+                .filter(t -> t.getStartTime() != null && t.getEndTime() != null)
+                .map(t -> new TrainingSessionDto(t.getTrainingSessionId(), t.getStartTime(), t.getEndTime(),
+                        t.getDescription(), t.getCapacity()));
+        (training.isPresent() ? trainingHits : trainingMisses).increment();
+        return training;
+    }
+
+    /**
+     * Bulk variant of {@link #findTraining} with a single query. Trainings known to be deleted are
+     * left out like missing ones, so callers listing enrollments can simply skip them.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, TrainingSessionDto> findTrainings(Collection<Long> trainingIds) {
+        Map<Long, TrainingSessionDto> found = new HashMap<>();
+        for (TrainingProjectionEntity t : trainingRepository.findAllById(trainingIds)) {
+            if (!t.isDeleted() && t.getStartTime() != null && t.getEndTime() != null) {
+                found.put(t.getTrainingSessionId(), new TrainingSessionDto(t.getTrainingSessionId(),
+                        t.getStartTime(), t.getEndTime(), t.getDescription(), t.getCapacity()));
+            }
+        }
+        trainingHits.increment(found.size());
+        trainingMisses.increment(trainingIds.size() - found.size());
+        return found;
+    }
+
+    private Optional<UserProjectionEntity> liveUser(Long userId) {
+        Optional<UserProjectionEntity> row = userRepository.findById(userId);
+        if (row.isPresent() && row.get().isDeleted()) {
+            throw new UserNotFoundException("User with id " + userId + " does not exist");
+        }
+        return row;
+    }
+
+    @Transactional
+    public void upsertUser(Long userId, String email, String username, Long karateClubId, String karateRank, Instant at) {
+        UserProjectionEntity current = userRepository.findById(userId).orElse(null);
+        if (current != null && current.getUpdatedAt().isAfter(at)) {
+            log.debug("User projection skip stale update userId={} at={} current={}", userId, at, current.getUpdatedAt());
+            return;
+        }
+        UserProjectionEntity entity = current != null ? current : UserProjectionEntity.builder().userId(userId).build();
+        if (entity.isDeleted()) {
+            log.debug("User projection skip update of deleted userId={}", userId);
+            return;
+        }
+        if (email != null) entity.setEmail(email);
+        if (username != null) entity.setUsername(username);
+        if (karateClubId != null) entity.setKarateClubId(karateClubId);
+        if (karateRank != null) entity.setKarateRank(karateRank);
+        entity.setUpdatedAt(at);
+        userRepository.save(entity);
+        userLag.record(lagOf(at));
+        log.debug("User projection upsert userId={} at={}", userId, at);
+    }
+
+    @Transactional
+    public void deleteUser(Long userId, Instant at) {
+        UserProjectionEntity entity = userRepository.findById(userId)
+                .orElseGet(() -> UserProjectionEntity.builder().userId(userId).build());
+        entity.setDeleted(true);
+        entity.setUpdatedAt(entity.getUpdatedAt() == null || at.isAfter(entity.getUpdatedAt()) ? at : entity.getUpdatedAt());
+        userRepository.save(entity);
+        userLag.record(lagOf(at));
+        log.debug("User projection tombstone userId={}", userId);
+    }
+
+    /**
+     * @return false when the event is older than the stored projection and was ignored
+     */
+    @Transactional
+    public boolean upsertTraining(Long trainingId, Long clubId, LocalDateTime startTime, LocalDateTime endTime,
+                                  String description, Integer capacity, Instant at) {
+        TrainingProjectionEntity current = trainingRepository.findById(trainingId).orElse(null);
+        if (current != null && (current.isDeleted() || current.getUpdatedAt().isAfter(at))) {
+            log.debug("Training projection skip stale update trainingId={} at={}", trainingId, at);
+            return false;
+        }
+        TrainingProjectionEntity entity = current != null
+                ? current
+                : TrainingProjectionEntity.builder().trainingSessionId(trainingId).build();
+        if (clubId != null) entity.setClubId(clubId);
+        entity.setStartTime(startTime);
+        entity.setEndTime(endTime);
+        entity.setDescription(description);
+        entity.setCapacity(capacity);
+        entity.setUpdatedAt(at);
+        trainingRepository.save(entity);
+        trainingLag.record(lagOf(at));
+        log.debug("Training projection upsert trainingId={} at={}", trainingId, at);
+        return true;
+    }
+
+    @Transactional
+    public void deleteTraining(Long trainingId, Instant at) {
+        TrainingProjectionEntity entity = trainingRepository.findById(trainingId)
+                .orElseGet(() -> TrainingProjectionEntity.builder().trainingSessionId(trainingId).build());
+        entity.setDeleted(true);
+        entity.setUpdatedAt(entity.getUpdatedAt() == null || at.isAfter(entity.getUpdatedAt()) ? at : entity.getUpdatedAt());
+        trainingRepository.save(entity);
+        trainingLag.record(lagOf(at));
+        log.debug("Training projection tombstone trainingId={}", trainingId);
+    }
+
+    /**
+     * Fills a user row from an upstream answer for users created before the projection existed.
+     * Only empty fields are written, so it never overrides event data; runs in its own transaction
+     * because it is called from lookup threads.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void backfillUser(Long userId, String email, String username, Long karateClubId, String karateRank) {
+        UserProjectionEntity entity = userRepository.findById(userId)
+                .orElseGet(() -> UserProjectionEntity.builder().userId(userId).updatedAt(Instant.EPOCH).build());
+        if (entity.isDeleted()) {
+            return;
+        }
+        if (entity.getEmail() == null) entity.setEmail(email);
+        if (entity.getUsername() == null) entity.setUsername(username);
+        if (entity.getKarateClubId() == null) entity.setKarateClubId(karateClubId);
+        if (entity.getKarateRank() == null) entity.setKarateRank(karateRank);
+        userRepository.save(entity);
+        log.debug("User projection backfill userId={}", userId);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void backfillTraining(TrainingSessionDto training) {
+        if (trainingRepository.existsById(training.trainingSessionId())) {
+            return;
+        }
+        trainingRepository.save(TrainingProjectionEntity.builder()
+                .trainingSessionId(training.trainingSessionId())
+                .description(training.description())
+                .startTime(training.startTime())
+                .endTime(training.endTime())
+                .capacity(training.capacity())
+                .updatedAt(Instant.EPOCH)
+                .build());
+        log.debug("Training projection backfill trainingId={}", training.trainingSessionId());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void backfillTrainings(List<TrainingSessionDto> trainings) {
+        trainings.forEach(this::backfillTraining);
+    }
+
+    private Duration lagOf(Instant at) {
+        Duration lag = Duration.between(at, Instant.now());
+        return lag.isNegative() ? Duration.ZERO : lag;
+    }
+}
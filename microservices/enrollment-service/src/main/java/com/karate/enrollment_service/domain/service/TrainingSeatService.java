@@ -0,0 +1,90 @@
+package com.karate.enrollment_service.domain.service;
+
+import com.karate.enrollment_service.domain.repository.EnrollmentRepository;
+import com.karate.enrollment_service.domain.repository.TrainingSeatsRepository;
+import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Seat accounting for capacity-limited trainings. A seat is taken with a single conditional
+ * update of the training's counter row inside the enrolling transaction, so it is given back
+ * automatically when that transaction rolls back. Contention is limited to one row per training;
+ * trainings without a capacity are not counted at all.
+ */
+@Slf4j
+@Service
+public class TrainingSeatService {
+
+    private final TrainingSeatsRepository seatsRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public TrainingSeatService(TrainingSeatsRepository seatsRepository,
+                               EnrollmentRepository enrollmentRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.seatsRepository = seatsRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates the seat counter of a capacity-limited training, counting enrollments made before it
+     * had a capacity. Call it before the enrolling transaction starts: it commits on its own, so
+     * concurrent first enrollments never hold a second connection and a lost creation race is
+     * simply ignored.
+     */
+    public void ensureCounter(TrainingSessionDto training) {
+        Long trainingId = training.trainingSessionId();
+        if (training.capacity() == null || seatsRepository.existsById(trainingId)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    seatsRepository.insert(trainingId, enrollmentRepository.countByTrainingId(trainingId)));
+            log.debug("Seat counter created trainingId={}", trainingId);
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Seat counter created concurrently trainingId={}", trainingId);
+        }
+    }
+
+    /**
+     * Takes a seat in the caller's transaction; needs {@link #ensureCounter} first.
+     *
+     * @return false when every seat is taken
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(TrainingSessionDto training) {
+        Integer capacity = training.capacity();
+        if (capacity == null) {
+            return true;
+        }
+        Long trainingId = training.trainingSessionId();
+        boolean full = seatsRepository.findReserved(trainingId).map(reserved -> reserved >= capacity).orElse(false)
+                || seatsRepository.reserve(trainingId, capacity) == 0;
+        if (full) {
+            log.info("Training full trainingId={} capacity={}", trainingId, capacity);
+        }
+        return !full;
+    }
+
+    /**
+     * Takes one of the seats a raised capacity freed, in the caller's transaction.
+     *
+     * @return false when every seat is taken
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(Long trainingId, int capacity) {
+        return seatsRepository.reserve(trainingId, capacity) == 1;
+    }
+
+    @Transactional
+    public void release(Long trainingId) {
+        seatsRepository.release(trainingId);
+    }
+}
@@ -1,18 +1,23 @@
 package com.karate.enrollment_service.domain.service;
 
+import com.karate.enrollment_service.domain.exception.TrainingNotFoundException;
 import com.karate.enrollment_service.domain.exception.UpstreamUnavailableException;
+import com.karate.enrollment_service.domain.exception.UserNotFoundException;
 import com.karate.enrollment_service.infrastructure.client.AuthClient;
 import com.karate.enrollment_service.infrastructure.client.TrainingClient;
 import com.karate.enrollment_service.infrastructure.client.UserClient;
 import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDto;
 import com.karate.enrollment_service.infrastructure.client.dto.UserInfoDto;
 import com.karate.enrollment_service.infrastructure.client.dto.UserPayload;
+import feign.FeignException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -22,21 +27,20 @@ public class UpstreamGateway {
     private final AuthClient authClient;
     private final TrainingClient trainingClient;
 
-    @CircuitBreaker(name = "userService", fallbackMethod = "checkUserExistsFallback")
-    @Retry(name = "userService")
-    public Boolean checkUserExists(Long userId) {
-        return userClient.checkUserExists(userId);
-    }
-
-    private Boolean checkUserExistsFallback(Long userId, Throwable ex) {
-        log.warn("CB fallback userService.checkUserExists userId={} reason={}", userId, ex.toString());
-        throw new UpstreamUnavailableException("user-service unavailable", ex);
-    }
-
+    // A 404 is an answer, not an outage: it is ignored by the breaker and retry (application.yml)
+    // and rethrown as-is by the more specific fallback.
     @CircuitBreaker(name = "userService", fallbackMethod = "getUserPayloadFallback")
     @Retry(name = "userService")
     public UserPayload getUser(Long userId) {
-        return userClient.getUser(userId);
+        try {
+            return userClient.getUser(userId);
+        } catch (FeignException.NotFound e) {
+            throw new UserNotFoundException("User with id " + userId + " does not exist");
+        }
+    }
+
+    private UserPayload getUserPayloadFallback(Long userId, UserNotFoundException ex) {
+        throw ex;
     }
 
     private UserPayload getUserPayloadFallback(Long userId, Throwable ex) {
@@ -68,25 +72,36 @@ public class UpstreamGateway {
     }
 
     // --- training-service ---
-    @CircuitBreaker(name = "trainingService", fallbackMethod = "checkTrainingSessionExistsFallback")
+    @CircuitBreaker(name = "trainingService", fallbackMethod = "getTrainingByIdFallback")
     @Retry(name = "trainingService")
-    public Boolean checkTrainingSessionExists(Long trainingId) {
-        return trainingClient.checkTrainingSessionExists(trainingId);
+    public TrainingSessionDto getTrainingById(Long trainingId) {
+        try {
+            return trainingClient.getTrainingById(trainingId);
+        } catch (FeignException.NotFound e) {
+            throw new TrainingNotFoundException("Training with id " + trainingId + " does not exist");
+        }
+    }
+
+    private TrainingSessionDto getTrainingByIdFallback(Long trainingId, TrainingNotFoundException ex) {
+        throw ex;
     }
 
-    private Boolean checkTrainingSessionExistsFallback(Long trainingId, Throwable ex) {
-        log.warn("CB fallback trainingService.checkTrainingSessionExists trainingId={} reason={}", trainingId, ex.toString());
+    private TrainingSessionDto getTrainingByIdFallback(Long trainingId, Throwable ex) {
+        log.warn("CB fallback trainingService.getTrainingById trainingId={} reason={}", trainingId, ex.toString());
         throw new UpstreamUnavailableException("training-service unavailable", ex);
     }
 
-    @CircuitBreaker(name = "trainingService", fallbackMethod = "getTrainingByIdFallback")
+    /**
+     * One round trip for many trainings; ids training-service does not know are left out.
+     */
+    @CircuitBreaker(name = "trainingService", fallbackMethod = "getTrainingsByIdsFallback")
     @Retry(name = "trainingService")
-    public TrainingSessionDto getTrainingById(Long trainingId) {
-        return trainingClient.getTrainingById(trainingId);
+    public List<TrainingSessionDto> getTrainingsByIds(List<Long> trainingIds) {
+        return trainingClient.getTrainingsByIds(trainingIds);
     }
 
-    private TrainingSessionDto getTrainingByIdFallback(Long trainingId, Throwable ex) {
-        log.warn("CB fallback trainingService.getTrainingById trainingId={} reason={}", trainingId, ex.toString());
+    private List<TrainingSessionDto> getTrainingsByIdsFallback(List<Long> trainingIds, Throwable ex) {
+        log.warn("CB fallback trainingService.getTrainingsByIds size={} reason={}", trainingIds.size(), ex.toString());
         throw new UpstreamUnavailableException("training-service unavailable", ex);
     }
 }
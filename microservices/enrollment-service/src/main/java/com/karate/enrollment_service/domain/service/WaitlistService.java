@@ -0,0 +1,123 @@
+package com.karate.enrollment_service.domain.service;
+
+import com.karate.enrollment_service.domain.exception.UserAlreadyEnrolledException;
+import com.karate.enrollment_service.domain.model.WaitlistEntryEntity;
+import com.karate.enrollment_service.domain.model.WaitlistSpot;
+import com.karate.enrollment_service.domain.repository.TrainingSeatsRepository;
+import com.karate.enrollment_service.domain.repository.WaitlistEntryRepository;
+import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * FIFO waitlists of full trainings. Every change to a training's queue first takes the row lock of
+ * its seat counter, the same lock seat reservations use, so joins, promotions and departures of one
+ * training are applied one after another while other trainings are unaffected. Tickets stay dense,
+ * which makes a queue position a subtraction instead of a count.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final TrainingSeatsRepository seatsRepository;
+
+    /**
+     * Queues the user on a full training in the caller's transaction.
+     *
+     * @return empty when a seat came free meanwhile and the caller should reserve it instead
+     * @throws UserAlreadyEnrolledException when the user is already waiting for this training
+     * @throws IllegalStateException        when the training has no seat counter, which would
+     *                                      otherwise send the caller back to reserving forever
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<WaitlistSpot> join(Long userId, TrainingSessionDto training) {
+        Long trainingId = training.trainingSessionId();
+        if (seatsRepository.issueTicket(trainingId, training.capacity()) == 0) {
+            if (seatsRepository.findReserved(trainingId).isEmpty()) {
+                throw new IllegalStateException("No seat counter for training " + trainingId);
+            }
+            return Optional.empty();
+        }
+        long ticket = seatsRepository.findIssued(trainingId);
+        try {
+            waitlistRepository.saveAndFlush(WaitlistEntryEntity.builder()
+                    .userId(userId)
+                    .trainingId(trainingId)
+                    .ticket(ticket)
+                    .joinedAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new UserAlreadyEnrolledException("User already on the waitlist for this training");
+        }
+        WaitlistSpot spot = new WaitlistSpot(trainingId, ticket - seatsRepository.findServed(trainingId));
+        log.info("Waitlist join userId={} trainingId={} position={}", userId, trainingId, spot.position());
+        return Optional.of(spot);
+    }
+
+    /**
+     * Removes and returns the head of the training's queue in the caller's transaction. The ticket
+     * is served under the counter row lock, so concurrent withdrawals each get a different entry.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<WaitlistEntryEntity> pollHead(Long trainingId) {
+        while (seatsRepository.serveTicket(trainingId) == 1) {
+            long ticket = seatsRepository.findServed(trainingId);
+            Optional<WaitlistEntryEntity> head = waitlistRepository.findByTrainingIdAndTicket(trainingId, ticket);
+            if (head.isPresent()) {
+                waitlistRepository.delete(head.get());
+                return head;
+            }
+            log.warn("Waitlist ticket without entry trainingId={} ticket={}", trainingId, ticket);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Takes the user off the training's queue in the caller's transaction.
+     *
+     * @return false when the user was not waiting, e.g. because they were promoted meanwhile
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean leave(Long userId, Long trainingId) {
+        seatsRepository.lock(trainingId);
+        Optional<Long> ticket = waitlistRepository.findTicket(userId, trainingId);
+        if (ticket.isEmpty()) {
+            return false;
+        }
+        waitlistRepository.deleteEntry(userId, trainingId);
+        waitlistRepository.closeGap(trainingId, ticket.get());
+        seatsRepository.returnTicket(trainingId);
+        log.info("Waitlist leave userId={} trainingId={}", userId, trainingId);
+        return true;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void leaveAll(Long userId) {
+        waitlistRepository.findAllByUserId(userId)
+                .forEach(entry -> leave(userId, entry.getTrainingId()));
+    }
+
+    public boolean isWaiting(Long userId, Long trainingId) {
+        return waitlistRepository.existsByUserIdAndTrainingId(userId, trainingId);
+    }
+
+    // unlocked read: lets a capacity change skip trainings nobody is waiting for
+    public boolean hasWaiting(Long trainingId) {
+        return waitlistRepository.existsByTrainingId(trainingId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistSpot> findSpots(Long userId) {
+        return waitlistRepository.findSpotsByUserId(userId);
+    }
+}
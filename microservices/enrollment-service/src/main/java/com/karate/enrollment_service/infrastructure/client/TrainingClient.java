@@ -5,12 +5,16 @@ import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDt
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "training-service", configuration = FeignClientConfig.class)
 public interface TrainingClient {
-    @GetMapping("/internal/trainings/{trainingId}/exists")
-    Boolean checkTrainingSessionExists(@PathVariable Long trainingId);
-
     @GetMapping("/internal/trainings/{id}")
     TrainingSessionDto getTrainingById(@PathVariable("id") Long trainingId);
+
+    @PostMapping("/internal/trainings/by-ids")
+    List<TrainingSessionDto> getTrainingsByIds(@RequestBody List<Long> trainingIds);
 }
@@ -9,9 +9,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 
 @FeignClient(name = "user-service", configuration = FeignClientConfig.class)
 public interface UserClient {
-    @GetMapping("/internal/users/{userId}/exists")
-    Boolean checkUserExists(@PathVariable Long userId);
-
     @GetMapping("/internal/users/{id}")
     UserInfoDto getUserById(@PathVariable("id") Long userId);
 
@@ -9,6 +9,11 @@ public record TrainingSessionDto(
         Long trainingSessionId,
         LocalDateTime startTime,
         LocalDateTime endTime,
-        String description
+        String description,
+        // null means no seat limit
+        Integer capacity
 ) {
+    public TrainingSessionDto(Long trainingSessionId, LocalDateTime startTime, LocalDateTime endTime, String description) {
+        this(trainingSessionId, startTime, endTime, description, null);
+    }
 }
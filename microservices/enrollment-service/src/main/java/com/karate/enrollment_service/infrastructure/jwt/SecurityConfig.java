@@ -39,6 +39,8 @@ public class SecurityConfig {
                         .requestMatchers("/enrollments/training/{trainingId}").hasRole("ADMIN")
                         .requestMatchers("/enrollments/{userId}/{trainingId}").hasRole("ADMIN")
                         .requestMatchers("/enrollments/user/{userId}").hasRole("ADMIN")
+                        .requestMatchers("/attendance/me/**").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers("/attendance/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -1,9 +1,9 @@
 package com.karate.enrollment_service.infrastructure.messaging;
 
 import com.karate.enrollment_service.infrastructure.messaging.event.EnrollmentEvent;
+import com.karate.outbox.OutboxPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -11,10 +11,10 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class EnrollmentEventProducer {
 
-    private final KafkaTemplate<String, EnrollmentEvent> kafkaTemplate;
+    private final OutboxPublisher outbox;
 
     public void sendEnrollmentEvent(EnrollmentEvent event) {
-        log.info("Kafka send topic='enrollments' key={} type={}", event.getEventId(), event.getEventType());
-        kafkaTemplate.send("enrollments", event.getEventId(), event);
+        log.info("Outbox enqueue topic='enrollments' key={} type={}", event.getEventId(), event.getEventType());
+        outbox.publish("enrollments", event.getEventId(), event);
     }
 }
@@ -0,0 +1,37 @@
+package com.karate.enrollment_service.infrastructure.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rebuild mode for projection listeners: with {@code enrollment.projections.rebuild=true} every
+ * partition is read again from the beginning the first time it is assigned to this instance.
+ * Projection updates are newer-wins, so replaying over existing rows is safe; how far back a
+ * rebuild reaches is bounded by the topics' retention.
+ */
+@Slf4j
+public abstract class ProjectionReplaySupport implements ConsumerSeekAware {
+
+    @Value("${enrollment.projections.rebuild:false}")
+    private boolean rebuild;
+    private final Set<TopicPartition> replayed = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (!rebuild) {
+            return;
+        }
+        List<TopicPartition> fresh = assignments.keySet().stream().filter(replayed::add).toList();
+        if (!fresh.isEmpty()) {
+            log.info("enrollment-service: rebuilding projection from the beginning of {}", fresh);
+            callback.seekToBeginning(fresh);
+        }
+    }
+}
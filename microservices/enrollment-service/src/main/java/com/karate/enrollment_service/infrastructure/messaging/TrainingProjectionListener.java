@@ -0,0 +1,47 @@
+package com.karate.enrollment_service.infrastructure.messaging;
+
+import com.karate.enrollment_service.domain.service.EnrollmentService;
+import com.karate.enrollment_service.domain.service.ParticipantProjectionService;
+import com.karate.enrollment_service.infrastructure.messaging.event.TrainingSessionEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrainingProjectionListener extends ProjectionReplaySupport {
+
+    private final ParticipantProjectionService projectionService;
+    private final EnrollmentService enrollmentService;
+
+    @KafkaListener(
+            topics = "${topics.training-sessions}",
+            groupId = "enrollment-service-training-projection",
+            properties = {
+                    "spring.json.value.default.type=com.karate.enrollment_service.infrastructure.messaging.event.TrainingSessionEvent"
+            }
+    )
+    public void onTrainingEvent(TrainingSessionEvent evt) {
+        if (evt.trainingSessionId() == null) {
+            log.warn("enrollment-service: skip training event without id eventId={} type={}", evt.eventId(), evt.eventType());
+            return;
+        }
+        Instant at = evt.timestamp() != null ? evt.timestamp() : Instant.now();
+        log.info("enrollment-service: {} trainingId={}", evt.eventType(), evt.trainingSessionId());
+        if ("TRAINING_DELETED".equals(evt.eventType())) {
+            projectionService.deleteTraining(evt.trainingSessionId(), at);
+            return;
+        }
+        boolean applied = projectionService.upsertTraining(evt.trainingSessionId(), evt.clubId(), evt.startTime(),
+                evt.endTime(), evt.description(), evt.capacity(), at);
+        // a raised or removed capacity frees seats the waitlist is queued for; nothing else would
+        // hand them over
+        if (applied && "TRAINING_UPDATED".equals(evt.eventType())) {
+            enrollmentService.promoteWaitlist(evt.trainingSessionId(), evt.capacity());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.karate.enrollment_service.infrastructure.messaging;
+
+import com.karate.enrollment_service.domain.service.ParticipantProjectionService;
+import com.karate.enrollment_service.infrastructure.messaging.event.UserDeletedEvent;
+import com.karate.enrollment_service.infrastructure.messaging.event.UserRegisteredEvent;
+import com.karate.enrollment_service.infrastructure.messaging.event.UserUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserProjectionListener extends ProjectionReplaySupport {
+
+    private final ParticipantProjectionService projectionService;
+
+    @KafkaListener(
+            topics = "${topics.user-registered}",
+            groupId = "enrollment-service-user-projection",
+            properties = {
+                    "spring.json.value.default.type=com.karate.enrollment_service.infrastructure.messaging.event.UserRegisteredEvent"
+            }
+    )
+    public void onUserRegistered(UserRegisteredEvent evt) {
+        UserRegisteredEvent.Payload payload = evt.payload();
+        if (payload == null || payload.userId() == null) {
+            log.warn("enrollment-service: skip user event without user eventId={} type={}", evt.eventId(), evt.eventType());
+            return;
+        }
+        log.info("enrollment-service: {} userId={}", evt.eventType(), payload.userId());
+        projectionService.upsertUser(payload.userId(), payload.userEmail(), payload.username(),
+                payload.clubId(), payload.karateRank(), timestampOf(evt.timestamp()));
+    }
+
+    @KafkaListener(
+            topics = "${topics.user-updated}",
+            groupId = "enrollment-service-user-projection",
+            properties = {
+                    "spring.json.value.default.type=com.karate.enrollment_service.infrastructure.messaging.event.UserUpdatedEvent"
+            }
+    )
+    public void onUserUpdated(UserUpdatedEvent evt) {
+        log.info("enrollment-service: {} userId={}", evt.eventType(), evt.userId());
+        projectionService.upsertUser(evt.userId(), evt.email(), evt.username(),
+                evt.karateClubId(), evt.karateRank(), timestampOf(evt.timestamp()));
+    }
+
+    @KafkaListener(topics = "${topics.user-deleted}", groupId = "enrollment-service-user-projection")
+    public void onUserDeleted(UserDeletedEvent evt) {
+        log.info("enrollment-service: {} userId={} (projection)", evt.eventType(), evt.userId());
+        projectionService.deleteUser(evt.userId(), timestampOf(evt.timestamp()));
+    }
+
+    private static Instant timestampOf(Instant timestamp) {
+        return timestamp != null ? timestamp : Instant.now();
+    }
+}
@@ -0,0 +1,17 @@
+package com.karate.enrollment_service.infrastructure.messaging.event;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+public record TrainingSessionEvent(
+        String eventId,
+        String eventType,
+        Instant timestamp,
+        Long trainingSessionId,
+        Long clubId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String description,
+        Integer capacity
+) {
+}
@@ -0,0 +1,19 @@
+package com.karate.enrollment_service.infrastructure.messaging.event;
+
+import java.time.Instant;
+
+public record UserRegisteredEvent(
+        String eventId,
+        String eventType,
+        Instant timestamp,
+        Payload payload
+) {
+    public record Payload(
+            Long userId,
+            String userEmail,
+            String username,
+            Long clubId,
+            String karateRank
+    ) {
+    }
+}
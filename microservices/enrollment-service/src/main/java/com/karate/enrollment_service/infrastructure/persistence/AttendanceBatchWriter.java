@@ -0,0 +1,200 @@
+package com.karate.enrollment_service.infrastructure.persistence;
+
+import com.karate.enrollment_service.domain.model.CheckIn;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for check-ins. Callers hand their rows to a queue and wait; a single writer thread
+ * drains whatever arrived within {@code max-delay} (up to {@code batch-size} rows) and stores it
+ * with one JDBC batch and one commit, then completes every caller of that batch. A caller is only
+ * answered after its rows are committed, so a check-in is never acknowledged and lost; a caller
+ * that gets an error or no answer simply retries, and the primary key turns the repeat into a
+ * no-op. Per-training counts are bumped by the rows actually inserted in the same transaction.
+ */
+@Slf4j
+@Component
+public class AttendanceBatchWriter implements SmartLifecycle {
+
+    // PostgreSQL: the upsert takes the key lock, so concurrent writers (other instances) neither
+    // fail on the primary key nor lose a count increment
+    private static final String POSTGRES_INSERT_SQL = "INSERT INTO attendance (training_id, user_id, checked_in_at) "
+            + "VALUES (?, ?, ?) ON CONFLICT (training_id, user_id) DO NOTHING";
+    private static final String POSTGRES_COUNT_SQL = "INSERT INTO attendance_counts (training_id, checked_in) "
+            + "VALUES (?, ?) ON CONFLICT (training_id) "
+            + "DO UPDATE SET checked_in = attendance_counts.checked_in + EXCLUDED.checked_in";
+    // standard MERGE for H2 in tests: skips rows already checked in, also within the same batch
+    private static final String MERGE_INSERT_SQL = "MERGE INTO attendance a "
+            + "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP))) AS v(training_id, user_id, checked_in_at) "
+            + "ON a.training_id = v.training_id AND a.user_id = v.user_id "
+            + "WHEN NOT MATCHED THEN INSERT (training_id, user_id, checked_in_at) "
+            + "VALUES (v.training_id, v.user_id, v.checked_in_at)";
+    private static final String MERGE_COUNT_SQL = "MERGE INTO attendance_counts c "
+            + "USING (VALUES (CAST(? AS BIGINT), CAST(? AS INT))) AS v(training_id, added) "
+            + "ON c.training_id = v.training_id "
+            + "WHEN MATCHED THEN UPDATE SET checked_in = c.checked_in + v.added "
+            + "WHEN NOT MATCHED THEN INSERT (training_id, checked_in) VALUES (v.training_id, v.added)";
+
+    private record Pending(List<CheckIn> rows, CompletableFuture<Void> done) {
+    }
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final DistributionSummary batchRows;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private volatile boolean running;
+    private Thread writer;
+    private String insertSql;
+    private String countSql;
+
+    public AttendanceBatchWriter(JdbcTemplate jdbc,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry registry,
+                                 @Value("${enrollment.attendance.batch-size:500}") int batchSize,
+                                 @Value("${enrollment.attendance.max-delay:5ms}") Duration maxDelay) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchRows = DistributionSummary.builder("enrollment.attendance.batch.rows")
+                .description("Check-ins stored per batch insert")
+                .register(registry);
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Queues the rows for the next batch.
+     *
+     * @return completes once the rows are committed, exceptionally when their batch failed
+     */
+    public CompletableFuture<Void> write(List<CheckIn> rows) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Attendance writer is stopped"));
+        }
+        Pending pending = new Pending(List.copyOf(rows), new CompletableFuture<>());
+        queue.add(pending);
+        return pending.done();
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                int rows = first.rows().size();
+                long deadline = System.nanoTime() + maxDelay.toNanos();
+                while (rows < batchSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    rows += next.rows().size();
+                }
+                flush(batch, rows);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                queue.drainTo(batch);
+                batch.forEach(p -> p.done().completeExceptionally(e));
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private void flush(List<Pending> batch, int rows) {
+        long t0 = System.currentTimeMillis();
+        List<Object[]> args = new ArrayList<>(rows);
+        for (Pending pending : batch) {
+            for (CheckIn row : pending.rows()) {
+                args.add(new Object[]{row.trainingId(), row.userId(), Timestamp.valueOf(row.checkedInAt())});
+            }
+        }
+        // key order, so batches of concurrent instances lock the same keys in the same order
+        args.sort(Comparator.comparing((Object[] a) -> (Long) a[0]).thenComparing(a -> (Long) a[1]));
+        try {
+            Integer inserted = tx.execute(status -> {
+                int[] results = jdbc.batchUpdate(insertSql, args);
+                Map<Long, Integer> added = new TreeMap<>();
+                int total = 0;
+                for (int i = 0; i < results.length; i++) {
+                    if (results[i] > 0) {
+                        added.merge((Long) args.get(i)[0], 1, Integer::sum);
+                        total++;
+                    }
+                }
+                jdbc.batchUpdate(countSql, added.entrySet().stream()
+                        .map(e -> new Object[]{e.getKey(), e.getValue()})
+                        .toList());
+                return total;
+            });
+            batch.forEach(p -> p.done().complete(null));
+            batchRows.record(rows);
+            log.debug("Attendance batch rows={} inserted={} callers={} took={}ms",
+                    rows, inserted, batch.size(), System.currentTimeMillis() - t0);
+        } catch (RuntimeException e) {
+            log.warn("Attendance batch failed rows={} callers={} reason={}", rows, batch.size(), e.getMessage());
+            batch.forEach(p -> p.done().completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void start() {
+        String database = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        boolean postgres = "PostgreSQL".equals(database);
+        insertSql = postgres ? POSTGRES_INSERT_SQL : MERGE_INSERT_SQL;
+        countSql = postgres ? POSTGRES_COUNT_SQL : MERGE_COUNT_SQL;
+        running = true;
+        writer = new Thread(this::drainLoop, "attendance-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // stops after the web server has finished its in-flight requests
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    // lets the writer drain what is already queued before the datasource goes away
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
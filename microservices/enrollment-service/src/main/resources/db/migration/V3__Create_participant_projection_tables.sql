@@ -0,0 +1,21 @@
+CREATE TABLE user_projection
+(
+    user_id        BIGINT PRIMARY KEY,
+    email          VARCHAR(255),
+    username       VARCHAR(255),
+    karate_club_id BIGINT,
+    karate_rank    VARCHAR(50),
+    deleted        BOOLEAN   NOT NULL DEFAULT FALSE,
+    updated_at     TIMESTAMP NOT NULL
+);
+
+CREATE TABLE training_projection
+(
+    training_session_id BIGINT PRIMARY KEY,
+    club_id             BIGINT,
+    description         VARCHAR(255),
+    start_time          TIMESTAMP,
+    end_time            TIMESTAMP,
+    deleted             BOOLEAN   NOT NULL DEFAULT FALSE,
+    updated_at          TIMESTAMP NOT NULL
+);
@@ -0,0 +1,9 @@
+ALTER TABLE training_projection
+    ADD COLUMN capacity INT;
+
+-- one counter row per capacity-limited training; seats are taken with a conditional UPDATE
+CREATE TABLE training_seats
+(
+    training_id BIGINT PRIMARY KEY,
+    reserved    INT NOT NULL DEFAULT 0 CHECK (reserved >= 0)
+);
@@ -0,0 +1,18 @@
+-- tickets are handed out and served under the training's seat counter row lock;
+-- position in the queue = ticket - waitlist_served
+ALTER TABLE training_seats
+    ADD COLUMN waitlist_issued BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE training_seats
+    ADD COLUMN waitlist_served BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE waitlist_entries
+(
+    entry_id    BIGSERIAL PRIMARY KEY,
+    user_id     BIGINT    NOT NULL,
+    training_id BIGINT    NOT NULL,
+    ticket      BIGINT    NOT NULL,
+    joined_at   TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_waitlist_user_training UNIQUE (user_id, training_id)
+);
+
+CREATE INDEX idx_waitlist_training_ticket ON waitlist_entries (training_id, ticket);
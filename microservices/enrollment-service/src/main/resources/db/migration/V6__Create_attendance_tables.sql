@@ -0,0 +1,15 @@
+-- one row per check-in; the key makes repeated check-ins of a retrying client no-ops
+CREATE TABLE attendance
+(
+    training_id   BIGINT    NOT NULL,
+    user_id       BIGINT    NOT NULL,
+    checked_in_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (training_id, user_id)
+);
+
+-- kept in step with attendance by the batch writer, so reading a count is a key lookup
+CREATE TABLE attendance_counts
+(
+    training_id BIGINT PRIMARY KEY,
+    checked_in  INT NOT NULL DEFAULT 0
+);
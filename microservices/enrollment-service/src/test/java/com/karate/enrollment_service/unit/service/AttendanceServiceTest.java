@@ -0,0 +1,164 @@
+package com.karate.enrollment_service.unit.service;
+
+import com.karate.enrollment_service.api.dto.CheckInRequestDto;
+import com.karate.enrollment_service.api.dto.CheckInResultDto;
+import com.karate.enrollment_service.domain.exception.UserNotEnrolledException;
+import com.karate.enrollment_service.domain.model.EnrollmentEntity;
+import com.karate.enrollment_service.domain.repository.EnrollmentRepository;
+import com.karate.enrollment_service.domain.service.AttendanceService;
+import com.karate.enrollment_service.infrastructure.persistence.AttendanceBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs check-ins against the real schema (Flyway on H2), with the batch writer started as in the
+ * application.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AttendanceBatchWriter.class, AttendanceService.class, AttendanceServiceTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:attendance;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import="
+})
+class AttendanceServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceServiceTest.class);
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    AttendanceService attendanceService;
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @AfterEach
+    void cleanUp() {
+        enrollmentRepository.deleteAll();
+        jdbc.update("DELETE FROM attendance");
+        jdbc.update("DELETE FROM attendance_counts");
+    }
+
+    private void enroll(Long trainingId, long fromUser, long toUser) {
+        enrollmentRepository.saveAll(LongStream.rangeClosed(fromUser, toUser)
+                .mapToObj(userId -> EnrollmentEntity.builder()
+                        .userId(userId)
+                        .trainingId(trainingId)
+                        .enrolledAt(LocalDateTime.now())
+                        .build())
+                .toList());
+    }
+
+    private int storedCheckIns(Long trainingId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM attendance WHERE training_id = ?", Integer.class, trainingId);
+    }
+
+    @Test
+    void burstOfCheckIns_storesEachOnceInSharedBatches() throws Exception {
+        // given: 300 students, each checking in twice as a retrying client would
+        enroll(31L, 1, 300);
+        long batchesBefore = meterRegistry.summary("enrollment.attendance.batch.rows").count();
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int round = 0; round < 2; round++) {
+            LongStream.rangeClosed(1, 300).forEach(userId -> results.add(pool.submit(() -> {
+                start.await();
+                attendanceService.checkIn(userId, 31L);
+                return null;
+            })));
+        }
+
+        // when
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        pool.shutdown();
+        long batches = meterRegistry.summary("enrollment.attendance.batch.rows").count() - batchesBefore;
+        log.info("attendance check-in: {} requests, 64 threads, {} batches, took={}ms ({} req/s)",
+                results.size(), batches, tookMs, Math.round(results.size() * 1000.0 / Math.max(tookMs, 1)));
+
+        // then
+        assertThat(storedCheckIns(31L)).isEqualTo(300);
+        assertThat(attendanceService.countCheckedIn(31L)).isEqualTo(300);
+        assertThat(batches).isLessThan(results.size());
+    }
+
+    @Test
+    void checkInAll_rejectsUsersWithoutEnrollment() {
+        // given
+        enroll(32L, 1, 3);
+        enroll(33L, 1, 1);
+
+        // when
+        CheckInResultDto result = attendanceService.checkInAll(List.of(
+                new CheckInRequestDto(1L, 32L),
+                new CheckInRequestDto(2L, 32L),
+                new CheckInRequestDto(2L, 32L),
+                new CheckInRequestDto(9L, 32L),
+                new CheckInRequestDto(1L, 33L),
+                new CheckInRequestDto(2L, 33L)));
+
+        // then
+        assertThat(result.accepted()).isEqualTo(3);
+        assertThat(result.rejected()).containsExactlyInAnyOrder(
+                new CheckInRequestDto(9L, 32L), new CheckInRequestDto(2L, 33L));
+        assertThat(attendanceService.countCheckedIn(32L)).isEqualTo(2);
+        assertThat(attendanceService.countCheckedIn(33L)).isEqualTo(1);
+    }
+
+    @Test
+    void checkIn_throwsWhenUserNotEnrolled() {
+        // given
+        enroll(34L, 1, 1);
+
+        // when / then
+        assertThatThrownBy(() -> attendanceService.checkIn(2L, 34L))
+                .isInstanceOf(UserNotEnrolledException.class);
+        assertThat(attendanceService.countCheckedIn(34L)).isZero();
+    }
+}
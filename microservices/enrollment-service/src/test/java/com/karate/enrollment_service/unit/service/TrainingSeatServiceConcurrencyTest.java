@@ -0,0 +1,165 @@
+package com.karate.enrollment_service.unit.service;
+
+import com.karate.enrollment_service.domain.model.EnrollmentEntity;
+import com.karate.enrollment_service.domain.repository.EnrollmentRepository;
+import com.karate.enrollment_service.domain.repository.TrainingSeatsRepository;
+import com.karate.enrollment_service.domain.service.TrainingSeatService;
+import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires a burst of concurrent enrollments at one training and checks that the seat counter never
+ * lets more through than its capacity. Each request follows {@code EnrollmentService.enrollUser}:
+ * make sure the counter exists, then reserve a seat and insert the enrollment in one transaction.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TrainingSeatService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seats;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import="
+})
+class TrainingSeatServiceConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingSeatServiceConcurrencyTest.class);
+
+    private static final int REQUESTS = 400;
+    private static final int THREADS = 64;
+
+    @Autowired
+    TrainingSeatService seats;
+    @Autowired
+    TrainingSeatsRepository seatsRepository;
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        enrollmentRepository.deleteAll();
+        seatsRepository.deleteAll();
+    }
+
+    private static TrainingSessionDto training(Long id, Integer capacity) {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        return new TrainingSessionDto(id, start, start.plusHours(1), "kata", capacity);
+    }
+
+    private boolean enroll(TrainingSessionDto training, long userId) {
+        seats.ensureCounter(training);
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            if (!seats.tryReserve(training)) {
+                return false;
+            }
+            enrollmentRepository.saveAndFlush(EnrollmentEntity.builder()
+                    .userId(userId)
+                    .trainingId(training.trainingSessionId())
+                    .enrolledAt(LocalDateTime.now())
+                    .build());
+            return true;
+        });
+    }
+
+    @Test
+    void burstOfEnrollments_neverOverbooks() throws Exception {
+        // given
+        int capacity = 50;
+        var training = training(7L, capacity);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            long userId = i + 1;
+            results.add(pool.submit(() -> {
+                start.await();
+                return enroll(training, userId);
+            }));
+        }
+
+        // when
+        long t0 = System.nanoTime();
+        start.countDown();
+        int enrolled = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                enrolled++;
+            }
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        pool.shutdown();
+        log.info("seat reservation: {} requests, {} threads, {} enrolled, took={}ms ({} req/s)",
+                REQUESTS, THREADS, enrolled, tookMs, Math.round(REQUESTS * 1000.0 / Math.max(tookMs, 1)));
+
+        // then
+        assertThat(enrolled).isEqualTo(capacity);
+        assertThat(enrollmentRepository.countByTrainingId(7L)).isEqualTo(capacity);
+        assertThat(seatsRepository.findById(7L)).get()
+                .extracting(s -> s.getReserved()).isEqualTo(capacity);
+    }
+
+    @Test
+    void release_freesSeatForNextEnrollment() {
+        // given
+        var training = training(8L, 1);
+        enroll(training, 1L);
+        assertThat(enroll(training, 2L)).isFalse();
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            enrollmentRepository.deleteByUserIdAndTrainingId(1L, 8L);
+            seats.release(8L);
+        });
+        boolean enrolled = enroll(training, 2L);
+
+        // then
+        assertThat(enrolled).isTrue();
+        assertThat(enrollmentRepository.findAllByTrainingId(8L))
+                .extracting(EnrollmentEntity::getUserId).containsExactly(2L);
+    }
+
+    @Test
+    void reserve_countsExistingEnrollments_whenCounterIsCreated() {
+        // given
+        var unlimited = training(9L, null);
+        enroll(unlimited, 1L);
+        enroll(unlimited, 2L);
+
+        // when
+        var limited = training(9L, 3);
+        enroll(limited, 3L);
+
+        // then
+        assertThat(seatsRepository.findById(9L)).get().extracting(s -> s.getReserved()).isEqualTo(3);
+        assertThat(enroll(limited, 4L)).isFalse();
+    }
+}
@@ -0,0 +1,299 @@
+package com.karate.enrollment_service.unit.service;
+
+import com.karate.enrollment_service.domain.model.EnrollmentEntity;
+import com.karate.enrollment_service.domain.model.WaitlistEntryEntity;
+import com.karate.enrollment_service.domain.model.WaitlistSpot;
+import com.karate.enrollment_service.domain.repository.EnrollmentRepository;
+import com.karate.enrollment_service.domain.repository.TrainingSeatsRepository;
+import com.karate.enrollment_service.domain.repository.WaitlistEntryRepository;
+import com.karate.enrollment_service.domain.service.TrainingSeatService;
+import com.karate.enrollment_service.domain.service.WaitlistService;
+import com.karate.enrollment_service.infrastructure.client.dto.TrainingSessionDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the waitlist the way {@code EnrollmentService} does: a full training queues the user, a
+ * withdrawal hands its seat to the head of the queue or gives it back when nobody waits.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TrainingSeatService.class, WaitlistService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:waitlist;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import="
+})
+class WaitlistServiceConcurrencyTest {
+
+    @Autowired
+    TrainingSeatService seats;
+    @Autowired
+    WaitlistService waitlist;
+    @Autowired
+    TrainingSeatsRepository seatsRepository;
+    @Autowired
+    WaitlistEntryRepository waitlistRepository;
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        enrollmentRepository.deleteAll();
+        waitlistRepository.deleteAll();
+        seatsRepository.deleteAll();
+    }
+
+    private static TrainingSessionDto training(Long id, Integer capacity) {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        return new TrainingSessionDto(id, start, start.plusHours(1), "kumite", capacity);
+    }
+
+    private void enroll(TrainingSessionDto training, long userId) {
+        seats.ensureCounter(training);
+        tx().executeWithoutResult(status -> {
+            while (!seats.tryReserve(training)) {
+                if (waitlist.join(userId, training).isPresent()) {
+                    return;
+                }
+            }
+            enrollmentRepository.saveAndFlush(enrollment(userId, training.trainingSessionId()));
+        });
+    }
+
+    private void withdraw(long userId, Long trainingId) {
+        tx().executeWithoutResult(status -> {
+            if (waitlist.leave(userId, trainingId)) {
+                return;
+            }
+            enrollmentRepository.deleteByUserIdAndTrainingId(userId, trainingId);
+            Optional<WaitlistEntryEntity> head = waitlist.pollHead(trainingId);
+            if (head.isPresent()) {
+                enrollmentRepository.save(enrollment(head.get().getUserId(), trainingId));
+            } else {
+                seats.release(trainingId);
+            }
+        });
+    }
+
+    private void raiseCapacity(Long trainingId, Integer capacity) {
+        if (!waitlist.hasWaiting(trainingId)) {
+            return;
+        }
+        tx().executeWithoutResult(status -> {
+            if (capacity == null) {
+                Optional<WaitlistEntryEntity> head;
+                while ((head = waitlist.pollHead(trainingId)).isPresent()) {
+                    enrollmentRepository.save(enrollment(head.get().getUserId(), trainingId));
+                }
+                return;
+            }
+            while (seats.tryReserve(trainingId, capacity)) {
+                Optional<WaitlistEntryEntity> head = waitlist.pollHead(trainingId);
+                if (head.isEmpty()) {
+                    seats.release(trainingId);
+                    return;
+                }
+                enrollmentRepository.save(enrollment(head.get().getUserId(), trainingId));
+            }
+        });
+    }
+
+    private static EnrollmentEntity enrollment(long userId, Long trainingId) {
+        return EnrollmentEntity.builder()
+                .userId(userId)
+                .trainingId(trainingId)
+                .enrolledAt(LocalDateTime.now())
+                .build();
+    }
+
+    private TransactionTemplate tx() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private List<Long> enrolledUsers(Long trainingId) {
+        return enrollmentRepository.findAllByTrainingId(trainingId).stream()
+                .map(EnrollmentEntity::getUserId)
+                .sorted()
+                .toList();
+    }
+
+    private long positionOf(long userId, Long trainingId) {
+        return waitlist.findSpots(userId).stream()
+                .filter(spot -> spot.trainingId().equals(trainingId))
+                .map(WaitlistSpot::position)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void fullTraining_queuesUsersInArrivalOrder() {
+        // given
+        var training = training(21L, 2);
+
+        // when
+        LongStream.rangeClosed(1, 5).forEach(userId -> enroll(training, userId));
+
+        // then
+        assertThat(enrolledUsers(21L)).containsExactly(1L, 2L);
+        assertThat(positionOf(3L, 21L)).isEqualTo(1);
+        assertThat(positionOf(4L, 21L)).isEqualTo(2);
+        assertThat(positionOf(5L, 21L)).isEqualTo(3);
+    }
+
+    @Test
+    void leave_movesEveryoneBehindOnePlaceUp() {
+        // given
+        var training = training(22L, 1);
+        LongStream.rangeClosed(1, 4).forEach(userId -> enroll(training, userId));
+
+        // when
+        withdraw(2L, 22L);
+
+        // then
+        assertThat(positionOf(3L, 22L)).isEqualTo(1);
+        assertThat(positionOf(4L, 22L)).isEqualTo(2);
+        assertThat(enrolledUsers(22L)).containsExactly(1L);
+    }
+
+    @Test
+    void withdraw_givesSeatBack_whenNobodyWaits() {
+        // given
+        var training = training(23L, 1);
+        enroll(training, 1L);
+
+        // when
+        withdraw(1L, 23L);
+        enroll(training, 2L);
+
+        // then
+        assertThat(enrolledUsers(23L)).containsExactly(2L);
+        assertThat(waitlist.findSpots(2L)).isEmpty();
+    }
+
+    @Test
+    void raisedCapacity_promotesWaitingUsersIntoTheNewSeats() {
+        // given: 2 seats taken, users 3..6 waiting
+        var training = training(26L, 2);
+        LongStream.rangeClosed(1, 6).forEach(userId -> enroll(training, userId));
+
+        // when
+        raiseCapacity(26L, 4);
+
+        // then
+        assertThat(enrolledUsers(26L)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(seatsRepository.findById(26L)).get().extracting(s -> s.getReserved()).isEqualTo(4);
+        assertThat(positionOf(5L, 26L)).isEqualTo(1);
+        assertThat(positionOf(6L, 26L)).isEqualTo(2);
+    }
+
+    @Test
+    void raisedCapacity_givesUnclaimedSeatsBack_whenTheWaitlistRunsOut() {
+        // given: 1 seat taken, user 2 waiting
+        var training = training(27L, 1);
+        LongStream.rangeClosed(1, 2).forEach(userId -> enroll(training, userId));
+
+        // when
+        raiseCapacity(27L, 5);
+
+        // then
+        assertThat(enrolledUsers(27L)).containsExactly(1L, 2L);
+        assertThat(seatsRepository.findById(27L)).get().extracting(s -> s.getReserved()).isEqualTo(2);
+        assertThat(waitlistRepository.count()).isZero();
+    }
+
+    @Test
+    void removedCapacity_enrollsEveryoneWaiting_andEmptiesTheQueue() {
+        // given: 2 seats taken, users 3..5 waiting
+        var training = training(28L, 2);
+        LongStream.rangeClosed(1, 5).forEach(userId -> enroll(training, userId));
+
+        // when: the limit is removed
+        raiseCapacity(28L, null);
+
+        // then
+        assertThat(enrolledUsers(28L)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(waitlistRepository.count()).isZero();
+        assertThat(waitlist.hasWaiting(28L)).isFalse();
+    }
+
+    @Test
+    void join_fails_whenTrainingHasNoSeatCounter() {
+        // given: a capacity-limited training whose counter was never created
+        var training = training(25L, 1);
+
+        // when && then: neither a seat nor a ticket is available, so enrolling must not spin
+        assertThatThrownBy(() -> tx().executeWithoutResult(status -> {
+            assertThat(seats.tryReserve(training)).isFalse();
+            waitlist.join(1L, training);
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(waitlistRepository.count()).isZero();
+    }
+
+    @Test
+    void concurrentWithdrawals_promoteEachWaitingUserOnceInOrder() throws Exception {
+        // given: 10 seats taken by users 1..10, users 11..40 waiting in that order
+        int capacity = 10;
+        var training = training(24L, capacity);
+        LongStream.rangeClosed(1, 40).forEach(userId -> enroll(training, userId));
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        // every enrolled user withdraws while users 31..35 leave the queue
+        LongStream.concat(LongStream.rangeClosed(1, 10), LongStream.rangeClosed(31, 35)).forEach(userId ->
+                results.add(pool.submit(() -> {
+                    start.await();
+                    withdraw(userId, 24L);
+                    return null;
+                })));
+
+        // when
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // then
+        assertThat(enrolledUsers(24L)).containsExactlyElementsOf(LongStream.rangeClosed(11, 20).boxed().toList());
+        assertThat(seatsRepository.findById(24L)).get()
+                .extracting(s -> s.getReserved()).isEqualTo(capacity);
+        List<Long> stillWaiting = LongStream.concat(LongStream.rangeClosed(21, 30), LongStream.rangeClosed(36, 40))
+                .boxed().toList();
+        for (int i = 0; i < stillWaiting.size(); i++) {
+            assertThat(positionOf(stillWaiting.get(i), 24L)).isEqualTo(i + 1);
+        }
+        assertThat(waitlistRepository.count()).isEqualTo(stillWaiting.size());
+    }
+}
@@ -12,8 +12,10 @@ import com.karate.feedback_service.infrastructure.client.AuthClient
 import com.karate.feedback_service.infrastructure.client.EnrollmentClient
 import com.karate.feedback_service.infrastructure.client.TrainingSessionClient
 import com.karate.feedback_service.infrastructure.client.UserClient
+import com.karate.feedback_service.infrastructure.jwt.JwtPrincipal
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker
 import org.slf4j.LoggerFactory
+import org.springframework.security.core.Authentication
 import org.springframework.security.core.context.SecurityContextHolder
 import org.springframework.security.core.userdetails.UsernameNotFoundException
 import org.springframework.stereotype.Service
@@ -93,8 +95,7 @@ class FeedbackService(
 
         if (!auth.isAuthenticated) throw UsernameNotFoundException("User not authenticated")
 
-        val username = auth.name
-        val userId = getUserId(username) ?: throw UsernameNotFoundException("User not found")
+        val userId = resolveUserId(auth) ?: throw UsernameNotFoundException("User not found")
 
         if (!checkTraining(sessionId)) {
             log.warn("Training session {} not found", sessionId)
@@ -139,7 +140,7 @@ class FeedbackService(
     fun getAllForCurrentUser(): List<FeedbackResponseDtoExt> {
         val auth = SecurityContextHolder.getContext().authentication
             ?: throw UsernameNotFoundException("User not authenticated")
-        val userId = getUserId(auth.name) ?: throw UsernameNotFoundException("User not found")
+        val userId = resolveUserId(auth) ?: throw UsernameNotFoundException("User not found")
         return feedbackRepository.findAllByUserId(userId).map {
             FeedbackResponseDtoExt(
                 feedbackId = it.feedbackId ?: 0,
@@ -169,6 +170,9 @@ class FeedbackService(
     @Suppress("unused")
     private fun enrolledFallback(uid: Long, sid: Long, ex: Throwable) = false
 
+    private fun resolveUserId(auth: Authentication): Long? =
+        (auth.principal as? JwtPrincipal)?.userId ?: getUserId(auth.name)
+
     @CircuitBreaker(name = "upstream", fallbackMethod = "userIdByUsernameFallback")
     fun getUserId(username: String) = authClient.getUserIdByUsername(username)
 
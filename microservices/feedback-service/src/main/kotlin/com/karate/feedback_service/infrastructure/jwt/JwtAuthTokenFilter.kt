@@ -2,6 +2,10 @@ package com.karate.feedback_service.infrastructure.jwt;
 
 import com.auth0.jwt.JWT
 import com.auth0.jwt.algorithms.Algorithm
+import com.auth0.jwt.interfaces.JWTVerifier
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import com.github.benmanes.caffeine.cache.Expiry
 import jakarta.servlet.FilterChain
 import jakarta.servlet.http.HttpServletRequest
 import jakarta.servlet.http.HttpServletResponse
@@ -10,12 +14,38 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority
 import org.springframework.security.core.context.SecurityContextHolder
 import org.springframework.stereotype.Component
 import org.springframework.web.filter.OncePerRequestFilter
+import java.security.MessageDigest
+import java.time.Duration
+import java.time.Instant
+import java.util.Base64
 
 @Component
 class JwtAuthTokenFilter(
         private val jwtConfigurationProperties: JwtConfigurationProperties
 ) : OncePerRequestFilter() {
 
+    private val verifier: JWTVerifier by lazy {
+        JWT.require(Algorithm.HMAC256(jwtConfigurationProperties.secretKey)).build()
+    }
+
+    private val verifiedTokens: Cache<String, VerifiedToken> = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfter(TokenExpiry)
+            .build()
+
+    // a revocation only matters while tokens issued before it can still be valid
+    private val revokedUsers: Cache<Long, Instant> = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofDays(maxOf(1L, jwtConfigurationProperties.expirationDays)))
+            .build()
+
+    /**
+     * Rejects every token of the given user issued at or before [revokedAt],
+     * forcing the client to log in again (account deleted, club changed).
+     */
+    fun revokeTokensIssuedBefore(userId: Long, revokedAt: Instant) {
+        revokedUsers.asMap().merge(userId, revokedAt) { a, b -> if (a.isAfter(b)) a else b }
+    }
+
     override fun doFilterInternal(
             request: HttpServletRequest,
             response: HttpServletResponse,
@@ -28,24 +58,81 @@ class JwtAuthTokenFilter(
         }
 
         val authentication = getUsernamePasswordAuthenticationToken(authorization)
-        SecurityContextHolder.getContext().authentication = authentication
+        if (authentication != null) {
+            SecurityContextHolder.getContext().authentication = authentication
+        }
         filterChain.doFilter(request, response)
     }
 
-    private fun getUsernamePasswordAuthenticationToken(token: String): UsernamePasswordAuthenticationToken {
-        val algorithm = Algorithm.HMAC256(jwtConfigurationProperties.secretKey)
-        val verifier = JWT.require(algorithm).build()
-        val decodedJWT = verifier.verify(token.substring(BEGIN_INDEX))
+    private fun getUsernamePasswordAuthenticationToken(token: String): UsernamePasswordAuthenticationToken? {
+        val jwt = token.substring(BEGIN_INDEX)
+        // failed verifications throw out of the loader and are never cached
+        val verified = verifiedTokens.get(digest(jwt)) { verify(jwt) }
+        return if (isRevoked(verified)) null else verified.authentication
+    }
+
+    private fun isRevoked(verified: VerifiedToken): Boolean {
+        val userId = verified.userId ?: return false
+        val revokedAt = revokedUsers.getIfPresent(userId) ?: return false
+        return verified.issuedAt == null || !verified.issuedAt.isAfter(revokedAt)
+    }
 
-        val authorities = decodedJWT.getClaim("roles").asList(String::class.java)
+    private fun verify(jwt: String): VerifiedToken {
+        val decodedJWT = verifier.verify(jwt)
+
+        val authorities = decodedJWT.getClaim(CLAIM_ROLES).asList(String::class.java)
                 .map { SimpleGrantedAuthority(it) }
 
-        return UsernamePasswordAuthenticationToken(decodedJWT.subject, null, authorities)
+        // tokens issued before the identity claims existed carry neither; callers fall back to a lookup
+        val principal = JwtPrincipal(
+                username = decodedJWT.subject,
+                userId = decodedJWT.getClaim(CLAIM_USER_ID).asLong(),
+                clubId = decodedJWT.getClaim(CLAIM_CLUB_ID).asLong()
+        )
+
+        return VerifiedToken(
+                UsernamePasswordAuthenticationToken(principal, null, authorities),
+                principal.userId,
+                decodedJWT.issuedAtAsInstant,
+                decodedJWT.expiresAtAsInstant
+        )
+    }
+
+    private data class VerifiedToken(
+            val authentication: UsernamePasswordAuthenticationToken,
+            val userId: Long?,
+            val issuedAt: Instant?,
+            val expiresAt: Instant?
+    )
+
+    private object TokenExpiry : Expiry<String, VerifiedToken> {
+        override fun expireAfterCreate(key: String, value: VerifiedToken, currentTime: Long): Long {
+            val expiresAt = value.expiresAt ?: return MAX_CACHED_TTL.toNanos()
+            val remaining = Duration.between(Instant.now(), expiresAt)
+            if (remaining.isNegative) return 0
+            return minOf(remaining.toNanos(), MAX_CACHED_TTL.toNanos())
+        }
+
+        override fun expireAfterUpdate(key: String, value: VerifiedToken, currentTime: Long, currentDuration: Long): Long =
+                currentDuration
+
+        override fun expireAfterRead(key: String, value: VerifiedToken, currentTime: Long, currentDuration: Long): Long =
+                currentDuration
     }
 
     companion object {
         const val AUTHORIZATION = "Authorization"
         const val BEARER = "Bearer "
         const val BEGIN_INDEX = 7
+        const val CLAIM_ROLES = "roles"
+        const val CLAIM_USER_ID = "userId"
+        const val CLAIM_CLUB_ID = "clubId"
+        const val MAX_CACHED_TOKENS = 10_000L
+        val MAX_CACHED_TTL: Duration = Duration.ofMinutes(5)
+
+        private fun digest(jwt: String): String =
+                Base64.getEncoder().encodeToString(
+                        MessageDigest.getInstance("SHA-256").digest(jwt.toByteArray(Charsets.US_ASCII))
+                )
     }
 }
@@ -0,0 +1,11 @@
+package com.karate.feedback_service.infrastructure.jwt
+
+import org.springframework.security.core.AuthenticatedPrincipal
+
+data class JwtPrincipal(
+        val username: String,
+        val userId: Long?,
+        val clubId: Long?
+) : AuthenticatedPrincipal {
+    override fun getName(): String = username
+}
@@ -0,0 +1,49 @@
+package com.karate.feedback_service.infrastructure.messaging
+
+import com.karate.feedback_service.infrastructure.jwt.JwtAuthTokenFilter
+import com.karate.feedback_service.infrastructure.jwt.JwtConfigurationProperties
+import com.karate.feedback_service.infrastructure.messaging.dto.UserDeletedEvent
+import com.karate.feedback_service.infrastructure.messaging.dto.UserDeletedListener
+import org.slf4j.LoggerFactory
+import org.springframework.kafka.annotation.KafkaListener
+import org.springframework.kafka.annotation.TopicPartition
+import org.springframework.kafka.listener.ConsumerSeekAware
+import org.springframework.stereotype.Component
+import java.time.Duration
+import java.time.Instant
+
+/**
+ * Every instance keeps its own revocation list, so each one is assigned all partitions of the
+ * topic (`topics.user-deleted-partitions`) instead of sharing them with [UserDeletedListener].
+ * Manual assignment never joins the group, so the stable group id leaves nothing behind on
+ * restart; the list itself does not survive one, so every start replays the deletions of the last
+ * token lifetime.
+ */
+@Component
+class TokenRevocationListener(
+    private val jwtAuthTokenFilter: JwtAuthTokenFilter,
+    private val jwtConfigurationProperties: JwtConfigurationProperties
+) : ConsumerSeekAware {
+
+    private val log = LoggerFactory.getLogger(TokenRevocationListener::class.java)
+
+    @KafkaListener(
+        groupId = "feedback-service-token-revocation",
+        topicPartitions = [TopicPartition(
+            topic = "\${topics.user-deleted}",
+            partitions = ["\${topics.user-deleted-partitions:0}"]
+        )]
+    )
+    fun onUserDeleted(evt: UserDeletedEvent) {
+        log.info("feedback-service: revoking tokens userId={} issuedBefore={}", evt.userId, evt.timestamp)
+        jwtAuthTokenFilter.revokeTokensIssuedBefore(evt.userId, evt.timestamp)
+    }
+
+    override fun onPartitionsAssigned(
+        assignments: MutableMap<org.apache.kafka.common.TopicPartition, Long>,
+        callback: ConsumerSeekAware.ConsumerSeekCallback
+    ) {
+        val tokenLifetime = Duration.ofDays(maxOf(1L, jwtConfigurationProperties.expirationDays))
+        callback.seekToTimestamp(assignments.keys, Instant.now().minus(tokenLifetime).toEpochMilli())
+    }
+}
@@ -11,6 +11,7 @@ import com.karate.feedback_service.infrastructure.client.AuthClient
 import com.karate.feedback_service.infrastructure.client.EnrollmentClient
 import com.karate.feedback_service.infrastructure.client.TrainingSessionClient
 import com.karate.feedback_service.infrastructure.client.UserClient
+import com.karate.feedback_service.infrastructure.jwt.JwtPrincipal
 import io.mockk.clearAllMocks
 import io.mockk.every
 import io.mockk.mockk
@@ -20,6 +21,7 @@ import org.assertj.core.api.Assertions.assertThatThrownBy
 import org.junit.jupiter.api.*
 import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores
 import org.springframework.security.authentication.TestingAuthenticationToken
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken
 import org.springframework.security.core.context.SecurityContextHolder
 import org.springframework.security.core.userdetails.UsernameNotFoundException
 import java.util.*
@@ -144,6 +146,26 @@ class FeedbackServiceTest {
         assertThat(out.starRating).isEqualTo(4)
     }
 
+    @Test
+    fun getFeedback_uses_userId_claim_without_auth_lookup() {
+        // given
+        val auth = UsernamePasswordAuthenticationToken(JwtPrincipal("john", 1, 7), null, emptyList())
+        SecurityContextHolder.getContext().authentication = auth
+
+        every { trainingClient.checkTrainingExists(2) } returns true
+        every { enrollmentClient.checkUserEnrolledInSession(1, 2) } returns true
+        every { repo.findByUserIdAndTrainingSessionId(1, 2) } returns Optional.of(
+            FeedbackEntity(feedbackId = 10, userId = 1, trainingSessionId = 2, comment = "ok", starRating = 4)
+        )
+
+        // when
+        val out = service.getFeedbackForSession(2)
+
+        // then
+        assertThat(out.comment).isEqualTo("ok")
+        verify(exactly = 0) { authClient.getUserIdByUsername(any()) }
+    }
+
     @Test
     fun getFeedback_throws_when_no_auth_in_context() {
         // given
@@ -5,8 +5,11 @@ import com.karate.notification_service.infrastructure.messaging.dto.FeedbackEven
 import com.karate.notification_service.infrastructure.messaging.dto.UserRegisteredEvent;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
@@ -25,6 +28,19 @@ public class KafkaConfig {
         return new DefaultKafkaConsumerFactory<>(cfg, new StringDeserializer(), new JsonDeserializer<>(type, false));
     }
 
+    // Custom factories skip Boot's configurer, so apply its virtual-thread listener executor here.
+    private static <T> ConcurrentKafkaListenerContainerFactory<String, T> listenerFactoryFor(
+            ConsumerFactory<String, T> cf, Environment environment) {
+        ConcurrentKafkaListenerContainerFactory<String, T> f = new ConcurrentKafkaListenerContainerFactory<>();
+        f.setConsumerFactory(cf);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("kafka-");
+            executor.setVirtualThreads(true);
+            f.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+        return f;
+    }
+
     @Bean
     public ConsumerFactory<String, UserRegisteredEvent> userRegisteredConsumerFactory(KafkaProperties props) {
         return factoryFor(props, UserRegisteredEvent.class);
@@ -42,25 +58,19 @@ public class KafkaConfig {
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, UserRegisteredEvent> userRegisteredListenerFactory(
-            ConsumerFactory<String, UserRegisteredEvent> cf) {
-        ConcurrentKafkaListenerContainerFactory<String, UserRegisteredEvent> f = new ConcurrentKafkaListenerContainerFactory<>();
-        f.setConsumerFactory(cf);
-        return f;
+            ConsumerFactory<String, UserRegisteredEvent> cf, Environment environment) {
+        return listenerFactoryFor(cf, environment);
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, EnrollmentEvent> enrollmentListenerFactory(
-            ConsumerFactory<String, EnrollmentEvent> cf) {
-        ConcurrentKafkaListenerContainerFactory<String, EnrollmentEvent> f = new ConcurrentKafkaListenerContainerFactory<>();
-        f.setConsumerFactory(cf);
-        return f;
+            ConsumerFactory<String, EnrollmentEvent> cf, Environment environment) {
+        return listenerFactoryFor(cf, environment);
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, FeedbackEvent> feedbackListenerFactory(
-            ConsumerFactory<String, FeedbackEvent> cf) {
-        ConcurrentKafkaListenerContainerFactory<String, FeedbackEvent> f = new ConcurrentKafkaListenerContainerFactory<>();
-        f.setConsumerFactory(cf);
-        return f;
+            ConsumerFactory<String, FeedbackEvent> cf, Environment environment) {
+        return listenerFactoryFor(cf, environment);
     }
 }
@@ -1,13 +1,14 @@
 package com.karate.payment_service;
 
 import com.karate.payment_service.infrastructure.jwt.JwtConfigurationProperties;
+import com.karate.payment_service.infrastructure.paypal.PayPalProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
-@EnableConfigurationProperties(JwtConfigurationProperties.class)
+@EnableConfigurationProperties({JwtConfigurationProperties.class, PayPalProperties.class})
 @EnableFeignClients
 public class PaymentServiceApplication {
 
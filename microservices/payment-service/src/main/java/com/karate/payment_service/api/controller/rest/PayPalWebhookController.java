@@ -0,0 +1,33 @@
+package com.karate.payment_service.api.controller.rest;
+
+import com.karate.payment_service.domain.service.PayPalWebhookPipeline;
+import com.karate.payment_service.infrastructure.paypal.dto.PayPalWebhookTransmission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Receives PayPal webhooks. A delivery is acknowledged as soon as it is verified and stored;
+ * the payment is updated later by the webhook processor.
+ */
+@RestController
+@RequestMapping("/payments/webhooks")
+@RequiredArgsConstructor
+public class PayPalWebhookController {
+
+    private final PayPalWebhookPipeline pipeline;
+
+    @PostMapping("/paypal")
+    public ResponseEntity<Void> receive(@RequestHeader("PAYPAL-AUTH-ALGO") String authAlgo,
+                                        @RequestHeader("PAYPAL-CERT-URL") String certUrl,
+                                        @RequestHeader("PAYPAL-TRANSMISSION-ID") String transmissionId,
+                                        @RequestHeader("PAYPAL-TRANSMISSION-SIG") String transmissionSig,
+                                        @RequestHeader("PAYPAL-TRANSMISSION-TIME") String transmissionTime,
+                                        @RequestBody String body) {
+        var transmission = new PayPalWebhookTransmission(authAlgo, certUrl, transmissionId, transmissionSig, transmissionTime);
+        return switch (pipeline.accept(transmission, body)) {
+            case STORED, DUPLICATE -> ResponseEntity.ok().build();
+            case REJECTED -> ResponseEntity.badRequest().build();
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.karate.payment_service.domain.exception;
+
+/**
+ * PayPal answered a capture and declined it; the payment has been moved to FAILED.
+ */
+public class PayPalCaptureRejectedException extends RuntimeException {
+    public PayPalCaptureRejectedException(String orderId) {
+        super("PayPal capture rejected: " + orderId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.karate.payment_service.domain.exception;
+
+/**
+ * The payment was cancelled or has expired, so it can no longer be captured.
+ */
+public class PaymentClosedException extends IllegalStateException {
+    public PaymentClosedException(String message) {
+        super(message);
+    }
+}
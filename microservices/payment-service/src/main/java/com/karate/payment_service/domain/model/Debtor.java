@@ -0,0 +1,10 @@
+package com.karate.payment_service.domain.model;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * An account with at least one month since registration that has no PAID item, oldest month first.
+ */
+public record Debtor(Long userId, String email, List<YearMonth> months) {
+}
@@ -0,0 +1,79 @@
+package com.karate.payment_service.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Paid months of one user as a bitset over the months since registration (bit 0 = registration
+ * month). Months before registration are never due and are not recorded.
+ */
+@Entity
+@Table(name = "user_paid_months")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaidMonthsLedgerEntity {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Version
+    private Integer version;
+
+    @Column(name = "base_month", nullable = false)
+    private int baseMonth;
+
+    @Column(name = "paid_bits", nullable = false)
+    private byte[] paidBits;
+
+    public static PaidMonthsLedgerEntity forRegistration(Long userId, LocalDate registrationDate) {
+        return PaidMonthsLedgerEntity.builder()
+                .userId(userId)
+                .baseMonth(monthIndex(YearMonth.from(registrationDate)))
+                .paidBits(new byte[0])
+                .build();
+    }
+
+    public static int monthIndex(YearMonth ym) {
+        return ym.getYear() * 12 + ym.getMonthValue() - 1;
+    }
+
+    public boolean isPaid(YearMonth ym) {
+        int bit = monthIndex(ym) - baseMonth;
+        return bit >= 0 && BitSet.valueOf(paidBits).get(bit);
+    }
+
+    public void markPaid(Collection<YearMonth> months) {
+        BitSet bits = BitSet.valueOf(paidBits);
+        for (YearMonth ym : months) {
+            int bit = monthIndex(ym) - baseMonth;
+            if (bit >= 0) {
+                bits.set(bit);
+            }
+        }
+        paidBits = bits.toByteArray();
+    }
+
+    /**
+     * @return months from registration up to {@code upTo} (inclusive) without a paid bit, oldest first
+     */
+    public List<YearMonth> unpaidUpTo(YearMonth upTo) {
+        BitSet bits = BitSet.valueOf(paidBits);
+        int last = monthIndex(upTo) - baseMonth;
+        List<YearMonth> unpaid = new ArrayList<>();
+        for (int bit = bits.nextClearBit(0); bit <= last; bit = bits.nextClearBit(bit + 1)) {
+            int index = baseMonth + bit;
+            unpaid.add(YearMonth.of(index / 12, index % 12 + 1));
+        }
+        return unpaid;
+    }
+}
@@ -0,0 +1,73 @@
+package com.karate.payment_service.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * A verified PayPal webhook delivery, stored before it is acknowledged and applied to its
+ * payment by the webhook processor.
+ */
+@Entity
+@Table(name = "paypal_webhook_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayPalWebhookEventEntity implements Persistable<String> {
+    @Id
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "order_id")
+    private String orderId;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private WebhookEventStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false)
+    private Instant receivedAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    // the id is PayPal's, so save() would merge a new event into a concurrently stored one
+    @Transient
+    @Builder.Default
+    private boolean stored = false;
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        stored = true;
+    }
+
+    @Override
+    public String getId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+}
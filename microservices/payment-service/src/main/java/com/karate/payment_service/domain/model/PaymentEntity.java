@@ -50,6 +50,9 @@ public class PaymentEntity {
     @Column(name = "paid_at")
     private Instant paidAt;
 
+    @Column(name = "capture_started_at")
+    private Instant captureStartedAt;
+
     @OneToMany(mappedBy = "payment", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<PaymentItemEntity> items = new ArrayList<>();
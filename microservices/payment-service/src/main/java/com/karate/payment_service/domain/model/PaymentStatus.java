@@ -2,6 +2,9 @@ package com.karate.payment_service.domain.model;
 
 public enum PaymentStatus {
     PENDING,
+    CAPTURING,
     PAID,
-    CANCELLED
+    FAILED,
+    CANCELLED,
+    EXPIRED
 }
@@ -0,0 +1,8 @@
+package com.karate.payment_service.domain.model;
+
+public enum WebhookEventStatus {
+    RECEIVED,
+    PROCESSED,
+    IGNORED,
+    FAILED
+}
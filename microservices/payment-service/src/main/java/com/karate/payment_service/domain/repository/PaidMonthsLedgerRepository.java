@@ -0,0 +1,27 @@
+package com.karate.payment_service.domain.repository;
+
+import com.karate.payment_service.domain.model.PaidMonthsLedgerEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaidMonthsLedgerRepository extends JpaRepository<PaidMonthsLedgerEntity, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from PaidMonthsLedgerEntity l where l.userId = :userId")
+    Optional<PaidMonthsLedgerEntity> lockByUserId(@Param("userId") Long userId);
+
+    List<PaidMonthsLedgerEntity> findByUserIdGreaterThanOrderByUserIdAsc(Long userId, Pageable pageable);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("delete from PaidMonthsLedgerEntity l where l.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
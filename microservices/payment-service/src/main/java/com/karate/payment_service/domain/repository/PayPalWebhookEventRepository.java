@@ -0,0 +1,17 @@
+package com.karate.payment_service.domain.repository;
+
+import com.karate.payment_service.domain.model.PayPalWebhookEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PayPalWebhookEventRepository extends JpaRepository<PayPalWebhookEventEntity, String> {
+
+    @Query(value = "SELECT * FROM paypal_webhook_events WHERE status = 'RECEIVED' AND next_attempt_at <= :now ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PayPalWebhookEventEntity> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+}
@@ -9,14 +9,27 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PaymentItemRepository extends JpaRepository<PaymentItemEntity, Long> {
     List<PaymentItemEntity> findByUserIdAndStatus(Long userId, PaymentStatus status);
 
+    List<PaymentItemEntity> findByUserIdInAndStatus(Collection<Long> userIds, PaymentStatus status);
+
     boolean existsByUserIdAndYearMonthAndStatus(Long userId, YearMonth ym, PaymentStatus status);
 
+    /**
+     * Moves the items still in {@code from} to their payment's status, for those of
+     * {@code paymentIds} whose payment is now in {@code to}.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update PaymentItemEntity i set i.status = :to where i.status = :from and i.payment.paymentId in "
+            + "(select p.paymentId from PaymentEntity p where p.paymentId in :paymentIds and p.status = :to)")
+    int updateStatusOfPayments(@Param("paymentIds") Collection<Long> paymentIds,
+                               @Param("from") PaymentStatus from, @Param("to") PaymentStatus to);
+
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("delete from PaymentItemEntity ua where ua.userId = :userId")
     int deleteByUserId(@Param("userId") Long userId);
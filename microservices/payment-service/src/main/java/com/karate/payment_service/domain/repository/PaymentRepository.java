@@ -1,14 +1,16 @@
 package com.karate.payment_service.domain.repository;
 
 import com.karate.payment_service.domain.model.PaymentEntity;
-import jakarta.persistence.LockModeType;
+import com.karate.payment_service.domain.model.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,15 +18,25 @@ import java.util.Optional;
 public interface PaymentRepository extends JpaRepository<PaymentEntity, Long> {
     Optional<PaymentEntity> findByProviderOrderId(String providerOrderId);
 
-    List<PaymentEntity> findByUserIdOrderByCreatedAtDesc(Long userId);
+    List<PaymentEntity> findByUserIdAndStatusNotOrderByCreatedAtDesc(Long userId, PaymentStatus status);
+
+    List<PaymentEntity> findByStatusAndCreatedAtBeforeAndPaymentIdGreaterThanOrderByPaymentIdAsc(
+            PaymentStatus status, Instant createdBefore, Long afterPaymentId, Pageable pageable);
+
+    List<PaymentEntity> findByStatusAndCaptureStartedAtBeforeAndPaymentIdGreaterThanOrderByPaymentIdAsc(
+            PaymentStatus status, Instant captureStartedBefore, Long afterPaymentId, Pageable pageable);
+
+    /**
+     * Moves those of {@code ids} that are still in {@code from} to {@code to} with one statement,
+     * bumping their version so a concurrent capture of one of them fails its optimistic check.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update PaymentEntity p set p.status = :to, p.version = p.version + 1 where p.paymentId in :ids and p.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") PaymentStatus from, @Param("to") PaymentStatus to);
 
     void deleteByUserId(Long userId);
 
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("delete from PaymentEntity p where p.userId = :userId")
     int deleteAllByUserId(@Param("userId") Long userId);
-
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("select p from PaymentEntity p where p.providerOrderId = :orderId")
-    Optional<PaymentEntity> lockByProviderOrderId(@Param("orderId") String orderId);
 }
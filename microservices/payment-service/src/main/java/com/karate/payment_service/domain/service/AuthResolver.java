@@ -1,6 +1,7 @@
 package com.karate.payment_service.domain.service;
 
 import com.karate.payment_service.infrastructure.client.AuthClient;
+import com.karate.payment_service.infrastructure.jwt.JwtPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -14,6 +15,9 @@ public class AuthResolver {
         if (auth == null || !auth.isAuthenticated()) {
             throw new IllegalStateException("User not authenticated");
         }
+        if (auth.getPrincipal() instanceof JwtPrincipal principal && principal.userId() != null) {
+            return principal.userId();
+        }
         String username = auth.getName();
         Long id = authClient.getUserIdByUsername(username);
         if (id == null) {
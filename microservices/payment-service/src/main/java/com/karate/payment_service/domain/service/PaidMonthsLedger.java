@@ -0,0 +1,77 @@
+package com.karate.payment_service.domain.service;
+
+import com.karate.payment_service.domain.model.PaidMonthsLedgerEntity;
+import com.karate.payment_service.domain.model.PaymentItemEntity;
+import com.karate.payment_service.domain.model.PaymentStatus;
+import com.karate.payment_service.domain.model.UserAccountEntity;
+import com.karate.payment_service.domain.repository.PaidMonthsLedgerRepository;
+import com.karate.payment_service.domain.repository.PaymentItemRepository;
+import com.karate.payment_service.domain.repository.UserAccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-user paid months kept next to {@code payment_items}, so that unpaid summaries and
+ * "already paid" checks are one row read instead of a scan of the user's items. The ledger is
+ * updated in the transaction that marks items PAID; a user without a ledger row is answered from
+ * the items and gets a row on the first payment.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaidMonthsLedger {
+
+    private final PaidMonthsLedgerRepository ledgers;
+    private final PaymentItemRepository items;
+    private final UserAccountRepository users;
+    private final UnpaidCalculator unpaidCalculator;
+
+    public List<YearMonth> unpaidMonths(UserAccountEntity user) {
+        return ledgers.findById(user.getUserId())
+                .map(ledger -> ledger.unpaidUpTo(YearMonth.now()))
+                .orElseGet(() -> unpaidCalculator.unpaidMonths(user));
+    }
+
+    /**
+     * @throws IllegalStateException when one of {@code months} is already paid
+     */
+    public void requireUnpaid(UserAccountEntity user, Collection<YearMonth> months) {
+        PaidMonthsLedgerEntity ledger = ledgers.findById(user.getUserId()).orElseGet(() -> rebuild(user));
+        for (YearMonth ym : months) {
+            if (ledger.isPaid(ym)) {
+                throw new IllegalStateException("Month already paid: " + ym);
+            }
+        }
+    }
+
+    /**
+     * Sets the paid bits under a row lock; must run in the transaction that marks the items PAID.
+     */
+    public void markPaid(Long userId, Collection<YearMonth> months) {
+        PaidMonthsLedgerEntity ledger = ledgers.lockByUserId(userId).orElseGet(() -> {
+            var user = users.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+            log.info("Paid-months ledger created from items userId={}", userId);
+            return rebuild(user);
+        });
+        ledger.markPaid(months);
+        ledgers.save(ledger);
+    }
+
+    /**
+     * @return a ledger computed from the user's PAID items, not yet stored
+     */
+    public PaidMonthsLedgerEntity rebuild(UserAccountEntity user) {
+        return rebuild(user, items.findByUserIdAndStatus(user.getUserId(), PaymentStatus.PAID));
+    }
+
+    public PaidMonthsLedgerEntity rebuild(UserAccountEntity user, List<PaymentItemEntity> paidItems) {
+        var ledger = PaidMonthsLedgerEntity.forRegistration(user.getUserId(), user.getRegistrationDate());
+        ledger.markPaid(paidItems.stream().map(PaymentItemEntity::getYearMonth).toList());
+        return ledger;
+    }
+}
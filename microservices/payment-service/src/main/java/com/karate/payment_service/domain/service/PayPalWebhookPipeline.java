@@ -0,0 +1,240 @@
+package com.karate.payment_service.domain.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.karate.payment_service.domain.exception.PayPalCaptureRejectedException;
+import com.karate.payment_service.domain.exception.PaymentClosedException;
+import com.karate.payment_service.domain.model.PayPalWebhookEventEntity;
+import com.karate.payment_service.domain.model.WebhookEventStatus;
+import com.karate.payment_service.domain.repository.PayPalWebhookEventRepository;
+import com.karate.payment_service.infrastructure.paypal.PayPalClient;
+import com.karate.payment_service.infrastructure.paypal.dto.PayPalWebhookEvent;
+import com.karate.payment_service.infrastructure.paypal.dto.PayPalWebhookTransmission;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PayPal webhooks as a durable queue. {@link #accept} verifies a delivery with PayPal and stores
+ * it keyed by the PayPal event id, so the request can be acknowledged right away and a redelivery
+ * is stored once; {@link #processDue()} later applies stored events to their payments on a fixed
+ * pool of workers, through the same transitions as a client-driven capture. A burst of deliveries
+ * therefore only grows the table, and is drained at the pace the workers allow.
+ */
+@Slf4j
+@Service
+public class PayPalWebhookPipeline implements DisposableBean {
+    public static final Duration CLAIM_LEASE = Duration.ofSeconds(60);
+    public static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    public enum Outcome {
+        STORED,
+        DUPLICATE,
+        REJECTED
+    }
+
+    private final PayPalWebhookEventRepository events;
+    private final PaymentApplicationService payments;
+    private final PaymentCaptureTransitions transitions;
+    private final PayPalClient payPal;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public PayPalWebhookPipeline(PayPalWebhookEventRepository events,
+                                 PaymentApplicationService payments,
+                                 PaymentCaptureTransitions transitions,
+                                 PayPalClient payPal,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${payments.webhook.workers:4}") int workers,
+                                 @Value("${payments.webhook.batch-size:50}") int batchSize,
+                                 @Value("${payments.webhook.max-attempts:10}") int maxAttempts) {
+        this.events = events;
+        this.payments = payments;
+        this.transitions = transitions;
+        this.payPal = payPal;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "paypal-webhook-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Verifies and stores one delivery; nothing is applied to payments here.
+     */
+    public Outcome accept(PayPalWebhookTransmission transmission, String rawEvent) {
+        long t0 = System.currentTimeMillis();
+        PayPalWebhookEvent event;
+        try {
+            event = objectMapper.readValue(rawEvent, PayPalWebhookEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("PayPal webhook rejected, unreadable body reason={}", e.getOriginalMessage());
+            return Outcome.REJECTED;
+        }
+        if (event.id() == null || event.eventType() == null) {
+            log.warn("PayPal webhook rejected, id or event_type missing");
+            return Outcome.REJECTED;
+        }
+        if (events.existsById(event.id())) {
+            return Outcome.DUPLICATE;
+        }
+
+        try {
+            if (!payPal.verifyWebhookSignature(transmission, rawEvent)) {
+                log.warn("PayPal webhook rejected, signature not verified eventId={} type={}", event.id(), event.eventType());
+                return Outcome.REJECTED;
+            }
+        } catch (IOException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // not acknowledged, so PayPal delivers it again later
+            throw new RuntimeException("PayPal webhook verification error", e);
+        }
+
+        Instant now = Instant.now();
+        try {
+            events.saveAndFlush(PayPalWebhookEventEntity.builder()
+                    .eventId(event.id())
+                    .eventType(event.eventType())
+                    .orderId(event.orderId())
+                    .payload(rawEvent)
+                    .status(WebhookEventStatus.RECEIVED)
+                    .attempts(0)
+                    .nextAttemptAt(now)
+                    .receivedAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent delivery of the same event was stored first
+            return Outcome.DUPLICATE;
+        }
+        log.info("PayPal webhook stored eventId={} type={} orderId={} took={}ms",
+                event.id(), event.eventType(), event.orderId(), System.currentTimeMillis() - t0);
+        return Outcome.STORED;
+    }
+
+    /**
+     * Claims up to {@code payments.webhook.batch-size} due events and applies them on the worker
+     * pool, returning once all of them are done. Claiming pushes {@code next_attempt_at} past a
+     * lease, so concurrent instances ({@code SKIP LOCKED}) and crashed workers never apply an
+     * event twice at the same time.
+     */
+    public int processDue() {
+        List<PayPalWebhookEventEntity> claimed = tx.execute(status -> {
+            Instant now = Instant.now();
+            List<PayPalWebhookEventEntity> due = events.lockDue(now, batchSize);
+            due.forEach(e -> e.setNextAttemptAt(now.plus(CLAIM_LEASE)));
+            return events.saveAll(due);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        try {
+            workers.invokeAll(claimed.stream().<Callable<Void>>map(event -> () -> {
+                advance(event);
+                return null;
+            }).toList());
+        } catch (InterruptedException e) {
+            // unfinished events keep their lease and are claimed again once it expires
+            Thread.currentThread().interrupt();
+        }
+        return claimed.size();
+    }
+
+    void advance(PayPalWebhookEventEntity event) {
+        try {
+            WebhookEventStatus outcome = apply(event);
+            event.setStatus(outcome);
+            event.setLastError(null);
+        } catch (IllegalArgumentException | PaymentClosedException e) {
+            // no payment for the order (created elsewhere on the same PayPal account), or one that
+            // was cancelled or has expired and must not be captured any more
+            event.setStatus(WebhookEventStatus.IGNORED);
+            event.setLastError(truncate(e.getMessage()));
+        } catch (PayPalCaptureRejectedException e) {
+            // PayPal's final answer, the payment is FAILED already; a retry would capture again
+            event.setStatus(WebhookEventStatus.PROCESSED);
+            event.setLastError(truncate(e.getMessage()));
+        } catch (RuntimeException e) {
+            recordFailure(event, e);
+            return;
+        }
+        event.setProcessedAt(Instant.now());
+        events.save(event);
+        log.debug("PayPal webhook applied eventId={} type={} orderId={} status={}",
+                event.getEventId(), event.getEventType(), event.getOrderId(), event.getStatus());
+    }
+
+    private WebhookEventStatus apply(PayPalWebhookEventEntity event) {
+        if (event.getOrderId() == null) {
+            return WebhookEventStatus.IGNORED;
+        }
+        switch (event.getEventType()) {
+            // the payer approved; capturing here takes the capture call off the client's path
+            case "CHECKOUT.ORDER.APPROVED" -> payments.capture(event.getOrderId());
+            case "PAYMENT.CAPTURE.COMPLETED" -> payments.complete(event.getOrderId());
+            case "PAYMENT.CAPTURE.DENIED", "PAYMENT.CAPTURE.DECLINED" -> transitions.failCapture(event.getOrderId());
+            default -> {
+                return WebhookEventStatus.IGNORED;
+            }
+        }
+        return WebhookEventStatus.PROCESSED;
+    }
+
+    private void recordFailure(PayPalWebhookEventEntity event, RuntimeException e) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(e.toString()));
+        if (attempts >= maxAttempts) {
+            event.setStatus(WebhookEventStatus.FAILED);
+            event.setProcessedAt(Instant.now());
+            events.save(event);
+            log.error("PayPal webhook failed eventId={} type={} orderId={} attempts={} reason={}",
+                    event.getEventId(), event.getEventType(), event.getOrderId(), attempts, e.toString());
+            return;
+        }
+        event.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+        events.save(event);
+        log.warn("PayPal webhook not applied eventId={} type={} attempt={} retryAt={} reason={}",
+                event.getEventId(), event.getEventType(), attempts, event.getNextAttemptAt(), e.toString());
+    }
+
+    static Duration backoff(int attempts) {
+        long seconds = 1L << Math.min(attempts, 20);
+        return seconds >= MAX_BACKOFF.toSeconds() ? MAX_BACKOFF : Duration.ofSeconds(seconds);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+}
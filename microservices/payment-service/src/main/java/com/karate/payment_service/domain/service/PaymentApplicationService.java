@@ -1,18 +1,18 @@
 package com.karate.payment_service.domain.service;
 
 import com.karate.payment_service.api.dto.*;
+import com.karate.payment_service.domain.exception.PayPalCaptureRejectedException;
 import com.karate.payment_service.domain.model.PaymentEntity;
 import com.karate.payment_service.domain.model.PaymentItemEntity;
 import com.karate.payment_service.domain.model.PaymentProvider;
 import com.karate.payment_service.domain.model.PaymentStatus;
-import com.karate.payment_service.domain.repository.PaymentItemRepository;
 import com.karate.payment_service.domain.repository.PaymentRepository;
 import com.karate.payment_service.domain.repository.UserAccountRepository;
 import com.karate.payment_service.infrastructure.messaging.PaymentEventPublisher;
 import com.karate.payment_service.infrastructure.messaging.dto.PaymentReceivedEvent;
 import com.karate.payment_service.infrastructure.paypal.PayPalClient;
 import lombok.RequiredArgsConstructor;
-import org.springframework.boot.configurationprocessor.json.JSONException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,22 +29,23 @@ public class PaymentApplicationService {
     private final PaymentsConfig cfg;
     private final UserAccountRepository users;
     private final PaymentRepository payments;
-    private final PaymentItemRepository items;
-    private final UnpaidCalculator unpaidCalculator;
+    private final PaidMonthsLedger ledger;
     private final PayPalClient payPal;
     private final PaymentEventPublisher publisher;
+    private final PaymentCaptureTransitions transitions;
 
     @Transactional(readOnly = true)
     public UnpaidSummaryDto getUnpaidSummary(Long userId) {
         var u = users.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-        var months = unpaidCalculator.unpaidMonths(u).stream().map(YearMonth::toString).toList();
+        var months = ledger.unpaidMonths(u).stream().map(YearMonth::toString).toList();
         var total = cfg.getMonthlyFee().multiply(BigDecimal.valueOf(months.size()));
         return new UnpaidSummaryDto(months, cfg.getMonthlyFee(), total);
     }
 
     @Transactional(readOnly = true)
     public List<PaymentHistoryItemDto> history(Long userId) {
-        return payments.findByUserIdOrderByCreatedAtDesc(userId).stream().map(p -> {
+        // expired orders were abandoned at checkout and are not part of the history
+        return payments.findByUserIdAndStatusNotOrderByCreatedAtDesc(userId, PaymentStatus.EXPIRED).stream().map(p -> {
             var m = p.getItems().stream().map(i -> i.getYearMonth().toString()).toList();
             return new PaymentHistoryItemDto(
                     p.getPaymentId(), p.getProvider().name(), p.getProviderOrderId(), p.getCurrency(),
@@ -63,11 +64,7 @@ public class PaymentApplicationService {
             months = List.of(YearMonth.now());
         }
 
-        for (YearMonth ym : months) {
-            if (items.existsByUserIdAndYearMonthAndStatus(u.getUserId(), ym, PaymentStatus.PAID)) {
-                throw new IllegalStateException("Month already paid: " + ym);
-            }
-        }
+        ledger.requireUnpaid(u, months);
 
         BigDecimal amount = cfg.getMonthlyFee().multiply(BigDecimal.valueOf(months.size()));
         String currency = Optional.ofNullable(req.currency()).orElse(cfg.getCurrency());
@@ -115,55 +112,66 @@ public class PaymentApplicationService {
             return new CreateOrderResponse(orderId, approvalUrl, amount, currency,
                     months.stream().map(YearMonth::toString).toList(), PaymentStatus.PENDING);
 
-        } catch (IOException e) {
+        } catch (IOException | InterruptedException e) {
             throw new RuntimeException("PayPal create error", e);
         }
     }
 
-    @Transactional
+    /**
+     * Captures without holding a database connection across the PayPal call: the payment moves to
+     * CAPTURING in one short transaction, PayPal is called outside any transaction, and the outcome
+     * is applied in another. When the call fails without an answer the payment stays CAPTURING; once
+     * its capture lease has passed, {@code StalePaymentReconciler} looks the order up at PayPal and
+     * settles it, capturing again where needed, since PayPal reports an order captured twice as
+     * already captured. A capture requested while another is still inside its lease, e.g. a
+     * double click or a client retry racing the APPROVED webhook, answers CAPTURING without
+     * calling PayPal.
+     */
     public CaptureResponse capture(String orderId) {
-        var payment = payments.lockByProviderOrderId(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Payment not found: " + orderId));
-
-        if (payment.getStatus() == PaymentStatus.PAID) {
+        PaymentCaptureTransitions.CaptureStart start;
+        try {
+            start = transitions.beginCapture(orderId);
+        } catch (OptimisticLockingFailureException e) {
+            return new CaptureResponse(orderId, PaymentStatus.CAPTURING.name());
+        }
+        if (start == PaymentCaptureTransitions.CaptureStart.ALREADY_PAID) {
             return new CaptureResponse(orderId, "ALREADY_PAID");
         }
+        if (start == PaymentCaptureTransitions.CaptureStart.IN_FLIGHT) {
+            return new CaptureResponse(orderId, PaymentStatus.CAPTURING.name());
+        }
 
+        boolean ok;
         try {
-            boolean ok = payPal.captureOrder(orderId);
-            if (!ok) throw new RuntimeException("PayPal capture rejected");
-
-            payment.setStatus(PaymentStatus.PAID);
-            payment.setPaidAt(Instant.now());
-            for (var it : payment.getItems()) it.setStatus(PaymentStatus.PAID);
-            payments.save(payment);
-
-            var months = payment.getItems().stream().map(i -> i.getYearMonth().toString()).toList();
-            publisher.publishReceived(PaymentReceivedEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .eventType("PAYMENT_RECEIVED")
-                    .timestamp(Instant.now())
-                    .userId(payment.getUserId())
-                    .currency(payment.getCurrency())
-                    .amount(payment.getAmount())
-                    .months(months)
-                    .build());
-
-            return new CaptureResponse(orderId, "PAID");
-        } catch (IOException | InterruptedException | JSONException e) {
+            ok = payPal.captureOrder(orderId);
+        } catch (IOException | InterruptedException e) {
             throw new RuntimeException("PayPal capture error", e);
         }
+        if (!ok) {
+            transitions.failCapture(orderId);
+            throw new PayPalCaptureRejectedException(orderId);
+        }
+        complete(orderId);
+        return new CaptureResponse(orderId, "PAID");
+    }
+
+    /**
+     * Applies a confirmed capture; when a concurrent completion won the version check, the retry
+     * finds the payment PAID and does nothing.
+     */
+    public void complete(String orderId) {
+        try {
+            transitions.completeCapture(orderId);
+        } catch (OptimisticLockingFailureException e) {
+            transitions.completeCapture(orderId);
+        }
     }
 
     @Transactional
     public void manualPayment(Long userId, List<YearMonth> months) {
         var u = users.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        for (YearMonth ym : months) {
-            if (items.existsByUserIdAndYearMonthAndStatus(userId, ym, PaymentStatus.PAID)) {
-                throw new IllegalStateException("Month already paid: " + ym);
-            }
-        }
+        ledger.requireUnpaid(u, months);
 
         var amount = cfg.getMonthlyFee().multiply(BigDecimal.valueOf(months.size()));
         var pay = PaymentEntity.builder()
@@ -187,6 +195,7 @@ public class PaymentApplicationService {
 
         pay.setItems(list);
         payments.save(pay);
+        ledger.markPaid(userId, months);
 
         publisher.publishReceived(PaymentReceivedEvent.builder()
                 .eventId(UUID.randomUUID().toString())
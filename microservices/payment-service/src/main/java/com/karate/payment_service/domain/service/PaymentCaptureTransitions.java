@@ -0,0 +1,116 @@
+package com.karate.payment_service.domain.service;
+
+import com.karate.payment_service.domain.exception.PaymentClosedException;
+import com.karate.payment_service.domain.model.PaymentEntity;
+import com.karate.payment_service.domain.model.PaymentItemEntity;
+import com.karate.payment_service.domain.model.PaymentStatus;
+import com.karate.payment_service.domain.repository.PaymentRepository;
+import com.karate.payment_service.infrastructure.messaging.PaymentEventPublisher;
+import com.karate.payment_service.infrastructure.messaging.dto.PaymentReceivedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Database steps of a PayPal capture, each a short transaction guarded by the payment's
+ * {@code @Version} instead of a row lock held across the PayPal call:
+ * PENDING/FAILED → CAPTURING before the call, then CAPTURING → PAID or FAILED after it.
+ * A concurrent transition of the same payment fails with an optimistic locking exception, and a
+ * capture begun while another is still inside {@code payments.capture.lease} is not started at all.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentCaptureTransitions {
+
+    private final PaymentRepository payments;
+    private final PaidMonthsLedger ledger;
+    private final PaymentEventPublisher publisher;
+    private final PaymentsConfig cfg;
+
+    public enum CaptureStart {
+        STARTED,
+        IN_FLIGHT,
+        ALREADY_PAID
+    }
+
+    /**
+     * Moves a PENDING or FAILED payment to CAPTURING, and takes over a capture whose lease has
+     * passed; the caller may then call PayPal.
+     *
+     * @return IN_FLIGHT while another capture of the payment is inside its lease, ALREADY_PAID for
+     * a paid payment; in neither case should PayPal be called
+     * @throws PaymentClosedException when the payment was cancelled or has expired
+     */
+    @Transactional
+    public CaptureStart beginCapture(String orderId) {
+        PaymentEntity payment = find(orderId);
+        PaymentStatus before = payment.getStatus();
+        if (before == PaymentStatus.CANCELLED || before == PaymentStatus.EXPIRED) {
+            throw new PaymentClosedException("Payment " + before.name().toLowerCase() + ": " + orderId);
+        }
+        if (before == PaymentStatus.PAID) {
+            return CaptureStart.ALREADY_PAID;
+        }
+        Instant now = Instant.now();
+        if (before == PaymentStatus.CAPTURING && payment.getCaptureStartedAt() != null
+                && payment.getCaptureStartedAt().isAfter(now.minus(cfg.getCapture().getLease()))) {
+            return CaptureStart.IN_FLIGHT;
+        }
+        payment.setStatus(PaymentStatus.CAPTURING);
+        payment.setCaptureStartedAt(now);
+        payments.saveAndFlush(payment);
+        return CaptureStart.STARTED;
+    }
+
+    /**
+     * Marks the payment and its items PAID, updates the paid-months ledger and publishes
+     * {@link PaymentReceivedEvent}, all in one transaction. A payment that is already PAID is left
+     * alone, so the event goes out once however often the completion is applied.
+     *
+     * @return whether this call completed the payment
+     */
+    @Transactional
+    public boolean completeCapture(String orderId) {
+        PaymentEntity payment = find(orderId);
+        if (payment.getStatus() == PaymentStatus.PAID) {
+            return false;
+        }
+        payment.setStatus(PaymentStatus.PAID);
+        payment.setPaidAt(Instant.now());
+        for (var it : payment.getItems()) it.setStatus(PaymentStatus.PAID);
+        payments.saveAndFlush(payment);
+        ledger.markPaid(payment.getUserId(), payment.getItems().stream().map(PaymentItemEntity::getYearMonth).toList());
+
+        var months = payment.getItems().stream().map(i -> i.getYearMonth().toString()).toList();
+        publisher.publishReceived(PaymentReceivedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("PAYMENT_RECEIVED")
+                .timestamp(Instant.now())
+                .userId(payment.getUserId())
+                .currency(payment.getCurrency())
+                .amount(payment.getAmount())
+                .months(months)
+                .build());
+        log.info("Payment captured orderId={} userId={} months={}", orderId, payment.getUserId(), months);
+        return true;
+    }
+
+    @Transactional
+    public void failCapture(String orderId) {
+        PaymentEntity payment = find(orderId);
+        if (payment.getStatus() == PaymentStatus.CAPTURING) {
+            payment.setStatus(PaymentStatus.FAILED);
+            payments.saveAndFlush(payment);
+        }
+    }
+
+    private PaymentEntity find(String orderId) {
+        return payments.findByProviderOrderId(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Payment not found: " + orderId));
+    }
+}
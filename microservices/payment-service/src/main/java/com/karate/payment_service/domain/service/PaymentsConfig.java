@@ -5,6 +5,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 
 @Data
 @Component
@@ -13,9 +14,17 @@ public class PaymentsConfig {
     private BigDecimal monthlyFee;
     private String currency;
     private Reminder reminder = new Reminder();
+    private Capture capture = new Capture();
 
     @Data
     public static class Reminder {
         private String cron;
+        private int chunkSize = 1000;
+    }
+
+    @Data
+    public static class Capture {
+        // how long a capture may stay CAPTURING before it counts as abandoned
+        private Duration lease = Duration.ofMinutes(5);
     }
 }
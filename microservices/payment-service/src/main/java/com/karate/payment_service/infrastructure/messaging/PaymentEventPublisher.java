@@ -1,26 +1,35 @@
 package com.karate.payment_service.infrastructure.messaging;
 
+import com.karate.outbox.OutboxPublisher;
 import com.karate.payment_service.infrastructure.messaging.dto.PaymentDebtReminderEvent;
 import com.karate.payment_service.infrastructure.messaging.dto.PaymentReceivedEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 public class PaymentEventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxPublisher outbox;
 
     @Value("${topics.payment-events}")
     private String topic;
 
     public void publishReceived(PaymentReceivedEvent ev) {
-        kafkaTemplate.send(topic, ev);
+        outbox.publish(topic, null, ev);
     }
 
-    public void publishReminder(PaymentDebtReminderEvent ev) {
-        kafkaTemplate.send(topic, ev);
+    /**
+     * Stores a chunk of reminders with one batch insert, keyed by user.
+     */
+    public void publishReminders(List<PaymentDebtReminderEvent> events) {
+        Map<String, PaymentDebtReminderEvent> byUser = new LinkedHashMap<>();
+        events.forEach(ev -> byUser.put(String.valueOf(ev.userId()), ev));
+        outbox.publishAll(topic, byUser);
     }
 }
@@ -0,0 +1,54 @@
+package com.karate.payment_service.infrastructure.messaging;
+
+import com.karate.payment_service.infrastructure.jwt.JwtAuthTokenFilter;
+import com.karate.payment_service.infrastructure.jwt.JwtConfigurationProperties;
+import com.karate.payment_service.infrastructure.messaging.dto.UserDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Every instance keeps its own revocation list, so each one is assigned all partitions of the
+ * topic ({@code topics.user-deleted-partitions}) instead of sharing them with
+ * {@link UserDeletedListener}. Manual assignment never joins the group, so the stable group id
+ * leaves nothing behind on restart; the list itself does not survive one, so every start replays
+ * the deletions of the last token lifetime.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationListener implements ConsumerSeekAware {
+
+    private final JwtAuthTokenFilter jwtAuthTokenFilter;
+    private final JwtConfigurationProperties jwtConfigurationProperties;
+
+    @KafkaListener(
+            groupId = "payment-service-token-revocation",
+            topicPartitions = @TopicPartition(
+                    topic = "${topics.user-deleted}",
+                    partitions = "${topics.user-deleted-partitions:0}"),
+            properties = {
+                    "spring.json.use.type.headers=false",
+                    "spring.json.value.default.type=com.karate.payment_service.infrastructure.messaging.dto.UserDeletedEvent",
+                    "spring.deserializer.value.delegate.class=org.springframework.kafka.support.serializer.JsonDeserializer"
+            }
+    )
+    public void onUserDeleted(UserDeletedEvent evt) {
+        Instant revokedAt = evt.timestamp() != null ? evt.timestamp() : Instant.now();
+        log.info("payment-service: revoking tokens userId={} issuedBefore={}", evt.userId(), revokedAt);
+        jwtAuthTokenFilter.revokeTokensIssuedBefore(evt.userId(), revokedAt);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<org.apache.kafka.common.TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Duration tokenLifetime = Duration.ofDays(Math.max(1, jwtConfigurationProperties.expirationDays()));
+        callback.seekToTimestamp(assignments.keySet(), Instant.now().minus(tokenLifetime).toEpochMilli());
+    }
+}
@@ -1,5 +1,6 @@
 package com.karate.payment_service.infrastructure.messaging;
 
+import com.karate.payment_service.domain.repository.PaidMonthsLedgerRepository;
 import com.karate.payment_service.domain.repository.PaymentItemRepository;
 import com.karate.payment_service.domain.repository.PaymentRepository;
 import com.karate.payment_service.domain.repository.UserAccountRepository;
@@ -18,6 +19,7 @@ public class UserDeletedListener {
     private final PaymentRepository paymentRepository;
     private final UserAccountRepository userAccountRepository;
     private final PaymentItemRepository paymentItemRepository;
+    private final PaidMonthsLedgerRepository paidMonthsLedgerRepository;
 
     @KafkaListener(
             topics = "${topics.user-deleted}",
@@ -35,6 +37,7 @@ public class UserDeletedListener {
 
         int deletedPaymentItems = paymentItemRepository.deleteByUserId(userId);
         int deletedPayments = paymentRepository.deleteAllByUserId(userId);
+        paidMonthsLedgerRepository.deleteByUserId(userId);
         int deletedAccounts = userAccountRepository.deleteByUserId(userId);
 
         log.info(
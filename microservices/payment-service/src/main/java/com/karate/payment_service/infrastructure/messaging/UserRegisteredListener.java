@@ -1,6 +1,8 @@
 package com.karate.payment_service.infrastructure.messaging;
 
+import com.karate.payment_service.domain.model.PaidMonthsLedgerEntity;
 import com.karate.payment_service.domain.model.UserAccountEntity;
+import com.karate.payment_service.domain.repository.PaidMonthsLedgerRepository;
 import com.karate.payment_service.domain.repository.UserAccountRepository;
 import com.karate.payment_service.infrastructure.messaging.dto.UserRegisteredEvent;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +17,7 @@ import org.springframework.stereotype.Component;
 public class UserRegisteredListener {
 
     private final UserAccountRepository repo;
+    private final PaidMonthsLedgerRepository ledgers;
 
     @Value("${topics.user-registered}")
     private String userTopic;
@@ -38,6 +41,9 @@ public class UserRegisteredListener {
                     .karateRank(p.getKarateRank())
                     .build();
             repo.save(ua);
+            if (!ledgers.existsById(ua.getUserId())) {
+                ledgers.save(PaidMonthsLedgerEntity.forRegistration(ua.getUserId(), ua.getRegistrationDate()));
+            }
             log.info("UserAccount snapshot created userId={}", p.getUserId());
         } else {
             existing.setEmail(p.getUserEmail());
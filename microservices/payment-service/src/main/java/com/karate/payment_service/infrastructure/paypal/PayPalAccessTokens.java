@@ -0,0 +1,147 @@
+package com.karate.payment_service.infrastructure.paypal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.karate.payment_service.infrastructure.paypal.dto.PayPalTokenResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client-credentials access token shared by all PayPal calls. The token is reused until shortly
+ * before it expires; from then on the first caller starts a renewal in the background and keeps
+ * using the still valid token. Only when there is no valid token do callers wait, and then all of
+ * them wait for the same single token request.
+ */
+@Slf4j
+@Component
+public class PayPalAccessTokens {
+
+    private record Token(String value, Instant refreshAt, Instant expiresAt) {
+    }
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final PayPalProperties properties;
+    private volatile Token current;
+    private CompletableFuture<Token> inFlight;
+
+    public PayPalAccessTokens(HttpClient payPalHttpClient, ObjectMapper objectMapper, PayPalProperties properties) {
+        this.http = payPalHttpClient;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public String get() throws IOException, InterruptedException {
+        Token token = current;
+        Instant now = Instant.now();
+        if (token != null && now.isBefore(token.refreshAt())) {
+            return token.value();
+        }
+        CompletableFuture<Token> renewal = renew();
+        if (token != null && now.isBefore(token.expiresAt())) {
+            return token.value();
+        }
+        try {
+            return renewal.get(properties.requestTimeout().toMillis(), TimeUnit.MILLISECONDS).value();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("PayPal OAuth failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("PayPal OAuth timed out", e);
+        }
+    }
+
+    /**
+     * Drops {@code token} after PayPal rejected it, unless it was already replaced.
+     */
+    public void invalidate(String token) {
+        Token stale = current;
+        if (stale != null && stale.value().equals(token)) {
+            synchronized (this) {
+                if (current == stale) {
+                    current = null;
+                }
+            }
+        }
+    }
+
+    private synchronized CompletableFuture<Token> renew() {
+        if (inFlight != null) {
+            return inFlight;
+        }
+        CompletableFuture<Token> renewal = new CompletableFuture<>();
+        inFlight = renewal;
+        long t0 = System.currentTimeMillis();
+        http.sendAsync(tokenRequest(), HttpResponse.BodyHandlers.ofString())
+                .thenApply(this::toToken)
+                .whenComplete((token, error) -> {
+                    synchronized (this) {
+                        if (token != null) {
+                            current = token;
+                        }
+                        inFlight = null;
+                    }
+                    if (error != null) {
+                        log.warn("PayPal OAuth token request failed reason={}", error.toString());
+                        renewal.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    } else {
+                        log.debug("PayPal OAuth token renewed expiresAt={} took={}ms", token.expiresAt(), System.currentTimeMillis() - t0);
+                        renewal.complete(token);
+                    }
+                });
+        return renewal;
+    }
+
+    private HttpRequest tokenRequest() {
+        String basic = Base64.getEncoder().encodeToString(
+                (properties.clientId() + ":" + properties.clientSecret()).getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder()
+                .uri(URI.create(properties.apiBaseUrl() + "/v1/oauth2/token"))
+                .timeout(properties.requestTimeout())
+                .header("Authorization", "Basic " + basic)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "grant_type=" + URLEncoder.encode("client_credentials", StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    private Token toToken(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new UncheckedIOException(new IOException(
+                    "PayPal OAuth failed: " + response.statusCode() + " body=" + response.body()));
+        }
+        try {
+            PayPalTokenResponse body = objectMapper.readValue(response.body(), PayPalTokenResponse.class);
+            Instant now = Instant.now();
+            Duration lifetime = Duration.ofSeconds(body.expiresIn());
+            Duration refreshBefore = properties.tokenRefreshBefore().compareTo(lifetime.dividedBy(2)) < 0
+                    ? properties.tokenRefreshBefore()
+                    : lifetime.dividedBy(2);
+            return new Token(body.accessToken(), now.plus(lifetime).minus(refreshBefore), now.plus(lifetime));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,15 +1,11 @@
 package com.karate.payment_service.infrastructure.paypal;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.paypal.core.PayPalEnvironment;
-import com.paypal.core.PayPalHttpClient;
-import com.paypal.orders.LinkDescription;
-import com.paypal.orders.Order;
-import com.paypal.orders.OrdersCreateRequest;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.karate.payment_service.infrastructure.paypal.dto.PayPalError;
+import com.karate.payment_service.infrastructure.paypal.dto.PayPalOrder;
+import com.karate.payment_service.infrastructure.paypal.dto.PayPalWebhookTransmission;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.configurationprocessor.json.JSONException;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -18,69 +14,120 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.Map;
+import java.util.Optional;
 
+/**
+ * Orders API v2 over one pooled {@link HttpClient}, authenticated with the shared
+ * {@link PayPalAccessTokens}; a call rejected with 401 is repeated once with a fresh token.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class PayPalClient {
 
+    private final HttpClient http;
+    private final PayPalAccessTokens tokens;
     private final ObjectMapper objectMapper;
+    private final PayPalProperties properties;
 
-    @Value("${paypal.client-id:}")
-    private String clientId;
-
-    @Value("${paypal.client-secret:}")
-    private String clientSecret;
-
-    @Value("${paypal.mode:sandbox}")
-    private String mode;
-
-    private PayPalHttpClient httpClient() {
-        PayPalEnvironment env = "live".equalsIgnoreCase(mode)
-                ? new PayPalEnvironment.Live(clientId, clientSecret)
-                : new PayPalEnvironment.Sandbox(clientId, clientSecret);
-        return new PayPalHttpClient(env);
+    public PayPalClient(HttpClient payPalHttpClient, PayPalAccessTokens tokens,
+                        ObjectMapper objectMapper, PayPalProperties properties) {
+        this.http = payPalHttpClient;
+        this.tokens = tokens;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
     }
 
-    public String createOrder(Map<String, Object> body) throws IOException {
-        OrdersCreateRequest req = new OrdersCreateRequest();
-        req.header("Content-Type", "application/json");
-        req.requestBody(body);
-        Order order = httpClient().execute(req).result();
-        return order.links().stream()
-                .filter(l -> "approve".equalsIgnoreCase(l.rel()))
-                .findFirst()
-                .map(LinkDescription::href)
-                .map(url -> url.split("token=")[1])
-                .orElseThrow(() -> new RuntimeException("PayPal approval URL not found"));
+    /**
+     * @return the PayPal order id, which is also the {@code token} of its approval URL
+     */
+    public String createOrder(Map<String, Object> body) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/v2/checkout/orders")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+        if (response.statusCode() != 201 && response.statusCode() != 200) {
+            throw new IOException("PayPal create order failed: " + response.statusCode() + " body=" + response.body());
+        }
+        PayPalOrder order = objectMapper.readValue(response.body(), PayPalOrder.class);
+        if (order.id() == null) {
+            throw new IOException("PayPal order id missing");
+        }
+        return order.id();
     }
 
-    public boolean captureOrder(String orderId) throws IOException, InterruptedException, JSONException {
-        String token = OAuthToken.fetch(clientId, clientSecret, mode);
-        String host = "https://api-m." + ("live".equalsIgnoreCase(mode) ? "" : "sandbox.") + "paypal.com";
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(host + "/v2/checkout/orders/" + orderId + "/capture"))
-                .header("Authorization", "Bearer " + token)
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString("{}"))
-                .build();
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    public boolean captureOrder(String orderId) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/v2/checkout/orders/" + orderId + "/capture")
+                .POST(HttpRequest.BodyPublishers.ofString("{}")));
         int sc = response.statusCode();
         String body = response.body();
 
-        if (sc == 201 && body != null && body.contains("\"status\":\"COMPLETED\"")) {
-            return true;
-        }
-
-        if (sc == 422 && body != null && body.contains("ORDER_ALREADY_CAPTURED")) {
+        if ((sc == 201 || sc == 200) && "COMPLETED".equals(objectMapper.readValue(body, PayPalOrder.class).status())) {
             return true;
         }
-
-        if (sc == 200 && body != null && body.contains("\"status\":\"COMPLETED\"")) {
+        if (sc == 422 && objectMapper.readValue(body, PayPalError.class).hasIssue("ORDER_ALREADY_CAPTURED")) {
             return true;
         }
 
         log.warn("PayPal capture non-success status={} body={}", sc, body);
         return false;
     }
+
+    /**
+     * @return the order as PayPal currently sees it, empty when PayPal no longer knows it
+     */
+    public Optional<PayPalOrder> getOrder(String orderId) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/v2/checkout/orders/" + orderId).GET());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("PayPal get order failed: " + response.statusCode() + " body=" + response.body());
+        }
+        return Optional.of(objectMapper.readValue(response.body(), PayPalOrder.class));
+    }
+
+    /**
+     * Asks PayPal whether a webhook delivery was signed by PayPal for our webhook.
+     *
+     * @return false for a forged or altered delivery, or when no webhook id is configured
+     */
+    public boolean verifyWebhookSignature(PayPalWebhookTransmission transmission, String rawEvent)
+            throws IOException, InterruptedException {
+        if (properties.webhookId().isBlank()) {
+            log.warn("PayPal webhook received but paypal.webhook-id is not configured");
+            return false;
+        }
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("auth_algo", transmission.authAlgo())
+                .put("cert_url", transmission.certUrl())
+                .put("transmission_id", transmission.transmissionId())
+                .put("transmission_sig", transmission.transmissionSig())
+                .put("transmission_time", transmission.transmissionTime())
+                .put("webhook_id", properties.webhookId());
+        body.set("webhook_event", objectMapper.readTree(rawEvent));
+
+        HttpResponse<String> response = send(request("/v1/notifications/verify-webhook-signature")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+        if (response.statusCode() != 200) {
+            throw new IOException("PayPal webhook verification failed: " + response.statusCode() + " body=" + response.body());
+        }
+        return "SUCCESS".equals(objectMapper.readTree(response.body()).path("verification_status").asText());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(properties.apiBaseUrl() + path))
+                .timeout(properties.requestTimeout())
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        String token = tokens.get();
+        HttpResponse<String> response = http.send(
+                request.copy().header("Authorization", "Bearer " + token).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 401) {
+            tokens.invalidate(token);
+            response = http.send(
+                    request.header("Authorization", "Bearer " + tokens.get()).build(), HttpResponse.BodyHandlers.ofString());
+        }
+        return response;
+    }
 }
@@ -0,0 +1,18 @@
+package com.karate.payment_service.infrastructure.paypal;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+
+@Configuration
+public class PayPalHttpConfig {
+
+    // one client for all PayPal calls: it keeps its connections alive, so TLS is set up once per connection
+    @Bean
+    public HttpClient payPalHttpClient(PayPalProperties properties) {
+        return HttpClient.newBuilder()
+                .connectTimeout(properties.connectTimeout())
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.karate.payment_service.infrastructure.paypal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param baseUrl            overrides the API host derived from {@code mode}, e.g. for a local stand-in
+ * @param tokenRefreshBefore how long before expiry the access token is renewed in the background
+ * @param webhookId          id of the webhook registered for this service, needed to verify deliveries
+ */
+@ConfigurationProperties(value = "paypal")
+public record PayPalProperties(
+        String clientId,
+        String clientSecret,
+        String mode,
+        String baseUrl,
+        Duration connectTimeout,
+        Duration requestTimeout,
+        Duration tokenRefreshBefore,
+        String webhookId
+) {
+    public PayPalProperties {
+        clientId = clientId == null ? "" : clientId;
+        clientSecret = clientSecret == null ? "" : clientSecret;
+        mode = mode == null ? "sandbox" : mode;
+        connectTimeout = connectTimeout == null ? Duration.ofSeconds(5) : connectTimeout;
+        requestTimeout = requestTimeout == null ? Duration.ofSeconds(15) : requestTimeout;
+        tokenRefreshBefore = tokenRefreshBefore == null ? Duration.ofMinutes(5) : tokenRefreshBefore;
+        webhookId = webhookId == null ? "" : webhookId;
+    }
+
+    public String apiBaseUrl() {
+        if (baseUrl != null && !baseUrl.isBlank()) {
+            return baseUrl;
+        }
+        return "https://api-m." + ("live".equalsIgnoreCase(mode) ? "" : "sandbox.") + "paypal.com";
+    }
+}
@@ -0,0 +1,19 @@
+package com.karate.payment_service.infrastructure.paypal.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PayPalError(
+        String name,
+        List<Detail> details
+) {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Detail(String issue) {
+    }
+
+    public boolean hasIssue(String issue) {
+        return details != null && details.stream().anyMatch(d -> issue.equals(d.issue()));
+    }
+}
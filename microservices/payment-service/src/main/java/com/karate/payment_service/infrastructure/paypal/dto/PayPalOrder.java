@@ -0,0 +1,16 @@
+package com.karate.payment_service.infrastructure.paypal.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PayPalOrder(
+        String id,
+        String status,
+        List<Link> links
+) {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Link(String href, String rel) {
+    }
+}
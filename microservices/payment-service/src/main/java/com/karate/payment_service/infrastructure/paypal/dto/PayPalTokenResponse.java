@@ -0,0 +1,11 @@
+package com.karate.payment_service.infrastructure.paypal.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PayPalTokenResponse(
+        @JsonProperty("access_token") String accessToken,
+        @JsonProperty("expires_in") long expiresIn
+) {
+}
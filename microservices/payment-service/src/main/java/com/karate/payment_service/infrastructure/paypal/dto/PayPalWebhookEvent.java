@@ -0,0 +1,26 @@
+package com.karate.payment_service.infrastructure.paypal.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PayPalWebhookEvent(
+        String id,
+        @JsonProperty("event_type") String eventType,
+        JsonNode resource
+) {
+    /**
+     * @return the order the event is about: the resource itself for {@code CHECKOUT.ORDER.*}
+     * events, the related order of a capture for {@code PAYMENT.CAPTURE.*}; null when absent
+     */
+    public String orderId() {
+        if (resource == null || eventType == null) {
+            return null;
+        }
+        JsonNode id = eventType.startsWith("PAYMENT.CAPTURE.")
+                ? resource.path("supplementary_data").path("related_ids").path("order_id")
+                : resource.path("id");
+        return id.isTextual() ? id.asText() : null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.karate.payment_service.infrastructure.paypal.dto;
+
+/**
+ * The {@code PAYPAL-*} headers PayPal signs a webhook delivery with.
+ */
+public record PayPalWebhookTransmission(
+        String authAlgo,
+        String certUrl,
+        String transmissionId,
+        String transmissionSig,
+        String transmissionTime
+) {
+}
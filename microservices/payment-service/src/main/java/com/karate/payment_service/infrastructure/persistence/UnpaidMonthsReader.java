@@ -0,0 +1,123 @@
+package com.karate.payment_service.infrastructure.persistence;
+
+import com.karate.payment_service.domain.model.Debtor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Unpaid months of every account in one statement instead of one item query per user: a month
+ * calendar from the earliest registration up to a given month is joined to each account from its
+ * registration month on and anti-joined against PAID items (served by {@code idx_items_user_month}).
+ * Rows arrive ordered by user through a cursor of {@code chunkSize} rows, so only one chunk of
+ * debtors is held in memory at a time.
+ */
+@Component
+public class UnpaidMonthsReader {
+
+    // the calendar is a VALUES list of (month number, 'YYYY-MM'), month number = year * 12 + month - 1
+    private static final String DEBTORS_SQL = """
+            SELECT u.user_id, u.email, c.ym
+            FROM user_account u
+            JOIN (VALUES %s) AS c(idx, ym)
+              ON c.idx >= EXTRACT(YEAR FROM u.registration_date) * 12 + EXTRACT(MONTH FROM u.registration_date) - 1
+            WHERE NOT EXISTS (SELECT 1
+                              FROM payment_items p
+                              WHERE p.user_id = u.user_id
+                                AND p.year_month = c.ym
+                                AND p.status = 'PAID')
+            ORDER BY u.user_id, c.idx
+            """;
+    private static final String CALENDAR_ROW = "(CAST(? AS INT), CAST(? AS VARCHAR(7)))";
+
+    private final DataSource dataSource;
+
+    public UnpaidMonthsReader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Hands the debtors with unpaid months up to {@code upTo} (inclusive) to {@code handler} in
+     * chunks of at most {@code chunkSize}; runs in one read-only transaction so the cursor stays open.
+     *
+     * @return number of debtors handed over
+     */
+    @Transactional(readOnly = true)
+    public int forEachDebtorChunk(YearMonth upTo, int chunkSize, Consumer<List<Debtor>> handler) {
+        JdbcTemplate cursor = new JdbcTemplate(dataSource);
+        LocalDate firstRegistration = cursor.queryForObject(
+                "SELECT MIN(registration_date) FROM user_account", LocalDate.class);
+        if (firstRegistration == null || YearMonth.from(firstRegistration).isAfter(upTo)) {
+            return 0;
+        }
+        List<Object> calendar = new ArrayList<>();
+        for (YearMonth ym = YearMonth.from(firstRegistration); !ym.isAfter(upTo); ym = ym.plusMonths(1)) {
+            calendar.add(ym.getYear() * 12 + ym.getMonthValue() - 1);
+            calendar.add(ym.toString());
+        }
+        String sql = DEBTORS_SQL.formatted(String.join(", ", Collections.nCopies(calendar.size() / 2, CALENDAR_ROW)));
+
+        cursor.setFetchSize(chunkSize);
+        ChunkingHandler rows = new ChunkingHandler(chunkSize, handler);
+        cursor.query(sql, rows, calendar.toArray());
+        return rows.finish();
+    }
+
+    private static final class ChunkingHandler implements RowCallbackHandler {
+        private final int chunkSize;
+        private final Consumer<List<Debtor>> handler;
+        private List<Debtor> chunk = new ArrayList<>();
+        private Long userId;
+        private String email;
+        private List<YearMonth> months = new ArrayList<>();
+        private int debtors;
+
+        private ChunkingHandler(int chunkSize, Consumer<List<Debtor>> handler) {
+            this.chunkSize = chunkSize;
+            this.handler = handler;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rowUserId = rs.getLong("user_id");
+            if (userId == null || userId != rowUserId) {
+                closeDebtor();
+                userId = rowUserId;
+                email = rs.getString("email");
+            }
+            months.add(YearMonth.parse(rs.getString("ym")));
+        }
+
+        private void closeDebtor() {
+            if (userId == null) {
+                return;
+            }
+            chunk.add(new Debtor(userId, email, List.copyOf(months)));
+            months = new ArrayList<>();
+            debtors++;
+            if (chunk.size() == chunkSize) {
+                handler.accept(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+
+        private int finish() {
+            closeDebtor();
+            if (!chunk.isEmpty()) {
+                handler.accept(chunk);
+            }
+            return debtors;
+        }
+    }
+}
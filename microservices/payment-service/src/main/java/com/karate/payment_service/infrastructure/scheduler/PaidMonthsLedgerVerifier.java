@@ -0,0 +1,112 @@
+package com.karate.payment_service.infrastructure.scheduler;
+
+import com.karate.payment_service.domain.model.PaidMonthsLedgerEntity;
+import com.karate.payment_service.domain.model.PaymentItemEntity;
+import com.karate.payment_service.domain.model.PaymentStatus;
+import com.karate.payment_service.domain.model.UserAccountEntity;
+import com.karate.payment_service.domain.repository.PaidMonthsLedgerRepository;
+import com.karate.payment_service.domain.repository.PaymentItemRepository;
+import com.karate.payment_service.domain.repository.UserAccountRepository;
+import com.karate.payment_service.domain.service.PaidMonthsLedger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks every paid-months ledger against the PAID {@code payment_items} it is derived from, a page
+ * of users at a time, and rewrites the ledgers that drifted. A page whose ledger changed through a
+ * payment meanwhile fails the optimistic version check and is left for the next run.
+ */
+@Slf4j
+@Component
+public class PaidMonthsLedgerVerifier {
+
+    private final PaidMonthsLedgerRepository ledgers;
+    private final PaymentItemRepository items;
+    private final UserAccountRepository users;
+    private final PaidMonthsLedger ledger;
+    private final TransactionTemplate pageTx;
+    private final int pageSize;
+
+    public PaidMonthsLedgerVerifier(PaidMonthsLedgerRepository ledgers,
+                                    PaymentItemRepository items,
+                                    UserAccountRepository users,
+                                    PaidMonthsLedger ledger,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${payments.ledger.verify-page-size:500}") int pageSize) {
+        this.ledgers = ledgers;
+        this.items = items;
+        this.users = users;
+        this.ledger = ledger;
+        this.pageTx = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @return number of ledgers rewritten or removed
+     */
+    @Scheduled(cron = "${payments.ledger.verify-cron:0 30 3 * * *}")
+    public int verify() {
+        long t0 = System.currentTimeMillis();
+        int checked = 0;
+        int repaired = 0;
+        long after = Long.MIN_VALUE;
+        List<PaidMonthsLedgerEntity> page;
+        do {
+            page = ledgers.findByUserIdGreaterThanOrderByUserIdAsc(after, PageRequest.ofSize(pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<PaidMonthsLedgerEntity> current = page;
+            try {
+                repaired += pageTx.execute(status -> verifyPage(current));
+            } catch (OptimisticLockingFailureException e) {
+                log.warn("Paid-months ledger changed while verified, page skipped fromUserId={} reason={}",
+                        page.get(0).getUserId(), e.getMessage());
+            }
+            checked += page.size();
+            after = page.get(page.size() - 1).getUserId();
+        } while (page.size() == pageSize);
+        log.info("Paid-months ledger verified ledgers={} repaired={} took={}ms", checked, repaired, System.currentTimeMillis() - t0);
+        return repaired;
+    }
+
+    private int verifyPage(List<PaidMonthsLedgerEntity> page) {
+        List<Long> userIds = page.stream().map(PaidMonthsLedgerEntity::getUserId).toList();
+        Map<Long, UserAccountEntity> accounts = users.findAllById(userIds).stream()
+                .collect(Collectors.toMap(UserAccountEntity::getUserId, Function.identity()));
+        Map<Long, List<PaymentItemEntity>> paidByUser = items.findByUserIdInAndStatus(userIds, PaymentStatus.PAID).stream()
+                .collect(Collectors.groupingBy(PaymentItemEntity::getUserId));
+
+        int repaired = 0;
+        for (PaidMonthsLedgerEntity stored : page) {
+            UserAccountEntity account = accounts.get(stored.getUserId());
+            if (account == null) {
+                log.warn("Paid-months ledger without account removed userId={}", stored.getUserId());
+                ledgers.delete(stored);
+                repaired++;
+                continue;
+            }
+            PaidMonthsLedgerEntity expected = ledger.rebuild(account, paidByUser.getOrDefault(stored.getUserId(), List.of()));
+            if (stored.getBaseMonth() != expected.getBaseMonth() || !Arrays.equals(stored.getPaidBits(), expected.getPaidBits())) {
+                log.warn("Paid-months ledger drifted from payment items, rewritten userId={}", stored.getUserId());
+                stored.setBaseMonth(expected.getBaseMonth());
+                stored.setPaidBits(expected.getPaidBits());
+                ledgers.save(stored);
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+}
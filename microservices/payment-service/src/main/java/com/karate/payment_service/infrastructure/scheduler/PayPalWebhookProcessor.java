@@ -0,0 +1,56 @@
+package com.karate.payment_service.infrastructure.scheduler;
+
+import com.karate.payment_service.domain.service.PayPalWebhookPipeline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains stored PayPal webhooks batch by batch, at most {@code payments.webhook.max-per-second}
+ * events a second, so a burst of payments reaches PayPal and the database at a steady rate.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payments.webhook.processor.enabled", havingValue = "true", matchIfMissing = true)
+public class PayPalWebhookProcessor {
+
+    private final PayPalWebhookPipeline pipeline;
+    private final int maxPerSecond;
+
+    public PayPalWebhookProcessor(PayPalWebhookPipeline pipeline,
+                                  @Value("${payments.webhook.max-per-second:20}") int maxPerSecond) {
+        this.pipeline = pipeline;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.webhook.poll-interval-ms:500}")
+    public void processStoredWebhooks() {
+        try {
+            int processed;
+            do {
+                long t0 = System.currentTimeMillis();
+                processed = pipeline.processDue();
+                if (processed > 0) {
+                    log.debug("PayPal webhook batch processed count={} took={}ms", processed, System.currentTimeMillis() - t0);
+                    pace(processed, System.currentTimeMillis() - t0);
+                }
+            } while (processed > 0);
+        } catch (RuntimeException e) {
+            log.error("PayPal webhook processing failed reason={}", e.getMessage(), e);
+        }
+    }
+
+    private void pace(int processed, long tookMs) {
+        long waitMs = processed * 1000L / maxPerSecond - tookMs;
+        if (waitMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(waitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
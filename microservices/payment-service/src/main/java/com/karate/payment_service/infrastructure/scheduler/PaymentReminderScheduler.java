@@ -1,56 +1,73 @@
 package com.karate.payment_service.infrastructure.scheduler;
 
-import com.karate.payment_service.domain.repository.UserAccountRepository;
+import com.karate.payment_service.domain.model.Debtor;
 import com.karate.payment_service.domain.service.PaymentsConfig;
-import com.karate.payment_service.domain.service.UnpaidCalculator;
 import com.karate.payment_service.infrastructure.messaging.PaymentEventPublisher;
 import com.karate.payment_service.infrastructure.messaging.dto.PaymentDebtReminderEvent;
-import lombok.RequiredArgsConstructor;
+import com.karate.payment_service.infrastructure.persistence.UnpaidMonthsReader;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Monthly debt reminder. Debtors are streamed chunk by chunk from a single set-based query, and
+ * each chunk's reminders are stored in the outbox with one batch insert in a transaction of its
+ * own, so a large run neither holds every account in memory nor one huge outbox transaction.
+ */
 @Slf4j
 @Component
 @EnableScheduling
-@RequiredArgsConstructor
 public class PaymentReminderScheduler {
 
     private final PaymentsConfig cfg;
-    private final UserAccountRepository users;
-    private final UnpaidCalculator calc;
+    private final UnpaidMonthsReader unpaidMonths;
     private final PaymentEventPublisher publisher;
+    private final TransactionTemplate chunkTx;
+
+    public PaymentReminderScheduler(PaymentsConfig cfg,
+                                    UnpaidMonthsReader unpaidMonths,
+                                    PaymentEventPublisher publisher,
+                                    PlatformTransactionManager transactionManager) {
+        this.cfg = cfg;
+        this.unpaidMonths = unpaidMonths;
+        this.publisher = publisher;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     @Scheduled(cron = "${payments.reminder.cron}")
     public void monthlyReminder() {
+        long t0 = System.currentTimeMillis();
         log.info("Monthly debt reminder started");
-        var all = users.findAll();
-        int reminded = 0;
-        for (var u : all) {
-            var unpaid = calc.unpaidMonths(u);
-            if (unpaid.isEmpty()) continue;
-
-            var months = unpaid.stream().map(Object::toString).toList();
-            var total = cfg.getMonthlyFee().multiply(BigDecimal.valueOf(months.size()));
+        int reminded = unpaidMonths.forEachDebtorChunk(YearMonth.now(), cfg.getReminder().getChunkSize(), chunk -> {
+            List<PaymentDebtReminderEvent> events = chunk.stream().map(this::reminder).toList();
+            chunkTx.executeWithoutResult(status -> publisher.publishReminders(events));
+        });
+        log.info("Monthly debt reminder finished, users reminded={} took={}ms", reminded, System.currentTimeMillis() - t0);
+    }
 
-            publisher.publishReminder(PaymentDebtReminderEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .eventType("PAYMENT_DEBT_REMINDER")
-                    .timestamp(Instant.now())
-                    .userId(u.getUserId())
-                    .email(u.getEmail())
-                    .monthlyFee(cfg.getMonthlyFee())
-                    .total(total)
-                    .months(months)
-                    .build());
-            reminded++;
-        }
-        log.info("Monthly debt reminder finished, users reminded={}", reminded);
+    private PaymentDebtReminderEvent reminder(Debtor debtor) {
+        var months = debtor.months().stream().map(Object::toString).toList();
+        var total = cfg.getMonthlyFee().multiply(BigDecimal.valueOf(months.size()));
+        return PaymentDebtReminderEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("PAYMENT_DEBT_REMINDER")
+                .timestamp(Instant.now())
+                .userId(debtor.userId())
+                .email(debtor.email())
+                .monthlyFee(cfg.getMonthlyFee())
+                .total(total)
+                .months(months)
+                .build();
     }
 }
-
@@ -0,0 +1,257 @@
+package com.karate.payment_service.infrastructure.scheduler;
+
+import com.karate.payment_service.domain.exception.PayPalCaptureRejectedException;
+import com.karate.payment_service.domain.model.PaymentEntity;
+import com.karate.payment_service.domain.model.PaymentStatus;
+import com.karate.payment_service.domain.repository.PaymentItemRepository;
+import com.karate.payment_service.domain.repository.PaymentRepository;
+import com.karate.payment_service.domain.service.PaymentApplicationService;
+import com.karate.payment_service.infrastructure.paypal.PayPalClient;
+import com.karate.payment_service.infrastructure.paypal.dto.PayPalOrder;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Settles PENDING PayPal payments older than {@code payments.reconcile.stale-after}, i.e. orders
+ * whose checkout was abandoned or whose capture never reached us, and CAPTURING payments whose
+ * capture began more than {@code payments.capture.lease} ago without an answer from PayPal.
+ * A page of payments at a time, the PayPal order of each is looked up on a fixed pool of workers,
+ * at most {@code payments.reconcile.max-per-second} PayPal calls a second. Orders PayPal completed
+ * or the payer approved are finished through the regular capture transitions; orders never
+ * approved or no longer known to PayPal are marked EXPIRED and voided ones FAILED, with one update
+ * per page. A stuck capture of an order that is not approved is marked FAILED rather than EXPIRED,
+ * so the payer can still approve and capture it again.
+ */
+@Slf4j
+@Component
+public class StalePaymentReconciler implements DisposableBean {
+
+    public enum Outcome {
+        PAID,
+        EXPIRED,
+        FAILED,
+        UNCHANGED,
+        ERROR
+    }
+
+    public record Report(int checked, int paid, int expired, int failed, int unchanged, int errors, long tookMs) {
+    }
+
+    private final PaymentRepository payments;
+    private final PaymentItemRepository items;
+    private final PaymentApplicationService service;
+    private final PayPalClient payPal;
+    private final TransactionTemplate pageTx;
+    private final ExecutorService workers;
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry registry;
+    private final Timer runTimer;
+    private final Duration staleAfter;
+    private final Duration captureLease;
+    private final int pageSize;
+
+    public StalePaymentReconciler(PaymentRepository payments,
+                                  PaymentItemRepository items,
+                                  PaymentApplicationService service,
+                                  PayPalClient payPal,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry registry,
+                                  @Value("${payments.reconcile.stale-after:6h}") Duration staleAfter,
+                                  @Value("${payments.capture.lease:5m}") Duration captureLease,
+                                  @Value("${payments.reconcile.page-size:200}") int pageSize,
+                                  @Value("${payments.reconcile.concurrency:4}") int concurrency,
+                                  @Value("${payments.reconcile.max-per-second:10}") int maxPerSecond) {
+        this.payments = payments;
+        this.items = items;
+        this.service = service;
+        this.payPal = payPal;
+        this.pageTx = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "payment-reconcile-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rateLimiter = RateLimiter.of("paypalReconcile", RateLimiterConfig.custom()
+                .limitForPeriod(maxPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofSeconds(30))
+                .build());
+        this.registry = registry;
+        this.runTimer = Timer.builder("payments.reconcile.run")
+                .description("Duration of a stale payment reconciliation run")
+                .register(registry);
+        this.staleAfter = staleAfter;
+        this.captureLease = captureLease;
+        this.pageSize = pageSize;
+    }
+
+    @Scheduled(cron = "${payments.reconcile.cron:0 */15 * * * *}")
+    public Report reconcile() {
+        long t0 = System.currentTimeMillis();
+        Instant now = Instant.now();
+        Instant staleBefore = now.minus(staleAfter);
+        Instant leaseBefore = now.minus(captureLease);
+        Map<Outcome, Integer> totals = new EnumMap<>(Outcome.class);
+        scan(PaymentStatus.PENDING, totals, after -> payments.findByStatusAndCreatedAtBeforeAndPaymentIdGreaterThanOrderByPaymentIdAsc(
+                PaymentStatus.PENDING, staleBefore, after, PageRequest.ofSize(pageSize)));
+        scan(PaymentStatus.CAPTURING, totals, after -> payments.findByStatusAndCaptureStartedAtBeforeAndPaymentIdGreaterThanOrderByPaymentIdAsc(
+                PaymentStatus.CAPTURING, leaseBefore, after, PageRequest.ofSize(pageSize)));
+
+        long tookMs = System.currentTimeMillis() - t0;
+        Report report = new Report(
+                totals.values().stream().mapToInt(Integer::intValue).sum(),
+                totals.getOrDefault(Outcome.PAID, 0),
+                totals.getOrDefault(Outcome.EXPIRED, 0),
+                totals.getOrDefault(Outcome.FAILED, 0),
+                totals.getOrDefault(Outcome.UNCHANGED, 0),
+                totals.getOrDefault(Outcome.ERROR, 0),
+                tookMs);
+        totals.forEach((outcome, count) -> registry.counter("payments.reconcile.payments",
+                "outcome", outcome.name().toLowerCase()).increment(count));
+        runTimer.record(tookMs, TimeUnit.MILLISECONDS);
+        log.info("Stale payments reconciled checked={} paid={} expired={} failed={} unchanged={} errors={} took={}ms",
+                report.checked(), report.paid(), report.expired(), report.failed(), report.unchanged(),
+                report.errors(), tookMs);
+        return report;
+    }
+
+    private interface PageQuery {
+        List<PaymentEntity> after(long paymentId);
+    }
+
+    private void scan(PaymentStatus status, Map<Outcome, Integer> totals, PageQuery query) {
+        long after = Long.MIN_VALUE;
+        List<PaymentEntity> page;
+        do {
+            page = query.after(after);
+            if (page.isEmpty()) {
+                break;
+            }
+            reconcilePage(status, page).forEach((outcome, count) -> totals.merge(outcome, count, Integer::sum));
+            after = page.get(page.size() - 1).getPaymentId();
+        } while (page.size() == pageSize);
+    }
+
+    private Map<Outcome, Integer> reconcilePage(PaymentStatus status, List<PaymentEntity> page) {
+        boolean capturing = status == PaymentStatus.CAPTURING;
+        List<Future<Outcome>> lookups = new ArrayList<>(page.size());
+        for (PaymentEntity payment : page) {
+            lookups.add(workers.submit(() -> reconcile(payment.getProviderOrderId(), capturing)));
+        }
+
+        Map<Outcome, List<Long>> byOutcome = new EnumMap<>(Outcome.class);
+        for (int i = 0; i < page.size(); i++) {
+            Outcome outcome;
+            try {
+                outcome = lookups.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                outcome = Outcome.ERROR;
+            } catch (ExecutionException e) {
+                outcome = Outcome.ERROR;
+            }
+            byOutcome.computeIfAbsent(outcome, o -> new ArrayList<>()).add(page.get(i).getPaymentId());
+        }
+
+        // payments captured meanwhile are no longer in their scanned status and are left alone by the updates
+        pageTx.executeWithoutResult(tx -> {
+            settle(byOutcome.get(Outcome.EXPIRED), status, PaymentStatus.EXPIRED);
+            settle(byOutcome.get(Outcome.FAILED), status, PaymentStatus.FAILED);
+        });
+
+        Map<Outcome, Integer> counts = new EnumMap<>(Outcome.class);
+        byOutcome.forEach((outcome, ids) -> counts.put(outcome, ids.size()));
+        return counts;
+    }
+
+    private void settle(List<Long> paymentIds, PaymentStatus from, PaymentStatus to) {
+        if (paymentIds == null) {
+            return;
+        }
+        payments.updateStatus(paymentIds, from, to);
+        items.updateStatusOfPayments(paymentIds, PaymentStatus.PENDING, to);
+    }
+
+    private Outcome reconcile(String orderId, boolean capturing) {
+        try {
+            Optional<PayPalOrder> order = call(() -> payPal.getOrder(orderId));
+            if (order.isEmpty()) {
+                return Outcome.EXPIRED;
+            }
+            return switch (order.get().status()) {
+                case "COMPLETED" -> {
+                    service.complete(orderId);
+                    yield Outcome.PAID;
+                }
+                // approved by the payer but never captured: the capture is still ours to make
+                case "APPROVED" -> capture(orderId);
+                case "CREATED", "SAVED", "PAYER_ACTION_REQUIRED" -> capturing ? Outcome.FAILED : Outcome.EXPIRED;
+                case "VOIDED" -> Outcome.FAILED;
+                default -> Outcome.UNCHANGED;
+            };
+        } catch (IOException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Stale payment not reconciled orderId={} reason={}", orderId, e.toString());
+            return Outcome.ERROR;
+        } catch (RuntimeException e) {
+            log.warn("Stale payment not reconciled orderId={} reason={}", orderId, e.toString());
+            return Outcome.ERROR;
+        }
+    }
+
+    private Outcome capture(String orderId) throws IOException, InterruptedException {
+        String status;
+        try {
+            status = call(() -> service.capture(orderId)).status();
+        } catch (PayPalCaptureRejectedException e) {
+            // the capture already moved the payment to FAILED
+            log.info("Stale approved payment declined at capture orderId={}", orderId);
+            return Outcome.FAILED;
+        }
+        return "CAPTURING".equals(status) ? Outcome.UNCHANGED : Outcome.PAID;
+    }
+
+    private interface PayPalCall<T> {
+        T call() throws IOException, InterruptedException;
+    }
+
+    private <T> T call(PayPalCall<T> call) throws IOException, InterruptedException {
+        if (!rateLimiter.acquirePermission()) {
+            throw new IOException("PayPal reconcile rate limit not acquired in time");
+        }
+        return call.call();
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+}
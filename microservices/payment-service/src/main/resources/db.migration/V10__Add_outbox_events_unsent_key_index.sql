@@ -0,0 +1,2 @@
+-- Serves the relay's per-key ordering check: is an older row of the same topic and key unsent?
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unsent_key ON outbox_events (topic, message_key, sent_at, id);
@@ -0,0 +1,10 @@
+-- Paid months per user as a bitmask: bit i set = month (base_month + i) is paid, where
+-- base_month = year * 12 + month - 1 of the registration month. Derived from payment_items,
+-- rows are created on first use and checked by PaidMonthsLedgerVerifier.
+CREATE TABLE user_paid_months
+(
+    user_id    BIGINT PRIMARY KEY,
+    version    INT,
+    base_month INT   NOT NULL,
+    paid_bits  BYTEA NOT NULL
+);
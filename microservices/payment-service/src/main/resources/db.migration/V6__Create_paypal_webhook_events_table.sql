@@ -0,0 +1,17 @@
+-- PayPal webhook deliveries, stored as received and applied later by PayPalWebhookProcessor.
+-- The PayPal event id is the key, so a redelivered event is stored once.
+CREATE TABLE paypal_webhook_events
+(
+    event_id        VARCHAR(64) PRIMARY KEY,
+    event_type      VARCHAR(64) NOT NULL,
+    order_id        VARCHAR(128),
+    payload         TEXT        NOT NULL,
+    status          VARCHAR(16) NOT NULL,
+    attempts        INT         NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP   NOT NULL,
+    last_error      VARCHAR(500),
+    received_at     TIMESTAMP   NOT NULL,
+    processed_at    TIMESTAMP   NULL
+);
+
+CREATE INDEX idx_paypal_webhook_events_due ON paypal_webhook_events (status, next_attempt_at);
@@ -0,0 +1,2 @@
+-- Lets StalePaymentReconciler page through old PENDING payments without scanning the settled ones.
+CREATE INDEX IF NOT EXISTS idx_payments_pending ON payments (payment_id, created_at) WHERE status = 'PENDING';
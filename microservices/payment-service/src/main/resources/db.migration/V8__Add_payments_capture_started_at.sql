@@ -0,0 +1,6 @@
+-- When the current capture attempt began; StalePaymentReconciler settles captures older than their lease.
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS capture_started_at TIMESTAMP NULL;
+
+UPDATE payments SET capture_started_at = created_at WHERE status = 'CAPTURING' AND capture_started_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_payments_capturing ON payments (payment_id, capture_started_at) WHERE status = 'CAPTURING';
@@ -0,0 +1,236 @@
+package com.karate.payment_service.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the parts of the PayPal REST API the service uses: client-credentials tokens,
+ * order creation, capture, order lookup and webhook verification. Every response is delayed by a
+ * configurable latency, so client behaviour, latency and throughput can be measured offline.
+ * <p>
+ * Run standalone with {@code java PayPalStandIn [port] [latencyMs]} and point
+ * {@code paypal.base-url} at it.
+ */
+public class PayPalStandIn implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PayPalStandIn.class);
+
+    static {
+        // without it the JDK server's separate header and body writes meet delayed ACKs (~40ms per call)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+    private final Map<String, String> orders = new ConcurrentHashMap<>();
+    private final Set<String> declined = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> captures = new ConcurrentHashMap<>();
+    private final Set<String> validTokens = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger orderIds = new AtomicInteger();
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final AtomicInteger orderRequests = new AtomicInteger();
+    private final AtomicInteger ordersInFlight = new AtomicInteger();
+    private final AtomicInteger webhookVerifications = new AtomicInteger();
+    private volatile Duration latency;
+    private volatile long tokenExpiresInSeconds = 32_400;
+
+    public PayPalStandIn(int port, Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(workers);
+        server.createContext("/v1/oauth2/token", this::token);
+        server.createContext("/v2/checkout/orders", this::orders);
+        server.createContext("/v1/notifications/verify-webhook-signature", this::verifyWebhook);
+        server.start();
+    }
+
+    public static PayPalStandIn start(Duration latency) throws IOException {
+        return new PayPalStandIn(0, latency);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        Duration latency = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 150);
+        new PayPalStandIn(port, latency);
+        log.info("PayPal stand-in on http://127.0.0.1:{} latency={}ms", port, latency.toMillis());
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void latency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void tokenExpiresIn(Duration expiresIn) {
+        this.tokenExpiresInSeconds = expiresIn.toSeconds();
+    }
+
+    /** Makes every issued token invalid, as if PayPal had revoked it. */
+    public void revokeTokens() {
+        validTokens.clear();
+    }
+
+    /** Creates an order directly, without going through the API. */
+    public String createOrder(String status) {
+        String id = "ORDER-" + orderIds.incrementAndGet();
+        orders.put(id, status);
+        return id;
+    }
+
+    public void status(String orderId, String status) {
+        orders.put(orderId, status);
+    }
+
+    public String status(String orderId) {
+        return orders.get(orderId);
+    }
+
+    /** The next captures of {@code orderId} are declined by the "payer's bank". */
+    public void decline(String orderId) {
+        declined.add(orderId);
+    }
+
+    public int tokenRequests() {
+        return tokenRequests.get();
+    }
+
+    public int orderRequests() {
+        return orderRequests.get();
+    }
+
+    /** Capture requests received for {@code orderId}, answered or not. */
+    public int captureRequests(String orderId) {
+        AtomicInteger count = captures.get(orderId);
+        return count == null ? 0 : count.get();
+    }
+
+    /** Transmission signature that the webhook verification accepts; any other is reported forged. */
+    public static String webhookSignature() {
+        return "stand-in-signature";
+    }
+
+    public int webhookVerifications() {
+        return webhookVerifications.get();
+    }
+
+    /** Order requests received and not yet answered. */
+    public int ordersInFlight() {
+        return ordersInFlight.get();
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        tokenRequests.incrementAndGet();
+        delay();
+        String token = UUID.randomUUID().toString();
+        validTokens.add(token);
+        respond(exchange, 200, """
+                {"scope":"https://uri.paypal.com/services/payments","access_token":"%s","token_type":"Bearer","expires_in":%d}"""
+                .formatted(token, tokenExpiresInSeconds));
+    }
+
+    private void orders(HttpExchange exchange) throws IOException {
+        orderRequests.incrementAndGet();
+        ordersInFlight.incrementAndGet();
+        try {
+            handleOrders(exchange);
+        } finally {
+            ordersInFlight.decrementAndGet();
+        }
+    }
+
+    private void handleOrders(HttpExchange exchange) throws IOException {
+        delay();
+        String auth = exchange.getRequestHeaders().getFirst("Authorization");
+        if (auth == null || !validTokens.contains(auth.replaceFirst("^Bearer ", ""))) {
+            respond(exchange, 401, "{\"error\":\"invalid_token\"}");
+            return;
+        }
+        exchange.getRequestBody().readAllBytes();
+        String[] path = exchange.getRequestURI().getPath().substring("/v2/checkout/orders".length()).split("/");
+        String method = exchange.getRequestMethod();
+        if (path.length == 1 && path[0].isEmpty() && "POST".equals(method)) {
+            String id = createOrder("CREATED");
+            respond(exchange, 201, order(id, "CREATED"));
+        } else if (path.length == 2 && "GET".equals(method)) {
+            String status = orders.get(path[1]);
+            respond(exchange, status == null ? 404 : 200, status == null ? error("RESOURCE_NOT_FOUND") : order(path[1], status));
+        } else if (path.length == 3 && "capture".equals(path[2]) && "POST".equals(method)) {
+            capture(exchange, path[1]);
+        } else {
+            respond(exchange, 404, error("RESOURCE_NOT_FOUND"));
+        }
+    }
+
+    private void verifyWebhook(HttpExchange exchange) throws IOException {
+        webhookVerifications.incrementAndGet();
+        delay();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        boolean signed = body.contains("\"transmission_sig\":\"" + webhookSignature() + "\"");
+        respond(exchange, 200, "{\"verification_status\":\"" + (signed ? "SUCCESS" : "FAILURE") + "\"}");
+    }
+
+    private void capture(HttpExchange exchange, String orderId) throws IOException {
+        captures.computeIfAbsent(orderId, id -> new AtomicInteger()).incrementAndGet();
+        String status = orders.get(orderId);
+        if (status == null) {
+            respond(exchange, 404, error("RESOURCE_NOT_FOUND"));
+        } else if ("COMPLETED".equals(status)) {
+            respond(exchange, 422, error("ORDER_ALREADY_CAPTURED"));
+        } else if (declined.contains(orderId)) {
+            respond(exchange, 422, error("INSTRUMENT_DECLINED"));
+        } else {
+            orders.put(orderId, "COMPLETED");
+            respond(exchange, 201, order(orderId, "COMPLETED"));
+        }
+    }
+
+    private static String order(String id, String status) {
+        return """
+                {"id":"%s","status":"%s","links":[{"href":"https://www.sandbox.paypal.com/checkoutnow?token=%s","rel":"approve","method":"GET"}]}"""
+                .formatted(id, status, id);
+    }
+
+    private static String error(String issue) {
+        return "{\"name\":\"UNPROCESSABLE_ENTITY\",\"details\":[{\"issue\":\"" + issue + "\"}]}";
+    }
+
+    private void delay() {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,209 @@
+package com.karate.payment_service.unit.paypal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.karate.payment_service.infrastructure.paypal.PayPalAccessTokens;
+import com.karate.payment_service.infrastructure.paypal.PayPalClient;
+import com.karate.payment_service.infrastructure.paypal.PayPalHttpConfig;
+import com.karate.payment_service.infrastructure.paypal.PayPalProperties;
+import com.karate.payment_service.support.PayPalStandIn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayPalClientTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PayPalClientTest.class);
+
+    private PayPalStandIn payPal;
+    private PayPalClient client;
+    private PayPalAccessTokens tokens;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        payPal = PayPalStandIn.start(Duration.ofMillis(5));
+        PayPalProperties properties = new PayPalProperties("client", "secret", "sandbox", payPal.baseUrl(),
+                null, null, null, null);
+        HttpClient http = new PayPalHttpConfig().payPalHttpClient(properties);
+        ObjectMapper objectMapper = new ObjectMapper();
+        tokens = new PayPalAccessTokens(http, objectMapper, properties);
+        client = new PayPalClient(http, tokens, objectMapper, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        payPal.close();
+    }
+
+    private List<Future<?>> runConcurrently(int threads, int calls, Callable call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            int n = i;
+            results.add(pool.submit(() -> {
+                start.await();
+                call.call(n);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        return results;
+    }
+
+    private interface Callable {
+        void call(int n) throws Exception;
+    }
+
+    @Test
+    void createAndCapture_reuseOneToken() throws Exception {
+        // when
+        for (int i = 0; i < 3; i++) {
+            String orderId = client.createOrder(Map.of("intent", "CAPTURE"));
+            assertThat(client.captureOrder(orderId)).isTrue();
+        }
+
+        // then
+        assertThat(payPal.tokenRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentCallsWithoutToken_waitForOneTokenRequest() throws Exception {
+        // given
+        payPal.latency(Duration.ofMillis(100));
+        List<String> orders = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            orders.add(payPal.createOrder("APPROVED"));
+        }
+
+        // when
+        runConcurrently(32, 32, n -> assertThat(client.captureOrder(orders.get(n))).isTrue());
+
+        // then
+        assertThat(payPal.tokenRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void tokenCloseToExpiry_isRenewedInBackground() throws Exception {
+        // given: a 2s token is renewed after half its lifetime
+        payPal.tokenExpiresIn(Duration.ofSeconds(2));
+        String first = tokens.get();
+
+        // when
+        Thread.sleep(1_200);
+        String stillValid = tokens.get();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (payPal.tokenRequests() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // then
+        assertThat(stillValid).isEqualTo(first);
+        assertThat(payPal.tokenRequests()).isEqualTo(2);
+        assertThat(tokens.get()).isNotEqualTo(first);
+    }
+
+    @Test
+    void rejectedToken_isRenewedAndCallRepeated() throws Exception {
+        // given
+        client.captureOrder(payPal.createOrder("APPROVED"));
+        payPal.revokeTokens();
+
+        // when
+        boolean captured = client.captureOrder(payPal.createOrder("APPROVED"));
+
+        // then
+        assertThat(captured).isTrue();
+        assertThat(payPal.tokenRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void captureOrder_readsTypedOutcome() throws Exception {
+        // given
+        String completed = payPal.createOrder("COMPLETED");
+        String declined = payPal.createOrder("APPROVED");
+        payPal.decline(declined);
+
+        // when && then
+        assertThat(client.captureOrder(completed)).isTrue();
+        assertThat(client.captureOrder(declined)).isFalse();
+        assertThat(payPal.status(declined)).isEqualTo("APPROVED");
+    }
+
+    @Test
+    void capture_comparedWithClientAndTokenPerCall() throws Exception {
+        // given
+        int captures = 50;
+        List<String> orders = new ArrayList<>();
+        for (int i = 0; i < 2 * captures; i++) {
+            orders.add(payPal.createOrder("APPROVED"));
+        }
+        PayPalProperties properties = new PayPalProperties("client", "secret", "sandbox", payPal.baseUrl(),
+                null, null, null, null);
+        ObjectMapper objectMapper = new ObjectMapper();
+        client.captureOrder(orders.get(0));
+
+        // when: a new client and token for every capture, as before
+        long t0 = System.nanoTime();
+        for (int i = 1; i <= captures; i++) {
+            HttpClient http = new PayPalHttpConfig().payPalHttpClient(properties);
+            new PayPalClient(http, new PayPalAccessTokens(http, objectMapper, properties), objectMapper, properties)
+                    .captureOrder(orders.get(i));
+        }
+        double perCallMs = (System.nanoTime() - t0) / 1e6 / captures;
+        int tokensBefore = payPal.tokenRequests();
+
+        // when: the shared client
+        t0 = System.nanoTime();
+        for (int i = captures + 1; i < 2 * captures; i++) {
+            client.captureOrder(orders.get(i));
+        }
+        double sharedMs = (System.nanoTime() - t0) / 1e6 / (captures - 1);
+
+        log.info(String.format("paypal capture, 5ms stand-in latency: client and token per call %.1fms/capture, "
+                + "shared client %.1fms/capture", perCallMs, sharedMs));
+
+        // then
+        assertThat(tokensBefore).isEqualTo(1 + captures);
+        assertThat(payPal.tokenRequests()).isEqualTo(tokensBefore);
+    }
+
+    @Test
+    void burstOfCaptures_sharesOneToken() throws Exception {
+        // given
+        int captures = 400;
+        List<String> orders = new ArrayList<>();
+        for (int i = 0; i < captures; i++) {
+            orders.add(payPal.createOrder("APPROVED"));
+        }
+
+        // when
+        long t0 = System.nanoTime();
+        runConcurrently(16, captures, n -> client.captureOrder(orders.get(n)));
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        log.info("paypal capture: {} requests, 16 threads, 5ms stand-in latency, took={}ms ({} req/s)",
+                captures, tookMs, Math.round(captures * 1000.0 / Math.max(tookMs, 1)));
+
+        // then
+        assertThat(payPal.tokenRequests()).isEqualTo(1);
+        assertThat(orders).allMatch(id -> "COMPLETED".equals(payPal.status(id)));
+    }
+}
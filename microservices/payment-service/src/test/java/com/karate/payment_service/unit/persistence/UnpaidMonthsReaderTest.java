@@ -0,0 +1,201 @@
+package com.karate.payment_service.unit.persistence;
+
+import com.karate.payment_service.domain.model.Debtor;
+import com.karate.payment_service.domain.model.UserAccountEntity;
+import com.karate.payment_service.domain.repository.UserAccountRepository;
+import com.karate.payment_service.domain.service.UnpaidCalculator;
+import com.karate.payment_service.infrastructure.persistence.UnpaidMonthsReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UnpaidMonthsReader.class, UnpaidCalculator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:unpaid;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import="
+})
+class UnpaidMonthsReaderTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UnpaidMonthsReaderTest.class);
+
+    private static final YearMonth NOW = YearMonth.now();
+
+    @Autowired
+    UnpaidMonthsReader reader;
+    @Autowired
+    UnpaidCalculator calc;
+    @Autowired
+    UserAccountRepository users;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @BeforeEach
+    void payment() {
+        // the item indexes of V3, which ddl-auto does not create
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_items_user ON payment_items (user_id)");
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_items_user_month ON payment_items (user_id, year_month)");
+        jdbc.update("INSERT INTO payments (payment_id, user_id, provider, currency, amount, status, created_at, version) "
+                + "VALUES (1, 0, 'PAYPAL', 'PLN', 0, 'PAID', ?, 0)", Timestamp.from(Instant.now()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.execute("TRUNCATE TABLE payment_items");
+        jdbc.update("DELETE FROM payments");
+        jdbc.execute("TRUNCATE TABLE user_account");
+    }
+
+    private void accounts(long fromUser, long toUser, int monthsAgo, int paidMonths) {
+        List<Object[]> accounts = new ArrayList<>();
+        List<Object[]> paid = new ArrayList<>();
+        for (long userId = fromUser; userId <= toUser; userId++) {
+            YearMonth registered = NOW.minusMonths(monthsAgo);
+            accounts.add(new Object[]{userId, "u" + userId + "@karate.test", "u" + userId,
+                    Date.valueOf(registered.atDay(15))});
+            for (int i = 0; i < paidMonths; i++) {
+                paid.add(new Object[]{userId, registered.plusMonths(i).toString()});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO user_account (user_id, email, username, registration_date, version) "
+                + "VALUES (?, ?, ?, ?, 0)", accounts);
+        jdbc.batchUpdate("INSERT INTO payment_items (payment_id, user_id, year_month, amount, status) "
+                + "VALUES (1, ?, ?, 100, 'PAID')", paid);
+    }
+
+    private List<Debtor> readAll(int chunkSize, List<Integer> chunkSizes) {
+        List<Debtor> debtors = new ArrayList<>();
+        reader.forEachDebtorChunk(NOW, chunkSize, chunk -> {
+            chunkSizes.add(chunk.size());
+            debtors.addAll(chunk);
+        });
+        return debtors;
+    }
+
+    @Test
+    void forEachDebtorChunk_matchesPerUserCalculation() {
+        // given
+        accounts(1, 1, 5, 0);
+        accounts(2, 2, 5, 2);
+        accounts(3, 3, 5, 6);
+        accounts(4, 4, 0, 0);
+        accounts(5, 5, 14, 3);
+        jdbc.update("INSERT INTO payment_items (payment_id, user_id, year_month, amount, status) "
+                + "VALUES (1, 2, ?, 100, 'PENDING')", NOW.toString());
+
+        // when
+        List<Debtor> debtors = readAll(1000, new ArrayList<>());
+
+        // then
+        assertThat(debtors).extracting(Debtor::userId).containsExactly(1L, 2L, 4L, 5L);
+        for (Debtor debtor : debtors) {
+            UserAccountEntity user = users.findById(debtor.userId()).orElseThrow();
+            assertThat(debtor.months()).isEqualTo(calc.unpaidMonths(user));
+            assertThat(debtor.email()).isEqualTo(user.getEmail());
+        }
+        assertThat(debtors.get(1).months()).containsExactly(
+                NOW.minusMonths(3), NOW.minusMonths(2), NOW.minusMonths(1), NOW);
+    }
+
+    @Test
+    void forEachDebtorChunk_handsOverFixedSizeChunks() {
+        // given
+        accounts(1, 5, 2, 1);
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        // when
+        int reminded = reader.forEachDebtorChunk(NOW, 2, chunk -> chunkSizes.add(chunk.size()));
+
+        // then
+        assertThat(reminded).isEqualTo(5);
+        assertThat(chunkSizes).containsExactly(2, 2, 1);
+    }
+
+    @Test
+    void forEachDebtorChunk_handsOverNothing_whenNoAccounts() {
+        // when
+        List<Integer> chunkSizes = new ArrayList<>();
+        int reminded = reader.forEachDebtorChunk(NOW, 10, chunk -> chunkSizes.add(chunk.size()));
+
+        // then
+        assertThat(reminded).isZero();
+        assertThat(chunkSizes).isEmpty();
+    }
+
+    /**
+     * 100k accounts registered over the last three years, each having paid its first half of months.
+     * Run with {@code gradle test -Dbenchmark=true --tests '*UnpaidMonthsReaderTest'}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_streamingRunAgainstPerUserLoop() {
+        // given
+        for (int monthsAgo = 0; monthsAgo < 36; monthsAgo++) {
+            long from = monthsAgo * 2778L + 1;
+            accounts(from, Math.min(from + 2777, 100_000), monthsAgo, (monthsAgo + 1) / 2);
+        }
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // when: the former loop, one item query per account
+        System.gc();
+        long bytes0 = threads.getThreadAllocatedBytes(threadId);
+        long t0 = System.nanoTime();
+        int loopDebtors = 0;
+        int loopMonths = 0;
+        for (UserAccountEntity user : users.findAll()) {
+            List<YearMonth> unpaid = calc.unpaidMonths(user);
+            if (!unpaid.isEmpty()) {
+                loopDebtors++;
+                loopMonths += unpaid.size();
+            }
+        }
+        long loopMs = (System.nanoTime() - t0) / 1_000_000;
+        long loopBytes = threads.getThreadAllocatedBytes(threadId) - bytes0;
+
+        // when: the streaming run
+        System.gc();
+        bytes0 = threads.getThreadAllocatedBytes(threadId);
+        t0 = System.nanoTime();
+        AtomicInteger streamedMonths = new AtomicInteger();
+        int streamedDebtors = reader.forEachDebtorChunk(NOW, 1000,
+                chunk -> chunk.forEach(d -> streamedMonths.addAndGet(d.months().size())));
+        long streamMs = (System.nanoTime() - t0) / 1_000_000;
+        long streamBytes = threads.getThreadAllocatedBytes(threadId) - bytes0;
+
+        log.info("debt reminder, 100000 accounts: per-user loop took={}ms allocated={}MB, "
+                        + "streaming took={}ms allocated={}MB ({} debtors, {} months)",
+                loopMs, loopBytes >> 20, streamMs, streamBytes >> 20, streamedDebtors, streamedMonths.get());
+
+        // then
+        assertThat(streamedDebtors).isEqualTo(loopDebtors);
+        assertThat(streamedMonths.get()).isEqualTo(loopMonths);
+    }
+}
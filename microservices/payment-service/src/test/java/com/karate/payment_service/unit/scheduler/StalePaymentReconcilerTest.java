@@ -0,0 +1,318 @@
+package com.karate.payment_service.unit.scheduler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.karate.payment_service.api.dto.CreateOrderRequest;
+import com.karate.payment_service.domain.model.PaymentEntity;
+import com.karate.payment_service.domain.model.PaymentItemEntity;
+import com.karate.payment_service.domain.model.PaymentProvider;
+import com.karate.payment_service.domain.model.PaymentStatus;
+import com.karate.payment_service.domain.model.UserAccountEntity;
+import com.karate.payment_service.domain.repository.PaidMonthsLedgerRepository;
+import com.karate.payment_service.domain.repository.PaymentItemRepository;
+import com.karate.payment_service.domain.repository.PaymentRepository;
+import com.karate.payment_service.domain.repository.UserAccountRepository;
+import com.karate.payment_service.domain.service.PaidMonthsLedger;
+import com.karate.payment_service.domain.service.PaymentApplicationService;
+import com.karate.payment_service.domain.service.PaymentCaptureTransitions;
+import com.karate.payment_service.domain.service.PaymentsConfig;
+import com.karate.payment_service.domain.service.UnpaidCalculator;
+import com.karate.payment_service.infrastructure.messaging.PaymentEventPublisher;
+import com.karate.payment_service.infrastructure.paypal.PayPalAccessTokens;
+import com.karate.payment_service.infrastructure.paypal.PayPalClient;
+import com.karate.payment_service.infrastructure.paypal.PayPalHttpConfig;
+import com.karate.payment_service.infrastructure.paypal.PayPalProperties;
+import com.karate.payment_service.infrastructure.scheduler.StalePaymentReconciler;
+import com.karate.payment_service.support.PayPalStandIn;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Reconciles stale payments against the PayPal stand-in, with the order states PayPal reports
+ * set up per test.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StalePaymentReconciler.class, PaymentApplicationService.class, PaymentCaptureTransitions.class,
+        PaidMonthsLedger.class, UnpaidCalculator.class, PaymentsConfig.class, PayPalClient.class,
+        PayPalAccessTokens.class, PayPalHttpConfig.class, StalePaymentReconcilerTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconcile;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import=",
+        "payments.monthly-fee=100",
+        "payments.currency=PLN",
+        "payments.reconcile.stale-after=6h",
+        "payments.reconcile.page-size=25",
+        "payments.reconcile.concurrency=4",
+        "payments.reconcile.max-per-second=20"
+})
+class StalePaymentReconcilerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StalePaymentReconcilerTest.class);
+
+    private static final PayPalStandIn PAYPAL = startPayPal();
+
+    @TestConfiguration
+    @EnableConfigurationProperties(PayPalProperties.class)
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void payPal(DynamicPropertyRegistry registry) {
+        registry.add("paypal.base-url", PAYPAL::baseUrl);
+    }
+
+    private static PayPalStandIn startPayPal() {
+        try {
+            return PayPalStandIn.start(Duration.ofMillis(5));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopPayPal() {
+        PAYPAL.close();
+    }
+
+    @Autowired
+    StalePaymentReconciler reconciler;
+    @Autowired
+    PaymentApplicationService service;
+    @Autowired
+    PaymentRepository payments;
+    @Autowired
+    PaymentItemRepository items;
+    @Autowired
+    UserAccountRepository users;
+    @Autowired
+    PaidMonthsLedgerRepository ledgers;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    JdbcTemplate jdbc;
+    @MockitoBean
+    PaymentEventPublisher publisher;
+
+    @AfterEach
+    void cleanUp() {
+        PAYPAL.latency(Duration.ofMillis(5));
+        payments.deleteAll();
+        ledgers.deleteAll();
+        users.deleteAll();
+    }
+
+    private void user(long userId) {
+        users.save(UserAccountEntity.builder()
+                .userId(userId)
+                .email("u" + userId + "@karate.test")
+                .username("u" + userId)
+                .registrationDate(YearMonth.now().atDay(1))
+                .build());
+    }
+
+    private String order(long userId) {
+        user(userId);
+        return service.createOrder(new CreateOrderRequest(userId, List.of(YearMonth.now()), null, null, null)).providerOrderId();
+    }
+
+    private void makeStale(String orderId) {
+        jdbc.update("UPDATE payments SET created_at = ? WHERE provider_order_id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofHours(7))), orderId);
+    }
+
+    private PaymentStatus status(String orderId) {
+        return payments.findByProviderOrderId(orderId).orElseThrow().getStatus();
+    }
+
+    @Test
+    void reconcile_settlesStalePaymentsByPayPalOrderStatus() {
+        // given
+        String completed = order(1L);
+        String approved = order(2L);
+        String abandoned = order(3L);
+        String voided = order(4L);
+        String recent = order(5L);
+        PAYPAL.status(completed, "COMPLETED");
+        PAYPAL.status(approved, "APPROVED");
+        PAYPAL.status(voided, "VOIDED");
+        user(6L);
+        PaymentEntity unknown = PaymentEntity.builder()
+                .userId(6L)
+                .provider(PaymentProvider.PAYPAL)
+                .providerOrderId("GONE-6")
+                .currency("PLN")
+                .amount(BigDecimal.valueOf(100))
+                .status(PaymentStatus.PENDING)
+                .createdAt(Instant.now())
+                .build();
+        unknown.setItems(List.of(PaymentItemEntity.builder()
+                .payment(unknown)
+                .userId(6L)
+                .yearMonth(YearMonth.now())
+                .amount(BigDecimal.valueOf(100))
+                .status(PaymentStatus.PENDING)
+                .build()));
+        payments.save(unknown);
+        List.of(completed, approved, abandoned, voided, "GONE-6").forEach(this::makeStale);
+
+        // when
+        StalePaymentReconciler.Report report = reconciler.reconcile();
+
+        // then
+        assertThat(report.checked()).isEqualTo(5);
+        assertThat(report.paid()).isEqualTo(2);
+        assertThat(report.expired()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(status(completed)).isEqualTo(PaymentStatus.PAID);
+        assertThat(status(approved)).isEqualTo(PaymentStatus.PAID);
+        assertThat(PAYPAL.status(approved)).isEqualTo("COMPLETED");
+        assertThat(status(abandoned)).isEqualTo(PaymentStatus.EXPIRED);
+        assertThat(status("GONE-6")).isEqualTo(PaymentStatus.EXPIRED);
+        assertThat(status(voided)).isEqualTo(PaymentStatus.FAILED);
+        assertThat(status(recent)).isEqualTo(PaymentStatus.PENDING);
+        assertThat(items.findByUserIdAndStatus(3L, PaymentStatus.EXPIRED)).hasSize(1);
+        assertThat(items.findByUserIdAndStatus(4L, PaymentStatus.FAILED)).hasSize(1);
+        assertThat(service.history(3L)).isEmpty();
+        verify(publisher, times(2)).publishReceived(any());
+        assertThat(meterRegistry.counter("payments.reconcile.payments", "outcome", "expired").count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void reconcile_settlesCapturesLeftCapturingPastTheirLease() {
+        // given: captures whose PayPal answer never arrived, the checkouts themselves are recent
+        String completed = order(21L);
+        String approved = order(22L);
+        String notApproved = order(23L);
+        String inFlight = order(24L);
+        PAYPAL.status(completed, "COMPLETED");
+        PAYPAL.status(approved, "APPROVED");
+        PAYPAL.status(inFlight, "APPROVED");
+        List.of(completed, approved, notApproved).forEach(id -> capturing(id, Duration.ofMinutes(10)));
+        capturing(inFlight, Duration.ofSeconds(5));
+
+        // when
+        StalePaymentReconciler.Report report = reconciler.reconcile();
+
+        // then
+        assertThat(report.checked()).isEqualTo(3);
+        assertThat(report.paid()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(status(completed)).isEqualTo(PaymentStatus.PAID);
+        assertThat(status(approved)).isEqualTo(PaymentStatus.PAID);
+        assertThat(PAYPAL.status(approved)).isEqualTo("COMPLETED");
+        assertThat(status(notApproved)).isEqualTo(PaymentStatus.FAILED);
+        assertThat(status(inFlight)).isEqualTo(PaymentStatus.CAPTURING);
+        verify(publisher, times(2)).publishReceived(any());
+    }
+
+    @Test
+    void staleApprovedOrder_declinedAtCapture_isCountedFailed() {
+        // given
+        String declined = order(31L);
+        PAYPAL.status(declined, "APPROVED");
+        PAYPAL.decline(declined);
+        makeStale(declined);
+
+        // when
+        StalePaymentReconciler.Report report = reconciler.reconcile();
+
+        // then
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(report.errors()).isZero();
+        assertThat(status(declined)).isEqualTo(PaymentStatus.FAILED);
+    }
+
+    private void capturing(String orderId, Duration startedAgo) {
+        jdbc.update("UPDATE payments SET status = 'CAPTURING', capture_started_at = ? WHERE provider_order_id = ?",
+                Timestamp.from(Instant.now().minus(startedAgo)), orderId);
+    }
+
+    @Test
+    void manyStaleOrders_arePagedWithBoundedConcurrencyAndRate() throws Exception {
+        // given: 60 abandoned checkouts, 20ms per PayPal lookup, 4 workers, 20 lookups a second
+        List<String> orderIds = new ArrayList<>();
+        for (long userId = 11; userId <= 70; userId++) {
+            orderIds.add(order(userId));
+        }
+        orderIds.forEach(this::makeStale);
+        PAYPAL.latency(Duration.ofMillis(20));
+        int orderRequests = PAYPAL.orderRequests();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        AtomicInteger peakAtPayPal = new AtomicInteger();
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peakAtPayPal.accumulateAndGet(PAYPAL.ordersInFlight(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        // when
+        StalePaymentReconciler.Report report = reconciler.reconcile();
+        sampling.set(false);
+        sampler.join();
+        log.info("reconcile: {} stale orders, pages of 25, took={}ms, lookups at PayPal peak={}",
+                report.checked(), report.tookMs(), peakAtPayPal.get());
+
+        // then: 60 lookups at 20 a second need at least two more rate periods after the first
+        assertThat(report.checked()).isEqualTo(60);
+        assertThat(report.expired()).isEqualTo(60);
+        assertThat(orderIds).allMatch(id -> status(id) == PaymentStatus.EXPIRED);
+        assertThat(PAYPAL.orderRequests() - orderRequests).isEqualTo(60);
+        assertThat(peakAtPayPal.get()).isBetween(1, 4);
+        assertThat(report.tookMs()).isGreaterThanOrEqualTo(1_000);
+    }
+}
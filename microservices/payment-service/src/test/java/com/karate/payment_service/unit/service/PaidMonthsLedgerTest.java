@@ -0,0 +1,162 @@
+package com.karate.payment_service.unit.service;
+
+import com.karate.payment_service.domain.model.PaidMonthsLedgerEntity;
+import com.karate.payment_service.domain.model.UserAccountEntity;
+import com.karate.payment_service.domain.repository.PaidMonthsLedgerRepository;
+import com.karate.payment_service.domain.repository.UserAccountRepository;
+import com.karate.payment_service.domain.service.PaidMonthsLedger;
+import com.karate.payment_service.domain.service.UnpaidCalculator;
+import com.karate.payment_service.infrastructure.scheduler.PaidMonthsLedgerVerifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PaidMonthsLedger.class, UnpaidCalculator.class, PaidMonthsLedgerVerifier.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import=",
+        "payments.ledger.verify-page-size=2"
+})
+class PaidMonthsLedgerTest {
+
+    private static final YearMonth NOW = YearMonth.now();
+
+    @Autowired
+    PaidMonthsLedger ledger;
+    @Autowired
+    PaidMonthsLedgerVerifier verifier;
+    @Autowired
+    PaidMonthsLedgerRepository ledgers;
+    @Autowired
+    UserAccountRepository users;
+    @Autowired
+    UnpaidCalculator calc;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void payment() {
+        jdbc.update("INSERT INTO payments (payment_id, user_id, provider, currency, amount, status, created_at, version) "
+                + "VALUES (1, 0, 'MANUAL', 'PLN', 0, 'PAID', ?, 0)", Timestamp.from(Instant.now()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM payment_items");
+        jdbc.update("DELETE FROM payments");
+        ledgers.deleteAll();
+        users.deleteAll();
+    }
+
+    private UserAccountEntity account(long userId, int monthsAgo) {
+        return users.save(UserAccountEntity.builder()
+                .userId(userId)
+                .email("u" + userId + "@karate.test")
+                .username("u" + userId)
+                .registrationDate(NOW.minusMonths(monthsAgo).atDay(10))
+                .build());
+    }
+
+    private void paidItem(long userId, YearMonth ym) {
+        jdbc.update("INSERT INTO payment_items (payment_id, user_id, year_month, amount, status) "
+                + "VALUES (1, ?, ?, 100, 'PAID')", userId, ym.toString());
+    }
+
+    private void markPaid(long userId, List<YearMonth> months) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> ledger.markPaid(userId, months));
+    }
+
+    @Test
+    void markPaid_leavesOtherMonthsUnpaid() {
+        // given
+        var user = account(1L, 4);
+        ledgers.save(PaidMonthsLedgerEntity.forRegistration(1L, user.getRegistrationDate()));
+
+        // when
+        markPaid(1L, List.of(NOW.minusMonths(4), NOW.minusMonths(2), NOW.minusMonths(7)));
+
+        // then
+        assertThat(ledger.unpaidMonths(user)).containsExactly(NOW.minusMonths(3), NOW.minusMonths(1), NOW);
+        assertThatThrownBy(() -> ledger.requireUnpaid(user, List.of(NOW, NOW.minusMonths(2))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Month already paid: " + NOW.minusMonths(2));
+        ledger.requireUnpaid(user, List.of(NOW, NOW.minusMonths(1)));
+    }
+
+    @Test
+    void markPaid_createsLedgerFromItems_whenMissing() {
+        // given
+        var user = account(2L, 3);
+        paidItem(2L, NOW.minusMonths(3));
+
+        // when
+        markPaid(2L, List.of(NOW));
+
+        // then
+        assertThat(ledgers.findById(2L)).isPresent();
+        assertThat(ledger.unpaidMonths(user)).containsExactly(NOW.minusMonths(2), NOW.minusMonths(1));
+    }
+
+    @Test
+    void unpaidMonths_fallsBackToItems_whenNoLedger() {
+        // given
+        var user = account(3L, 2);
+        paidItem(3L, NOW.minusMonths(1));
+
+        // when && then
+        assertThat(ledger.unpaidMonths(user)).isEqualTo(calc.unpaidMonths(user));
+        assertThatThrownBy(() -> ledger.requireUnpaid(user, List.of(NOW.minusMonths(1))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void verify_rewritesDriftedLedgersOnly() {
+        // given
+        for (long userId = 11; userId <= 15; userId++) {
+            account(userId, 5);
+            paidItem(userId, NOW.minusMonths(5));
+            markPaid(userId, List.of(NOW.minusMonths(5)));
+        }
+        paidItem(12L, NOW);
+        var drifted = ledgers.findById(14L).orElseThrow();
+        drifted.markPaid(List.of(NOW.minusMonths(1)));
+        ledgers.save(drifted);
+
+        // when
+        int repaired = verifier.verify();
+
+        // then
+        assertThat(repaired).isEqualTo(2);
+        for (long userId = 11; userId <= 15; userId++) {
+            var user = users.findById(userId).orElseThrow();
+            assertThat(ledger.unpaidMonths(user)).isEqualTo(calc.unpaidMonths(user));
+        }
+        assertThat(verifier.verify()).isZero();
+    }
+}
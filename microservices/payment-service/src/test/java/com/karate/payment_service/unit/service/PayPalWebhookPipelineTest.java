@@ -0,0 +1,322 @@
+package com.karate.payment_service.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.karate.payment_service.api.dto.CreateOrderRequest;
+import com.karate.payment_service.domain.model.PayPalWebhookEventEntity;
+import com.karate.payment_service.domain.model.PaymentEntity;
+import com.karate.payment_service.domain.model.PaymentStatus;
+import com.karate.payment_service.domain.model.UserAccountEntity;
+import com.karate.payment_service.domain.model.WebhookEventStatus;
+import com.karate.payment_service.domain.repository.PaidMonthsLedgerRepository;
+import com.karate.payment_service.domain.repository.PayPalWebhookEventRepository;
+import com.karate.payment_service.domain.repository.PaymentRepository;
+import com.karate.payment_service.domain.repository.UserAccountRepository;
+import com.karate.payment_service.domain.service.PaidMonthsLedger;
+import com.karate.payment_service.domain.service.PayPalWebhookPipeline;
+import com.karate.payment_service.domain.service.PayPalWebhookPipeline.Outcome;
+import com.karate.payment_service.domain.service.PaymentApplicationService;
+import com.karate.payment_service.domain.service.PaymentCaptureTransitions;
+import com.karate.payment_service.domain.service.PaymentsConfig;
+import com.karate.payment_service.domain.service.UnpaidCalculator;
+import com.karate.payment_service.infrastructure.messaging.PaymentEventPublisher;
+import com.karate.payment_service.infrastructure.paypal.PayPalAccessTokens;
+import com.karate.payment_service.infrastructure.paypal.PayPalClient;
+import com.karate.payment_service.infrastructure.paypal.PayPalHttpConfig;
+import com.karate.payment_service.infrastructure.paypal.PayPalProperties;
+import com.karate.payment_service.infrastructure.paypal.dto.PayPalWebhookTransmission;
+import com.karate.payment_service.support.PayPalStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Webhook deliveries against the PayPal stand-in: stored on receipt, applied later by
+ * {@link PayPalWebhookPipeline#processDue()} as the scheduled processor would call it.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PayPalWebhookPipeline.class, PaymentApplicationService.class, PaymentCaptureTransitions.class,
+        PaidMonthsLedger.class, UnpaidCalculator.class, PaymentsConfig.class, PayPalClient.class,
+        PayPalAccessTokens.class, PayPalHttpConfig.class, PayPalWebhookPipelineTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:webhooks;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import=",
+        "payments.monthly-fee=100",
+        "payments.currency=PLN",
+        "paypal.webhook-id=WH-TEST",
+        "payments.webhook.workers=4",
+        "payments.webhook.batch-size=20"
+})
+class PayPalWebhookPipelineTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PayPalWebhookPipelineTest.class);
+
+    private static final PayPalStandIn PAYPAL = startPayPal();
+
+    @TestConfiguration
+    @EnableConfigurationProperties(PayPalProperties.class)
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @DynamicPropertySource
+    static void payPal(DynamicPropertyRegistry registry) {
+        registry.add("paypal.base-url", PAYPAL::baseUrl);
+    }
+
+    private static PayPalStandIn startPayPal() {
+        try {
+            return PayPalStandIn.start(Duration.ofMillis(5));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopPayPal() {
+        PAYPAL.close();
+    }
+
+    @Autowired
+    PayPalWebhookPipeline pipeline;
+    @Autowired
+    PaymentApplicationService service;
+    @Autowired
+    PayPalWebhookEventRepository events;
+    @Autowired
+    PaymentRepository payments;
+    @Autowired
+    UserAccountRepository users;
+    @Autowired
+    PaidMonthsLedgerRepository ledgers;
+    @MockitoBean
+    PaymentEventPublisher publisher;
+
+    @AfterEach
+    void cleanUp() {
+        PAYPAL.latency(Duration.ofMillis(5));
+        events.deleteAll();
+        payments.deleteAll();
+        ledgers.deleteAll();
+        users.deleteAll();
+    }
+
+    private String order(long userId) {
+        users.save(UserAccountEntity.builder()
+                .userId(userId)
+                .email("u" + userId + "@karate.test")
+                .username("u" + userId)
+                .registrationDate(YearMonth.now().atDay(1))
+                .build());
+        return service.createOrder(new CreateOrderRequest(userId, List.of(YearMonth.now()), null, null, null)).providerOrderId();
+    }
+
+    private static String approved(String eventId, String orderId) {
+        return """
+                {"id":"%s","event_type":"CHECKOUT.ORDER.APPROVED","resource_type":"checkout-order","resource":{"id":"%s","status":"APPROVED"}}"""
+                .formatted(eventId, orderId);
+    }
+
+    private static String captureCompleted(String eventId, String orderId) {
+        return """
+                {"id":"%s","event_type":"PAYMENT.CAPTURE.COMPLETED","resource_type":"capture","resource":{"id":"CAP-%s","status":"COMPLETED","supplementary_data":{"related_ids":{"order_id":"%s"}}}}"""
+                .formatted(eventId, eventId, orderId);
+    }
+
+    private static PayPalWebhookTransmission signed(String signature) {
+        return new PayPalWebhookTransmission("SHA256withRSA", "https://api.sandbox.paypal.com/v1/notifications/certs/CERT",
+                UUID.randomUUID().toString(), signature, Instant.now().toString());
+    }
+
+    private void drain() {
+        while (pipeline.processDue() > 0) {
+            // until nothing is due
+        }
+    }
+
+    private PayPalWebhookEventEntity stored(String eventId) {
+        return events.findById(eventId).orElseThrow();
+    }
+
+    @Test
+    void burstOfDeliveries_isStoredOnceAndAppliedByBoundedWorkers() throws Exception {
+        // given: 40 approvals, each delivered twice as PayPal does on a slow acknowledgement
+        List<String> orderIds = new ArrayList<>();
+        for (long userId = 1; userId <= 40; userId++) {
+            orderIds.add(order(userId));
+        }
+        ExecutorService senders = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> deliveries = new ArrayList<>();
+        for (int round = 0; round < 2; round++) {
+            for (String orderId : orderIds) {
+                deliveries.add(senders.submit(() -> {
+                    start.await();
+                    return pipeline.accept(signed(PayPalStandIn.webhookSignature()), approved("WH-" + orderId, orderId));
+                }));
+            }
+        }
+
+        // when: receiving
+        long t0 = System.nanoTime();
+        start.countDown();
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> delivery : deliveries) {
+            outcomes.add(delivery.get(60, TimeUnit.SECONDS));
+        }
+        long acceptMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        senders.shutdown();
+
+        // then: stored once each, nothing applied yet
+        assertThat(outcomes).filteredOn(o -> o == Outcome.STORED).hasSize(40);
+        assertThat(outcomes).filteredOn(o -> o == Outcome.DUPLICATE).hasSize(40);
+        assertThat(orderIds).allMatch(id -> payments.findByProviderOrderId(id).orElseThrow().getStatus() == PaymentStatus.PENDING);
+
+        // when: processing with 50ms PayPal latency
+        PAYPAL.latency(Duration.ofMillis(50));
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        AtomicInteger peakAtPayPal = new AtomicInteger();
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peakAtPayPal.accumulateAndGet(PAYPAL.ordersInFlight(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+        long t1 = System.nanoTime();
+        drain();
+        long processMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t1);
+        sampling.set(false);
+        sampler.join();
+        log.info("paypal webhooks: 80 deliveries accepted in {}ms, 40 captures applied in {}ms, "
+                + "captures at PayPal peak={}", acceptMs, processMs, peakAtPayPal.get());
+
+        // then
+        assertThat(orderIds).allMatch(id -> payments.findByProviderOrderId(id).orElseThrow().getStatus() == PaymentStatus.PAID);
+        assertThat(events.findAll()).hasSize(40).allMatch(e -> e.getStatus() == WebhookEventStatus.PROCESSED);
+        verify(publisher, times(40)).publishReceived(any());
+        assertThat(peakAtPayPal.get()).isBetween(1, 4);
+    }
+
+    @Test
+    void forgedDelivery_isRejectedAndNotStored() {
+        // given
+        String orderId = order(51L);
+
+        // when
+        Outcome outcome = pipeline.accept(signed("forged"), approved("WH-FORGED", orderId));
+
+        // then
+        assertThat(outcome).isEqualTo(Outcome.REJECTED);
+        assertThat(events.existsById("WH-FORGED")).isFalse();
+    }
+
+    @Test
+    void captureCompleted_completesPaymentWithoutCallingCapture() {
+        // given
+        String orderId = order(61L);
+        int orderRequests = PAYPAL.orderRequests();
+        pipeline.accept(signed(PayPalStandIn.webhookSignature()), captureCompleted("WH-61", orderId));
+        pipeline.accept(signed(PayPalStandIn.webhookSignature()), captureCompleted("WH-UNKNOWN", "NO-SUCH-ORDER"));
+        pipeline.accept(signed(PayPalStandIn.webhookSignature()), """
+                {"id":"WH-OTHER","event_type":"CUSTOMER.DISPUTE.CREATED","resource":{"id":"PP-D-1"}}""");
+
+        // when
+        drain();
+
+        // then
+        assertThat(payments.findByProviderOrderId(orderId).orElseThrow().getStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(PAYPAL.orderRequests()).isEqualTo(orderRequests);
+        assertThat(stored("WH-61").getStatus()).isEqualTo(WebhookEventStatus.PROCESSED);
+        assertThat(stored("WH-UNKNOWN").getStatus()).isEqualTo(WebhookEventStatus.IGNORED);
+        assertThat(stored("WH-OTHER").getStatus()).isEqualTo(WebhookEventStatus.IGNORED);
+        verify(publisher, times(1)).publishReceived(any());
+    }
+
+    @Test
+    void declinedCapture_isFinal_andReachesPayPalOnce() {
+        // given
+        String orderId = order(71L);
+        PAYPAL.decline(orderId);
+        pipeline.accept(signed(PayPalStandIn.webhookSignature()), approved("WH-71", orderId));
+
+        // when
+        drain();
+
+        // then
+        PayPalWebhookEventEntity event = stored("WH-71");
+        assertThat(event.getStatus()).isEqualTo(WebhookEventStatus.PROCESSED);
+        assertThat(event.getAttempts()).isZero();
+        assertThat(event.getLastError()).contains("PayPal capture rejected");
+        assertThat(PAYPAL.captureRequests(orderId)).isEqualTo(1);
+        assertThat(payments.findByProviderOrderId(orderId).orElseThrow().getStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(publisher, never()).publishReceived(any());
+    }
+
+    @Test
+    void approvalOfCancelledPayment_isIgnoredWithoutCapture() {
+        // given
+        String orderId = order(81L);
+        PaymentEntity payment = payments.findByProviderOrderId(orderId).orElseThrow();
+        payment.setStatus(PaymentStatus.CANCELLED);
+        payments.saveAndFlush(payment);
+        pipeline.accept(signed(PayPalStandIn.webhookSignature()), approved("WH-81", orderId));
+
+        // when
+        drain();
+
+        // then
+        assertThat(stored("WH-81").getStatus()).isEqualTo(WebhookEventStatus.IGNORED);
+        assertThat(stored("WH-81").getAttempts()).isZero();
+        assertThat(PAYPAL.captureRequests(orderId)).isZero();
+        assertThat(payments.findByProviderOrderId(orderId).orElseThrow().getStatus()).isEqualTo(PaymentStatus.CANCELLED);
+    }
+}
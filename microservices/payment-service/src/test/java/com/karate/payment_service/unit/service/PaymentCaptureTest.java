@@ -0,0 +1,280 @@
+package com.karate.payment_service.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.karate.payment_service.api.dto.CreateOrderRequest;
+import com.karate.payment_service.domain.exception.PayPalCaptureRejectedException;
+import com.karate.payment_service.domain.model.PaymentEntity;
+import com.karate.payment_service.domain.model.PaymentStatus;
+import com.karate.payment_service.domain.model.UserAccountEntity;
+import com.karate.payment_service.domain.repository.PaidMonthsLedgerRepository;
+import com.karate.payment_service.domain.repository.PaymentRepository;
+import com.karate.payment_service.domain.repository.UserAccountRepository;
+import com.karate.payment_service.domain.service.PaidMonthsLedger;
+import com.karate.payment_service.domain.service.PaymentApplicationService;
+import com.karate.payment_service.domain.service.PaymentCaptureTransitions;
+import com.karate.payment_service.domain.service.PaymentsConfig;
+import com.karate.payment_service.domain.service.UnpaidCalculator;
+import com.karate.payment_service.infrastructure.messaging.PaymentEventPublisher;
+import com.karate.payment_service.infrastructure.paypal.PayPalAccessTokens;
+import com.karate.payment_service.infrastructure.paypal.PayPalClient;
+import com.karate.payment_service.infrastructure.paypal.PayPalHttpConfig;
+import com.karate.payment_service.infrastructure.paypal.PayPalProperties;
+import com.karate.payment_service.support.PayPalStandIn;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Captures against the PayPal stand-in with a small connection pool, so a capture that kept its
+ * connection during the PayPal call would show up as pool pressure.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PaymentApplicationService.class, PaymentCaptureTransitions.class, PaidMonthsLedger.class,
+        UnpaidCalculator.class, PaymentsConfig.class, PayPalClient.class, PayPalAccessTokens.class,
+        PayPalHttpConfig.class, PaymentCaptureTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:capture;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import=",
+        "payments.monthly-fee=100",
+        "payments.currency=PLN"
+})
+class PaymentCaptureTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentCaptureTest.class);
+
+    private static final PayPalStandIn PAYPAL = startPayPal();
+
+    @TestConfiguration
+    @EnableConfigurationProperties(PayPalProperties.class)
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @DynamicPropertySource
+    static void payPal(DynamicPropertyRegistry registry) {
+        registry.add("paypal.base-url", PAYPAL::baseUrl);
+    }
+
+    private static PayPalStandIn startPayPal() {
+        try {
+            return PayPalStandIn.start(Duration.ofMillis(5));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopPayPal() {
+        PAYPAL.close();
+    }
+
+    @Autowired
+    PaymentApplicationService service;
+    @Autowired
+    PaymentRepository payments;
+    @Autowired
+    UserAccountRepository users;
+    @Autowired
+    PaidMonthsLedgerRepository ledgers;
+    @Autowired
+    DataSource dataSource;
+    @MockitoBean
+    PaymentEventPublisher publisher;
+
+    @AfterEach
+    void cleanUp() {
+        PAYPAL.latency(Duration.ofMillis(5));
+        payments.deleteAll();
+        ledgers.deleteAll();
+        users.deleteAll();
+    }
+
+    private String order(long userId) {
+        if (!users.existsById(userId)) {
+            users.save(UserAccountEntity.builder()
+                    .userId(userId)
+                    .email("u" + userId + "@karate.test")
+                    .username("u" + userId)
+                    .registrationDate(YearMonth.now().atDay(1))
+                    .build());
+        }
+        return service.createOrder(new CreateOrderRequest(userId, List.of(YearMonth.now()), null, null, null)).providerOrderId();
+    }
+
+    private List<Future<?>> runConcurrently(List<String> orderIds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(orderIds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (String orderId : orderIds) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return service.capture(orderId);
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        return results;
+    }
+
+    private PaymentEntity payment(String orderId) {
+        return payments.findByProviderOrderId(orderId).orElseThrow();
+    }
+
+    @Test
+    void slowPayPal_doesNotHoldConnectionsDuringCapture() throws Exception {
+        // given: 12 captures, 400ms each at PayPal, 4 connections
+        List<String> orderIds = new ArrayList<>();
+        for (long userId = 1; userId <= 12; userId++) {
+            orderIds.add(order(userId));
+        }
+        PAYPAL.latency(Duration.ofMillis(400));
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        AtomicInteger peakActive = new AtomicInteger();
+        AtomicInteger peakAtPayPal = new AtomicInteger();
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peakActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                peakAtPayPal.accumulateAndGet(PAYPAL.ordersInFlight(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        // when
+        long t0 = System.nanoTime();
+        runConcurrently(orderIds);
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        sampling.set(false);
+        sampler.join();
+        log.info("capture: 12 concurrent, 400ms PayPal latency, pool of 4: took={}ms, "
+                + "active connections peak={}, captures at PayPal peak={}", tookMs, peakActive.get(), peakAtPayPal.get());
+
+        // then: with a connection held per capture, at most 4 could wait at PayPal at once and the
+        // run would need three 400ms rounds
+        assertThat(orderIds).allMatch(id -> payment(id).getStatus() == PaymentStatus.PAID);
+        assertThat(peakAtPayPal.get()).isGreaterThan(4);
+        assertThat(tookMs).isLessThan(1_200);
+    }
+
+    @Test
+    void concurrentCapturesOfOneOrder_publishReceivedOnce() throws Exception {
+        // given
+        String orderId = order(21L);
+        PAYPAL.latency(Duration.ofMillis(50));
+
+        // when
+        runConcurrently(List.of(orderId, orderId, orderId, orderId));
+        var again = service.capture(orderId);
+
+        // then
+        verify(publisher, times(1)).publishReceived(any());
+        assertThat(again.status()).isEqualTo("ALREADY_PAID");
+        assertThat(payment(orderId).getStatus()).isEqualTo(PaymentStatus.PAID);
+        assertThat(ledgers.findById(21L).orElseThrow().isPaid(YearMonth.now())).isTrue();
+    }
+
+    @Test
+    void captureWhileAnotherIsInFlight_doesNotReachPayPal() {
+        // given: a capture of the order began a moment ago and has not answered yet
+        String orderId = order(41L);
+        PaymentEntity payment = payment(orderId);
+        payment.setStatus(PaymentStatus.CAPTURING);
+        payment.setCaptureStartedAt(Instant.now());
+        payments.saveAndFlush(payment);
+
+        // when
+        var response = service.capture(orderId);
+
+        // then
+        assertThat(response.status()).isEqualTo("CAPTURING");
+        assertThat(PAYPAL.captureRequests(orderId)).isZero();
+        assertThat(payment(orderId).getStatus()).isEqualTo(PaymentStatus.CAPTURING);
+    }
+
+    @Test
+    void captureLeftCapturingPastItsLease_isCapturedAgain() {
+        // given: a capture abandoned longer than payments.capture.lease ago
+        String orderId = order(42L);
+        PaymentEntity payment = payment(orderId);
+        payment.setStatus(PaymentStatus.CAPTURING);
+        payment.setCaptureStartedAt(Instant.now().minus(Duration.ofMinutes(10)));
+        payments.saveAndFlush(payment);
+
+        // when
+        var response = service.capture(orderId);
+
+        // then
+        assertThat(response.status()).isEqualTo("PAID");
+        assertThat(PAYPAL.captureRequests(orderId)).isEqualTo(1);
+        assertThat(payment(orderId).getStatus()).isEqualTo(PaymentStatus.PAID);
+    }
+
+    @Test
+    void declinedCapture_marksPaymentFailed() {
+        // given
+        String orderId = order(31L);
+        PAYPAL.decline(orderId);
+
+        // when && then
+        assertThatThrownBy(() -> service.capture(orderId)).isInstanceOf(PayPalCaptureRejectedException.class);
+        assertThat(payment(orderId).getStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(publisher, never()).publishReceived(any());
+    }
+}
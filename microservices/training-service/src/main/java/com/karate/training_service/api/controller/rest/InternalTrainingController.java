@@ -5,10 +5,10 @@ import com.karate.training_service.domain.service.TrainingSessionService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -28,4 +28,16 @@ public class InternalTrainingController {
         log.debug("GET /internal/trainings/{}", trainingId);
         return ResponseEntity.ok(trainingSessionService.getTrainingById(trainingId));
     }
+
+    @PostMapping("/exists")
+    public ResponseEntity<Map<Long, Boolean>> checkTrainingsExist(@RequestBody List<Long> trainingIds) {
+        log.debug("POST /internal/trainings/exists size={}", trainingIds.size());
+        return ResponseEntity.ok(trainingSessionService.checkTrainingsExist(trainingIds));
+    }
+
+    @PostMapping("/by-ids")
+    public ResponseEntity<List<TrainingSessionDto>> getTrainingsByIds(@RequestBody List<Long> trainingIds) {
+        log.debug("POST /internal/trainings/by-ids size={}", trainingIds.size());
+        return ResponseEntity.ok(trainingSessionService.getTrainingsByIds(trainingIds));
+    }
 }
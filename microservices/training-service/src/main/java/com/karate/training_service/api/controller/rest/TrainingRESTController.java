@@ -6,10 +6,12 @@ import com.karate.training_service.domain.service.TrainingSessionService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -20,9 +22,11 @@ public class TrainingRESTController {
     private final TrainingSessionService trainingSessionService;
 
     @GetMapping
-    public ResponseEntity<List<TrainingSessionDto>> getAllTrainingSessionsForUserClub() {
-        log.info("GET /trainings (current user's club)");
-        return ResponseEntity.ok(trainingSessionService.getAllTrainingSessionsForCurrentUserClub());
+    public ResponseEntity<List<TrainingSessionDto>> getTrainingSchedule(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /trainings (current user's club) from={} to={}", from, to);
+        return ResponseEntity.ok(trainingSessionService.getSchedule(from, to));
     }
 
     @PostMapping("/create")
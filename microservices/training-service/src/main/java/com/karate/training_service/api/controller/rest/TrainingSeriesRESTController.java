@@ -0,0 +1,40 @@
+package com.karate.training_service.api.controller.rest;
+
+import com.karate.training_service.api.dto.TrainingSeriesDto;
+import com.karate.training_service.api.dto.TrainingSeriesRequestDto;
+import com.karate.training_service.api.dto.TrainingSeriesUpdateDto;
+import com.karate.training_service.domain.service.TrainingSeriesService;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@AllArgsConstructor
+@RestController
+@RequestMapping("/trainings/series")
+public class TrainingSeriesRESTController {
+    private final TrainingSeriesService trainingSeriesService;
+
+    @PostMapping
+    public ResponseEntity<TrainingSeriesDto> createSeries(@RequestBody @Valid TrainingSeriesRequestDto dto) {
+        log.info("POST /trainings/series recurrence={} firstDate={} lastDate={}", dto.recurrence(), dto.firstDate(), dto.lastDate());
+        return new ResponseEntity<>(trainingSeriesService.createSeries(dto), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<TrainingSeriesDto> updateSeries(@PathVariable("id") Long id,
+                                                          @RequestBody @Valid TrainingSeriesUpdateDto dto) {
+        log.info("PUT /trainings/series/{}", id);
+        return ResponseEntity.ok(trainingSeriesService.updateSeries(id, dto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSeries(@PathVariable("id") Long id) {
+        log.info("DELETE /trainings/series/{}", id);
+        trainingSeriesService.deleteSeries(id);
+        return ResponseEntity.noContent().build();
+    }
+}
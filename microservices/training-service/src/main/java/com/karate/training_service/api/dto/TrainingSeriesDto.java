@@ -0,0 +1,12 @@
+package com.karate.training_service.api.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record TrainingSeriesDto(
+        Long seriesId,
+        List<TrainingSessionDto> sessions
+) {
+}
@@ -0,0 +1,33 @@
+package com.karate.training_service.api.dto;
+
+import com.karate.training_service.domain.model.Recurrence;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Builder
+public record TrainingSeriesRequestDto(
+        @NotNull(message = "{series.firstDate.not.null}")
+        LocalDate firstDate,
+        @NotNull(message = "{series.lastDate.not.null}")
+        LocalDate lastDate,
+        @NotNull(message = "{training.startTime.not.null}")
+        LocalTime startTime,
+        @NotNull(message = "{training.endTime.not.null}")
+        LocalTime endTime,
+        @NotNull(message = "{series.recurrence.not.null}")
+        Recurrence recurrence,
+        // dates inside the range on which the class does not take place
+        List<LocalDate> exceptions,
+        @NotBlank(message = "{training.description.not.blank}")
+        String description,
+        // null means no seat limit
+        @Positive(message = "{training.capacity.positive}")
+        Integer capacity
+) {
+}
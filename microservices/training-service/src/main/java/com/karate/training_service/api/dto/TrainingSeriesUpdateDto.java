@@ -0,0 +1,13 @@
+package com.karate.training_service.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+public record TrainingSeriesUpdateDto(
+        @NotBlank(message = "{training.description.not.blank}")
+        String description,
+        // null means no seat limit
+        @Positive(message = "{training.capacity.positive}")
+        Integer capacity
+) {
+}
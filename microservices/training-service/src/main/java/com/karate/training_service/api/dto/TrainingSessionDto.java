@@ -9,6 +9,10 @@ public record TrainingSessionDto(
         Long trainingSessionId,
         LocalDateTime startTime,
         LocalDateTime endTime,
-        String description
+        String description,
+        Integer capacity
 ) {
+    public TrainingSessionDto(Long trainingSessionId, LocalDateTime startTime, LocalDateTime endTime, String description) {
+        this(trainingSessionId, startTime, endTime, description, null);
+    }
 }
@@ -2,6 +2,7 @@ package com.karate.training_service.api.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.Builder;
 
 import java.time.LocalDateTime;
@@ -13,6 +14,12 @@ public record TrainingSessionRequestDto(
         @NotNull(message = "{training.endTime.not.null}")
         LocalDateTime endTime,
         @NotBlank(message = "{training.description.not.blank}")
-        String description
+        String description,
+        // null means no seat limit
+        @Positive(message = "{training.capacity.positive}")
+        Integer capacity
 ) {
+    public TrainingSessionRequestDto(LocalDateTime startTime, LocalDateTime endTime, String description) {
+        this(startTime, endTime, description, null);
+    }
 }
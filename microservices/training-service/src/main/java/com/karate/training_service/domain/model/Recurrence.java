@@ -0,0 +1,16 @@
+package com.karate.training_service.domain.model;
+
+public enum Recurrence {
+    WEEKLY(1),
+    BIWEEKLY(2);
+
+    private final int weeks;
+
+    Recurrence(int weeks) {
+        this.weeks = weeks;
+    }
+
+    public int weeks() {
+        return weeks;
+    }
+}
@@ -27,4 +27,11 @@ public class TrainingSessionEntity {
 
     @Column(name = "club_id", nullable = false)
     private Long clubId;
+
+    @Column(name = "capacity")
+    private Integer capacity;
+
+    // set for sessions generated from a TrainingSeriesEntity
+    @Column(name = "series_id")
+    private Long seriesId;
 }
@@ -0,0 +1,9 @@
+package com.karate.training_service.domain.repository;
+
+import com.karate.training_service.domain.model.TrainingSeriesEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TrainingSeriesRepository extends JpaRepository<TrainingSeriesEntity, Long> {
+}
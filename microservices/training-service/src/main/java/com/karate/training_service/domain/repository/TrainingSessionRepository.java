@@ -2,11 +2,44 @@ package com.karate.training_service.domain.repository;
 
 import com.karate.training_service.domain.model.TrainingSessionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TrainingSessionRepository extends JpaRepository<TrainingSessionEntity, Long> {
     List<TrainingSessionEntity> findAllByClubId(Long clubId);
+
+    @Query("SELECT t FROM TrainingSessionEntity t "
+            + "WHERE t.clubId = :clubId AND t.startTime >= :from AND t.startTime < :to "
+            + "ORDER BY t.startTime")
+    List<TrainingSessionEntity> findSchedule(@Param("clubId") Long clubId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    @Query("SELECT t.trainingSessionId FROM TrainingSessionEntity t WHERE t.trainingSessionId IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    List<TrainingSessionEntity> findAllBySeriesIdOrderByStartTime(Long seriesId);
+
+    boolean existsBySeriesId(Long seriesId);
+
+    List<TrainingSessionEntity> findAllBySeriesIdAndStartTimeGreaterThanEqualOrderByStartTime(Long seriesId, LocalDateTime from);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TrainingSessionEntity t SET t.description = :description, t.capacity = :capacity "
+            + "WHERE t.seriesId = :seriesId AND t.startTime >= :from")
+    int updateSeriesFrom(@Param("seriesId") Long seriesId,
+                         @Param("from") LocalDateTime from,
+                         @Param("description") String description,
+                         @Param("capacity") Integer capacity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TrainingSessionEntity t WHERE t.seriesId = :seriesId AND t.startTime >= :from")
+    int deleteSeriesFrom(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from);
 }
@@ -0,0 +1,54 @@
+package com.karate.training_service.domain.service;
+
+import com.karate.training_service.domain.exception.AuthenticationMissingException;
+import com.karate.training_service.infrastructure.jwt.JwtPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The caller of the current request. Bound once by {@code IdentityContextFilter} from the verified
+ * token; the club of tokens issued before the {@code clubId} claim existed is looked up on first use
+ * and then reused, so service methods, cache keys and evictions of one request share one resolution.
+ */
+@Slf4j
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class IdentityContext {
+    private final UpstreamGateway upstream;
+
+    private String username;
+    private Long userId;
+    private Long clubId;
+
+    public void bind(Authentication authentication) {
+        this.username = authentication.getName();
+        if (authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            this.userId = principal.userId();
+            this.clubId = principal.clubId();
+        }
+    }
+
+    public String username() {
+        if (username == null) {
+            throw new AuthenticationMissingException("No authenticated user found");
+        }
+        return username;
+    }
+
+    public Long userId() {
+        username();
+        return userId;
+    }
+
+    public Long clubId() {
+        if (clubId == null) {
+            clubId = upstream.getUserClubId(username());
+            log.debug("Resolved clubId={} for username={} via user-service", clubId, username);
+        }
+        return clubId;
+    }
+}
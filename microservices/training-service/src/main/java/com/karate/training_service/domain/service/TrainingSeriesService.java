@@ -0,0 +1,180 @@
+package com.karate.training_service.domain.service;
+
+import com.karate.training_service.api.dto.TrainingSeriesDto;
+import com.karate.training_service.api.dto.TrainingSeriesRequestDto;
+import com.karate.training_service.api.dto.TrainingSeriesUpdateDto;
+import com.karate.training_service.domain.exception.InvalidTrainingTimeRangeException;
+import com.karate.training_service.domain.exception.TrainingSessionClubMismatchException;
+import com.karate.training_service.domain.exception.TrainingSessionNotFoundException;
+import com.karate.training_service.domain.model.Recurrence;
+import com.karate.training_service.domain.model.TrainingSeriesEntity;
+import com.karate.training_service.domain.model.TrainingSessionEntity;
+import com.karate.training_service.domain.repository.TrainingSeriesRepository;
+import com.karate.training_service.domain.repository.TrainingSessionRepository;
+import com.karate.training_service.infrastructure.messaging.TrainingEventPublisher;
+import com.karate.training_service.infrastructure.persistence.TrainingSessionBatchWriter;
+import com.karate.training_service.infrastructure.persistence.mapper.TrainingSessionMapper;
+import com.karate.training_service.infrastructure.redis.TrainingBatchCache;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recurring classes. A series generates all its sessions at once: one JDBC batch insert, one batch
+ * of outbox events and one cache eviction per cache, instead of a create call per session. Edits
+ * and deletes apply to the upcoming sessions of the series with a single statement each; sessions
+ * that already took place are kept as they were.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class TrainingSeriesService {
+    static final int MAX_SESSIONS = 200;
+
+    private final TrainingSeriesRepository seriesRepository;
+    private final TrainingSessionRepository trainingSessionRepository;
+    private final TrainingSessionBatchWriter batchWriter;
+    private final TrainingEventPublisher trainingEventPublisher;
+    private final TrainingBatchCache batchCache;
+    private final IdentityContext identity;
+
+    @Transactional
+    public TrainingSeriesDto createSeries(TrainingSeriesRequestDto dto) {
+        long t0 = System.currentTimeMillis();
+        if (!dto.endTime().isAfter(dto.startTime())) {
+            throw new InvalidTrainingTimeRangeException("End time must be after start time");
+        }
+        if (dto.lastDate().isBefore(dto.firstDate())) {
+            throw new InvalidTrainingTimeRangeException("Last date must not be before first date");
+        }
+        List<LocalDate> dates = occurrences(dto.firstDate(), dto.lastDate(), dto.recurrence(), dto.exceptions());
+        if (dates.isEmpty()) {
+            throw new InvalidTrainingTimeRangeException("Series has no sessions in the given range");
+        }
+        if (dates.size() > MAX_SESSIONS) {
+            throw new InvalidTrainingTimeRangeException("Series must not exceed " + MAX_SESSIONS + " sessions");
+        }
+        Long clubId = identity.clubId();
+
+        TrainingSeriesEntity series = new TrainingSeriesEntity();
+        series.setClubId(clubId);
+        series.setDescription(dto.description());
+        series.setRecurrence(dto.recurrence());
+        series.setFirstDate(dto.firstDate());
+        series.setLastDate(dto.lastDate());
+        series.setStartTime(dto.startTime());
+        series.setEndTime(dto.endTime());
+        series.setCapacity(dto.capacity());
+        series.setCreatedAt(LocalDateTime.now());
+        Long seriesId = seriesRepository.save(series).getSeriesId();
+
+        batchWriter.insertAll(dates.stream().map(date -> {
+            TrainingSessionEntity session = new TrainingSessionEntity();
+            session.setStartTime(date.atTime(dto.startTime()));
+            session.setEndTime(date.atTime(dto.endTime()));
+            session.setDescription(dto.description());
+            session.setClubId(clubId);
+            session.setCapacity(dto.capacity());
+            session.setSeriesId(seriesId);
+            return session;
+        }).toList());
+        List<TrainingSessionEntity> created = trainingSessionRepository.findAllBySeriesIdOrderByStartTime(seriesId);
+        trainingEventPublisher.publishTrainingsCreated(created);
+
+        batchCache.evictAll("trainingsByClubWeek", weekKeys(clubId, created));
+        batchCache.evictAll("trainingExists", ids(created));
+
+        log.info("Created series seriesId={} clubId={} recurrence={} sessions={} took={}ms",
+                seriesId, clubId, dto.recurrence(), created.size(), System.currentTimeMillis() - t0);
+        return toDto(seriesId, created);
+    }
+
+    @Transactional
+    public TrainingSeriesDto updateSeries(Long seriesId, TrainingSeriesUpdateDto dto) {
+        long t0 = System.currentTimeMillis();
+        TrainingSeriesEntity series = ownSeries(seriesId);
+        series.setDescription(dto.description());
+        series.setCapacity(dto.capacity());
+
+        LocalDateTime from = LocalDateTime.now();
+        int updated = trainingSessionRepository.updateSeriesFrom(seriesId, from, dto.description(), dto.capacity());
+        List<TrainingSessionEntity> upcoming =
+                trainingSessionRepository.findAllBySeriesIdAndStartTimeGreaterThanEqualOrderByStartTime(seriesId, from);
+        trainingEventPublisher.publishTrainingsUpdated(upcoming);
+
+        batchCache.evictAll("trainingsByClubWeek", weekKeys(series.getClubId(), upcoming));
+        batchCache.evictAll("trainingById", ids(upcoming));
+
+        log.info("Updated series seriesId={} sessions={} took={}ms", seriesId, updated, System.currentTimeMillis() - t0);
+        return toDto(seriesId, upcoming);
+    }
+
+    @Transactional
+    public void deleteSeries(Long seriesId) {
+        long t0 = System.currentTimeMillis();
+        TrainingSeriesEntity series = ownSeries(seriesId);
+
+        LocalDateTime from = LocalDateTime.now();
+        List<TrainingSessionEntity> upcoming =
+                trainingSessionRepository.findAllBySeriesIdAndStartTimeGreaterThanEqualOrderByStartTime(seriesId, from);
+        int deleted = trainingSessionRepository.deleteSeriesFrom(seriesId, from);
+        trainingEventPublisher.publishTrainingsDeleted(upcoming);
+        // past sessions keep pointing at the series
+        if (!trainingSessionRepository.existsBySeriesId(seriesId)) {
+            seriesRepository.deleteById(seriesId);
+        }
+
+        batchCache.evictAll("trainingsByClubWeek", weekKeys(series.getClubId(), upcoming));
+        batchCache.evictAll("trainingById", ids(upcoming));
+        batchCache.evictAll("trainingExists", ids(upcoming));
+
+        log.info("Deleted series seriesId={} sessions={} took={}ms", seriesId, deleted, System.currentTimeMillis() - t0);
+    }
+
+    static List<LocalDate> occurrences(LocalDate first, LocalDate last, Recurrence recurrence, Collection<LocalDate> exceptions) {
+        Set<LocalDate> skipped = exceptions == null ? Set.of() : new HashSet<>(exceptions);
+        List<LocalDate> dates = new ArrayList<>();
+        // stops one past the limit so an oversized range is rejected without walking all of it
+        for (LocalDate date = first; !date.isAfter(last) && dates.size() <= MAX_SESSIONS; date = date.plusWeeks(recurrence.weeks())) {
+            if (!skipped.contains(date)) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    private TrainingSeriesEntity ownSeries(Long seriesId) {
+        TrainingSeriesEntity series = seriesRepository.findById(seriesId)
+                .orElseThrow(() -> new TrainingSessionNotFoundException("Training series not found"));
+        if (!series.getClubId().equals(identity.clubId())) {
+            throw new TrainingSessionClubMismatchException("You cannot change a training series of another club");
+        }
+        return series;
+    }
+
+    private static Set<String> weekKeys(Long clubId, List<TrainingSessionEntity> sessions) {
+        Set<String> keys = new HashSet<>();
+        sessions.forEach(s -> keys.add(TrainingSessionService.weekKey(clubId, TrainingSessionService.weekOf(s.getStartTime()))));
+        return keys;
+    }
+
+    private static List<Long> ids(List<TrainingSessionEntity> sessions) {
+        return sessions.stream().map(TrainingSessionEntity::getTrainingSessionId).toList();
+    }
+
+    private static TrainingSeriesDto toDto(Long seriesId, List<TrainingSessionEntity> sessions) {
+        return TrainingSeriesDto.builder()
+                .seriesId(seriesId)
+                .sessions(sessions.stream().map(TrainingSessionMapper::mapToTrainingSessionDto).toList())
+                .build();
+    }
+}
@@ -2,73 +2,126 @@ package com.karate.training_service.domain.service;
 
 import com.karate.training_service.api.dto.TrainingSessionDto;
 import com.karate.training_service.api.dto.TrainingSessionRequestDto;
-import com.karate.training_service.domain.exception.AuthenticationMissingException;
 import com.karate.training_service.domain.exception.InvalidTrainingTimeRangeException;
 import com.karate.training_service.domain.exception.TrainingSessionClubMismatchException;
 import com.karate.training_service.domain.exception.TrainingSessionNotFoundException;
 import com.karate.training_service.domain.model.TrainingSessionEntity;
 import com.karate.training_service.domain.repository.TrainingSessionRepository;
+import com.karate.training_service.infrastructure.messaging.TrainingEventPublisher;
 import com.karate.training_service.infrastructure.persistence.mapper.TrainingSessionMapper;
+import com.karate.training_service.infrastructure.redis.TrainingBatchCache;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class TrainingSessionService {
+    static final Duration DEFAULT_HORIZON = Duration.ofDays(12 * 7);
+    static final Duration MAX_RANGE = Duration.ofDays(78 * 7);
+
     private final TrainingSessionRepository trainingSessionRepository;
-    private final UpstreamGateway upstream;
     private final CacheManager cacheManager;
+    private final TrainingEventPublisher trainingEventPublisher;
+    private final TrainingBatchCache batchCache;
+    private final IdentityContext identity;
+
+    /**
+     * Sessions of the current user's club starting in {@code [from, to)}, by default the upcoming
+     * {@link #DEFAULT_HORIZON}. Sessions are cached per club and week ({@code trainingsByClubWeek}),
+     * so a range touches only its own weeks and a create or delete drops a single bucket; all
+     * buckets are fetched in one multi-get and the missing ones loaded with one indexed query.
+     */
+    @Transactional(readOnly = true)
+    public List<TrainingSessionDto> getSchedule(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from != null ? from : now;
+        LocalDateTime end = to != null ? to : (start.isAfter(now) ? start : now).plus(DEFAULT_HORIZON);
+        if (!end.isAfter(start)) {
+            throw new InvalidTrainingTimeRangeException("'to' must be after 'from'");
+        }
+        if (Duration.between(start, end).compareTo(MAX_RANGE) > 0) {
+            throw new InvalidTrainingTimeRangeException("Schedule range must not exceed " + MAX_RANGE.toDays() + " days");
+        }
+        Long clubId = identity.clubId();
+        long t0 = System.currentTimeMillis();
 
-    public Long currentUserClubId() {
-        String username = getCurrentUsername();
-        return upstream.getUserClubId(username);
-    }
-
-    @Cacheable(cacheNames = "trainingsByClub", key = "#root.target.currentUserClubId()")
-    public List<TrainingSessionDto> getAllTrainingSessionsForCurrentUserClub() {
-        Long clubId = currentUserClubId();
-        long tDb = System.currentTimeMillis();
-        List<TrainingSessionEntity> trainingSessions = trainingSessionRepository.findAllByClubId(clubId);
-        log.info("Fetched {} trainings for clubId={} took={}ms",
-                trainingSessions.size(), clubId, System.currentTimeMillis() - tDb);
+        List<LocalDate> weeks = new ArrayList<>();
+        for (LocalDate week = weekOf(start); week.atStartOfDay().isBefore(end); week = week.plusWeeks(1)) {
+            weeks.add(week);
+        }
+        List<String> keys = weeks.stream().map(week -> weekKey(clubId, week)).toList();
+        Map<String, List<TrainingSessionDto>> buckets = new HashMap<>(batchCache.getAll("trainingsByClubWeek", keys));
+        List<LocalDate> missing = weeks.stream().filter(week -> !buckets.containsKey(weekKey(clubId, week))).toList();
+        if (!missing.isEmpty()) {
+            Map<String, List<TrainingSessionDto>> loaded = new LinkedHashMap<>();
+            missing.forEach(week -> loaded.put(weekKey(clubId, week), new ArrayList<>()));
+            LocalDate last = missing.get(missing.size() - 1);
+            trainingSessionRepository.findSchedule(clubId, missing.get(0).atStartOfDay(), last.plusWeeks(1).atStartOfDay())
+                    .forEach(e -> {
+                        List<TrainingSessionDto> bucket = loaded.get(weekKey(clubId, weekOf(e.getStartTime())));
+                        if (bucket != null) {
+                            bucket.add(TrainingSessionMapper.mapToTrainingSessionDto(e));
+                        }
+                    });
+            batchCache.putAll("trainingsByClubWeek", loaded);
+            buckets.putAll(loaded);
+        }
 
-        return trainingSessions.stream()
-                .map(TrainingSessionMapper::mapToTrainingSessionDto)
+        List<TrainingSessionDto> schedule = keys.stream()
+                .flatMap(key -> buckets.get(key).stream())
+                .filter(t -> !t.startTime().isBefore(start) && t.startTime().isBefore(end))
                 .toList();
+        log.info("Fetched {} trainings for clubId={} from={} to={} weeks={} loaded={} took={}ms",
+                schedule.size(), clubId, start, end, weeks.size(), missing.size(), System.currentTimeMillis() - t0);
+        return schedule;
     }
 
     @Transactional
     public TrainingSessionDto createTrainingSession(TrainingSessionRequestDto dto) {
-        log.info("Create training startTime={} endTime={} desc='{}'",
-                dto.startTime(), dto.endTime(), dto.description());
+        log.info("Create training startTime={} endTime={} desc='{}' capacity={}",
+                dto.startTime(), dto.endTime(), dto.description(), dto.capacity());
 
         if (!dto.endTime().isAfter(dto.startTime())) {
             throw new InvalidTrainingTimeRangeException("End time must be after start time");
         }
 
-        Long clubId = currentUserClubId();
+        Long clubId = identity.clubId();
 
         TrainingSessionEntity trainingSession = new TrainingSessionEntity();
         trainingSession.setStartTime(dto.startTime());
         trainingSession.setEndTime(dto.endTime());
         trainingSession.setDescription(dto.description());
         trainingSession.setClubId(clubId);
+        trainingSession.setCapacity(dto.capacity());
 
         TrainingSessionEntity saved = trainingSessionRepository.save(trainingSession);
+        trainingEventPublisher.publishTrainingCreated(saved);
         TrainingSessionDto result = TrainingSessionMapper.mapToTrainingSessionDto(saved);
 
         // precyzyjne czyszczenie cache
-        evictTrainingsByClub(clubId);
+        evictTrainingsByClubWeek(clubId, saved.getStartTime());
         evictTrainingById(saved.getTrainingSessionId());
         evictTrainingExists(saved.getTrainingSessionId());
 
@@ -78,7 +131,7 @@ public class TrainingSessionService {
     @Transactional
     public void deleteTrainingSession(Long trainingId) {
         log.info("Delete training trainingId={}", trainingId);
-        Long userClubId = currentUserClubId();
+        Long userClubId = identity.clubId();
 
         TrainingSessionEntity training = trainingSessionRepository.findById(trainingId)
                 .orElseThrow(() -> new TrainingSessionNotFoundException("Training session not found"));
@@ -88,10 +141,11 @@ public class TrainingSessionService {
         }
 
         trainingSessionRepository.delete(training);
+        trainingEventPublisher.publishTrainingDeleted(training);
 
         evictTrainingById(trainingId);
         evictTrainingExists(trainingId);
-        evictTrainingsByClub(userClubId);
+        evictTrainingsByClubWeek(userClubId, training.getStartTime());
     }
 
     @Cacheable(cacheNames = "trainingExists", key = "#trainingId")
@@ -111,19 +165,63 @@ public class TrainingSessionService {
                 e.getTrainingSessionId(),
                 e.getStartTime(),
                 e.getEndTime(),
-                e.getDescription()
+                e.getDescription(),
+                e.getCapacity()
         );
     }
 
-    private String getCurrentUsername() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) throw new AuthenticationMissingException("No authenticated user found");
-        return authentication.getName();
+    /**
+     * Bulk variant of {@link #getTrainingById}: cached sessions come from one Redis multi-get, the
+     * rest from one query, and those are written back in one pipeline. Unknown ids are skipped;
+     * the result follows the order of {@code trainingIds}.
+     */
+    @Transactional(readOnly = true)
+    public List<TrainingSessionDto> getTrainingsByIds(List<Long> trainingIds) {
+        List<Long> ids = trainingIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, TrainingSessionDto> found = new HashMap<>(batchCache.getAll("trainingById", ids));
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Map<Long, TrainingSessionDto> loaded = trainingSessionRepository.findAllById(missing).stream()
+                    .map(TrainingSessionMapper::mapToTrainingSessionDto)
+                    .collect(Collectors.toMap(TrainingSessionDto::trainingSessionId, Function.identity()));
+            batchCache.putAll("trainingById", loaded);
+            found.putAll(loaded);
+        }
+        log.debug("getTrainingsByIds requested={} cached={} loaded={}",
+                ids.size(), ids.size() - missing.size(), found.size() - (ids.size() - missing.size()));
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Bulk variant of {@link #checkTrainingExists}, backed by the same cache entries.
+     */
+    public Map<Long, Boolean> checkTrainingsExist(List<Long> trainingIds) {
+        List<Long> ids = trainingIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Boolean> found = new HashMap<>(batchCache.getAll("trainingExists", ids));
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            Set<Long> existing = new HashSet<>(trainingSessionRepository.findExistingIds(missing));
+            Map<Long, Boolean> loaded = missing.stream()
+                    .collect(Collectors.toMap(Function.identity(), existing::contains));
+            batchCache.putAll("trainingExists", loaded);
+            found.putAll(loaded);
+        }
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        ids.forEach(id -> result.put(id, found.get(id)));
+        return result;
+    }
+
+    static LocalDate weekOf(LocalDateTime time) {
+        return time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    static String weekKey(Long clubId, LocalDate week) {
+        return clubId + ":" + week;
     }
 
-    private void evictTrainingsByClub(Long clubId) {
-        Cache c = cacheManager.getCache("trainingsByClub");
-        if (c != null) c.evictIfPresent(clubId);
+    private void evictTrainingsByClubWeek(Long clubId, LocalDateTime startTime) {
+        Cache c = cacheManager.getCache("trainingsByClubWeek");
+        if (c != null) c.evictIfPresent(weekKey(clubId, weekOf(startTime)));
     }
 
     private void evictTrainingById(Long trainingId) {
@@ -0,0 +1,37 @@
+package com.karate.training_service.infrastructure.jwt;
+
+import com.karate.training_service.domain.service.IdentityContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the authenticated caller to the request's {@link IdentityContext}; runs right after
+ * {@link JwtAuthTokenFilter}.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdentityContextFilter extends OncePerRequestFilter {
+    private final ObjectProvider<IdentityContext> identityContext;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        IdentityContext identity = identityContext.getIfAvailable();
+        if (identity != null && authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            identity.bind(authentication);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
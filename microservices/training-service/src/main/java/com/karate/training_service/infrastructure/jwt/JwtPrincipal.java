@@ -0,0 +1,15 @@
+package com.karate.training_service.infrastructure.jwt;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+public record JwtPrincipal(
+        String username,
+        Long userId,
+        Long clubId
+) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     public static final String ADMIN = "ADMIN";
     private final JwtAuthTokenFilter jwtAuthTokenFilter;
+    private final IdentityContextFilter identityContextFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
@@ -32,6 +33,7 @@ public class SecurityConfig {
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/trainings").hasAnyRole("USER", ADMIN)
                         .requestMatchers("/trainings/create").hasRole(ADMIN)
+                        .requestMatchers("/trainings/series/**").hasRole(ADMIN)
                         .requestMatchers("/trainings/{id}").hasRole(ADMIN)
                         .requestMatchers("/internal/trainings/**").permitAll()
                         .anyRequest().authenticated()
@@ -39,6 +41,7 @@ public class SecurityConfig {
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .httpBasic(Customizer.withDefaults())
                 .addFilterBefore(jwtAuthTokenFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(identityContextFilter, JwtAuthTokenFilter.class)
                 .build();
     }
 }
@@ -0,0 +1,71 @@
+package com.karate.training_service.infrastructure.messaging;
+
+import com.karate.outbox.OutboxPublisher;
+import com.karate.training_service.domain.model.TrainingSessionEntity;
+import com.karate.training_service.infrastructure.messaging.dto.TrainingSessionEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Publishes training session snapshots keyed by session id, so consumers keeping a local copy
+ * see every change of one session in order.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainingEventPublisher {
+
+    @Value("${topics.training-sessions}")
+    private String trainingSessionsTopic;
+    private final OutboxPublisher outbox;
+
+    public void publishTrainingCreated(TrainingSessionEntity training) {
+        publish("TRAINING_CREATED", training);
+    }
+
+    public void publishTrainingDeleted(TrainingSessionEntity training) {
+        publish("TRAINING_DELETED", training);
+    }
+
+    public void publishTrainingsCreated(List<TrainingSessionEntity> trainings) {
+        publishAll("TRAINING_CREATED", trainings);
+    }
+
+    public void publishTrainingsUpdated(List<TrainingSessionEntity> trainings) {
+        publishAll("TRAINING_UPDATED", trainings);
+    }
+
+    public void publishTrainingsDeleted(List<TrainingSessionEntity> trainings) {
+        publishAll("TRAINING_DELETED", trainings);
+    }
+
+    private void publish(String eventType, TrainingSessionEntity training) {
+        outbox.publish(trainingSessionsTopic, String.valueOf(training.getTrainingSessionId()), event(eventType, training));
+    }
+
+    private void publishAll(String eventType, List<TrainingSessionEntity> trainings) {
+        Map<String, TrainingSessionEvent> events = new LinkedHashMap<>();
+        trainings.forEach(t -> events.put(String.valueOf(t.getTrainingSessionId()), event(eventType, t)));
+        outbox.publishAll(trainingSessionsTopic, events);
+    }
+
+    private static TrainingSessionEvent event(String eventType, TrainingSessionEntity training) {
+        return new TrainingSessionEvent(
+                UUID.randomUUID().toString(),
+                eventType,
+                Instant.now(),
+                training.getTrainingSessionId(),
+                training.getClubId(),
+                training.getStartTime(),
+                training.getEndTime(),
+                training.getDescription(),
+                training.getCapacity()
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.karate.training_service.infrastructure.messaging.dto;
+
+import java.time.Instant;
+
+public record UserDeletedEvent(
+        String eventId,
+        String eventType,
+        Instant timestamp,
+        Long userId
+) {
+}
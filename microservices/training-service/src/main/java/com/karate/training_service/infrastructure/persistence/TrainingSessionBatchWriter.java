@@ -0,0 +1,34 @@
+package com.karate.training_service.infrastructure.persistence;
+
+import com.karate.training_service.domain.model.TrainingSessionEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts many sessions as one JDBC batch. Hibernate cannot batch them because of the
+ * {@code IDENTITY} ids; callers read the generated ids back with one query, e.g. by series.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainingSessionBatchWriter {
+    private static final String INSERT_SQL = "INSERT INTO training_sessions "
+            + "(start_time, end_time, description, club_id, capacity, series_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+
+    public void insertAll(List<TrainingSessionEntity> sessions) {
+        jdbc.batchUpdate(INSERT_SQL, sessions.stream()
+                .map(s -> new Object[]{
+                        Timestamp.valueOf(s.getStartTime()),
+                        Timestamp.valueOf(s.getEndTime()),
+                        s.getDescription(),
+                        s.getClubId(),
+                        s.getCapacity(),
+                        s.getSeriesId()})
+                .toList());
+    }
+}
@@ -14,6 +14,7 @@ public class TrainingSessionMapper {
                 .startTime(trainingSessionEntity.getStartTime())
                 .endTime(trainingSessionEntity.getEndTime())
                 .description(trainingSessionEntity.getDescription())
+                .capacity(trainingSessionEntity.getCapacity())
                 .build();
     }
 }
@@ -0,0 +1,116 @@
+package com.karate.training_service.infrastructure.redis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk access to caches that {@code @Cacheable} or {@link org.springframework.cache.Cache} fill one
+ * key at a time ({@code trainingById}, {@code trainingExists}, {@code trainingsByClubWeek}): reads
+ * are a single MGET and writes one pipelined round trip. Keys, values and TTLs come from the cache's own configuration, so entries are
+ * interchangeable with those of the annotated methods. Redis errors are treated as misses.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrainingBatchCache {
+
+    private final CacheManager cacheManager;
+    private final RedisConnectionFactory connectionFactory;
+
+    /**
+     * @return the cached entries among {@code keys}, typed by the cache's value serializer; missing
+     * keys are left out
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> getAll(String cacheName, List<K> keys) {
+        RedisCache cache = redisCache(cacheName);
+        Map<K, V> found = new HashMap<>();
+        if (cache == null || keys.isEmpty()) {
+            return found;
+        }
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        byte[][] rawKeys = keys.stream().map(key -> key(config, cacheName, key)).toArray(byte[][]::new);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            List<byte[]> values = connection.stringCommands().mGet(rawKeys);
+            for (int i = 0; values != null && i < keys.size(); i++) {
+                byte[] value = values.get(i);
+                if (value != null) {
+                    found.put(keys.get(i), (V) config.getValueSerializationPair().read(ByteBuffer.wrap(value)));
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Cache multi-get failed cache={} keys={} reason={}", cacheName, keys.size(), ex.toString());
+        }
+        return found;
+    }
+
+    public void putAll(String cacheName, Map<?, ?> values) {
+        RedisCache cache = redisCache(cacheName);
+        if (cache == null || values.isEmpty()) {
+            return;
+        }
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            values.forEach((key, value) -> {
+                Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                connection.stringCommands().set(
+                        key(config, cacheName, key),
+                        ByteUtils.getBytes(config.getValueSerializationPair().write(value)),
+                        ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                        RedisStringCommands.SetOption.upsert());
+            });
+            connection.closePipeline();
+        } catch (RuntimeException ex) {
+            log.warn("Cache pipelined put failed cache={} keys={} reason={}", cacheName, values.size(), ex.toString());
+        }
+    }
+
+    /**
+     * Drops all {@code keys} with a single DEL; other cache implementations evict key by key.
+     */
+    public void evictAll(String cacheName, Collection<?> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || keys.isEmpty()) {
+            return;
+        }
+        if (!(cache instanceof RedisCache redisCache)) {
+            keys.forEach(cache::evict);
+            return;
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        byte[][] rawKeys = keys.stream().map(key -> key(config, cacheName, key)).toArray(byte[][]::new);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(rawKeys);
+        } catch (RuntimeException ex) {
+            log.warn("Cache multi-evict failed cache={} keys={} reason={}", cacheName, keys.size(), ex.toString());
+        }
+    }
+
+    private RedisCache redisCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache instanceof RedisCache redisCache ? redisCache : null;
+    }
+
+    // same form as RedisCache's own keys for Long and String keys: prefix + key.toString()
+    private static byte[] key(RedisCacheConfiguration config, String cacheName, Object key) {
+        return ByteUtils.getBytes(config.getKeySerializationPair().write(config.getKeyPrefixFor(cacheName) + key));
+    }
+}
@@ -61,7 +61,7 @@ public class TrainingRedisCacheConfig {
 
         Map<String, RedisCacheConfiguration> per = new HashMap<>();
 
-        per.put("trainingsByClub", def.serializeValuesWith(
+        per.put("trainingsByClubWeek", def.serializeValuesWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(listSer))
                 .entryTtl(Duration.ofMinutes(10)));
 
@@ -0,0 +1,2 @@
+ALTER TABLE training_sessions
+    ADD COLUMN capacity INT CHECK (capacity > 0);
@@ -0,0 +1,2 @@
+-- serves the schedule query (club_id = ? AND start_time in [from, to) ORDER BY start_time)
+CREATE INDEX IF NOT EXISTS idx_training_sessions_club_start ON training_sessions (club_id, start_time);
@@ -0,0 +1,19 @@
+CREATE TABLE training_series
+(
+    series_id   BIGSERIAL PRIMARY KEY,
+    club_id     BIGINT      NOT NULL,
+    description TEXT        NOT NULL,
+    recurrence  VARCHAR(16) NOT NULL,
+    first_date  DATE        NOT NULL,
+    last_date   DATE        NOT NULL,
+    start_time  TIME        NOT NULL,
+    end_time    TIME        NOT NULL,
+    capacity    INT CHECK (capacity > 0),
+    created_at  TIMESTAMP   NOT NULL
+);
+
+ALTER TABLE training_sessions
+    ADD COLUMN series_id BIGINT REFERENCES training_series (series_id);
+
+-- serves the series edit/delete statements (series_id = ? AND start_time >= ?)
+CREATE INDEX IF NOT EXISTS idx_training_sessions_series_start ON training_sessions (series_id, start_time);
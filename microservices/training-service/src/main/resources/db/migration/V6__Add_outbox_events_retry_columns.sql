@@ -0,0 +1,3 @@
+-- Claim lease / retry backoff and the parked state of rows the relay gave up on.
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP WITH TIME ZONE;
@@ -15,11 +15,15 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = InternalTrainingController.class)
@@ -83,4 +87,29 @@ class InternalTrainingControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message", containsString("not found")));
     }
+
+    @Test
+    void existsBatch_returnsFlagPerId() throws Exception {
+        // given
+        when(service.checkTrainingsExist(List.of(1L, 2L))).thenReturn(Map.of(1L, true, 2L, false));
+
+        // when && then
+        mvc.perform(post("/internal/trainings/exists").contentType(APPLICATION_JSON).content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.1").value(true))
+                .andExpect(jsonPath("$.2").value(false));
+    }
+
+    @Test
+    void getByIds_returnsFoundTrainings() throws Exception {
+        // given
+        var dto = TrainingSessionDto.builder().trainingSessionId(7L).description("d").build();
+        when(service.getTrainingsByIds(List.of(7L, 8L))).thenReturn(List.of(dto));
+
+        // when && then
+        mvc.perform(post("/internal/trainings/by-ids").contentType(APPLICATION_JSON).content("[7,8]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].trainingSessionId").value(7));
+    }
 }
@@ -54,7 +54,7 @@ class TrainingRESTControllerTest {
                 .endTime(LocalDateTime.parse("2025-01-01T11:00:00"))
                 .description("x")
                 .build();
-        when(service.getAllTrainingSessionsForCurrentUserClub()).thenReturn(List.of(dto));
+        when(service.getSchedule(null, null)).thenReturn(List.of(dto));
 
         mvc.perform(get("/trainings"))
                 .andExpect(status().isOk())
@@ -62,6 +62,28 @@ class TrainingRESTControllerTest {
                 .andExpect(jsonPath("$[0].trainingSessionId").value(1));
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAll_passesRangeParams() throws Exception {
+        when(service.getSchedule(LocalDateTime.parse("2025-01-01T00:00:00"), LocalDateTime.parse("2025-02-01T00:00:00")))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/trainings")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("to", "2025-02-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getAll_invalidRange_400() throws Exception {
+        when(service.getSchedule(any(), any())).thenThrow(new InvalidTrainingTimeRangeException("'to' must be after 'from'"));
+
+        mvc.perform(get("/trainings").param("from", "2025-02-01T00:00:00").param("to", "2025-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void create_created_201() throws Exception {
@@ -100,6 +122,25 @@ class TrainingRESTControllerTest {
                 .andExpect(jsonPath("$.errors[*].field", containsInAnyOrder("startTime", "endTime", "description")));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void create_validation_400_whenCapacityNotPositive() throws Exception {
+        var req = new TrainingSessionRequestDto(
+                LocalDateTime.parse("2025-01-01T10:00:00"),
+                LocalDateTime.parse("2025-01-01T11:00:00"),
+                "ok",
+                0
+        );
+
+        mvc.perform(post("/trainings/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].field").value("capacity"));
+        Mockito.verifyNoInteractions(service);
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void create_malformedBody_400() throws Exception {
@@ -0,0 +1,72 @@
+package com.karate.training_service.unit.controller;
+
+import com.karate.training_service.api.controller.rest.TrainingSeriesRESTController;
+import com.karate.training_service.api.dto.TrainingSeriesDto;
+import com.karate.training_service.api.exception.GlobalExceptionHandler;
+import com.karate.training_service.domain.exception.TrainingSessionNotFoundException;
+import com.karate.training_service.domain.service.TrainingSeriesService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = TrainingSeriesRESTController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(GlobalExceptionHandler.class)
+class TrainingSeriesRESTControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockitoBean
+    TrainingSeriesService service;
+
+    @Test
+    void create_created_201() throws Exception {
+        when(service.createSeries(any())).thenReturn(new TrainingSeriesDto(3L, List.of()));
+
+        mvc.perform(post("/trainings/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstDate":"2030-01-07","lastDate":"2030-03-11","startTime":"18:00","endTime":"19:30",
+                                 "recurrence":"WEEKLY","exceptions":["2030-02-04"],"description":"kata","capacity":20}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.seriesId").value(3));
+    }
+
+    @Test
+    void create_missingRecurrence_400() throws Exception {
+        mvc.perform(post("/trainings/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstDate":"2030-01-07","lastDate":"2030-03-11","startTime":"18:00","endTime":"19:30",
+                                 "description":"kata"}
+                                """))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void delete_notFound_404() throws Exception {
+        doThrow(new TrainingSessionNotFoundException("Training series not found")).when(service).deleteSeries(9L);
+
+        mvc.perform(delete("/trainings/series/{id}", 9L))
+                .andExpect(status().isNotFound());
+    }
+}
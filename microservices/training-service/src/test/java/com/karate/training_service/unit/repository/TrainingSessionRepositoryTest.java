@@ -65,6 +65,26 @@ class TrainingSessionRepositoryTest {
                 .containsExactlyInAnyOrder("a", "c");
     }
 
+    @Test
+    void findSchedule_returnsClubSessionsStartingInWindow_inStartOrder() {
+        // given
+        TrainingSessionEntity late = entity(1L, "late");
+        late.setStartTime(LocalDateTime.of(2025, 1, 20, 18, 0));
+        TrainingSessionEntity outside = entity(1L, "outside");
+        outside.setStartTime(LocalDateTime.of(2025, 2, 1, 10, 0));
+        TrainingSessionEntity otherClub = entity(2L, "other club");
+        otherClub.setStartTime(LocalDateTime.of(2025, 1, 10, 10, 0));
+        repo.saveAll(List.of(late, outside, otherClub, entity(1L, "early")));
+
+        // when
+        List<TrainingSessionEntity> list = repo.findSchedule(1L,
+                LocalDateTime.of(2025, 1, 1, 10, 0), LocalDateTime.of(2025, 2, 1, 10, 0));
+
+        // then
+        assertThat(list).extracting(TrainingSessionEntity::getDescription)
+                .containsExactly("early", "late");
+    }
+
     @Test
     void existsById_trueFalse() {
         // given
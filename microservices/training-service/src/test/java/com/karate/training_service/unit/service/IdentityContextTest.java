@@ -0,0 +1,87 @@
+package com.karate.training_service.unit.service;
+
+import com.karate.training_service.domain.exception.AuthenticationMissingException;
+import com.karate.training_service.domain.service.IdentityContext;
+import com.karate.training_service.domain.service.UpstreamGateway;
+import com.karate.training_service.infrastructure.jwt.IdentityContextFilter;
+import com.karate.training_service.infrastructure.jwt.JwtPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdentityContextTest {
+
+    @Mock
+    UpstreamGateway upstream;
+
+    @Mock
+    ObjectProvider<IdentityContext> identityProvider;
+
+    @AfterEach
+    void clearAuth() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private IdentityContext runRequest(UsernamePasswordAuthenticationToken authentication, int clubIdReads) throws Exception {
+        IdentityContext identity = new IdentityContext(upstream);
+        when(identityProvider.getIfAvailable()).thenReturn(identity);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        new IdentityContextFilter(identityProvider).doFilter(
+                new MockHttpServletRequest("GET", "/trainings"),
+                new MockHttpServletResponse(),
+                (req, res) -> {
+                    // cache key, service method and eviction all ask for the club
+                    for (int i = 0; i < clubIdReads; i++) {
+                        assertThat(identity.clubId()).isEqualTo(42L);
+                    }
+                });
+        return identity;
+    }
+
+    @Test
+    void tokenWithoutClubClaim_resolvesClubOncePerRequest() throws Exception {
+        // given
+        when(upstream.getUserClubId("john")).thenReturn(42L);
+
+        // when
+        runRequest(new UsernamePasswordAuthenticationToken(new JwtPrincipal("john", 5L, null), null, List.of()), 3);
+
+        // then
+        verify(upstream, times(1)).getUserClubId("john");
+    }
+
+    @Test
+    void tokenWithClubClaim_neverCallsUpstream() throws Exception {
+        // when
+        IdentityContext identity = runRequest(
+                new UsernamePasswordAuthenticationToken(new JwtPrincipal("john", 5L, 42L), null, List.of()), 3);
+
+        // then
+        assertThat(identity.userId()).isEqualTo(5L);
+        verifyNoInteractions(upstream);
+    }
+
+    @Test
+    void unboundContext_throws401() {
+        // given
+        IdentityContext identity = new IdentityContext(upstream);
+
+        // when && then
+        assertThatThrownBy(identity::clubId).isInstanceOf(AuthenticationMissingException.class);
+        verifyNoInteractions(upstream);
+    }
+}
@@ -0,0 +1,200 @@
+package com.karate.training_service.unit.service;
+
+import com.karate.training_service.api.dto.TrainingSeriesDto;
+import com.karate.training_service.api.dto.TrainingSeriesRequestDto;
+import com.karate.training_service.api.dto.TrainingSeriesUpdateDto;
+import com.karate.training_service.api.dto.TrainingSessionDto;
+import com.karate.training_service.domain.exception.InvalidTrainingTimeRangeException;
+import com.karate.training_service.domain.exception.TrainingSessionClubMismatchException;
+import com.karate.training_service.domain.model.Recurrence;
+import com.karate.training_service.domain.model.TrainingSessionEntity;
+import com.karate.training_service.domain.repository.TrainingSeriesRepository;
+import com.karate.training_service.domain.repository.TrainingSessionRepository;
+import com.karate.training_service.domain.service.IdentityContext;
+import com.karate.training_service.domain.service.TrainingSeriesService;
+import com.karate.training_service.infrastructure.messaging.TrainingEventPublisher;
+import com.karate.training_service.infrastructure.persistence.TrainingSessionBatchWriter;
+import com.karate.training_service.infrastructure.redis.TrainingBatchCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs series generation and the set-based edit/delete against a real database; events and cache
+ * evictions are only counted.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Import({TrainingSeriesService.class, TrainingSessionBatchWriter.class})
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import="
+})
+class TrainingSeriesServiceTest {
+
+    @Autowired
+    TrainingSeriesService service;
+    @Autowired
+    TrainingSessionRepository sessions;
+    @Autowired
+    TrainingSeriesRepository series;
+
+    @MockitoBean
+    TrainingEventPublisher trainingEventPublisher;
+    @MockitoBean
+    TrainingBatchCache batchCache;
+    @MockitoBean
+    IdentityContext identity;
+
+    @BeforeEach
+    void setUp() {
+        when(identity.clubId()).thenReturn(7L);
+    }
+
+    private static TrainingSeriesRequestDto weekly(LocalDate first, LocalDate last, List<LocalDate> exceptions) {
+        return TrainingSeriesRequestDto.builder()
+                .firstDate(first)
+                .lastDate(last)
+                .startTime(LocalTime.of(18, 0))
+                .endTime(LocalTime.of(19, 30))
+                .recurrence(Recurrence.WEEKLY)
+                .exceptions(exceptions)
+                .description("kata")
+                .capacity(20)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createSeries_insertsEveryOccurrenceButExceptions_andEvictsOnce() {
+        // given: 10 Mondays, one of them a holiday
+        LocalDate first = LocalDate.of(2030, 1, 7);
+        var dto = weekly(first, first.plusWeeks(9), List.of(first.plusWeeks(3)));
+
+        // when
+        TrainingSeriesDto result = service.createSeries(dto);
+
+        // then
+        assertThat(result.sessions()).hasSize(9);
+        assertThat(result.sessions()).extracting(TrainingSessionDto::startTime)
+                .doesNotContain(first.plusWeeks(3).atTime(18, 0))
+                .startsWith(first.atTime(18, 0));
+        assertThat(sessions.findAllBySeriesIdOrderByStartTime(result.seriesId()))
+                .allSatisfy(s -> {
+                    assertThat(s.getClubId()).isEqualTo(7L);
+                    assertThat(s.getCapacity()).isEqualTo(20);
+                    assertThat(s.getEndTime()).isEqualTo(s.getStartTime().plusMinutes(90));
+                });
+        ArgumentCaptor<List<TrainingSessionEntity>> published = ArgumentCaptor.forClass(List.class);
+        verify(trainingEventPublisher).publishTrainingsCreated(published.capture());
+        assertThat(published.getValue()).hasSize(9);
+        ArgumentCaptor<Collection<Object>> weeks = ArgumentCaptor.forClass(Collection.class);
+        verify(batchCache).evictAll(eq("trainingsByClubWeek"), weeks.capture());
+        assertThat(weeks.getValue()).hasSize(9).contains("7:2030-01-07");
+        verify(batchCache, times(1)).evictAll(eq("trainingExists"), anyCollection());
+    }
+
+    @Test
+    void createSeries_biweekly_skipsEveryOtherWeek() {
+        // given
+        LocalDate first = LocalDate.of(2030, 1, 7);
+        var dto = TrainingSeriesRequestDto.builder()
+                .firstDate(first).lastDate(first.plusWeeks(9))
+                .startTime(LocalTime.of(10, 0)).endTime(LocalTime.of(11, 0))
+                .recurrence(Recurrence.BIWEEKLY).description("kumite").build();
+
+        // when
+        TrainingSeriesDto result = service.createSeries(dto);
+
+        // then
+        assertThat(result.sessions()).extracting(TrainingSessionDto::startTime).containsExactly(
+                first.atTime(10, 0), first.plusWeeks(2).atTime(10, 0), first.plusWeeks(4).atTime(10, 0),
+                first.plusWeeks(6).atTime(10, 0), first.plusWeeks(8).atTime(10, 0));
+    }
+
+    @Test
+    void createSeries_rejectsTooManySessions() {
+        // given
+        LocalDate first = LocalDate.of(2030, 1, 7);
+
+        // when && then
+        assertThatThrownBy(() -> service.createSeries(weekly(first, first.plusYears(10), List.of())))
+                .isInstanceOf(InvalidTrainingTimeRangeException.class);
+        assertThat(series.count()).isZero();
+    }
+
+    @Test
+    void updateSeries_changesOnlyUpcomingSessions() {
+        // given: four past and four upcoming weeks
+        LocalDate today = LocalDate.now();
+        Long seriesId = service.createSeries(weekly(today.minusWeeks(4), today.plusWeeks(4), List.of())).seriesId();
+        LocalDateTime now = LocalDateTime.now();
+
+        // when
+        TrainingSeriesDto result = service.updateSeries(seriesId, new TrainingSeriesUpdateDto("kata advanced", null));
+
+        // then
+        assertThat(result.sessions()).isNotEmpty().allSatisfy(s -> assertThat(s.startTime()).isAfterOrEqualTo(now));
+        assertThat(sessions.findAllBySeriesIdOrderByStartTime(seriesId)).allSatisfy(s -> {
+            boolean upcoming = !s.getStartTime().isBefore(now);
+            assertThat(s.getDescription()).isEqualTo(upcoming ? "kata advanced" : "kata");
+            assertThat(s.getCapacity()).isEqualTo(upcoming ? null : 20);
+        });
+        assertThat(series.findById(seriesId)).get().extracting(s -> s.getDescription()).isEqualTo("kata advanced");
+        verify(trainingEventPublisher).publishTrainingsUpdated(anyList());
+    }
+
+    @Test
+    void deleteSeries_keepsPastSessions_andDropsSeriesWhenNothingIsLeft() {
+        // given
+        LocalDate today = LocalDate.now();
+        Long started = service.createSeries(weekly(today.minusWeeks(2), today.plusWeeks(2), List.of())).seriesId();
+        Long upcoming = service.createSeries(weekly(today.plusWeeks(1), today.plusWeeks(3), List.of())).seriesId();
+
+        // when
+        service.deleteSeries(started);
+        service.deleteSeries(upcoming);
+
+        // then
+        assertThat(sessions.findAllBySeriesIdOrderByStartTime(started))
+                .isNotEmpty()
+                .allSatisfy(s -> assertThat(s.getStartTime()).isBefore(LocalDateTime.now()));
+        assertThat(series.existsById(started)).isTrue();
+        assertThat(sessions.existsBySeriesId(upcoming)).isFalse();
+        assertThat(series.existsById(upcoming)).isFalse();
+        verify(trainingEventPublisher, times(2)).publishTrainingsDeleted(anyList());
+    }
+
+    @Test
+    void deleteSeries_ofAnotherClub_throws403() {
+        // given
+        LocalDate first = LocalDate.of(2030, 1, 7);
+        Long seriesId = service.createSeries(weekly(first, first.plusWeeks(1), List.of())).seriesId();
+        when(identity.clubId()).thenReturn(8L);
+
+        // when && then
+        assertThatThrownBy(() -> service.deleteSeries(seriesId))
+                .isInstanceOf(TrainingSessionClubMismatchException.class);
+        assertThat(sessions.existsBySeriesId(seriesId)).isTrue();
+    }
+}
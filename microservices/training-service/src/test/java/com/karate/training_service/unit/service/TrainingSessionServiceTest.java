@@ -9,9 +9,9 @@ import com.karate.training_service.domain.exception.TrainingSessionNotFoundExcep
 import com.karate.training_service.domain.model.TrainingSessionEntity;
 import com.karate.training_service.domain.repository.TrainingSessionRepository;
 import com.karate.training_service.domain.service.TrainingSessionService;
-import com.karate.training_service.domain.service.UpstreamGateway;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
+import com.karate.training_service.domain.service.IdentityContext;
+import com.karate.training_service.infrastructure.messaging.TrainingEventPublisher;
+import com.karate.training_service.infrastructure.redis.TrainingBatchCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -19,11 +19,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.CacheManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,76 +36,106 @@ class TrainingSessionServiceTest {
     TrainingSessionRepository repo;
 
     @Mock
-    UpstreamGateway upstream;
+    IdentityContext identity;
 
     @Mock
     CacheManager cacheManager;
 
+    @Mock
+    TrainingEventPublisher trainingEventPublisher;
+
+    @Mock
+    TrainingBatchCache batchCache;
+
     @InjectMocks
     TrainingSessionService service;
 
-    @BeforeEach
-    void setUpAuth() {
-        SecurityContextHolder.getContext().setAuthentication(
-                new UsernamePasswordAuthenticationToken("john", "N/A")
-        );
-    }
-
-    @AfterEach
-    void clearAuth() {
-        SecurityContextHolder.clearContext();
+    private static TrainingSessionEntity session(Long id, LocalDateTime start, String desc) {
+        TrainingSessionEntity e = new TrainingSessionEntity();
+        e.setTrainingSessionId(id);
+        e.setStartTime(start);
+        e.setEndTime(start.plusHours(1));
+        e.setDescription(desc);
+        e.setClubId(42L);
+        return e;
     }
 
     @Test
-    void getAllTrainingSessionsForCurrentUserClub_returnsMappedDtos() {
-        // given
-        when(upstream.getUserClubId("john")).thenReturn(42L);
+    @SuppressWarnings("unchecked")
+    void getSchedule_loadsMissingWeeksWithOneQuery_andFiltersToRange() {
+        // given: Wed 2025-01-08 .. Wed 2025-01-22 spans the weeks of 01-06, 01-13 and 01-20
+        when(identity.clubId()).thenReturn(42L);
+        TrainingSessionDto cached = TrainingSessionDto.builder()
+                .trainingSessionId(9L).startTime(LocalDateTime.of(2025, 1, 14, 18, 0)).description("cached").build();
+        when(batchCache.<String, List<TrainingSessionDto>>getAll("trainingsByClubWeek", List.of("42:2025-01-06", "42:2025-01-13", "42:2025-01-20")))
+                .thenReturn(Map.of("42:2025-01-13", List.of(cached)));
+        when(repo.findSchedule(42L, LocalDateTime.of(2025, 1, 6, 0, 0), LocalDateTime.of(2025, 1, 27, 0, 0)))
+                .thenReturn(List.of(
+                        session(1L, LocalDateTime.of(2025, 1, 7, 18, 0), "before range"),
+                        session(2L, LocalDateTime.of(2025, 1, 9, 18, 0), "a"),
+                        session(3L, LocalDateTime.of(2025, 1, 21, 18, 0), "b"),
+                        session(4L, LocalDateTime.of(2025, 1, 23, 18, 0), "after range")));
 
-        TrainingSessionEntity e1 = new TrainingSessionEntity();
-        e1.setTrainingSessionId(1L);
-        e1.setStartTime(LocalDateTime.now());
-        e1.setEndTime(LocalDateTime.now().plusHours(1));
-        e1.setDescription("a");
-        e1.setClubId(42L);
+        // when
+        List<TrainingSessionDto> out = service.getSchedule(
+                LocalDateTime.of(2025, 1, 8, 0, 0), LocalDateTime.of(2025, 1, 22, 0, 0));
 
-        TrainingSessionEntity e2 = new TrainingSessionEntity();
-        e2.setTrainingSessionId(2L);
-        e2.setStartTime(LocalDateTime.now());
-        e2.setEndTime(LocalDateTime.now().plusHours(2));
-        e2.setDescription("b");
-        e2.setClubId(42L);
+        // then
+        assertThat(out).extracting(TrainingSessionDto::description).containsExactly("a", "cached", "b");
+        ArgumentCaptor<Map<String, List<TrainingSessionDto>>> written = ArgumentCaptor.forClass(Map.class);
+        verify(batchCache).putAll(eq("trainingsByClubWeek"), written.capture());
+        assertThat(written.getValue()).containsOnlyKeys("42:2025-01-06", "42:2025-01-20");
+        assertThat(written.getValue().get("42:2025-01-20")).extracting(TrainingSessionDto::description)
+                .containsExactly("b", "after range");
+    }
 
-        when(repo.findAllByClubId(42L)).thenReturn(List.of(e1, e2));
+    @Test
+    void getSchedule_defaultsToUpcomingSessions() {
+        // given
+        when(identity.clubId()).thenReturn(42L);
+        when(repo.findSchedule(eq(42L), any(), any())).thenReturn(List.of(
+                session(1L, LocalDateTime.now().minusDays(1), "past"),
+                session(2L, LocalDateTime.now().plusDays(1), "upcoming")));
 
         // when
-        List<TrainingSessionDto> out = service.getAllTrainingSessionsForCurrentUserClub();
+        List<TrainingSessionDto> out = service.getSchedule(null, null);
 
         // then
-        assertThat(out).hasSize(2);
-        assertThat(out.get(0).description()).isEqualTo("a");
-        verify(upstream).getUserClubId("john");
-        verify(repo).findAllByClubId(42L);
+        assertThat(out).extracting(TrainingSessionDto::description).containsExactly("upcoming");
+    }
+
+    @Test
+    void getSchedule_rejectsInvalidOrTooLongRange() {
+        // given
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        // when && then
+        assertThatThrownBy(() -> service.getSchedule(from, from))
+                .isInstanceOf(InvalidTrainingTimeRangeException.class);
+        assertThatThrownBy(() -> service.getSchedule(from, from.plusYears(2)))
+                .isInstanceOf(InvalidTrainingTimeRangeException.class);
+        verifyNoInteractions(identity, repo);
     }
 
     @Test
-    void getAllTrainingSessionsForCurrentUserClub_noAuth_throws401() {
+    void getSchedule_noAuth_throws401() {
         // given
-        SecurityContextHolder.clearContext();
+        when(identity.clubId()).thenThrow(new AuthenticationMissingException("No authenticated user found"));
 
         // when && then
-        assertThatThrownBy(() -> service.getAllTrainingSessionsForCurrentUserClub())
+        assertThatThrownBy(() -> service.getSchedule(null, null))
                 .isInstanceOf(AuthenticationMissingException.class);
 
-        verifyNoInteractions(upstream, repo);
+        verifyNoInteractions(repo);
     }
 
     @Test
     void createTrainingSession_ok_persistsWithClubId() {
         // given
-        when(upstream.getUserClubId("john")).thenReturn(7L);
+        when(identity.clubId()).thenReturn(7L);
         LocalDateTime s = LocalDateTime.of(2025, 1, 1, 10, 0);
         LocalDateTime e = s.plusHours(1);
-        TrainingSessionRequestDto in = new TrainingSessionRequestDto(s, e, "desc");
+        TrainingSessionRequestDto in = new TrainingSessionRequestDto(s, e, "desc", 12);
 
         TrainingSessionEntity saved = new TrainingSessionEntity();
         saved.setTrainingSessionId(99L);
@@ -124,10 +153,12 @@ class TrainingSessionServiceTest {
         // then
         assertThat(dto.trainingSessionId()).isEqualTo(99L);
         assertThat(dto.description()).isEqualTo("desc");
-        verify(upstream).getUserClubId("john");
+        verify(identity).clubId();
         ArgumentCaptor<TrainingSessionEntity> cap = ArgumentCaptor.forClass(TrainingSessionEntity.class);
         verify(repo).save(cap.capture());
         assertThat(cap.getValue().getClubId()).isEqualTo(7L);
+        assertThat(cap.getValue().getCapacity()).isEqualTo(12);
+        verify(trainingEventPublisher).publishTrainingCreated(saved);
     }
 
     @Test
@@ -141,13 +172,13 @@ class TrainingSessionServiceTest {
         assertThatThrownBy(() -> service.createTrainingSession(in))
                 .isInstanceOf(InvalidTrainingTimeRangeException.class);
 
-        verifyNoInteractions(upstream, repo);
+        verifyNoInteractions(identity, repo, trainingEventPublisher);
     }
 
     @Test
     void deleteTrainingSession_ok_sameClub_deletes() {
         // given
-        when(upstream.getUserClubId("john")).thenReturn(10L);
+        when(identity.clubId()).thenReturn(10L);
         TrainingSessionEntity ent = new TrainingSessionEntity();
         ent.setTrainingSessionId(5L);
         ent.setClubId(10L);
@@ -162,6 +193,7 @@ class TrainingSessionServiceTest {
 
         // then
         verify(repo).delete(ent);
+        verify(trainingEventPublisher).publishTrainingDeleted(ent);
     }
 
     @Test
@@ -179,7 +211,7 @@ class TrainingSessionServiceTest {
     @Test
     void deleteTrainingSession_clubMismatch_throws403() {
         // given
-        when(upstream.getUserClubId("john")).thenReturn(2L);
+        when(identity.clubId()).thenReturn(2L);
         TrainingSessionEntity ent = new TrainingSessionEntity();
         ent.setTrainingSessionId(5L);
         ent.setClubId(1L);
@@ -192,6 +224,7 @@ class TrainingSessionServiceTest {
         assertThatThrownBy(() -> service.deleteTrainingSession(5L))
                 .isInstanceOf(TrainingSessionClubMismatchException.class);
         verify(repo, never()).delete(any());
+        verifyNoInteractions(trainingEventPublisher);
     }
 
     @Test
@@ -233,4 +266,46 @@ class TrainingSessionServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Training Session not found");
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getTrainingsByIds_loadsOnlyCacheMissesAndKeepsRequestOrder() {
+        // given
+        TrainingSessionDto cached = TrainingSessionDto.builder().trainingSessionId(1L).description("cached").build();
+        TrainingSessionEntity ent = new TrainingSessionEntity();
+        ent.setTrainingSessionId(3L);
+        ent.setStartTime(LocalDateTime.now());
+        ent.setEndTime(LocalDateTime.now().plusHours(1));
+        ent.setDescription("loaded");
+        ent.setClubId(1L);
+        when(batchCache.<Long, TrainingSessionDto>getAll("trainingById", List.of(3L, 1L, 404L)))
+                .thenReturn(Map.of(1L, cached));
+        when(repo.findAllById(List.of(3L, 404L))).thenReturn(List.of(ent));
+
+        // when
+        List<TrainingSessionDto> result = service.getTrainingsByIds(List.of(3L, 1L, 3L, 404L));
+
+        // then
+        assertThat(result).extracting(TrainingSessionDto::trainingSessionId).containsExactly(3L, 1L);
+        ArgumentCaptor<Map<Long, TrainingSessionDto>> written = ArgumentCaptor.forClass(Map.class);
+        verify(batchCache).putAll(eq("trainingById"), written.capture());
+        assertThat(written.getValue()).containsOnlyKeys(3L);
+        verify(repo, never()).findById(anyLong());
+    }
+
+    @Test
+    void checkTrainingsExist_answersEveryIdWithOneQuery() {
+        // given
+        when(batchCache.<Long, Boolean>getAll("trainingExists", List.of(1L, 2L, 3L)))
+                .thenReturn(Map.of(1L, true));
+        when(repo.findExistingIds(List.of(2L, 3L))).thenReturn(List.of(3L));
+
+        // when
+        Map<Long, Boolean> result = service.checkTrainingsExist(List.of(1L, 2L, 3L));
+
+        // then
+        assertThat(result).containsExactly(Map.entry(1L, true), Map.entry(2L, false), Map.entry(3L, true));
+        verify(batchCache).putAll("trainingExists", Map.of(2L, false, 3L, true));
+        verify(repo, never()).existsById(anyLong());
+    }
 }
@@ -0,0 +1,97 @@
+package com.karate.userservice.jmh;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.karate.userservice.infrastructure.jwt.JwtAuthTokenFilter;
+import com.karate.userservice.infrastructure.jwt.JwtConfigurationProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Filter throughput for a working set of {@link #TOKENS} distinct bearer tokens.
+ * {@code perRequestRebuild} is the filter as it was before verifier reuse and the
+ * verified-token cache; {@code sharedVerifier} isolates the verifier reuse alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtAuthTokenFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-at-least-32-chars";
+    private static final int TOKENS = 256;
+
+    private String[] headers;
+    private JwtAuthTokenFilter filter;
+    private JWTVerifier sharedVerifier;
+
+    @Setup
+    public void setUp() {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        headers = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            headers[i] = JwtAuthTokenFilter.BEARER + JWT.create()
+                    .withSubject("user-" + i)
+                    .withClaim("roles", List.of("ROLE_USER"))
+                    .withExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                    .sign(algorithm);
+        }
+        filter = new JwtAuthTokenFilter(new JwtConfigurationProperties(SECRET, 1, "benchmark"));
+        sharedVerifier = JWT.require(algorithm).build();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            next = (next + 1) % TOKENS;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public void perRequestRebuild(Cursor cursor, Blackhole bh) {
+        String token = headers[cursor.advance()];
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        JWTVerifier verifier = JWT.require(algorithm).build();
+        bh.consume(toAuthentication(verifier.verify(token.substring(JwtAuthTokenFilter.BEGIN_INDEX))));
+    }
+
+    @Benchmark
+    public void sharedVerifier(Cursor cursor, Blackhole bh) {
+        String token = headers[cursor.advance()];
+        bh.consume(toAuthentication(sharedVerifier.verify(token.substring(JwtAuthTokenFilter.BEGIN_INDEX))));
+    }
+
+    @Benchmark
+    public void cachingFilter(Cursor cursor, Blackhole bh) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JwtAuthTokenFilter.AUTHORIZATION, headers[cursor.advance()]);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        bh.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    private static UsernamePasswordAuthenticationToken toAuthentication(DecodedJWT decodedJWT) {
+        List<GrantedAuthority> authorities = decodedJWT.getClaim("roles").asList(String.class)
+                .stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+        return new UsernamePasswordAuthenticationToken(decodedJWT.getSubject(), null, authorities);
+    }
+}
@@ -27,6 +27,13 @@ public class InternalUserController {
         return ResponseEntity.ok(userId);
     }
 
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteUnregisteredUser(@PathVariable("id") Long userId) {
+        log.info("DELETE /internal/users/{}", userId);
+        userService.deleteUnregisteredUser(userId);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserInfoDto> getUserById(@PathVariable("id") Long userId) {
         log.info("GET /internal/users/{} ", userId);
@@ -2,7 +2,9 @@ package com.karate.userservice.api.controller.rest;
 
 import com.karate.userservice.api.dto.UpdateUserRequestDto;
 import com.karate.userservice.api.dto.UserFromClubDto;
+import com.karate.userservice.api.dto.UserFromClubPageDto;
 import com.karate.userservice.api.dto.UserInformationDto;
+import com.karate.userservice.domain.model.KarateRank;
 import com.karate.userservice.domain.service.UserService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -35,6 +37,23 @@ public class UserRESTController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/by-club/page")
+    public ResponseEntity<UserFromClubPageDto> getUsersFromClubPage(
+            @RequestParam("clubName") String clubName,
+            @RequestParam(value = "after", required = false) Long afterUserId,
+            @RequestParam(value = "size", defaultValue = "50") int size,
+            @RequestParam(value = "rank", required = false) KarateRank rank,
+            @RequestParam(value = "role", required = false) String role
+    ) {
+        log.info("GET /users/by-club/page clubName={} after={} size={} rank={} role={}",
+                clubName, afterUserId, size, rank, role);
+        long t0 = System.currentTimeMillis();
+        UserFromClubPageDto page = userService.getUsersFromClubPage(clubName, afterUserId, size, rank, role);
+        log.info("200 /users/by-club/page clubName={} size={} next={} took={}ms",
+                clubName, page.items().size(), page.nextCursor(), System.currentTimeMillis() - t0);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/me")
     public ResponseEntity<UserInformationDto> getCurrentUserInfo(Authentication authentication) {
         String username = authentication.getName();
@@ -0,0 +1,9 @@
+package com.karate.userservice.api.dto;
+
+import java.util.List;
+
+public record UserFromClubPageDto(
+        List<UserFromClubDto> items,
+        Long nextCursor
+) {
+}
@@ -0,0 +1,10 @@
+package com.karate.userservice.domain.model.dto;
+
+import com.karate.userservice.domain.model.KarateRank;
+
+public record ClubMemberView(
+        Long userId,
+        String email,
+        KarateRank karateRank
+) {
+}
@@ -1,6 +1,9 @@
 package com.karate.userservice.domain.repository;
 
+import com.karate.userservice.domain.model.KarateRank;
 import com.karate.userservice.domain.model.UserEntity;
+import com.karate.userservice.domain.model.dto.ClubMemberView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -12,6 +15,12 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     List<UserEntity> findAllByKarateClubId(Long karateClubId);
 
+    List<ClubMemberView> findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(
+            Long karateClubId, Long afterUserId, Limit limit);
+
+    List<ClubMemberView> findByKarateClubIdAndKarateRankAndUserIdGreaterThanOrderByUserIdAsc(
+            Long karateClubId, KarateRank karateRank, Long afterUserId, Limit limit);
+
     @EntityGraph(attributePaths = "addressEntity")
     Optional<UserEntity> findWithAddressByUserId(Long userId);
 }
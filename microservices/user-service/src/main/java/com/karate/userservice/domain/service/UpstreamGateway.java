@@ -8,21 +8,34 @@ import com.karate.userservice.infrastructure.client.dto.KarateClubDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class UpstreamGateway {
 
     private final AuthClient authClient;
     private final KarateClubClient clubClient;
+    private final Executor executor;
+
+    /**
+     * @param executor runs the async calls; the application task executor is virtual-thread backed
+     *                 when {@code spring.threads.virtual.enabled} is set and carries the caller's MDC
+     */
+    public UpstreamGateway(AuthClient authClient, KarateClubClient clubClient,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        this.authClient = authClient;
+        this.clubClient = clubClient;
+        this.executor = executor;
+    }
 
     // --- auth-service ---
     @Cacheable(cacheNames = "authUserById", key = "#userId")
@@ -65,7 +78,7 @@ public class UpstreamGateway {
     @CircuitBreaker(name = "authService", fallbackMethod = "updateUsernameFallback")
     @TimeLimiter(name = "authService")
     public CompletableFuture<Void> updateUsername(Long userId, String newUsername) {
-        return CompletableFuture.runAsync(() -> authClient.updateUsername(userId, newUsername));
+        return CompletableFuture.runAsync(() -> authClient.updateUsername(userId, newUsername), executor);
     }
 
     private CompletableFuture<Void> updateUsernameFallback(Long userId, String newUsername, Throwable ex) {
@@ -76,7 +89,7 @@ public class UpstreamGateway {
     @CircuitBreaker(name = "authService", fallbackMethod = "deleteUserFallback")
     @TimeLimiter(name = "authService")
     public CompletableFuture<Void> deleteUser(Long userId) {
-        return CompletableFuture.runAsync(() -> authClient.deleteUser(userId));
+        return CompletableFuture.runAsync(() -> authClient.deleteUser(userId), executor);
     }
 
     private CompletableFuture<Void> deleteUserFallback(Long userId, Throwable ex) {
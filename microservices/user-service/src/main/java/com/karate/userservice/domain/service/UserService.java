@@ -1,31 +1,44 @@
 package com.karate.userservice.domain.service;
 
 import com.karate.userservice.api.dto.*;
+import com.karate.userservice.domain.exception.UpstreamUnavailableException;
 import com.karate.userservice.domain.exception.UserNotFoundException;
 import com.karate.userservice.domain.model.AddressEntity;
 import com.karate.userservice.domain.model.KarateRank;
 import com.karate.userservice.domain.model.UserEntity;
+import com.karate.userservice.domain.model.dto.ClubMemberView;
 import com.karate.userservice.domain.repository.UserRepository;
 import com.karate.userservice.infrastructure.client.dto.AuthUserDto;
 import com.karate.userservice.infrastructure.messaging.UserEventPublisher;
+import com.karate.userservice.infrastructure.redis.ClubRosterPageIndex;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class UserService {
     public static final String USER_NOT_FOUND = "User not found";
+    public static final int AUTH_USERS_BATCH_SIZE = 200;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final String ANY = "*";
     private final UserRepository userRepository;
     private final UpstreamGateway upstream;
     private final UserEventPublisher userEventPublisher;
+    private final CacheManager cacheManager;
+    private final ClubRosterPageIndex rosterPageIndex;
 
     @Transactional
     @Cacheable(cacheNames = "usersByClubName", key = "#clubName.toUpperCase()")
@@ -36,13 +49,19 @@ public class UserService {
                 clubName, clubDto.karateClubId(), System.currentTimeMillis() - t0);
         Long karateClubId = clubDto.karateClubId();
 
-        return userRepository.findAllByKarateClubId(karateClubId)
-                .stream()
+        List<UserEntity> members = userRepository.findAllByKarateClubId(karateClubId);
+        Map<Long, AuthUserDto> authUsers = fetchAuthUsers(members.stream().map(UserEntity::getUserId).toList());
+
+        return members.stream()
+                .filter(userEntity -> {
+                    boolean known = authUsers.containsKey(userEntity.getUserId());
+                    if (!known) {
+                        log.warn("Auth user missing for club member userId={} club='{}'", userEntity.getUserId(), clubName);
+                    }
+                    return known;
+                })
                 .map(userEntity -> {
-                    long tAuth = System.currentTimeMillis();
-                    var authUser = upstream.getAuthUserByUserId(userEntity.getUserId());
-                    log.trace("auth-service getAuthUserByUserId userId={} took={}ms",
-                            userEntity.getUserId(), System.currentTimeMillis() - tAuth);
+                    var authUser = authUsers.get(userEntity.getUserId());
                     return new UserFromClubDto(
                             userEntity.getUserId(),
                             authUser.username(),
@@ -54,16 +73,101 @@ public class UserService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public UserFromClubPageDto getUsersFromClubPage(String clubName, Long afterUserId, int size,
+                                                    KarateRank rank, String role) {
+        Long clubId = upstream.getClubByName(clubName).karateClubId();
+        long after = afterUserId == null ? 0L : afterUserId;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String pageKey = ClubRosterPageIndex.pageKey(clubId,
+                rank == null ? ANY : rank.name(), role == null ? ANY : role.toUpperCase(), pageSize, after);
+
+        Cache cache = cacheManager.getCache("usersByClubPage");
+        UserFromClubPageDto cached = cache != null ? cache.get(pageKey, UserFromClubPageDto.class) : null;
+        if (cached != null) {
+            return cached;
+        }
+
+        long t0 = System.currentTimeMillis();
+        UserFromClubPageDto page = loadClubPage(clubId, after, pageSize, rank, role);
+        log.debug("Roster page clubId={} after={} size={} rank={} role={} -> items={} next={} took={}ms",
+                clubId, after, pageSize, rank, role, page.items().size(), page.nextCursor(),
+                System.currentTimeMillis() - t0);
+
+        if (cache != null) {
+            cache.put(pageKey, page);
+            rosterPageIndex.register(clubId, pageKey, page.nextCursor());
+        }
+        return page;
+    }
+
+    private UserFromClubPageDto loadClubPage(Long clubId, long after, int size, KarateRank rank, String role) {
+        List<UserFromClubDto> items = new ArrayList<>(size);
+        long cursor = after;
+        boolean more = true;
+
+        // role lives in auth-service, so a role filter may need several keyset batches to fill one page
+        while (more && items.size() < size) {
+            List<ClubMemberView> batch = rank == null
+                    ? userRepository.findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(clubId, cursor, Limit.of(size))
+                    : userRepository.findByKarateClubIdAndKarateRankAndUserIdGreaterThanOrderByUserIdAsc(
+                    clubId, rank, cursor, Limit.of(size));
+            more = batch.size() == size;
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<Long, AuthUserDto> authUsers = fetchAuthUsers(batch.stream().map(ClubMemberView::userId).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                ClubMemberView member = batch.get(i);
+                cursor = member.userId();
+                AuthUserDto authUser = authUsers.get(member.userId());
+                if (authUser == null || (role != null && !hasRole(authUser, role))) {
+                    continue;
+                }
+                items.add(new UserFromClubDto(
+                        member.userId(),
+                        authUser.username(),
+                        member.email(),
+                        authUser.roles(),
+                        member.karateRank().toString()
+                ));
+                if (items.size() == size) {
+                    more = more || i < batch.size() - 1;
+                    break;
+                }
+            }
+        }
+        return new UserFromClubPageDto(List.copyOf(items), more ? cursor : null);
+    }
+
+    private static boolean hasRole(AuthUserDto authUser, String role) {
+        String wanted = role.toUpperCase().startsWith("ROLE_") ? role.toUpperCase() : "ROLE_" + role.toUpperCase();
+        return authUser.roles() != null && authUser.roles().contains(wanted);
+    }
+
+    private Map<Long, AuthUserDto> fetchAuthUsers(List<Long> userIds) {
+        Map<Long, AuthUserDto> result = new HashMap<>(userIds.size() * 2);
+        for (int from = 0; from < userIds.size(); from += AUTH_USERS_BATCH_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + AUTH_USERS_BATCH_SIZE, userIds.size()));
+            long tAuth = System.currentTimeMillis();
+            result.putAll(upstream.getAuthUsers(chunk));
+            log.trace("auth-service getAuthUsers size={} took={}ms", chunk.size(), System.currentTimeMillis() - tAuth);
+        }
+        return result;
+    }
+
+    /**
+     * Idempotent on {@code dto.userId()}: a retried create (the caller timed out on an earlier
+     * call that succeeded) returns the existing account instead of failing on the duplicate key.
+     */
     @Transactional
-    @CacheEvict(
-            value = {
-                    "currentUserInfo", "userInfoById", "userClubIdByUsername",
-                    "userExists", "userPayloadById", "usersByClubName"
-            },
-            allEntries = true
-    )
     public Long createUser(NewUserRequestDto dto) {
         log.info("Create user userId={} email={} clubId={}", dto.userId(), dto.email(), dto.karateClubId());
+        if (dto.userId() != null && userRepository.existsById(dto.userId())) {
+            log.info("User already exists, create repeated userId={}", dto.userId());
+            return dto.userId();
+        }
         AddressEntity address = AddressEntity.builder()
                 .city(dto.addressDto().city())
                 .street(dto.addressDto().street())
@@ -85,6 +189,8 @@ public class UserService {
         long tDb = System.currentTimeMillis();
         Long id = userRepository.save(user).getUserId();
         log.info("User persisted userId={} took={}ms", id, System.currentTimeMillis() - tDb);
+
+        evictUserCaches(id, dto.karateClubId());
         return id;
     }
 
@@ -161,13 +267,6 @@ public class UserService {
     }
 
     @Transactional
-    @CacheEvict(
-            value = {
-                    "currentUserInfo", "userInfoById", "userClubIdByUsername",
-                    "userExists", "userPayloadById", "usersByClubName"
-            },
-            allEntries = true
-    )
     public void updateCurrentUser(String username, UpdateUserRequestDto dto) {
         log.info("Update current user username={} newUsername={} newEmail={}",
                 username, dto.username(), dto.email());
@@ -183,17 +282,14 @@ public class UserService {
         user.getAddressEntity().setPostalCode(dto.address().postalCode());
 
         userRepository.save(user);
+        userEventPublisher.publishUserUpdated(user.getUserId(), user.getEmail(), dto.username(),
+                user.getKarateClubId(), user.getKarateRank().toString());
+
+        evictUserCaches(user.getUserId(), user.getKarateClubId(), username, dto.username());
         log.info("Update current user OK userId={}", user.getUserId());
     }
 
     @Transactional
-    @CacheEvict(
-            value = {
-                    "currentUserInfo", "userInfoById", "userClubIdByUsername",
-                    "userExists", "userPayloadById", "usersByClubName"
-            },
-            allEntries = true
-    )
     public void patchCurrentUser(String username, UpdateUserRequestDto dto) {
         log.info("Patch current user username={}", username);
         var authUser = upstream.getAuthUserByUsername(username);
@@ -210,17 +306,15 @@ public class UserService {
         }
 
         userRepository.save(user);
+        userEventPublisher.publishUserUpdated(user.getUserId(), user.getEmail(),
+                dto.username() != null ? dto.username() : username,
+                user.getKarateClubId(), user.getKarateRank().toString());
+
+        evictUserCaches(user.getUserId(), user.getKarateClubId(), username, dto.username());
         log.info("Patch current user OK userId={}", user.getUserId());
     }
 
     @Transactional
-    @CacheEvict(
-            value = {
-                    "currentUserInfo", "userInfoById", "userClubIdByUsername",
-                    "userExists", "userPayloadById", "usersByClubName"
-            },
-            allEntries = true
-    )
     public void deleteCurrentUser(String username) {
         log.info("Delete current user username={}", username);
         var authUser = upstream.getAuthUserByUsername(username);
@@ -231,6 +325,63 @@ public class UserService {
         userRepository.delete(user);
         userEventPublisher.publishUserDeleted(userId);
 
+        evictUserCaches(userId, user.getKarateClubId(), username);
+
         log.info("Delete current user OK userId={}", userId);
     }
+
+    /**
+     * Removes an account whose registration was abandoned by auth-service before it was
+     * announced, so no {@code UserDeletedEvent} is published; a missing account is a no-op.
+     */
+    @Transactional
+    public void deleteUnregisteredUser(Long userId) {
+        userRepository.findById(userId).ifPresent(user -> {
+            userRepository.delete(user);
+            evictUserCaches(userId, user.getKarateClubId());
+            log.info("Unregistered user removed userId={}", userId);
+        });
+    }
+
+    private void evictUserCaches(Long userId, Long clubId, String... usernames) {
+        evict("userInfoById", userId);
+        evict("userExists", userId);
+        evict("userPayloadById", userId);
+        evict("authUserById", userId);
+        for (String username : usernames) {
+            if (username == null) continue;
+            evict("currentUserInfo", username);
+            evict("userClubIdByUsername", username);
+            evict("authUserByUsername", username);
+        }
+        evictUsersByClub(clubId);
+        evictRosterPages(clubId, userId);
+    }
+
+    private void evictRosterPages(Long clubId, Long userId) {
+        Cache c = cacheManager.getCache("usersByClubPage");
+        if (c == null || clubId == null) return;
+        try {
+            rosterPageIndex.takePagesCovering(clubId, userId).forEach(c::evictIfPresent);
+        } catch (RuntimeException ex) {
+            log.warn("Roster page index unavailable clubId={}, clearing usersByClubPage reason={}", clubId, ex.toString());
+            c.clear();
+        }
+    }
+
+    private void evictUsersByClub(Long clubId) {
+        Cache c = cacheManager.getCache("usersByClubName");
+        if (c == null || clubId == null) return;
+        try {
+            c.evictIfPresent(upstream.getClubById(clubId).name().toUpperCase());
+        } catch (UpstreamUnavailableException ex) {
+            log.warn("Club name unresolved for clubId={}, clearing usersByClubName reason={}", clubId, ex.toString());
+            c.clear();
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache c = cacheManager.getCache(cacheName);
+        if (c != null) c.evictIfPresent(key);
+    }
 }
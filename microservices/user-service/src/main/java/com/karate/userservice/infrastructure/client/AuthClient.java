@@ -10,7 +10,7 @@ import java.util.Map;
 
 @FeignClient(name = "auth-service", configuration = FeignClientConfig.class)
 public interface AuthClient {
-    @GetMapping("/auth/users/by-ids")
+    @GetMapping("/internal/users/by-ids")
     Map<Long, AuthUserDto> getAuthUsers(@RequestParam("ids") List<Long> userIds);
 
     @GetMapping("/internal/users/{userId}")
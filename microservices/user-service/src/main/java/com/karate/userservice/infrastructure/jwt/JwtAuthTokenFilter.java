@@ -4,11 +4,13 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -17,16 +19,49 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
-@AllArgsConstructor
 public class JwtAuthTokenFilter extends OncePerRequestFilter {
     public static final String AUTHORIZATION = "Authorization";
     public static final String BEARER = "Bearer ";
     public static final int BEGIN_INDEX = 7;
+    public static final long MAX_CACHED_TOKENS = 10_000;
+    public static final Duration MAX_CACHED_TTL = Duration.ofMinutes(5);
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_CLUB_ID = "clubId";
     private final JwtConfigurationProperties jwtConfigurationProperties;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Cache<Long, Instant> revokedUsers;
+    private volatile JWTVerifier verifier;
+
+    public JwtAuthTokenFilter(JwtConfigurationProperties jwtConfigurationProperties) {
+        this.jwtConfigurationProperties = jwtConfigurationProperties;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_TOKENS)
+                .expireAfter(new TokenExpiry())
+                .build();
+        // a revocation only matters while tokens issued before it can still be valid
+        this.revokedUsers = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofDays(Math.max(1, jwtConfigurationProperties.expirationDays())))
+                .build();
+    }
+
+    /**
+     * Rejects every token of the given user issued at or before {@code revokedAt},
+     * forcing the client to log in again (account deleted, club changed).
+     */
+    public void revokeTokensIssuedBefore(Long userId, Instant revokedAt) {
+        revokedUsers.asMap().merge(userId, revokedAt, (a, b) -> a.isAfter(b) ? a : b);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -36,20 +71,98 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
             return;
         }
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = getUsernamePasswordAuthenticationToken(authorization);
-        SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+        if (usernamePasswordAuthenticationToken != null) {
+            SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+        }
         filterChain.doFilter(request, response);
     }
 
     private UsernamePasswordAuthenticationToken getUsernamePasswordAuthenticationToken(String token) {
-        String secretKey = jwtConfigurationProperties.secretKey();
-        Algorithm algorithm = Algorithm.HMAC256(secretKey);
-        JWTVerifier verifier = JWT.require(algorithm).build();
-        DecodedJWT decodedJWT = verifier.verify(token.substring(BEGIN_INDEX));
+        String jwt = token.substring(BEGIN_INDEX);
+        // failed verifications throw out of the loader and are never cached
+        VerifiedToken verified = verifiedTokens.get(digest(jwt), key -> verify(jwt));
+        return isRevoked(verified) ? null : verified.authentication();
+    }
 
-        List<GrantedAuthority> authorities = decodedJWT.getClaim("roles").asList(String.class)
+    private boolean isRevoked(VerifiedToken verified) {
+        if (verified.userId() == null) {
+            return false;
+        }
+        Instant revokedAt = revokedUsers.getIfPresent(verified.userId());
+        return revokedAt != null && (verified.issuedAt() == null || !verified.issuedAt().isAfter(revokedAt));
+    }
+
+    private VerifiedToken verify(String jwt) {
+        DecodedJWT decodedJWT = verifier().verify(jwt);
+
+        List<GrantedAuthority> authorities = decodedJWT.getClaim(CLAIM_ROLES).asList(String.class)
                 .stream()
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
-        return new UsernamePasswordAuthenticationToken(decodedJWT.getSubject(), null, authorities);
+        // tokens issued before the identity claims existed carry neither; callers fall back to a lookup
+        JwtPrincipal principal = new JwtPrincipal(
+                decodedJWT.getSubject(),
+                decodedJWT.getClaim(CLAIM_USER_ID).asLong(),
+                decodedJWT.getClaim(CLAIM_CLUB_ID).asLong()
+        );
+        return new VerifiedToken(
+                new UsernamePasswordAuthenticationToken(principal, null, authorities),
+                principal.userId(),
+                decodedJWT.getIssuedAtAsInstant(),
+                decodedJWT.getExpiresAtAsInstant()
+        );
+    }
+
+    private JWTVerifier verifier() {
+        JWTVerifier current = verifier;
+        if (current == null) {
+            synchronized (this) {
+                current = verifier;
+                if (current == null) {
+                    Algorithm algorithm = Algorithm.HMAC256(jwtConfigurationProperties.secretKey());
+                    current = JWT.require(algorithm).build();
+                    verifier = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static String digest(String jwt) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(UsernamePasswordAuthenticationToken authentication, Long userId,
+                                 Instant issuedAt, Instant expiresAt) {
+    }
+
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return MAX_CACHED_TTL.toNanos();
+            }
+            Duration remaining = Duration.between(Instant.now(), value.expiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return Math.min(remaining.toNanos(), MAX_CACHED_TTL.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
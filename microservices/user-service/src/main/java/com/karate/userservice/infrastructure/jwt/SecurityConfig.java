@@ -37,6 +37,7 @@ public class SecurityConfig {
                         .requestMatchers("/webjars/**").permitAll()
                         .requestMatchers("/swagger-resources/**").permitAll()
                         .requestMatchers("/users/by-club").hasRole(ADMIN)
+                        .requestMatchers("/users/by-club/**").hasRole(ADMIN)
                         .requestMatchers("/users/me").hasAnyRole("USER", ADMIN)
                         .requestMatchers("/internal/users/**").permitAll()
                         .anyRequest().authenticated()
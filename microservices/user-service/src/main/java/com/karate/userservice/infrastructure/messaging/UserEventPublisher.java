@@ -1,9 +1,10 @@
 package com.karate.userservice.infrastructure.messaging;
 
+import com.karate.outbox.OutboxPublisher;
 import com.karate.userservice.infrastructure.messaging.dto.UserDeletedEvent;
+import com.karate.userservice.infrastructure.messaging.dto.UserUpdatedEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -15,7 +16,9 @@ public class UserEventPublisher {
 
     @Value("${topics.user-deleted}")
     private String userDeletedTopic;
-    private final KafkaTemplate<String, UserDeletedEvent> kafka;
+    @Value("${topics.user-updated}")
+    private String userUpdatedTopic;
+    private final OutboxPublisher outbox;
 
     public void publishUserDeleted(Long userId) {
         var evt = new UserDeletedEvent(
@@ -24,6 +27,20 @@ public class UserEventPublisher {
                 Instant.now(),
                 userId
         );
-        kafka.send(userDeletedTopic, String.valueOf(userId), evt);
+        outbox.publish(userDeletedTopic, String.valueOf(userId), evt);
+    }
+
+    public void publishUserUpdated(Long userId, String email, String username, Long karateClubId, String karateRank) {
+        var evt = new UserUpdatedEvent(
+                UUID.randomUUID().toString(),
+                "USER_UPDATED",
+                Instant.now(),
+                userId,
+                email,
+                username,
+                karateClubId,
+                karateRank
+        );
+        outbox.publish(userUpdatedTopic, String.valueOf(userId), evt);
     }
 }
@@ -0,0 +1,15 @@
+package com.karate.userservice.infrastructure.messaging.dto;
+
+import java.time.Instant;
+
+public record UserUpdatedEvent(
+        String eventId,
+        String eventType,
+        Instant timestamp,
+        Long userId,
+        String email,
+        String username,
+        Long karateClubId,
+        String karateRank
+) {
+}
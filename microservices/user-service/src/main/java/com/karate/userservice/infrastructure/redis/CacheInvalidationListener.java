@@ -0,0 +1,27 @@
+package com.karate.userservice.infrastructure.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final ObjectMapper objectMapper;
+    private final TwoTierCacheManager cacheManager;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            var msg = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+            cacheManager.onRemoteInvalidation(msg);
+        } catch (IOException ex) {
+            log.warn("Ignoring malformed cache invalidation message reason={}", ex.toString());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.karate.userservice.infrastructure.redis;
+
+/**
+ * Broadcast over Redis pub/sub whenever a node changes a two-tier cache entry.
+ * A {@code null} key means the whole cache was cleared.
+ */
+public record CacheInvalidationMessage(
+        String origin,
+        String cacheName,
+        String key
+) {
+}
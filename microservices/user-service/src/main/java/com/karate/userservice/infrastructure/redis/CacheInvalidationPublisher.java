@@ -0,0 +1,34 @@
+package com.karate.userservice.infrastructure.redis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationPublisher {
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    @Getter
+    private final String nodeId;
+    @Getter
+    private final String channel;
+    private final boolean enabled;
+
+    public void publish(String cacheName, String key) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String body = objectMapper.writeValueAsString(new CacheInvalidationMessage(nodeId, cacheName, key));
+            redis.convertAndSend(channel, body);
+        } catch (JsonProcessingException | RuntimeException ex) {
+            // peers fall back to their L1 TTL if the broadcast is lost
+            log.warn("Cache invalidation broadcast failed cache={} key={} reason={}", cacheName, key, ex.toString());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.karate.userservice.infrastructure.redis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tracks which cached roster pages cover which user ids, so a change to one member
+ * evicts only the page(s) whose keyset range contains that member.
+ * <p>
+ * One sorted set per club: member = page cache key, score = last user id on the page
+ * ({@code +inf} for the final page, which also absorbs newly added members).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClubRosterPageIndex {
+
+    public static final Duration INDEX_TTL = Duration.ofMinutes(10);
+    private static final String PREFIX = "user-service:roster-index::";
+
+    private final StringRedisTemplate redis;
+
+    public static String pageKey(Long clubId, String rank, String role, int size, Long afterUserId) {
+        return clubId + ":" + rank + ":" + role + ":" + size + ":" + afterUserId;
+    }
+
+    public void register(Long clubId, String pageKey, Long lastUserId) {
+        String indexKey = PREFIX + clubId;
+        double score = lastUserId == null ? Double.POSITIVE_INFINITY : lastUserId;
+        try {
+            redis.opsForZSet().add(indexKey, pageKey, score);
+            redis.expire(indexKey, INDEX_TTL);
+        } catch (RuntimeException ex) {
+            log.warn("Roster page index register failed clubId={} page={} reason={}", clubId, pageKey, ex.toString());
+        }
+    }
+
+    /**
+     * Removes and returns the keys of pages whose range {@code (after, last]} contains the user.
+     */
+    public List<String> takePagesCovering(Long clubId, Long userId) {
+        String indexKey = PREFIX + clubId;
+        Set<String> candidates = redis.opsForZSet().rangeByScore(indexKey, userId, Double.POSITIVE_INFINITY);
+        if (candidates == null || candidates.isEmpty()) {
+            return List.of();
+        }
+        List<String> affected = candidates.stream()
+                .filter(key -> afterUserId(key) < userId)
+                .toList();
+        if (!affected.isEmpty()) {
+            redis.opsForZSet().remove(indexKey, affected.toArray());
+        }
+        return affected;
+    }
+
+    private static long afterUserId(String pageKey) {
+        return Long.parseLong(pageKey.substring(pageKey.lastIndexOf(':') + 1));
+    }
+}
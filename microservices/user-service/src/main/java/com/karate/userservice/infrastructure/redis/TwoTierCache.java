@@ -0,0 +1,207 @@
+package com.karate.userservice.infrastructure.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process Caffeine tier (L1) in front of a shared cache (L2, Redis).
+ * Reads are served from L1 when possible; every write or eviction goes to L2 first,
+ * then drops the local copy and notifies the other nodes.
+ * <p>
+ * Every local invalidation, own or from a peer, bumps a generation. A value read from L2 is only
+ * kept in L1 when no invalidation happened while it was being read, so an invalidation that
+ * arrives between the L2 read and the L1 put cannot leave the old value behind.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationPublisher publisher;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                        Cache remote,
+                        CacheInvalidationPublisher publisher,
+                        MeterRegistry registry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+        this.l1Hits = counter(registry, name, "l1", "hit");
+        this.l1Misses = counter(registry, name, "l1", "miss");
+        this.l2Hits = counter(registry, name, "l2", "hit");
+        this.l2Misses = counter(registry, name, "l2", "miss");
+        registry.gauge("cache.tier.size", Tags.of("cache", name, "tier", "l1"),
+                local, com.github.benmanes.caffeine.cache.Cache::estimatedSize);
+    }
+
+    private static Counter counter(MeterRegistry registry, String cache, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .tag("cache", cache)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(cached);
+        }
+        l1Misses.increment();
+
+        long seen = generation.get();
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            l2Misses.increment();
+            return wrapper;
+        }
+        l2Hits.increment();
+        putLoaded(localKey, wrapper.get(), seen);
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            l1Hits.increment();
+            return (T) cached;
+        }
+        l1Misses.increment();
+
+        long seen = generation.get();
+        AtomicBoolean loaded = new AtomicBoolean();
+        T value = remote.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        });
+        (loaded.get() ? l2Misses : l2Hits).increment();
+        if (value != null) {
+            putLoaded(localKey, value, seen);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        generation.incrementAndGet();
+        if (value != null) {
+            local.put(localKey, value);
+        }
+        publisher.publish(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        String localKey = localKey(key);
+        evictLocal(localKey);
+        publisher.publish(name, localKey);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        evictLocal(localKey);
+        publisher.publish(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        String localKey = localKey(key);
+        evictLocal(localKey);
+        publisher.publish(name, localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        publisher.publish(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = remote.invalidate();
+        clearLocal();
+        publisher.publish(name, null);
+        return hadEntries;
+    }
+
+    void evictLocal(String key) {
+        generation.incrementAndGet();
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        generation.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    /**
+     * Keeps a value read from L2 in L1 unless an invalidation happened since {@code seen}. One that
+     * lands between the check and the put is caught by the second check; any later one removes the
+     * entry itself.
+     */
+    private void putLoaded(String localKey, Object value, long seen) {
+        if (generation.get() != seen) {
+            return;
+        }
+        local.put(localKey, value);
+        if (generation.get() != seen) {
+            local.invalidate(localKey);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
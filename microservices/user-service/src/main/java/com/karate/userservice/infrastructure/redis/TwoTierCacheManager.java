@@ -0,0 +1,80 @@
+package com.karate.userservice.infrastructure.redis;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Slf4j
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager remote;
+    private final Map<String, Duration> ttls;
+    private final Duration defaultTtl;
+    private final long maximumSize;
+    private final CacheInvalidationPublisher publisher;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remote,
+                               Map<String, Duration> ttls,
+                               Duration defaultTtl,
+                               long maximumSize,
+                               CacheInvalidationPublisher publisher,
+                               MeterRegistry registry) {
+        this.remote = remote;
+        this.ttls = ttls;
+        this.defaultTtl = defaultTtl;
+        this.maximumSize = maximumSize;
+        this.publisher = publisher;
+        this.registry = registry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache l2 = remote.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoTierCache(n, buildLocal(n), l2, publisher, registry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    public void onRemoteInvalidation(CacheInvalidationMessage msg) {
+        if (publisher.getNodeId().equals(msg.origin())) {
+            return;
+        }
+        TwoTierCache cache = caches.get(msg.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (msg.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(msg.key());
+        }
+        log.trace("L1 invalidated by peer origin={} cache={} key={}", msg.origin(), msg.cacheName(), msg.key());
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> buildLocal(String name) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttls.getOrDefault(name, defaultTtl))
+                .build();
+    }
+}
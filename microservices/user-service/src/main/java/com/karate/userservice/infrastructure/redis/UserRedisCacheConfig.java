@@ -5,12 +5,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.karate.userservice.api.dto.UserFromClubDto;
+import com.karate.userservice.api.dto.UserFromClubPageDto;
 import com.karate.userservice.api.dto.UserInfoDto;
 import com.karate.userservice.api.dto.UserInformationDto;
 import com.karate.userservice.api.dto.UserPayload;
 import com.karate.userservice.infrastructure.client.dto.AuthUserDto;
 import com.karate.userservice.infrastructure.client.dto.KarateClubDto;
-import org.springframework.cache.CacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +21,9 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
@@ -27,14 +33,55 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @EnableCaching
 @Configuration
 public class UserRedisCacheConfig {
 
+    private static final String INVALIDATION_CHANNEL = "user-service:cache-invalidation";
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    private static final Map<String, Duration> TTL = Map.ofEntries(
+            Map.entry("userInfoById", Duration.ofHours(1)),
+            Map.entry("userPayloadById", Duration.ofMinutes(15)),
+            Map.entry("userExists", Duration.ofMinutes(5)),
+            Map.entry("userClubIdByUsername", Duration.ofMinutes(10)),
+            Map.entry("usersByClubName", Duration.ofMinutes(10)),
+            Map.entry("usersByClubPage", ClubRosterPageIndex.INDEX_TTL),
+            Map.entry("currentUserInfo", Duration.ofMinutes(5)),
+            Map.entry("authUserById", Duration.ofMinutes(10)),
+            Map.entry("authUserByUsername", Duration.ofMinutes(10)),
+            Map.entry("clubByName_upstream", Duration.ofMinutes(10)),
+            Map.entry("clubById_upstream", Duration.ofMinutes(10))
+    );
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate redis,
+                                                                 ObjectMapper springMapper,
+                                                                 @Value("${cache.l1.peer-invalidation:true}") boolean peerInvalidation) {
+        return new CacheInvalidationPublisher(redis, springMapper, UUID.randomUUID().toString(),
+                INVALIDATION_CHANNEL, peerInvalidation);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.l1.peer-invalidation", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory cf,
+                                                                             ObjectMapper springMapper,
+                                                                             TwoTierCacheManager userCacheManager) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(cf);
+        container.addMessageListener(new CacheInvalidationListener(springMapper, userCacheManager),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+        return container;
+    }
+
     @Bean
     @Primary
-    public CacheManager userCacheManager(RedisConnectionFactory cf, ObjectMapper springMapper) {
+    public TwoTierCacheManager userCacheManager(RedisConnectionFactory cf,
+                                                ObjectMapper springMapper,
+                                                CacheInvalidationPublisher cacheInvalidationPublisher,
+                                                MeterRegistry meterRegistry,
+                                                @Value("${cache.l1.maximum-size:10000}") long l1MaximumSize) {
         ObjectMapper om = springMapper.copy()
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
@@ -59,6 +106,8 @@ public class UserRedisCacheConfig {
         authUserSer.setObjectMapper(om);
         var clubSer = new Jackson2JsonRedisSerializer<>(KarateClubDto.class);
         clubSer.setObjectMapper(om);
+        var clubPageSer = new Jackson2JsonRedisSerializer<>(UserFromClubPageDto.class);
+        clubPageSer.setObjectMapper(om);
 
         var listUserFromClubType = om.getTypeFactory().constructCollectionType(List.class, UserFromClubDto.class);
         var listUserFromClubSer = new Jackson2JsonRedisSerializer<>(listUserFromClubType); // konstruktor z JavaType
@@ -67,45 +116,52 @@ public class UserRedisCacheConfig {
         var def = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(keySer)
                 .serializeValuesWith(genericSer)
-                .entryTtl(Duration.ofMinutes(30))
+                .entryTtl(DEFAULT_TTL)
                 .disableCachingNullValues()
                 .computePrefixWith(name -> "user-service:v4::" + name + "::");
 
         Map<String, RedisCacheConfiguration> per = new HashMap<>();
 
         per.put("userInfoById", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(userInfoSer))
-                .entryTtl(Duration.ofHours(1)));
+                .entryTtl(TTL.get("userInfoById")));
 
         per.put("userPayloadById", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(userPayloadSer))
-                .entryTtl(Duration.ofMinutes(15)));
+                .entryTtl(TTL.get("userPayloadById")));
 
         per.put("userExists", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(boolSer))
-                .entryTtl(Duration.ofMinutes(5)));
+                .entryTtl(TTL.get("userExists")));
 
         per.put("userClubIdByUsername", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(longSer))
-                .entryTtl(Duration.ofMinutes(10)));
+                .entryTtl(TTL.get("userClubIdByUsername")));
 
         per.put("usersByClubName", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(listUserFromClubSer))
-                .entryTtl(Duration.ofMinutes(10)));
+                .entryTtl(TTL.get("usersByClubName")));
+
+        per.put("usersByClubPage", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(clubPageSer))
+                .entryTtl(TTL.get("usersByClubPage")));
 
         per.put("currentUserInfo", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(userInformationSer))
-                .entryTtl(Duration.ofMinutes(5)));
+                .entryTtl(TTL.get("currentUserInfo")));
 
         per.put("authUserById", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(authUserSer))
-                .entryTtl(Duration.ofMinutes(10)));
+                .entryTtl(TTL.get("authUserById")));
 
         per.put("authUserByUsername", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(authUserSer))
-                .entryTtl(Duration.ofMinutes(10)));
+                .entryTtl(TTL.get("authUserByUsername")));
 
         per.put("clubByName_upstream", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(clubSer))
-                .entryTtl(Duration.ofMinutes(10)));
+                .entryTtl(TTL.get("clubByName_upstream")));
 
         per.put("clubById_upstream", def.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(clubSer))
-                .entryTtl(Duration.ofMinutes(10)));
+                .entryTtl(TTL.get("clubById_upstream")));
 
-        return RedisCacheManager.builder(cf)
+        var redisCacheManager = RedisCacheManager.builder(cf)
                 .cacheDefaults(def)
                 .withInitialCacheConfigurations(per)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(redisCacheManager, TTL, DEFAULT_TTL, l1MaximumSize,
+                cacheInvalidationPublisher, meterRegistry);
     }
 }
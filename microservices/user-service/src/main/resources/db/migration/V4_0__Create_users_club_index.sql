@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_users_club_user ON users (karate_club_id, user_id);
@@ -16,10 +16,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @DisplayName("Happy path – end-to-end user flow (integration)")
@@ -161,8 +163,8 @@ class UserEndToEndHappyPathIT extends BaseIntegrationTest {
         // ---------------------------------------------------------
         when(upstream.getClubByName("TOKYO"))
                 .thenReturn(new KarateClubDto(clubId, "TOKYO"));
-        when(upstream.getAuthUserByUserId(userId))
-                .thenReturn(new AuthUserDto(userId, "johnny", Set.of("ROLE_USER")));
+        when(upstream.getAuthUsers(any()))
+                .thenReturn(Map.of(userId, new AuthUserDto(userId, "johnny", Set.of("ROLE_USER"))));
 
         asAdmin.get()
                 .uri(uri -> uri.path("/users/by-club").queryParam("clubName", "TOKYO").build())
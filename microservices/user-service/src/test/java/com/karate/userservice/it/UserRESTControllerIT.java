@@ -17,9 +17,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.util.Map;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 @DisplayName("UserRESTController – integration (secured endpoints)")
@@ -63,10 +65,11 @@ class UserRESTControllerIT extends BaseIntegrationTest {
         userRepository.save(TestData.user(801L, "b@ex", 99L, KarateRank.KYU_9));
         when(upstream.getClubByName("OSAKA"))
                 .thenReturn(new KarateClubDto(99L, "OSAKA"));
-        when(upstream.getAuthUserByUserId(800L))
-                .thenReturn(new AuthUserDto(800L, "u1", Set.of("ROLE_USER")));
-        when(upstream.getAuthUserByUserId(801L))
-                .thenReturn(new AuthUserDto(801L, "u2", Set.of("ROLE_USER")));
+        when(upstream.getAuthUsers(any()))
+                .thenReturn(Map.of(
+                        800L, new AuthUserDto(800L, "u1", Set.of("ROLE_USER")),
+                        801L, new AuthUserDto(801L, "u2", Set.of("ROLE_USER"))
+                ));
 
         // when / then
         webTestClient.get()
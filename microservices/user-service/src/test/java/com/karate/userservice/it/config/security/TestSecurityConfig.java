@@ -66,6 +66,7 @@ public class TestSecurityConfig {
                 .authorizeHttpRequests(reg -> reg
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/users/by-club").hasRole("ADMIN")
+                        .requestMatchers("/users/by-club/**").hasRole("ADMIN")
                         .requestMatchers("/internal/**").hasRole("ADMIN")
                         .requestMatchers("/users/me").authenticated()
                         .anyRequest().authenticated()
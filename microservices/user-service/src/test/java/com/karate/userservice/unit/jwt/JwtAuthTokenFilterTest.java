@@ -0,0 +1,109 @@
+package com.karate.userservice.unit.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.karate.userservice.infrastructure.jwt.JwtAuthTokenFilter;
+import com.karate.userservice.infrastructure.jwt.JwtConfigurationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtAuthTokenFilterTest {
+
+    private static final String SECRET = "test-secret-at-least-32-chars-long";
+
+    private final JwtAuthTokenFilter filter =
+            new JwtAuthTokenFilter(new JwtConfigurationProperties(SECRET, 1, "test"));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static String token(String subject, String secret) {
+        return JWT.create()
+                .withSubject(subject)
+                .withClaim("roles", List.of("ROLE_USER"))
+                .withExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .sign(Algorithm.HMAC256(secret));
+    }
+
+    private Authentication filterWith(String jwt) throws Exception {
+        var request = new MockHttpServletRequest();
+        request.addHeader(JwtAuthTokenFilter.AUTHORIZATION, JwtAuthTokenFilter.BEARER + jwt);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Test
+    @DisplayName("valid token sets subject and roles on the security context")
+    void valid_token_authenticates() throws Exception {
+        // given
+        String jwt = token("john", SECRET);
+
+        // when
+        Authentication authentication = filterWith(jwt);
+
+        // then
+        assertThat(authentication.getName()).isEqualTo("john");
+        assertThat(authentication.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("repeated token is served from the verified-token cache")
+    void repeated_token_reuses_prebuilt_authentication() throws Exception {
+        // given
+        String jwt = token("john", SECRET);
+
+        // when
+        Authentication first = filterWith(jwt);
+        Authentication second = filterWith(jwt);
+
+        // then
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("token signed with another secret is rejected and not cached")
+    void forged_token_is_rejected_every_time() {
+        // given
+        String forged = token("mallory", "another-secret-at-least-32-chars");
+
+        // when / then
+        assertThatThrownBy(() -> filterWith(forged)).isInstanceOf(JWTVerificationException.class);
+        assertThatThrownBy(() -> filterWith(forged)).isInstanceOf(JWTVerificationException.class);
+    }
+
+    @Test
+    @DisplayName("request without bearer header passes through unauthenticated")
+    void missing_header_passes_through() throws Exception {
+        // given
+        var request = new MockHttpServletRequest();
+        var chain = new MockFilterChain();
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // then
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+}
@@ -0,0 +1,169 @@
+package com.karate.userservice.unit.redis;
+
+import com.karate.userservice.infrastructure.redis.CacheInvalidationMessage;
+import com.karate.userservice.infrastructure.redis.CacheInvalidationPublisher;
+import com.karate.userservice.infrastructure.redis.TwoTierCacheManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class TwoTierCacheManagerTest {
+
+    private ConcurrentMapCacheManager redisStandIn;
+    private CacheInvalidationPublisher publisher;
+    private SimpleMeterRegistry registry;
+    private TwoTierCacheManager manager;
+
+    @BeforeEach
+    void init() {
+        redisStandIn = new ConcurrentMapCacheManager("currentUserInfo");
+        publisher = mock(CacheInvalidationPublisher.class);
+        when(publisher.getNodeId()).thenReturn("node-a");
+        registry = new SimpleMeterRegistry();
+        manager = new TwoTierCacheManager(redisStandIn, Map.of("currentUserInfo", Duration.ofMinutes(5)),
+                Duration.ofMinutes(30), 100, publisher, registry);
+    }
+
+    private double count(String tier, String result) {
+        return registry.get("cache.tier.gets")
+                .tag("cache", "currentUserInfo").tag("tier", tier).tag("result", result)
+                .counter().count();
+    }
+
+    private ConcurrentMapCache l2() {
+        return (ConcurrentMapCache) redisStandIn.getCache("currentUserInfo");
+    }
+
+    @Test
+    @DisplayName("second read is served from L1 without touching L2")
+    void second_read_hits_l1() {
+        // given
+        var cache = manager.getCache("currentUserInfo");
+        l2().put("john", "info");
+
+        // when
+        var first = cache.get("john");
+        l2().evict("john");
+        var second = cache.get("john");
+
+        // then
+        assertThat(first.get()).isEqualTo("info");
+        assertThat(second.get()).isEqualTo("info");
+        assertThat(count("l1", "miss")).isEqualTo(1);
+        assertThat(count("l2", "hit")).isEqualTo(1);
+        assertThat(count("l1", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("miss on both tiers is counted and not stored locally")
+    void miss_on_both_tiers() {
+        // when
+        var value = manager.getCache("currentUserInfo").get("ghost");
+
+        // then
+        assertThat(value).isNull();
+        assertThat(count("l1", "miss")).isEqualTo(1);
+        assertThat(count("l2", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("evict removes both tiers and broadcasts the key to peers")
+    void evict_broadcasts() {
+        // given
+        var cache = manager.getCache("currentUserInfo");
+        cache.put("john", "info");
+
+        // when
+        cache.evict("john");
+
+        // then
+        assertThat(l2().get("john")).isNull();
+        assertThat(cache.get("john")).isNull();
+        verify(publisher, times(2)).publish("currentUserInfo", "john");
+    }
+
+    @Test
+    @DisplayName("clear broadcasts a whole-cache invalidation")
+    void clear_broadcasts() {
+        // when
+        manager.getCache("currentUserInfo").clear();
+
+        // then
+        verify(publisher).publish(eq("currentUserInfo"), isNull());
+    }
+
+    @Test
+    @DisplayName("peer invalidation drops the local copy so the next read goes to L2")
+    void remote_invalidation_drops_local_copy() {
+        // given
+        var cache = manager.getCache("currentUserInfo");
+        cache.put("john", "old");
+        l2().put("john", "new");
+
+        // when
+        manager.onRemoteInvalidation(new CacheInvalidationMessage("node-b", "currentUserInfo", "john"));
+
+        // then
+        assertThat(cache.get("john").get()).isEqualTo("new");
+    }
+
+    @Test
+    @DisplayName("peer invalidation during a load keeps the loaded value out of L1")
+    void remote_invalidation_during_load_is_not_lost() {
+        // given
+        var cache = manager.getCache("currentUserInfo");
+
+        // when: a peer updates the user while this node is still loading the old value
+        var loaded = cache.get("john", () -> {
+            manager.onRemoteInvalidation(new CacheInvalidationMessage("node-b", "currentUserInfo", "john"));
+            return "old";
+        });
+        l2().put("john", "new");
+
+        // then
+        assertThat(loaded).isEqualTo("old");
+        assertThat(cache.get("john").get()).isEqualTo("new");
+    }
+
+    @Test
+    @DisplayName("own invalidation messages are ignored")
+    void own_invalidation_is_ignored() {
+        // given
+        var cache = manager.getCache("currentUserInfo");
+        cache.put("john", "old");
+        l2().put("john", "new");
+
+        // when
+        manager.onRemoteInvalidation(new CacheInvalidationMessage("node-a", "currentUserInfo", "john"));
+
+        // then
+        assertThat(cache.get("john").get()).isEqualTo("old");
+    }
+
+    @Test
+    @DisplayName("numeric keys are invalidated by their string form")
+    void numeric_keys_match_remote_string_keys() {
+        // given
+        var l2 = new ConcurrentMapCacheManager("userInfoById");
+        manager = new TwoTierCacheManager(l2, Map.of(), Duration.ofMinutes(30), 100, publisher, registry);
+        var cache = manager.getCache("userInfoById");
+        cache.put(5L, "info");
+        l2.getCache("userInfoById").evict(5L);
+
+        // when
+        manager.onRemoteInvalidation(new CacheInvalidationMessage("node-b", "userInfoById", "5"));
+
+        // then
+        assertThat(cache.get(5L)).isNull();
+    }
+}
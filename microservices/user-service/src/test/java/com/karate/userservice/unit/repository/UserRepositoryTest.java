@@ -3,11 +3,13 @@ package com.karate.userservice.unit.repository;
 import com.karate.userservice.domain.model.AddressEntity;
 import com.karate.userservice.domain.model.KarateRank;
 import com.karate.userservice.domain.model.UserEntity;
+import com.karate.userservice.domain.model.dto.ClubMemberView;
 import com.karate.userservice.domain.repository.UserRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -51,6 +53,28 @@ class UserRepositoryTest {
         assertThat(list).extracting(UserEntity::getUserId).containsExactlyInAnyOrder(1L, 2L);
     }
 
+    @Test
+    @DisplayName("keyset roster query returns projections after the cursor in id order")
+    void keyset_roster_query_returns_projection_page() {
+        // given
+        userRepository.save(user(21L, "a@ex.com", 10L, KarateRank.KYU_10));
+        userRepository.save(user(22L, "b@ex.com", 10L, KarateRank.DAN_1));
+        userRepository.save(user(23L, "c@ex.com", 10L, KarateRank.KYU_9));
+        userRepository.save(user(24L, "d@ex.com", 11L, KarateRank.DAN_1));
+        userRepository.save(user(25L, "e@ex.com", 10L, KarateRank.DAN_1));
+
+        // when
+        List<ClubMemberView> page = userRepository
+                .findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(10L, 21L, Limit.of(2));
+        List<ClubMemberView> dans = userRepository
+                .findByKarateClubIdAndKarateRankAndUserIdGreaterThanOrderByUserIdAsc(10L, KarateRank.DAN_1, 0L, Limit.of(10));
+
+        // then
+        assertThat(page).extracting(ClubMemberView::userId).containsExactly(22L, 23L);
+        assertThat(page.get(0).email()).isEqualTo("b@ex.com");
+        assertThat(dans).extracting(ClubMemberView::userId).containsExactly(22L, 25L);
+    }
+
     @Test
     @DisplayName("existsById returns true when user exists")
     void exists_by_id_true_when_user_exists() {
@@ -8,7 +8,6 @@ import com.karate.userservice.infrastructure.client.dto.KarateClubDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -25,12 +24,12 @@ class UpstreamGatewayTest {
     @Mock
     private KarateClubClient clubClient;
 
-    @InjectMocks
     private UpstreamGateway gateway;
 
     @BeforeEach
     void init() {
         MockitoAnnotations.openMocks(this);
+        gateway = new UpstreamGateway(authClient, clubClient, Runnable::run);
     }
 
     @Test
@@ -0,0 +1,211 @@
+package com.karate.userservice.unit.service;
+
+import com.karate.userservice.api.dto.AddressRequestDto;
+import com.karate.userservice.api.dto.NewUserRequestDto;
+import com.karate.userservice.api.dto.UpdateUserRequestDto;
+import com.karate.userservice.domain.exception.UpstreamUnavailableException;
+import com.karate.userservice.domain.model.AddressEntity;
+import com.karate.userservice.domain.model.KarateRank;
+import com.karate.userservice.domain.model.UserEntity;
+import com.karate.userservice.domain.model.dto.AddressDto;
+import com.karate.userservice.domain.repository.UserRepository;
+import com.karate.userservice.domain.service.UpstreamGateway;
+import com.karate.userservice.domain.service.UserService;
+import com.karate.userservice.infrastructure.client.dto.AuthUserDto;
+import com.karate.userservice.infrastructure.client.dto.KarateClubDto;
+import com.karate.userservice.infrastructure.messaging.UserEventPublisher;
+import com.karate.userservice.infrastructure.redis.ClubRosterPageIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceCacheEvictionTest {
+
+    private UserRepository userRepository;
+    private UpstreamGateway upstream;
+    private CacheManager cacheManager;
+    private ClubRosterPageIndex rosterPageIndex;
+    private UserService service;
+
+    @BeforeEach
+    void init() {
+        userRepository = mock(UserRepository.class);
+        upstream = mock(UpstreamGateway.class);
+        cacheManager = new ConcurrentMapCacheManager(
+                "currentUserInfo", "userInfoById", "userClubIdByUsername", "userExists",
+                "userPayloadById", "usersByClubName", "usersByClubPage", "authUserById", "authUserByUsername");
+        rosterPageIndex = mock(ClubRosterPageIndex.class);
+        service = new UserService(userRepository, upstream, mock(UserEventPublisher.class), cacheManager,
+                rosterPageIndex);
+
+        when(upstream.getClubById(5L)).thenReturn(new KarateClubDto(5L, "Tokyo"));
+        when(upstream.getClubById(6L)).thenReturn(new KarateClubDto(6L, "Osaka"));
+
+        // john (id 10, TOKYO) and mary (id 11, OSAKA) are both warm in every cache
+        warm(10L, "john", "TOKYO");
+        warm(11L, "mary", "OSAKA");
+    }
+
+    private void warm(Long userId, String username, String clubKey) {
+        cacheManager.getCache("currentUserInfo").put(username, "info-" + username);
+        cacheManager.getCache("userClubIdByUsername").put(username, 1L);
+        cacheManager.getCache("authUserByUsername").put(username, "auth-" + username);
+        cacheManager.getCache("userInfoById").put(userId, "info-" + userId);
+        cacheManager.getCache("userExists").put(userId, true);
+        cacheManager.getCache("userPayloadById").put(userId, "payload-" + userId);
+        cacheManager.getCache("authUserById").put(userId, "auth-" + userId);
+        cacheManager.getCache("usersByClubName").put(clubKey, List.of());
+    }
+
+    private boolean cached(String cache, Object key) {
+        return cacheManager.getCache(cache).get(key) != null;
+    }
+
+    private static UserEntity user(Long id, Long clubId) {
+        var addr = AddressEntity.builder().city("C").street("S").number("1").postalCode("00-000").build();
+        var u = UserEntity.builder()
+                .userId(id).email("x@y").karateClubId(clubId).karateRank(KarateRank.KYU_9)
+                .registrationDate(LocalDate.now()).addressEntity(addr).build();
+        addr.setUserEntity(u);
+        return u;
+    }
+
+    private void assertMaryStillCached() {
+        assertThat(cached("currentUserInfo", "mary")).isTrue();
+        assertThat(cached("userClubIdByUsername", "mary")).isTrue();
+        assertThat(cached("authUserByUsername", "mary")).isTrue();
+        assertThat(cached("userInfoById", 11L)).isTrue();
+        assertThat(cached("userExists", 11L)).isTrue();
+        assertThat(cached("userPayloadById", 11L)).isTrue();
+        assertThat(cached("authUserById", 11L)).isTrue();
+        assertThat(cached("usersByClubName", "OSAKA")).isTrue();
+    }
+
+    @Test
+    @DisplayName("updateCurrentUser evicts only the renamed user's keys and their club roster")
+    void update_evicts_only_affected_user() {
+        // given
+        when(upstream.getAuthUserByUsername("john")).thenReturn(new AuthUserDto(10L, "john", Set.of("ROLE_USER")));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user(10L, 5L)));
+        when(upstream.updateUsername(10L, "johnny")).thenReturn(CompletableFuture.completedFuture(null));
+        cacheManager.getCache("currentUserInfo").put("johnny", "stale");
+
+        // when
+        service.updateCurrentUser("john", new UpdateUserRequestDto("johnny", "new@x",
+                new AddressRequestDto("C", "S", "2", "11-111")));
+
+        // then
+        assertThat(cached("currentUserInfo", "john")).isFalse();
+        assertThat(cached("currentUserInfo", "johnny")).isFalse();
+        assertThat(cached("userClubIdByUsername", "john")).isFalse();
+        assertThat(cached("authUserByUsername", "john")).isFalse();
+        assertThat(cached("userInfoById", 10L)).isFalse();
+        assertThat(cached("userPayloadById", 10L)).isFalse();
+        assertThat(cached("authUserById", 10L)).isFalse();
+        assertThat(cached("usersByClubName", "TOKYO")).isFalse();
+        assertMaryStillCached();
+    }
+
+    @Test
+    @DisplayName("patchCurrentUser without rename evicts the current username only")
+    void patch_evicts_current_username() {
+        // given
+        when(upstream.getAuthUserByUsername("john")).thenReturn(new AuthUserDto(10L, "john", Set.of("ROLE_USER")));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user(10L, 5L)));
+
+        // when
+        service.patchCurrentUser("john", new UpdateUserRequestDto(null, "patched@x", null));
+
+        // then
+        assertThat(cached("currentUserInfo", "john")).isFalse();
+        assertThat(cached("userInfoById", 10L)).isFalse();
+        assertThat(cached("usersByClubName", "TOKYO")).isFalse();
+        assertMaryStillCached();
+    }
+
+    @Test
+    @DisplayName("deleteCurrentUser evicts the deleted user's keys including userExists")
+    void delete_evicts_deleted_user() {
+        // given
+        when(upstream.getAuthUserByUsername("john")).thenReturn(new AuthUserDto(10L, "john", Set.of("ROLE_USER")));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user(10L, 5L)));
+
+        // when
+        service.deleteCurrentUser("john");
+
+        // then
+        assertThat(cached("userExists", 10L)).isFalse();
+        assertThat(cached("currentUserInfo", "john")).isFalse();
+        assertThat(cached("usersByClubName", "TOKYO")).isFalse();
+        assertMaryStillCached();
+    }
+
+    @Test
+    @DisplayName("createUser evicts the new id and the roster of its club")
+    void create_evicts_new_user_and_roster() {
+        // given
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        cacheManager.getCache("userExists").put(12L, false);
+
+        // when
+        service.createUser(new NewUserRequestDto(12L, "n@x", 5L, "KYU_9",
+                new AddressDto("C", "S", "1", "00-000")));
+
+        // then
+        assertThat(cached("userExists", 12L)).isFalse();
+        assertThat(cached("usersByClubName", "TOKYO")).isFalse();
+        assertThat(cached("currentUserInfo", "john")).isTrue();
+        assertMaryStillCached();
+    }
+
+    @Test
+    @DisplayName("only the roster pages covering the changed user are evicted")
+    void evicts_only_roster_pages_covering_user() {
+        // given
+        var pages = cacheManager.getCache("usersByClubPage");
+        pages.put("5:*:*:50:0", "page-1");
+        pages.put("5:*:*:50:9", "page-2");
+        pages.put("5:*:*:50:40", "page-3");
+        when(rosterPageIndex.takePagesCovering(5L, 10L)).thenReturn(List.of("5:*:*:50:9"));
+        when(upstream.getAuthUserByUsername("john")).thenReturn(new AuthUserDto(10L, "john", Set.of("ROLE_USER")));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user(10L, 5L)));
+
+        // when
+        service.patchCurrentUser("john", new UpdateUserRequestDto(null, "patched@x", null));
+
+        // then
+        assertThat(cached("usersByClubPage", "5:*:*:50:9")).isFalse();
+        assertThat(cached("usersByClubPage", "5:*:*:50:0")).isTrue();
+        assertThat(cached("usersByClubPage", "5:*:*:50:40")).isTrue();
+    }
+
+    @Test
+    @DisplayName("roster cache is cleared as a fallback when the club name cannot be resolved")
+    void roster_cleared_when_club_unresolved() {
+        // given
+        when(upstream.getClubById(5L)).thenThrow(new UpstreamUnavailableException("club-service unavailable", null));
+        when(upstream.getAuthUserByUsername("john")).thenReturn(new AuthUserDto(10L, "john", Set.of("ROLE_USER")));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(user(10L, 5L)));
+
+        // when
+        service.patchCurrentUser("john", new UpdateUserRequestDto(null, "patched@x", null));
+
+        // then
+        assertThat(cached("usersByClubName", "TOKYO")).isFalse();
+        assertThat(cached("usersByClubName", "OSAKA")).isFalse();
+        assertThat(cached("currentUserInfo", "mary")).isTrue();
+    }
+}
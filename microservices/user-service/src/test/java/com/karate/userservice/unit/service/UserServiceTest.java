@@ -9,21 +9,29 @@ import com.karate.userservice.domain.model.AddressEntity;
 import com.karate.userservice.domain.model.KarateRank;
 import com.karate.userservice.domain.model.UserEntity;
 import com.karate.userservice.domain.model.dto.AddressDto;
+import com.karate.userservice.domain.model.dto.ClubMemberView;
 import com.karate.userservice.domain.repository.UserRepository;
 import com.karate.userservice.domain.service.UpstreamGateway;
 import com.karate.userservice.domain.service.UserService;
 import com.karate.userservice.infrastructure.client.dto.AuthUserDto;
 import com.karate.userservice.infrastructure.client.dto.KarateClubDto;
 import com.karate.userservice.infrastructure.messaging.UserEventPublisher;
+import com.karate.userservice.infrastructure.redis.ClubRosterPageIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -40,6 +48,10 @@ class UserServiceTest {
     private UpstreamGateway upstream;
     @Mock
     private UserEventPublisher userEventPublisher;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private ClubRosterPageIndex rosterPageIndex;
     @InjectMocks
     private UserService service;
 
@@ -72,8 +84,10 @@ class UserServiceTest {
         var u1 = user(10L, "a@b", 5L, KarateRank.KYU_10);
         var u2 = user(11L, "c@d", 5L, KarateRank.KYU_9);
         when(userRepository.findAllByKarateClubId(5L)).thenReturn(List.of(u1, u2));
-        when(upstream.getAuthUserByUserId(10L)).thenReturn(new AuthUserDto(10L, "john", Set.of("ROLE_USER")));
-        when(upstream.getAuthUserByUserId(11L)).thenReturn(new AuthUserDto(11L, "mary", Set.of("ROLE_ADMIN")));
+        when(upstream.getAuthUsers(List.of(10L, 11L))).thenReturn(Map.of(
+                10L, new AuthUserDto(10L, "john", Set.of("ROLE_USER")),
+                11L, new AuthUserDto(11L, "mary", Set.of("ROLE_ADMIN"))
+        ));
 
         // when
         var out = service.getUsersFromClubByName("TOKYO");
@@ -96,6 +110,52 @@ class UserServiceTest {
         // then
         assertThat(out).isEmpty();
         verify(upstream, never()).getAuthUserByUserId(anyLong());
+        verify(upstream, never()).getAuthUsers(any());
+    }
+
+    @Test
+    @DisplayName("getUsersFromClubByName resolves auth users in chunks instead of one call per member")
+    void get_users_from_club_by_name_batches_auth_lookups() {
+        // given
+        int size = UserService.AUTH_USERS_BATCH_SIZE * 2 + 1;
+        when(upstream.getClubByName("BIG")).thenReturn(new KarateClubDto(9L, "BIG"));
+        var members = new ArrayList<UserEntity>();
+        for (long id = 1; id <= size; id++) {
+            members.add(user(id, id + "@x", 9L, KarateRank.KYU_10));
+        }
+        when(userRepository.findAllByKarateClubId(9L)).thenReturn(members);
+        when(upstream.getAuthUsers(any())).thenAnswer(inv -> {
+            Iterable<Long> ids = inv.getArgument(0);
+            var out = new HashMap<Long, AuthUserDto>();
+            ids.forEach(id -> out.put(id, new AuthUserDto(id, "u" + id, Set.of("ROLE_USER"))));
+            return out;
+        });
+
+        // when
+        var out = service.getUsersFromClubByName("BIG");
+
+        // then
+        assertThat(out).hasSize(size);
+        verify(upstream, times(3)).getAuthUsers(any());
+        verify(upstream, never()).getAuthUserByUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("getUsersFromClubByName skips members that auth-service does not know")
+    void get_users_from_club_by_name_skips_unknown_auth_users() {
+        // given
+        when(upstream.getClubByName("TOKYO")).thenReturn(new KarateClubDto(5L, "TOKYO"));
+        var u1 = user(10L, "a@b", 5L, KarateRank.KYU_10);
+        var u2 = user(11L, "c@d", 5L, KarateRank.KYU_9);
+        when(userRepository.findAllByKarateClubId(5L)).thenReturn(List.of(u1, u2));
+        when(upstream.getAuthUsers(List.of(10L, 11L)))
+                .thenReturn(Map.of(10L, new AuthUserDto(10L, "john", Set.of("ROLE_USER"))));
+
+        // when
+        var out = service.getUsersFromClubByName("TOKYO");
+
+        // then
+        assertThat(out).extracting(UserFromClubDto::userId).containsExactly(10L);
     }
 
     // ---------------- createUser ----------------
@@ -117,6 +177,40 @@ class UserServiceTest {
         verify(userRepository).save(any());
     }
 
+    @Test
+    @DisplayName("createUser returns the existing ID when the account was already created")
+    void create_user_is_idempotent_on_user_id() {
+        // given
+        var req = new NewUserRequestDto(
+                55L, "mail@ex.com", 3L, "KYU_8",
+                new AddressDto("City", "Street", "12", "00-111")
+        );
+        when(userRepository.existsById(55L)).thenReturn(true);
+
+        // when
+        Long id = service.createUser(req);
+
+        // then
+        assertThat(id).isEqualTo(55L);
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("deleteUnregisteredUser removes the account without publishing UserDeleted")
+    void delete_unregistered_user_removes_account_silently() {
+        // given
+        var user = user(56L, "a@b", 5L, KarateRank.KYU_10);
+        when(userRepository.findById(56L)).thenReturn(Optional.of(user));
+
+        // when
+        service.deleteUnregisteredUser(56L);
+        service.deleteUnregisteredUser(57L);
+
+        // then
+        verify(userRepository).delete(user);
+        verify(userEventPublisher, never()).publishUserDeleted(any());
+    }
+
     // ---------------- getUserById ----------------
     @Test
     @DisplayName("getUserById returns dto when user exists")
@@ -300,6 +394,7 @@ class UserServiceTest {
         assertThat(ent.getAddressEntity().getStreet()).isEqualTo("D");
         assertThat(ent.getAddressEntity().getNumber()).isEqualTo("2");
         assertThat(ent.getAddressEntity().getPostalCode()).isEqualTo("11-111");
+        verify(userEventPublisher).publishUserUpdated(77L, "new@ex", "newjohn", 1L, "KYU_9");
     }
 
     @Test
@@ -317,6 +412,7 @@ class UserServiceTest {
                 .hasMessage(UserService.USER_NOT_FOUND);
         verify(upstream, never()).updateUsername(anyLong(), anyString());
         verify(userRepository, never()).save(any());
+        verifyNoInteractions(userEventPublisher);
     }
 
     // ---------------- patchCurrentUser ----------------
@@ -359,6 +455,7 @@ class UserServiceTest {
         // then
         assertThat(ent.getEmail()).isEqualTo("new@ex");
         verify(userRepository).save(ent);
+        verify(userEventPublisher).publishUserUpdated(1L, "new@ex", "u", 1L, "KYU_10");
     }
 
     @Test
@@ -436,8 +533,10 @@ class UserServiceTest {
         var u1 = user(10L, "a@b", 5L, KarateRank.KYU_10);
         var u2 = user(11L, "c@d", 5L, KarateRank.KYU_9);
         when(userRepository.findAllByKarateClubId(5L)).thenReturn(List.of(u1, u2));
-        when(upstream.getAuthUserByUserId(10L)).thenReturn(new AuthUserDto(10L, "john", Set.of("ROLE_USER")));
-        when(upstream.getAuthUserByUserId(11L)).thenReturn(new AuthUserDto(11L, "mary", Set.of("ROLE_ADMIN")));
+        when(upstream.getAuthUsers(List.of(10L, 11L))).thenReturn(Map.of(
+                10L, new AuthUserDto(10L, "john", Set.of("ROLE_USER")),
+                11L, new AuthUserDto(11L, "mary", Set.of("ROLE_ADMIN"))
+        ));
 
         // when
         var out = service.getUsersFromClubByName("TOKYO");
@@ -457,6 +556,118 @@ class UserServiceTest {
         assertThat(mary.karateRank()).isEqualTo(KarateRank.KYU_9.toString());
     }
 
+    // ---------------- getUsersFromClubPage ----------------
+    private static ClubMemberView member(long id, KarateRank rank) {
+        return new ClubMemberView(id, id + "@x", rank);
+    }
+
+    private void stubAuthUsers(String adminIdsCsv) {
+        var admins = Set.of(adminIdsCsv.split(","));
+        when(upstream.getAuthUsers(any())).thenAnswer(inv -> {
+            Iterable<Long> ids = inv.getArgument(0);
+            var out = new HashMap<Long, AuthUserDto>();
+            ids.forEach(id -> out.put(id, new AuthUserDto(id, "u" + id,
+                    Set.of(admins.contains(String.valueOf(id)) ? "ROLE_ADMIN" : "ROLE_USER"))));
+            return out;
+        });
+    }
+
+    @Test
+    @DisplayName("getUsersFromClubPage returns one keyset page with a cursor to the next one")
+    void get_users_from_club_page_returns_keyset_page() {
+        // given
+        when(upstream.getClubByName("TOKYO")).thenReturn(new KarateClubDto(5L, "TOKYO"));
+        when(userRepository.findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(5L, 0L, Limit.of(2)))
+                .thenReturn(List.of(member(10, KarateRank.KYU_9), member(11, KarateRank.KYU_8)));
+        stubAuthUsers("");
+
+        // when
+        var page = service.getUsersFromClubPage("TOKYO", null, 2, null, null);
+
+        // then
+        assertThat(page.items()).extracting(UserFromClubDto::userId).containsExactly(10L, 11L);
+        assertThat(page.nextCursor()).isEqualTo(11L);
+        verify(userRepository, never()).findAllByKarateClubId(anyLong());
+    }
+
+    @Test
+    @DisplayName("getUsersFromClubPage returns no cursor on the last page")
+    void get_users_from_club_page_last_page_has_no_cursor() {
+        // given
+        when(upstream.getClubByName("TOKYO")).thenReturn(new KarateClubDto(5L, "TOKYO"));
+        when(userRepository.findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(5L, 11L, Limit.of(2)))
+                .thenReturn(List.of(member(12, KarateRank.KYU_9)));
+        stubAuthUsers("");
+
+        // when
+        var page = service.getUsersFromClubPage("TOKYO", 11L, 2, null, null);
+
+        // then
+        assertThat(page.items()).extracting(UserFromClubDto::userId).containsExactly(12L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getUsersFromClubPage keeps scanning batches until a role-filtered page is full")
+    void get_users_from_club_page_filters_by_role() {
+        // given
+        when(upstream.getClubByName("TOKYO")).thenReturn(new KarateClubDto(5L, "TOKYO"));
+        when(userRepository.findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(5L, 0L, Limit.of(2)))
+                .thenReturn(List.of(member(10, KarateRank.KYU_9), member(11, KarateRank.KYU_8)));
+        when(userRepository.findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(5L, 11L, Limit.of(2)))
+                .thenReturn(List.of(member(12, KarateRank.KYU_9), member(13, KarateRank.KYU_8)));
+        when(userRepository.findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(5L, 13L, Limit.of(2)))
+                .thenReturn(List.of());
+        stubAuthUsers("11,13");
+
+        // when
+        var page = service.getUsersFromClubPage("TOKYO", null, 2, null, "admin");
+
+        // then
+        assertThat(page.items()).extracting(UserFromClubDto::userId).containsExactly(11L, 13L);
+        assertThat(page.nextCursor()).isEqualTo(13L);
+    }
+
+    @Test
+    @DisplayName("getUsersFromClubPage uses the rank-filtered projection query")
+    void get_users_from_club_page_filters_by_rank() {
+        // given
+        when(upstream.getClubByName("TOKYO")).thenReturn(new KarateClubDto(5L, "TOKYO"));
+        when(userRepository.findByKarateClubIdAndKarateRankAndUserIdGreaterThanOrderByUserIdAsc(
+                5L, KarateRank.DAN_1, 0L, Limit.of(50)))
+                .thenReturn(List.of(member(20, KarateRank.DAN_1)));
+        stubAuthUsers("");
+
+        // when
+        var page = service.getUsersFromClubPage("TOKYO", null, 50, KarateRank.DAN_1, null);
+
+        // then
+        assertThat(page.items()).singleElement().satisfies(u -> assertThat(u.karateRank()).isEqualTo("DAN_1"));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getUsersFromClubPage caches each page under its own key and registers its range")
+    void get_users_from_club_page_caches_page() {
+        // given
+        var cache = new ConcurrentMapCache("usersByClubPage");
+        when(cacheManager.getCache("usersByClubPage")).thenReturn(cache);
+        when(upstream.getClubByName("TOKYO")).thenReturn(new KarateClubDto(5L, "TOKYO"));
+        when(userRepository.findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(5L, 0L, Limit.of(2)))
+                .thenReturn(List.of(member(10, KarateRank.KYU_9), member(11, KarateRank.KYU_8)));
+        stubAuthUsers("");
+
+        // when
+        var first = service.getUsersFromClubPage("TOKYO", null, 2, null, null);
+        var second = service.getUsersFromClubPage("TOKYO", null, 2, null, null);
+
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(cache.get("5:*:*:2:0")).isNotNull();
+        verify(rosterPageIndex).register(5L, "5:*:*:2:0", 11L);
+        verify(userRepository, times(1)).findByKarateClubIdAndUserIdGreaterThanOrderByUserIdAsc(5L, 0L, Limit.of(2));
+    }
+
     // --- createUser invalid rank ---
     @Test
     @DisplayName("createUser throws IllegalArgumentException when karateRank is invalid")